@@ -0,0 +1,24 @@
+package com.playvora.playvora_api.app;
+
+import com.playvora.playvora_api.user.entities.UserRole;
+
+import java.util.UUID;
+
+/**
+ * Immutable copy of an active {@link UserRole}: what the principal cache and {@code UserRoleContext}
+ * hold instead of the JPA entity, so no request can observe another request's changes to it.
+ */
+public record ActiveUserRole(UUID id, UUID userId, String roleName, UUID communityId) {
+
+    public static ActiveUserRole of(UserRole userRole) {
+        return new ActiveUserRole(
+                userRole.getId(),
+                userRole.getUser() != null ? userRole.getUser().getId() : null,
+                userRole.getRole() != null ? userRole.getRole().getName() : null,
+                userRole.getCommunity() != null ? userRole.getCommunity().getId() : null);
+    }
+
+    public boolean isCommunityRole() {
+        return communityId != null;
+    }
+}
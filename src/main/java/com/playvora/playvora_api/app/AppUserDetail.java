@@ -1,18 +1,54 @@
 package com.playvora.playvora_api.app;
 
+import com.playvora.playvora_api.user.dtos.UserPrincipalRow;
 import com.playvora.playvora_api.user.entities.User;
-import lombok.AllArgsConstructor;
+import com.playvora.playvora_api.user.entities.UserRole;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
-@AllArgsConstructor
+/**
+ * The authenticated principal: an immutable snapshot of the user's id, credentials and active roles,
+ * taken when it is loaded. It is shared across requests through the principal cache, so it never holds
+ * the {@link User} entity; services load a managed {@code User} by id when they need one.
+ */
 public class AppUserDetail implements UserDetails {
-    private final User user;
+    private final UUID userId;
+    private final String email;
+    private final String password;
+    private final List<ActiveUserRole> activeRoles;
+
+    public AppUserDetail(User user) {
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.password = user.getPassword();
+        this.activeRoles = user.getUserRoles() == null ? List.of() : user.getUserRoles().stream()
+                .filter(UserRole::isActive)
+                .map(ActiveUserRole::of)
+                .toList();
+    }
+
+    /**
+     * The principal from the user's credential rows (see {@code UserRepository.findPrincipalRowsByEmail}),
+     * without loading the {@link User} entity.
+     */
+    public AppUserDetail(List<UserPrincipalRow> rows) {
+        UserPrincipalRow user = rows.get(0);
+        this.userId = user.userId();
+        this.email = user.email();
+        this.password = user.password();
+        this.activeRoles = rows.stream()
+                .filter(row -> row.userRoleId() != null)
+                .map(row -> new ActiveUserRole(row.userRoleId(), row.userId(), row.roleName(), row.communityId()))
+                .toList();
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -23,24 +59,38 @@ public class AppUserDetail implements UserDetails {
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
     public  String getPassword() {
-        return user.getPassword();
+        return password;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public List<ActiveUserRole> getActiveRoles() {
+        return activeRoles;
+    }
+
+    public Optional<ActiveUserRole> findActiveRole(UUID userRoleId) {
+        return activeRoles.stream()
+                .filter(userRole -> userRole.id().equals(userRoleId))
+                .findFirst();
     }
 
     public Set<String> getGlobalRoles() {
-        return user.getUserRoles().stream()
-        .filter(userRole -> userRole.isActive() && userRole.getCommunity() == null)
-        .map(userRole -> userRole.getRole().getName())
+        return activeRoles.stream()
+        .filter(userRole -> !userRole.isCommunityRole())
+        .map(ActiveUserRole::roleName)
         .collect(Collectors.toSet());
     }
     public Set<String> getCommunityRoles() {
-        return user.getUserRoles().stream()
-        .filter(userRole -> userRole.isActive() && userRole.getCommunity() != null)
-        .map(userRole -> userRole.getRole().getName())
+        return activeRoles.stream()
+        .filter(ActiveUserRole::isCommunityRole)
+        .map(ActiveUserRole::roleName)
         .collect(Collectors.toSet());
     }
 
@@ -63,8 +113,4 @@ public class AppUserDetail implements UserDetails {
     public boolean isEnabled() {
         return true;
     }
-
-    public User getUser() {
-        return user;
-    }
 }
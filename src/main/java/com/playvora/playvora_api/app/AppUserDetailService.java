@@ -1,6 +1,6 @@
 package com.playvora.playvora_api.app;
 
-import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.user.dtos.UserPrincipalRow;
 import com.playvora.playvora_api.user.repo.UserRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -8,6 +8,8 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @AllArgsConstructor
 public class AppUserDetailService implements UserDetailsService {
@@ -16,8 +18,10 @@ public class AppUserDetailService implements UserDetailsService {
     
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmailWithRoles(email)
-                .orElseThrow(() -> new UsernameNotFoundException("user not found with email:" + email));
-        return new AppUserDetail(user);
+        List<UserPrincipalRow> rows = userRepository.findPrincipalRowsByEmail(email);
+        if (rows.isEmpty()) {
+            throw new UsernameNotFoundException("user not found with email:" + email);
+        }
+        return new AppUserDetail(rows);
     }
 }
@@ -1,6 +1,5 @@
 package com.playvora.playvora_api.auth.services.impl;
 
-import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.auth.dtos.AuthResponse;
 import com.playvora.playvora_api.auth.entities.RefreshToken;
 import com.playvora.playvora_api.auth.repo.RefreshTokenRepository;
@@ -24,6 +23,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.playvora.playvora_api.user.enums.AuthProvider;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
@@ -39,6 +39,7 @@ public class AuthenticationService implements IAuthenticationService {
     private final IJwtService jwtService;
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
+    private final IPrincipalCacheService principalCacheService;
 
 
    
@@ -60,15 +61,9 @@ public class AuthenticationService implements IAuthenticationService {
     public String generateRefreshTokenForLocalLogin(UserDetails userDetails) {
         String token = jwtService.generateLongLivedRefreshTokenForLocalLogin(userDetails);
         
-        // Get User entity from UserDetails
-        User user = null;
-        if (userDetails instanceof AppUserDetail) {
-            user = ((AppUserDetail) userDetails).getUser();
-        } else {
-            // Fallback: fetch user by email
-            user = userRepository.findByEmail(userDetails.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-        }
+        // Load the User entity; the principal only carries a snapshot of it
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Extract expiration date from token
         Date expirationDate = jwtService.extractExpiration(token);
@@ -198,6 +193,7 @@ public class AuthenticationService implements IAuthenticationService {
             rt.setRevoked(true);
             refreshTokenRepository.save(rt);
         });
+        principalCacheService.evictUser(user.getEmail());
     }
 
     
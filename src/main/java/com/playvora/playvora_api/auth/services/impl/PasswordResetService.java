@@ -8,6 +8,7 @@ import com.playvora.playvora_api.common.services.IMailService;
 import com.playvora.playvora_api.user.entities.User;
 import com.playvora.playvora_api.user.enums.AuthProvider;
 import com.playvora.playvora_api.user.repo.UserRepository;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.Base64;
@@ -29,6 +30,7 @@ public class PasswordResetService implements IPasswordResetService {
     private final UserRepository userRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final PasswordEncoder passwordEncoder;
+    private final IPrincipalCacheService principalCacheService;
     private final IMailService mailService;
 
     @Value("${application.frontend.url}")
@@ -101,6 +103,7 @@ public class PasswordResetService implements IPasswordResetService {
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCacheService.evictUser(user.getEmail());
 
         resetToken.setUsed(true);
         passwordResetTokenRepository.save(resetToken);
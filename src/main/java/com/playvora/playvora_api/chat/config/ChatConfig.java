@@ -0,0 +1,33 @@
+package com.playvora.playvora_api.chat.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ChatConfig {
+
+    /**
+     * Applies sent chat messages to read markers and inbox rows. A community message updates a row
+     * per member, so this work is kept off the send path. When the queue is full the sender's thread
+     * does the update itself: senders slow down instead of inbox updates being lost.
+     */
+    @Bean(defaultCandidate = false)
+    public ThreadPoolTaskExecutor conversationSummaryExecutor(
+            @Value("${app.chat.conversation-summary.workers:2}") int workers,
+            @Value("${app.chat.conversation-summary.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("chat-summary-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,5 +1,6 @@
 package com.playvora.playvora_api.chat.controllers;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.chat.dtos.ActiveChatSummaryResponse;
 import com.playvora.playvora_api.chat.enums.ChatType;
@@ -13,18 +14,18 @@ import com.playvora.playvora_api.chat.repo.CommunityChatMessageRepository;
 import com.playvora.playvora_api.chat.repo.CommunityChatReadStateRepository;
 import com.playvora.playvora_api.chat.repo.PrivateChatMessageRepository;
 import com.playvora.playvora_api.chat.repo.PrivateChatReadStateRepository;
+import com.playvora.playvora_api.chat.services.IChatInboxService;
+import com.playvora.playvora_api.chat.services.IConversationSummaryService;
 import com.playvora.playvora_api.common.dto.ApiResponse;
+import com.playvora.playvora_api.common.dto.CursorPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.common.utils.PaginationUtils;
-import com.playvora.playvora_api.community.entities.Community;
 import com.playvora.playvora_api.community.repo.CommunityMemberRepository;
 import com.playvora.playvora_api.community.repo.CommunityRepository;
 import com.playvora.playvora_api.match.dtos.chat.ChatMessageResponse;
 import com.playvora.playvora_api.match.entities.ChatMessage;
-import com.playvora.playvora_api.match.entities.Match;
 import com.playvora.playvora_api.match.entities.MatchChatReadState;
-import com.playvora.playvora_api.match.entities.MatchRegistration;
 import com.playvora.playvora_api.match.repo.ChatMessageRepository;
 import com.playvora.playvora_api.match.repo.MatchChatReadStateRepository;
 import com.playvora.playvora_api.match.repo.MatchRegistrationRepository;
@@ -39,7 +40,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -50,11 +53,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -75,6 +73,8 @@ public class ChatHistoryController {
     private final ChatMessageRepository chatMessageRepository;
     private final MatchRegistrationRepository matchRegistrationRepository;
     private final MatchChatReadStateRepository matchChatReadStateRepository;
+    private final IChatInboxService chatInboxService;
+    private final IConversationSummaryService conversationSummaryService;
 
     @GetMapping("/active")
     @Operation(
@@ -94,48 +94,8 @@ public class ChatHistoryController {
 
             User currentUser = getCurrentUser();
 
-            List<ActiveChatSummaryResponse> allChats = new ArrayList<>();
-
-            // 1) Private chats
-            allChats.addAll(buildPrivateChatSummaries(currentUser));
-
-            // 2) Community chats
-            allChats.addAll(buildCommunityChatSummaries(currentUser));
-
-            // 3) Match/event chats
-            allChats.addAll(buildMatchChatSummaries(currentUser));
-
-            // Filter by chat type if provided
-            if (chatType != null) {
-                allChats = allChats.stream()
-                        .filter(chat -> chatType.equals(chat.getChatType()))
-                        .collect(java.util.stream.Collectors.toList());
-            }
-
-            // Sort by lastMessageAt DESC
-            allChats.sort(Comparator.comparing(ActiveChatSummaryResponse::getLastMessageAt).reversed());
-
-            // Manual pagination on the aggregated list
-            int fromIndex = page * size;
-            int toIndex = Math.min(fromIndex + size, allChats.size());
-
-            List<ActiveChatSummaryResponse> pageRecords = new ArrayList<>();
-            if (fromIndex < allChats.size()) {
-                pageRecords = allChats.subList(fromIndex, toIndex);
-            }
-
-            int totalPages = (int) Math.ceil(allChats.size() / (double) size);
-            Integer prevPage = page > 0 ? page - 1 : null;
-            Integer nextPage = page < totalPages - 1 ? page + 1 : null;
-
-            PaginatedResponse<ActiveChatSummaryResponse> paginated = PaginatedResponse.<ActiveChatSummaryResponse>builder()
-                    .records(pageRecords)
-                    .count(allChats.size())
-                    .totalPages(totalPages)
-                    .currentPage(page)
-                    .prevPage(prevPage)
-                    .nextPage(nextPage)
-                    .build();
+            PaginatedResponse<ActiveChatSummaryResponse> paginated =
+                    chatInboxService.getActiveChats(currentUser.getId(), chatType, page, size);
 
             return ResponseEntity.ok(ApiResponse.success(paginated, "Active chats retrieved successfully"));
         } catch (Exception e) {
@@ -172,40 +132,13 @@ public class ChatHistoryController {
             Page<PrivateChatMessage> messages =
                     privateChatMessageRepository.findConversation(currentUser.getId(), userId, pageable);
 
-            Page<PrivateChatMessageResponse> responsePage = messages.map(msg -> {
-                User sender = msg.getSender();
-                User recipient = msg.getRecipient();
-                String senderName = sender.getFirstName() + " " + sender.getLastName();
-                String recipientName = recipient.getFirstName() + " " + recipient.getLastName();
-
-                String conversationId = buildConversationId(sender.getId(), recipient.getId());
-
-                return PrivateChatMessageResponse.builder()
-                        .id(msg.getId())
-                        .senderId(sender.getId())
-                        .senderName(senderName)
-                        .recipientId(recipient.getId())
-                        .recipientName(recipientName)
-                        .message(msg.getMessage())
-                        .createdAt(msg.getCreatedAt())
-                        .conversationId(conversationId)
-                        .build();
-            });
+            Page<PrivateChatMessageResponse> responsePage = messages.map(this::toPrivateChatMessageResponse);
 
             PaginatedResponse<PrivateChatMessageResponse> paginatedResponse =
                     PaginationUtils.toPaginatedResponse(responsePage);
 
             // Compute unread count for current user in this conversation
-            PrivateChatReadState readState = privateChatReadStateRepository
-                    .findByUserIdAndOtherUserId(currentUser.getId(), userId)
-                    .orElse(null);
-            OffsetDateTime lastReadAt = readState != null ? readState.getLastReadAt() : null;
-            long unreadCount = (lastReadAt == null)
-                    ? privateChatMessageRepository
-                            .countUnreadForRecipientInConversation(currentUser.getId(), userId)
-                    : privateChatMessageRepository
-                            .countUnreadForRecipientInConversationSince(currentUser.getId(), userId, lastReadAt);
-            paginatedResponse.setUnReadCount(unreadCount);
+            paginatedResponse.setUnReadCount(countUnreadPrivateMessages(currentUser.getId(), userId));
 
             return ResponseEntity.ok(ApiResponse.success(paginatedResponse, "Private chat history retrieved successfully"));
         } catch (Exception e) {
@@ -240,33 +173,14 @@ public class ChatHistoryController {
             Page<CommunityChatMessage> messages =
                     communityChatMessageRepository.findByCommunityIdOrderByCreatedAtAsc(communityId, pageable);
 
-            Page<CommunityChatMessageResponse> responsePage = messages.map(msg -> {
-                User sender = msg.getSender();
-                String senderName = sender.getFirstName() + " " + sender.getLastName();
-                return CommunityChatMessageResponse.builder()
-                        .id(msg.getId())
-                        .communityId(communityId)
-                        .senderId(sender.getId())
-                        .senderName(senderName)
-                        .message(msg.getMessage())
-                        .createdAt(msg.getCreatedAt())
-                        .build();
-            });
+            Page<CommunityChatMessageResponse> responsePage =
+                    messages.map(msg -> toCommunityChatMessageResponse(msg, communityId));
 
             PaginatedResponse<CommunityChatMessageResponse> paginatedResponse =
                     PaginationUtils.toPaginatedResponse(responsePage);
 
             // Compute unread count for current user in this community
-            CommunityChatReadState readState = communityChatReadStateRepository
-                    .findByUserIdAndCommunityId(currentUser.getId(), communityId)
-                    .orElse(null);
-            OffsetDateTime lastReadAt = readState != null ? readState.getLastReadAt() : null;
-            long unreadCount = (lastReadAt == null)
-                    ? communityChatMessageRepository
-                            .countUnreadForUserInCommunity(communityId, currentUser.getId())
-                    : communityChatMessageRepository
-                            .countUnreadForUserInCommunitySince(communityId, currentUser.getId(), lastReadAt);
-            paginatedResponse.setUnReadCount(unreadCount);
+            paginatedResponse.setUnReadCount(countUnreadCommunityMessages(currentUser.getId(), communityId));
 
             return ResponseEntity.ok(ApiResponse.success(paginatedResponse, "Community chat history retrieved successfully"));
         } catch (Exception e) {
@@ -276,6 +190,119 @@ public class ChatHistoryController {
         }
     }
 
+    @GetMapping("/private/{userId}/messages")
+    @Operation(summary = "Get private chat messages (cursor)",
+            description = "Get private messages between the current user and another user, newest first. " +
+                          "Pass nextBefore/nextBeforeId from the previous response as before/beforeId to load older messages.")
+    public ResponseEntity<ApiResponse<CursorPaginatedResponse<PrivateChatMessageResponse>>> getPrivateChatMessages(
+            @Parameter(description = "Other user ID") @PathVariable UUID userId,
+            @Parameter(description = "Only messages older than this timestamp (cursor)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime before,
+            @Parameter(description = "Id of the message at the cursor timestamp")
+            @RequestParam(required = false) UUID beforeId,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int size
+    ) {
+        try {
+            User currentUser = getCurrentUser();
+
+            if (currentUser.getId().equals(userId)) {
+                throw new BadRequestException("Cannot fetch private chat history with yourself");
+            }
+
+            Pageable pageable = PaginationUtils.cursorPageable(before, beforeId, size);
+            Slice<PrivateChatMessage> messages = before == null
+                    ? privateChatMessageRepository.findLatestInConversation(currentUser.getId(), userId, pageable)
+                    : privateChatMessageRepository.findConversationBefore(currentUser.getId(), userId, before, beforeId, pageable);
+
+            CursorPaginatedResponse<PrivateChatMessageResponse> response = PaginationUtils.toCursorPaginatedResponse(
+                    messages, this::toPrivateChatMessageResponse, PrivateChatMessage::getCreatedAt, PrivateChatMessage::getId);
+            response.setUnReadCount(countUnreadPrivateMessages(currentUser.getId(), userId));
+
+            return ResponseEntity.ok(ApiResponse.success(response, "Private chat messages retrieved successfully"));
+        } catch (Exception e) {
+            log.error("Error fetching private chat messages: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to fetch private chat messages: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/communities/{communityId}/messages")
+    @Operation(summary = "Get community chat messages (cursor)",
+            description = "Get community messages newest first (only members can access). " +
+                          "Pass nextBefore/nextBeforeId from the previous response as before/beforeId to load older messages.")
+    public ResponseEntity<ApiResponse<CursorPaginatedResponse<CommunityChatMessageResponse>>> getCommunityChatMessages(
+            @Parameter(description = "Community ID") @PathVariable UUID communityId,
+            @Parameter(description = "Only messages older than this timestamp (cursor)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime before,
+            @Parameter(description = "Id of the message at the cursor timestamp")
+            @RequestParam(required = false) UUID beforeId,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int size
+    ) {
+        try {
+            User currentUser = getCurrentUser();
+
+            boolean isMember = communityMemberRepository
+                    .existsByCommunityIdAndUserIdAndIsActiveTrue(communityId, currentUser.getId());
+            if (!isMember) {
+                throw new BadRequestException("You must be a member of this community to view chat messages");
+            }
+
+            Pageable pageable = PaginationUtils.cursorPageable(before, beforeId, size);
+            Slice<CommunityChatMessage> messages = before == null
+                    ? communityChatMessageRepository.findLatestByCommunityId(communityId, pageable)
+                    : communityChatMessageRepository.findByCommunityIdBefore(communityId, before, beforeId, pageable);
+
+            CursorPaginatedResponse<CommunityChatMessageResponse> response = PaginationUtils.toCursorPaginatedResponse(
+                    messages, msg -> toCommunityChatMessageResponse(msg, communityId),
+                    CommunityChatMessage::getCreatedAt, CommunityChatMessage::getId);
+            response.setUnReadCount(countUnreadCommunityMessages(currentUser.getId(), communityId));
+
+            return ResponseEntity.ok(ApiResponse.success(response, "Community chat messages retrieved successfully"));
+        } catch (Exception e) {
+            log.error("Error fetching community chat messages: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to fetch community chat messages: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/match-events/{matchId}/messages")
+    @Operation(summary = "Get match chat messages (cursor)",
+            description = "Get match chat messages newest first (only participants can access). " +
+                          "Pass nextBefore/nextBeforeId from the previous response as before/beforeId to load older messages.")
+    public ResponseEntity<ApiResponse<CursorPaginatedResponse<ChatMessageResponse>>> getMatchChatMessages(
+            @Parameter(description = "Match ID") @PathVariable UUID matchId,
+            @Parameter(description = "Only messages older than this timestamp (cursor)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime before,
+            @Parameter(description = "Id of the message at the cursor timestamp")
+            @RequestParam(required = false) UUID beforeId,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int size
+    ) {
+        try {
+            User currentUser = getCurrentUser();
+
+            boolean isParticipant = matchRegistrationRepository.existsByMatchIdAndUserId(matchId, currentUser.getId());
+            if (!isParticipant) {
+                throw new BadRequestException("You must be a participant in this match to view chat messages");
+            }
+
+            Pageable pageable = PaginationUtils.cursorPageable(before, beforeId, size);
+            Slice<ChatMessage> messages = before == null
+                    ? chatMessageRepository.findLatestByMatchId(matchId, pageable)
+                    : chatMessageRepository.findByMatchIdBefore(matchId, before, beforeId, pageable);
+
+            CursorPaginatedResponse<ChatMessageResponse> response = PaginationUtils.toCursorPaginatedResponse(
+                    messages, chatMessage -> toChatMessageResponse(chatMessage, matchId),
+                    ChatMessage::getCreatedAt, ChatMessage::getId);
+            response.setUnReadCount(countUnreadMatchMessages(currentUser.getId(), matchId));
+
+            return ResponseEntity.ok(ApiResponse.success(response, "Chat messages retrieved successfully"));
+        } catch (Exception e) {
+            log.error("Error fetching match chat messages: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to fetch chat messages: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/private/{userId}/mark-read")
     @Operation(summary = "Mark private chat as read",
             description = "Mark all messages in a private conversation as read for the current user")
@@ -288,16 +315,11 @@ public class ChatHistoryController {
             throw new BadRequestException("Cannot mark private chat with yourself as read");
         }
 
-        PrivateChatReadState state = privateChatReadStateRepository
-                .findByUserIdAndOtherUserId(currentUser.getId(), userId)
-                .orElse(PrivateChatReadState.builder()
-                        .user(currentUser)
-                        .otherUser(userRepository.findById(userId)
-                                .orElseThrow(() -> new BadRequestException("User not found")))
-                        .build());
+        if (!userRepository.existsById(userId)) {
+            throw new BadRequestException("User not found");
+        }
 
-        state.setLastReadAt(OffsetDateTime.now());
-        privateChatReadStateRepository.save(state);
+        conversationSummaryService.markRead(currentUser.getId(), ChatType.PRIVATE, userId);
 
         return ResponseEntity.ok(ApiResponse.success(null, "Private chat marked as read"));
     }
@@ -316,18 +338,11 @@ public class ChatHistoryController {
             throw new BadRequestException("You must be a member of this community to mark messages as read");
         }
 
-        Community community = communityRepository.findById(communityId)
-                .orElseThrow(() -> new BadRequestException("Community not found"));
-
-        CommunityChatReadState state = communityChatReadStateRepository
-                .findByUserIdAndCommunityId(currentUser.getId(), communityId)
-                .orElse(CommunityChatReadState.builder()
-                        .user(currentUser)
-                        .community(community)
-                        .build());
+        if (!communityRepository.existsById(communityId)) {
+            throw new BadRequestException("Community not found");
+        }
 
-        state.setLastReadAt(OffsetDateTime.now());
-        communityChatReadStateRepository.save(state);
+        conversationSummaryService.markRead(currentUser.getId(), ChatType.COMMUNITY, communityId);
 
         return ResponseEntity.ok(ApiResponse.success(null, "Community chat marked as read"));
     }
@@ -357,33 +372,13 @@ public class ChatHistoryController {
             Page<ChatMessage> chatMessages = chatMessageRepository.findByMatchIdOrderByCreatedAtDesc(matchId, pageable);
 
             // Convert to response DTOs
-            Page<ChatMessageResponse> responsePage = chatMessages.map(chatMessage -> {
-                User sender = chatMessage.getSender();
-                return ChatMessageResponse.builder()
-                        .id(chatMessage.getId())
-                        .matchId(matchId)
-                        .senderId(sender.getId())
-                        .senderName(sender.getFirstName() + " " + sender.getLastName())
-                        .senderFirstName(sender.getFirstName())
-                        .senderLastName(sender.getLastName())
-                        .message(chatMessage.getMessage())
-                        .createdAt(chatMessage.getCreatedAt())
-                        .build();
-            });
+            Page<ChatMessageResponse> responsePage =
+                    chatMessages.map(chatMessage -> toChatMessageResponse(chatMessage, matchId));
 
             PaginatedResponse<ChatMessageResponse> paginatedResponse = PaginationUtils.toPaginatedResponse(responsePage);
 
             // Compute unread count for current user in this match
-            MatchChatReadState readState = matchChatReadStateRepository
-                    .findByUserIdAndMatchId(currentUser.getId(), matchId)
-                    .orElse(null);
-            OffsetDateTime lastReadAt = readState != null ? readState.getLastReadAt() : null;
-            long unreadCount = (lastReadAt == null)
-                    ? chatMessageRepository
-                            .countUnreadForUserInMatch(matchId, currentUser.getId())
-                    : chatMessageRepository
-                            .countUnreadForUserInMatchSince(matchId, currentUser.getId(), lastReadAt);
-            paginatedResponse.setUnReadCount(unreadCount);
+            paginatedResponse.setUnReadCount(countUnreadMatchMessages(currentUser.getId(), matchId));
 
             return ResponseEntity.ok(ApiResponse.success(paginatedResponse, "Chat history retrieved successfully"));
 
@@ -403,22 +398,15 @@ public class ChatHistoryController {
         User currentUser = getCurrentUser();
 
         // Verify match exists and user participates
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new BadRequestException("Match not found"));
+        if (!matchRepository.existsById(matchId)) {
+            throw new BadRequestException("Match not found");
+        }
         boolean isParticipant = matchRegistrationRepository.existsByMatchIdAndUserId(matchId, currentUser.getId());
         if (!isParticipant) {
             throw new BadRequestException("You must be a participant in this match to mark messages as read");
         }
 
-        MatchChatReadState state = matchChatReadStateRepository
-                .findByUserIdAndMatchId(currentUser.getId(), matchId)
-                .orElse(MatchChatReadState.builder()
-                        .user(currentUser)
-                        .match(match)
-                        .build());
-
-        state.setLastReadAt(OffsetDateTime.now());
-        matchChatReadStateRepository.save(state);
+        conversationSummaryService.markRead(currentUser.getId(), ChatType.MATCH_EVENT, matchId);
 
         return ResponseEntity.ok(ApiResponse.success(null, "Match chat marked as read"));
     }
@@ -427,155 +415,93 @@ public class ChatHistoryController {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
 
         throw new BadRequestException("Invalid authentication principal");
     }
 
-    /**
-     * Build summaries for private chats the user participates in.
-     */
-    private List<ActiveChatSummaryResponse> buildPrivateChatSummaries(User currentUser) {
-        List<PrivateChatMessage> recentMessages =
-                privateChatMessageRepository.findTop500BySenderIdOrRecipientIdOrderByCreatedAtDesc(
-                        currentUser.getId(), currentUser.getId());
-
-        Map<String, PrivateChatMessage> latestByConversation = new HashMap<>();
-
-        for (PrivateChatMessage message : recentMessages) {
-            UUID senderId = message.getSender().getId();
-            UUID recipientId = message.getRecipient().getId();
-
-            String conversationKey = buildConversationId(senderId, recipientId);
-
-            // Since messages are already ordered DESC, the first one we see is the latest
-            latestByConversation.putIfAbsent(conversationKey, message);
-        }
-
-        List<ActiveChatSummaryResponse> result = new ArrayList<>();
-
-        for (PrivateChatMessage msg : latestByConversation.values()) {
-            User otherUser = msg.getSender().getId().equals(currentUser.getId())
-                    ? msg.getRecipient()
-                    : msg.getSender();
-
-            // Unread count for this conversation
-            PrivateChatReadState readState = privateChatReadStateRepository
-                    .findByUserIdAndOtherUserId(currentUser.getId(), otherUser.getId())
-                    .orElse(null);
-            OffsetDateTime lastReadAt = readState != null ? readState.getLastReadAt() : null;
-            long unread = (lastReadAt == null)
-                    ? privateChatMessageRepository
-                            .countUnreadForRecipientInConversation(currentUser.getId(), otherUser.getId())
-                    : privateChatMessageRepository
-                            .countUnreadForRecipientInConversationSince(currentUser.getId(), otherUser.getId(), lastReadAt);
-
-            String title = otherUser.getFirstName() + " " + otherUser.getLastName();
-            String imageUrl = otherUser.getProfilePictureUrl();
-
-            result.add(ActiveChatSummaryResponse.builder()
-                    .chatType(ChatType.PRIVATE)
-                    .targetId(otherUser.getId())
-                    .title(title)
-                    .subtitle(null)
-                    .imageUrl(imageUrl)
-                    .lastMessage(msg.getMessage())
-                    .lastMessageAt(msg.getCreatedAt())
-                    .unreadCount(unread)
-                    .build());
-        }
-
-        return result;
+    private PrivateChatMessageResponse toPrivateChatMessageResponse(PrivateChatMessage msg) {
+        User sender = msg.getSender();
+        User recipient = msg.getRecipient();
+        String senderName = sender.getFirstName() + " " + sender.getLastName();
+        String recipientName = recipient.getFirstName() + " " + recipient.getLastName();
+
+        String conversationId = buildConversationId(sender.getId(), recipient.getId());
+
+        return PrivateChatMessageResponse.builder()
+                .id(msg.getId())
+                .senderId(sender.getId())
+                .senderName(senderName)
+                .recipientId(recipient.getId())
+                .recipientName(recipientName)
+                .message(msg.getMessage())
+                .createdAt(msg.getCreatedAt())
+                .conversationId(conversationId)
+                .build();
     }
 
-    /**
-     * Build summaries for community chats where the user is an active member.
-     */
-    private List<ActiveChatSummaryResponse> buildCommunityChatSummaries(User currentUser) {
-        List<ActiveChatSummaryResponse> result = new ArrayList<>();
-
-        var memberships = communityMemberRepository.findActiveMembershipsByUserId(currentUser.getId());
-
-        for (var membership : memberships) {
-            var community = membership.getCommunity();
-
-            CommunityChatMessage lastMessage =
-                    communityChatMessageRepository.findTop1ByCommunityIdOrderByCreatedAtDesc(community.getId());
-
-            if (lastMessage == null) {
-                // No messages yet in this community
-                continue;
-            }
-
-            CommunityChatReadState readState = communityChatReadStateRepository
-                    .findByUserIdAndCommunityId(currentUser.getId(), community.getId())
-                    .orElse(null);
-            OffsetDateTime lastReadAt = readState != null ? readState.getLastReadAt() : null;
-            long unread = (lastReadAt == null)
-                    ? communityChatMessageRepository
-                            .countUnreadForUserInCommunity(community.getId(), currentUser.getId())
-                    : communityChatMessageRepository
-                            .countUnreadForUserInCommunitySince(community.getId(), currentUser.getId(), lastReadAt);
-
-            result.add(ActiveChatSummaryResponse.builder()
-                    .chatType(ChatType.COMMUNITY)
-                    .targetId(community.getId())
-                    .title(community.getName())
-                    .subtitle(null)
-                    .imageUrl(community.getBannerUrl())
-                    .lastMessage(lastMessage.getMessage())
-                    .lastMessageAt(lastMessage.getCreatedAt())
-                    .unreadCount(unread)
-                    .build());
-        }
-
-        return result;
+    private CommunityChatMessageResponse toCommunityChatMessageResponse(CommunityChatMessage msg, UUID communityId) {
+        User sender = msg.getSender();
+        String senderName = sender.getFirstName() + " " + sender.getLastName();
+        return CommunityChatMessageResponse.builder()
+                .id(msg.getId())
+                .communityId(communityId)
+                .senderId(sender.getId())
+                .senderName(senderName)
+                .message(msg.getMessage())
+                .createdAt(msg.getCreatedAt())
+                .build();
     }
 
-    /**
-     * Build summaries for match/event chats where the user is registered.
-     */
-    private List<ActiveChatSummaryResponse> buildMatchChatSummaries(User currentUser) {
-        List<ActiveChatSummaryResponse> result = new ArrayList<>();
-
-        var registrations = matchRegistrationRepository.findByUserId(currentUser.getId());
-
-        for (MatchRegistration registration : registrations) {
-            Match match = registration.getMatch();
+    private ChatMessageResponse toChatMessageResponse(ChatMessage chatMessage, UUID matchId) {
+        User sender = chatMessage.getSender();
+        return ChatMessageResponse.builder()
+                .id(chatMessage.getId())
+                .matchId(matchId)
+                .senderId(sender.getId())
+                .senderName(sender.getFirstName() + " " + sender.getLastName())
+                .senderFirstName(sender.getFirstName())
+                .senderLastName(sender.getLastName())
+                .message(chatMessage.getMessage())
+                .createdAt(chatMessage.getCreatedAt())
+                .build();
+    }
 
-            ChatMessage lastMessage = chatMessageRepository.findTop1ByMatchIdOrderByCreatedAtDesc(match.getId());
-            if (lastMessage == null) {
-                // No messages yet in this match chat
-                continue;
-            }
+    private long countUnreadPrivateMessages(UUID userId, UUID otherUserId) {
+        PrivateChatReadState readState = privateChatReadStateRepository
+                .findByUserIdAndOtherUserId(userId, otherUserId)
+                .orElse(null);
+        OffsetDateTime lastReadAt = readState != null ? readState.getLastReadAt() : null;
+        return (lastReadAt == null)
+                ? privateChatMessageRepository
+                        .countUnreadForRecipientInConversation(userId, otherUserId)
+                : privateChatMessageRepository
+                        .countUnreadForRecipientInConversationSince(userId, otherUserId, lastReadAt);
+    }
 
-            MatchChatReadState readState = matchChatReadStateRepository
-                    .findByUserIdAndMatchId(currentUser.getId(), match.getId())
-                    .orElse(null);
-            OffsetDateTime lastReadAt = readState != null ? readState.getLastReadAt() : null;
-            long unread = (lastReadAt == null)
-                    ? chatMessageRepository
-                            .countUnreadForUserInMatch(match.getId(), currentUser.getId())
-                    : chatMessageRepository
-                            .countUnreadForUserInMatchSince(match.getId(), currentUser.getId(), lastReadAt);
-
-            String subtitle = match.getCommunity() != null ? match.getCommunity().getName() : null;
-
-            result.add(ActiveChatSummaryResponse.builder()
-                    .chatType(ChatType.MATCH_EVENT)
-                    .targetId(match.getId())
-                    .title(match.getTitle())
-                    .subtitle(subtitle)
-                    .imageUrl(match.getBannerUrl())
-                    .lastMessage(lastMessage.getMessage())
-                    .lastMessageAt(lastMessage.getCreatedAt())
-                    .unreadCount(unread)
-                    .build());
-        }
+    private long countUnreadCommunityMessages(UUID userId, UUID communityId) {
+        CommunityChatReadState readState = communityChatReadStateRepository
+                .findByUserIdAndCommunityId(userId, communityId)
+                .orElse(null);
+        OffsetDateTime lastReadAt = readState != null ? readState.getLastReadAt() : null;
+        return (lastReadAt == null)
+                ? communityChatMessageRepository
+                        .countUnreadForUserInCommunity(communityId, userId)
+                : communityChatMessageRepository
+                        .countUnreadForUserInCommunitySince(communityId, userId, lastReadAt);
+    }
 
-        return result;
+    private long countUnreadMatchMessages(UUID userId, UUID matchId) {
+        MatchChatReadState readState = matchChatReadStateRepository
+                .findByUserIdAndMatchId(userId, matchId)
+                .orElse(null);
+        OffsetDateTime lastReadAt = readState != null ? readState.getLastReadAt() : null;
+        return (lastReadAt == null)
+                ? chatMessageRepository
+                        .countUnreadForUserInMatch(matchId, userId)
+                : chatMessageRepository
+                        .countUnreadForUserInMatchSince(matchId, userId, lastReadAt);
     }
 
     private String buildConversationId(UUID userA, UUID userB) {
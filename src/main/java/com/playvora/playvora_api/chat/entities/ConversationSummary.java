@@ -0,0 +1,68 @@
+package com.playvora.playvora_api.chat.entities;
+
+import com.playvora.playvora_api.chat.enums.ChatType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Inbox projection row for one user and one conversation (private chat, community or match chat).
+ * Written with set-based upserts by {@code ConversationSummaryService}; never edited directly.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+@Table(name = "conversation_summary",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "chat_type", "target_id"}))
+public class ConversationSummary {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "chat_type", nullable = false, length = 20)
+    private ChatType chatType;
+
+    /**
+     * Other user id (PRIVATE), community id (COMMUNITY) or match id (MATCH_EVENT).
+     */
+    @Column(name = "target_id", nullable = false)
+    private UUID targetId;
+
+    @Column(name = "last_message", columnDefinition = "TEXT")
+    private String lastMessage;
+
+    @Column(name = "last_message_at", nullable = false)
+    private OffsetDateTime lastMessageAt;
+
+    @Column(name = "last_sender_id")
+    private UUID lastSenderId;
+
+    @Column(name = "unread_count", nullable = false)
+    @Builder.Default
+    private Long unreadCount = 0L;
+
+    @Column(name = "created_at", updatable = false)
+    @Builder.Default
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    @Column(name = "updated_at")
+    @Builder.Default
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,19 @@
+package com.playvora.playvora_api.chat.events;
+
+import com.playvora.playvora_api.chat.enums.ChatType;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Published once a chat message is persisted. The sender's read marker and every participant's
+ * inbox row are updated from it off the send path.
+ *
+ * @param targetId the recipient for private messages, otherwise the community or match
+ */
+public record ChatMessageSent(ChatType chatType,
+                              UUID targetId,
+                              UUID senderId,
+                              String message,
+                              OffsetDateTime createdAt) {
+}
@@ -3,6 +3,7 @@ package com.playvora.playvora_api.chat.repo;
 import com.playvora.playvora_api.chat.entities.CommunityChatMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -36,9 +37,27 @@ public interface CommunityChatMessageRepository extends JpaRepository<CommunityC
                                             @Param("lastReadAt") OffsetDateTime lastReadAt);
 
     /**
-     * Fetch the latest message for a community.
+     * Latest messages of a community, newest first, without a count query.
+     * First page of the keyset pagination; continue with {@link #findByCommunityIdBefore}.
      */
-    CommunityChatMessage findTop1ByCommunityIdOrderByCreatedAtDesc(UUID communityId);
-}
-
+    @Query("SELECT m FROM CommunityChatMessage m " +
+           "LEFT JOIN FETCH m.sender " +
+           "WHERE m.community.id = :communityId " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<CommunityChatMessage> findLatestByCommunityId(@Param("communityId") UUID communityId,
+                                                        Pageable pageable);
 
+    /**
+     * Messages of a community strictly older than the (createdAt, id) cursor, newest first.
+     */
+    @Query("SELECT m FROM CommunityChatMessage m " +
+           "LEFT JOIN FETCH m.sender " +
+           "WHERE m.community.id = :communityId " +
+           "AND (m.createdAt < :beforeCreatedAt " +
+           "     OR (m.createdAt = :beforeCreatedAt AND m.id < :beforeId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<CommunityChatMessage> findByCommunityIdBefore(@Param("communityId") UUID communityId,
+                                                        @Param("beforeCreatedAt") OffsetDateTime beforeCreatedAt,
+                                                        @Param("beforeId") UUID beforeId,
+                                                        Pageable pageable);
+}
@@ -2,8 +2,12 @@ package com.playvora.playvora_api.chat.repo;
 
 import com.playvora.playvora_api.chat.entities.CommunityChatReadState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,6 +15,19 @@ import java.util.UUID;
 public interface CommunityChatReadStateRepository extends JpaRepository<CommunityChatReadState, UUID> {
 
     Optional<CommunityChatReadState> findByUserIdAndCommunityId(UUID userId, UUID communityId);
-}
-
 
+    /**
+     * Move a user's read marker forward to {@code readAt}, creating the row if needed. Never moves
+     * it back, so updates applied out of order are harmless.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO community_chat_read_states (user_id, community_id, last_read_at)
+            VALUES (:userId, :communityId, :readAt)
+            ON CONFLICT (user_id, community_id) DO UPDATE SET
+                last_read_at = GREATEST(community_chat_read_states.last_read_at, EXCLUDED.last_read_at)
+            """, nativeQuery = true)
+    int markReadUpTo(@Param("userId") UUID userId,
+                     @Param("communityId") UUID communityId,
+                     @Param("readAt") OffsetDateTime readAt);
+}
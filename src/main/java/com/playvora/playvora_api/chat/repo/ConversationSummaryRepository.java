@@ -0,0 +1,191 @@
+package com.playvora.playvora_api.chat.repo;
+
+import com.playvora.playvora_api.chat.entities.ConversationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Writes to the conversation_summary projection. All upserts share the same conflict rule:
+ * the newest message wins, the sender's own row is reset to zero unread (sending implies reading)
+ * and everyone else's unread count is incremented. Messages are recorded asynchronously, so a
+ * member whose read marker is already at or past the message is not counted as unread.
+ */
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, UUID> {
+
+    String UPSERT_ON_CONFLICT = """
+            ON CONFLICT (user_id, chat_type, target_id) DO UPDATE SET
+                last_message = CASE WHEN EXCLUDED.last_message_at >= conversation_summary.last_message_at
+                                    THEN EXCLUDED.last_message ELSE conversation_summary.last_message END,
+                last_sender_id = CASE WHEN EXCLUDED.last_message_at >= conversation_summary.last_message_at
+                                      THEN EXCLUDED.last_sender_id ELSE conversation_summary.last_sender_id END,
+                last_message_at = GREATEST(conversation_summary.last_message_at, EXCLUDED.last_message_at),
+                unread_count = CASE WHEN EXCLUDED.user_id = EXCLUDED.last_sender_id THEN 0
+                                    ELSE conversation_summary.unread_count + EXCLUDED.unread_count END
+            """;
+
+    String REBUILD_ON_CONFLICT = """
+            ON CONFLICT (user_id, chat_type, target_id) DO UPDATE SET
+                last_message = EXCLUDED.last_message,
+                last_sender_id = EXCLUDED.last_sender_id,
+                last_message_at = EXCLUDED.last_message_at,
+                unread_count = EXCLUDED.unread_count
+            """;
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO conversation_summary
+                (user_id, chat_type, target_id, last_message, last_message_at, last_sender_id, unread_count)
+            VALUES (:senderId, 'PRIVATE', :recipientId, :message, :createdAt, :senderId, 0),
+                   (:recipientId, 'PRIVATE', :senderId, :message, :createdAt, :senderId,
+                    CASE WHEN EXISTS (SELECT 1 FROM private_chat_read_states rs
+                                      WHERE rs.user_id = :recipientId AND rs.other_user_id = :senderId
+                                        AND rs.last_read_at >= :createdAt)
+                         THEN 0 ELSE 1 END)
+            """ + UPSERT_ON_CONFLICT, nativeQuery = true)
+    int upsertPrivateMessage(@Param("senderId") UUID senderId,
+                             @Param("recipientId") UUID recipientId,
+                             @Param("message") String message,
+                             @Param("createdAt") OffsetDateTime createdAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO conversation_summary
+                (user_id, chat_type, target_id, last_message, last_message_at, last_sender_id, unread_count)
+            SELECT mem.user_id, 'COMMUNITY', :communityId, :message, :createdAt, :senderId,
+                   CASE WHEN mem.user_id = :senderId OR rs.last_read_at >= :createdAt THEN 0 ELSE 1 END
+            FROM (
+                SELECT DISTINCT user_id FROM community_members
+                WHERE community_id = :communityId AND is_active = TRUE
+            ) mem
+            LEFT JOIN community_chat_read_states rs
+                   ON rs.user_id = mem.user_id AND rs.community_id = :communityId
+            """ + UPSERT_ON_CONFLICT, nativeQuery = true)
+    int upsertCommunityMessage(@Param("communityId") UUID communityId,
+                               @Param("senderId") UUID senderId,
+                               @Param("message") String message,
+                               @Param("createdAt") OffsetDateTime createdAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO conversation_summary
+                (user_id, chat_type, target_id, last_message, last_message_at, last_sender_id, unread_count)
+            SELECT reg.user_id, 'MATCH_EVENT', :matchId, :message, :createdAt, :senderId,
+                   CASE WHEN reg.user_id = :senderId OR rs.last_read_at >= :createdAt THEN 0 ELSE 1 END
+            FROM (
+                SELECT DISTINCT user_id FROM match_registrations WHERE match_id = :matchId
+            ) reg
+            LEFT JOIN match_chat_read_states rs
+                   ON rs.user_id = reg.user_id AND rs.match_id = :matchId
+            """ + UPSERT_ON_CONFLICT, nativeQuery = true)
+    int upsertMatchMessage(@Param("matchId") UUID matchId,
+                           @Param("senderId") UUID senderId,
+                           @Param("message") String message,
+                           @Param("createdAt") OffsetDateTime createdAt);
+
+    @Modifying
+    @Query(value = """
+            UPDATE conversation_summary SET unread_count = 0
+            WHERE user_id = :userId AND chat_type = :chatType AND target_id = :targetId
+            """, nativeQuery = true)
+    int markRead(@Param("userId") UUID userId,
+                 @Param("chatType") String chatType,
+                 @Param("targetId") UUID targetId);
+
+    /**
+     * Transaction-scoped advisory lock so only one application instance rebuilds at a time.
+     * Returns false when another transaction holds it.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('conversation_summary_rebuild'))", nativeQuery = true)
+    boolean tryLockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM conversation_summary", nativeQuery = true)
+    int deleteAllSummaries();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO conversation_summary
+                (user_id, chat_type, target_id, last_message, last_message_at, last_sender_id, unread_count)
+            SELECT p.user_id, 'PRIVATE', p.other_id, p.message, p.created_at, p.sender_id,
+                   (SELECT COUNT(*)
+                    FROM private_chat_messages m
+                    LEFT JOIN private_chat_read_states rs
+                           ON rs.user_id = p.user_id AND rs.other_user_id = p.other_id
+                    WHERE m.recipient_id = p.user_id
+                      AND m.sender_id = p.other_id
+                      AND (rs.last_read_at IS NULL OR m.created_at > rs.last_read_at))
+            FROM (
+                SELECT x.*, ROW_NUMBER() OVER (PARTITION BY x.user_id, x.other_id
+                                               ORDER BY x.created_at DESC, x.id DESC) AS rn
+                FROM (
+                    SELECT id, sender_id AS user_id, recipient_id AS other_id, sender_id, message, created_at
+                    FROM private_chat_messages
+                    UNION ALL
+                    SELECT id, recipient_id AS user_id, sender_id AS other_id, sender_id, message, created_at
+                    FROM private_chat_messages
+                ) x
+            ) p
+            WHERE p.rn = 1
+            """ + REBUILD_ON_CONFLICT, nativeQuery = true)
+    int rebuildPrivateSummaries();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO conversation_summary
+                (user_id, chat_type, target_id, last_message, last_message_at, last_sender_id, unread_count)
+            SELECT mem.user_id, 'COMMUNITY', lm.community_id, lm.message, lm.created_at, lm.sender_id,
+                   (SELECT COUNT(*)
+                    FROM community_chat_messages m
+                    LEFT JOIN community_chat_read_states rs
+                           ON rs.user_id = mem.user_id AND rs.community_id = m.community_id
+                    WHERE m.community_id = lm.community_id
+                      AND m.sender_id <> mem.user_id
+                      AND (rs.last_read_at IS NULL OR m.created_at > rs.last_read_at))
+            FROM (
+                SELECT DISTINCT user_id, community_id FROM community_members WHERE is_active = TRUE
+            ) mem
+            JOIN (
+                SELECT m.community_id, m.sender_id, m.message, m.created_at,
+                       ROW_NUMBER() OVER (PARTITION BY m.community_id ORDER BY m.created_at DESC, m.id DESC) AS rn
+                FROM community_chat_messages m
+            ) lm ON lm.community_id = mem.community_id AND lm.rn = 1
+            """ + REBUILD_ON_CONFLICT, nativeQuery = true)
+    int rebuildCommunitySummaries();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO conversation_summary
+                (user_id, chat_type, target_id, last_message, last_message_at, last_sender_id, unread_count)
+            SELECT reg.user_id, 'MATCH_EVENT', lm.match_id, lm.message, lm.created_at, lm.sender_id,
+                   (SELECT COUNT(*)
+                    FROM chat_messages m
+                    LEFT JOIN match_chat_read_states rs
+                           ON rs.user_id = reg.user_id AND rs.match_id = m.match_id
+                    WHERE m.match_id = lm.match_id
+                      AND m.sender_id <> reg.user_id
+                      AND (rs.last_read_at IS NULL OR m.created_at > rs.last_read_at))
+            FROM (
+                SELECT DISTINCT user_id, match_id FROM match_registrations
+            ) reg
+            JOIN (
+                SELECT m.match_id, m.sender_id, m.message, m.created_at,
+                       ROW_NUMBER() OVER (PARTITION BY m.match_id ORDER BY m.created_at DESC, m.id DESC) AS rn
+                FROM chat_messages m
+            ) lm ON lm.match_id = reg.match_id AND lm.rn = 1
+            """ + REBUILD_ON_CONFLICT, nativeQuery = true)
+    int rebuildMatchSummaries();
+
+    @Query(value = """
+            SELECT EXISTS (SELECT 1 FROM private_chat_messages)
+                OR EXISTS (SELECT 1 FROM community_chat_messages)
+                OR EXISTS (SELECT 1 FROM chat_messages)
+            """, nativeQuery = true)
+    boolean anyChatMessagesExist();
+}
@@ -3,12 +3,12 @@ package com.playvora.playvora_api.chat.repo;
 import com.playvora.playvora_api.chat.entities.PrivateChatMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -49,11 +49,33 @@ public interface PrivateChatMessageRepository extends JpaRepository<PrivateChatM
                                                     @Param("lastReadAt") java.time.OffsetDateTime lastReadAt);
 
     /**
-     * Fetch recent messages for all conversations a user participates in,
-     * ordered by newest first. This is used to derive the latest message per
-     * conversation for the \"active chats\" endpoint.
+     * Latest messages of a conversation, newest first, without a count query.
+     * First page of the keyset pagination; continue with {@link #findConversationBefore}.
      */
-    List<PrivateChatMessage> findTop500BySenderIdOrRecipientIdOrderByCreatedAtDesc(UUID senderId, UUID recipientId);
-}
-
+    @Query("SELECT m FROM PrivateChatMessage m " +
+           "LEFT JOIN FETCH m.sender " +
+           "LEFT JOIN FETCH m.recipient " +
+           "WHERE ((m.sender.id = :userA AND m.recipient.id = :userB) " +
+           "    OR (m.sender.id = :userB AND m.recipient.id = :userA)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<PrivateChatMessage> findLatestInConversation(@Param("userA") UUID userA,
+                                                       @Param("userB") UUID userB,
+                                                       Pageable pageable);
 
+    /**
+     * Messages of a conversation strictly older than the (createdAt, id) cursor, newest first.
+     */
+    @Query("SELECT m FROM PrivateChatMessage m " +
+           "LEFT JOIN FETCH m.sender " +
+           "LEFT JOIN FETCH m.recipient " +
+           "WHERE ((m.sender.id = :userA AND m.recipient.id = :userB) " +
+           "    OR (m.sender.id = :userB AND m.recipient.id = :userA)) " +
+           "AND (m.createdAt < :beforeCreatedAt " +
+           "     OR (m.createdAt = :beforeCreatedAt AND m.id < :beforeId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<PrivateChatMessage> findConversationBefore(@Param("userA") UUID userA,
+                                                     @Param("userB") UUID userB,
+                                                     @Param("beforeCreatedAt") java.time.OffsetDateTime beforeCreatedAt,
+                                                     @Param("beforeId") UUID beforeId,
+                                                     Pageable pageable);
+}
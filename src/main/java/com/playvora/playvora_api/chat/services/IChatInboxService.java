@@ -0,0 +1,16 @@
+package com.playvora.playvora_api.chat.services;
+
+import com.playvora.playvora_api.chat.dtos.ActiveChatSummaryResponse;
+import com.playvora.playvora_api.chat.enums.ChatType;
+import com.playvora.playvora_api.common.dto.PaginatedResponse;
+
+import java.util.UUID;
+
+public interface IChatInboxService {
+
+    /**
+     * Get a page of the user's active chats (private, community and match/event) ordered by most
+     * recent message, with the unread count of each chat. Optionally restricted to one chat type.
+     */
+    PaginatedResponse<ActiveChatSummaryResponse> getActiveChats(UUID userId, ChatType chatType, int page, int size);
+}
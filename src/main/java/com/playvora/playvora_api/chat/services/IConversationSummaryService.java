@@ -0,0 +1,32 @@
+package com.playvora.playvora_api.chat.services;
+
+import com.playvora.playvora_api.chat.enums.ChatType;
+import com.playvora.playvora_api.chat.events.ChatMessageSent;
+
+import java.util.UUID;
+
+public interface IConversationSummaryService {
+
+    /**
+     * Record a persisted message: move the sender's read marker up to it and update the inbox row
+     * of the sender and of every other participant (the recipient, the community's active members
+     * or the match's registered participants)
+     */
+    void record(ChatMessageSent sent);
+
+    /**
+     * Move a user's read marker for one conversation to now and reset its unread count
+     */
+    void markRead(UUID userId, ChatType chatType, UUID targetId);
+
+    /**
+     * Recompute every inbox row from the chat message and read state tables.
+     * @return false if another instance is already rebuilding
+     */
+    boolean rebuild();
+
+    /**
+     * Rebuild only if the projection is empty while chat messages exist (first deployment)
+     */
+    boolean rebuildIfEmpty();
+}
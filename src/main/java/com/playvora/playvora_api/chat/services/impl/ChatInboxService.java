@@ -0,0 +1,116 @@
+package com.playvora.playvora_api.chat.services.impl;
+
+import com.playvora.playvora_api.chat.dtos.ActiveChatSummaryResponse;
+import com.playvora.playvora_api.chat.enums.ChatType;
+import com.playvora.playvora_api.chat.services.IChatInboxService;
+import com.playvora.playvora_api.common.dto.PaginatedResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the chat inbox from the conversation_summary projection: a range scan over the user's rows
+ * ordered by last activity, joined to users/communities/matches only for the requested page.
+ * Community and match rows are only listed while the user is still a member/participant.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatInboxService implements IChatInboxService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static final String INBOX_FROM = """
+            FROM conversation_summary cs
+            LEFT JOIN users u ON cs.chat_type = 'PRIVATE' AND u.id = cs.target_id
+            WHERE cs.user_id = :userId
+              AND (
+                    (cs.chat_type = 'PRIVATE' AND u.id IS NOT NULL)
+                 OR (cs.chat_type = 'COMMUNITY' AND EXISTS (
+                        SELECT 1 FROM community_members mem
+                        WHERE mem.community_id = cs.target_id AND mem.user_id = cs.user_id AND mem.is_active = TRUE))
+                 OR (cs.chat_type = 'MATCH_EVENT' AND EXISTS (
+                        SELECT 1 FROM match_registrations reg
+                        WHERE reg.match_id = cs.target_id AND reg.user_id = cs.user_id))
+              )
+            """;
+
+    private static final String CHAT_TYPE_FILTER = " AND cs.chat_type = :chatType ";
+
+    private static final String INBOX_PAGE = """
+            SELECT cs.chat_type,
+                   cs.target_id,
+                   CASE cs.chat_type
+                       WHEN 'PRIVATE' THEN CONCAT(cs.first_name, ' ', cs.last_name)
+                       WHEN 'COMMUNITY' THEN c.name
+                       ELSE mt.title
+                   END AS title,
+                   CASE WHEN cs.chat_type = 'MATCH_EVENT' THEN mc.name END AS subtitle,
+                   CASE cs.chat_type
+                       WHEN 'PRIVATE' THEN cs.profile_picture_url
+                       WHEN 'COMMUNITY' THEN c.banner_url
+                       ELSE mt.banner_url
+                   END AS image_url,
+                   cs.last_message,
+                   cs.last_message_at,
+                   cs.unread_count
+            FROM (
+                SELECT cs.*, u.first_name, u.last_name, u.profile_picture_url
+                %s
+                ORDER BY cs.last_message_at DESC, cs.target_id
+                LIMIT :limit OFFSET :offset
+            ) cs
+            LEFT JOIN communities c ON cs.chat_type = 'COMMUNITY' AND c.id = cs.target_id
+            LEFT JOIN matches mt ON cs.chat_type = 'MATCH_EVENT' AND mt.id = cs.target_id
+            LEFT JOIN communities mc ON mc.id = mt.community_id
+            ORDER BY cs.last_message_at DESC, cs.target_id
+            """;
+
+    @Override
+    public PaginatedResponse<ActiveChatSummaryResponse> getActiveChats(UUID userId, ChatType chatType, int page, int size) {
+        String from = chatType != null ? INBOX_FROM + CHAT_TYPE_FILTER : INBOX_FROM;
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("chatType", chatType != null ? chatType.name() : null)
+                .addValue("limit", size)
+                .addValue("offset", (long) page * size);
+
+        List<ActiveChatSummaryResponse> records = jdbcTemplate.query(
+                INBOX_PAGE.formatted(from), params, (rs, rowNum) -> mapRow(rs));
+
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) " + from, params, Long.class);
+        long total = count != null ? count : 0;
+
+        int totalPages = (int) Math.ceil(total / (double) size);
+        return PaginatedResponse.<ActiveChatSummaryResponse>builder()
+                .records(records)
+                .count(total)
+                .totalPages(totalPages)
+                .currentPage(page)
+                .prevPage(page > 0 ? page - 1 : null)
+                .nextPage(page < totalPages - 1 ? page + 1 : null)
+                .build();
+    }
+
+    private ActiveChatSummaryResponse mapRow(ResultSet rs) throws SQLException {
+        return ActiveChatSummaryResponse.builder()
+                .chatType(ChatType.valueOf(rs.getString("chat_type")))
+                .targetId(rs.getObject("target_id", UUID.class))
+                .title(rs.getString("title"))
+                .subtitle(rs.getString("subtitle"))
+                .imageUrl(rs.getString("image_url"))
+                .lastMessage(rs.getString("last_message"))
+                .lastMessageAt(rs.getObject("last_message_at", OffsetDateTime.class))
+                .unreadCount(rs.getLong("unread_count"))
+                .build();
+    }
+}
@@ -7,13 +7,11 @@ import com.playvora.playvora_api.chat.dtos.CommunityChatMessageResponse;
 import com.playvora.playvora_api.chat.dtos.PrivateChatMessageRequest;
 import com.playvora.playvora_api.chat.dtos.PrivateChatMessageResponse;
 import com.playvora.playvora_api.chat.entities.CommunityChatMessage;
-import com.playvora.playvora_api.chat.entities.CommunityChatReadState;
 import com.playvora.playvora_api.chat.entities.PrivateChatMessage;
-import com.playvora.playvora_api.chat.entities.PrivateChatReadState;
+import com.playvora.playvora_api.chat.enums.ChatType;
+import com.playvora.playvora_api.chat.events.ChatMessageSent;
 import com.playvora.playvora_api.chat.repo.CommunityChatMessageRepository;
-import com.playvora.playvora_api.chat.repo.CommunityChatReadStateRepository;
 import com.playvora.playvora_api.chat.repo.PrivateChatMessageRepository;
-import com.playvora.playvora_api.chat.repo.PrivateChatReadStateRepository;
 import com.playvora.playvora_api.chat.services.IChatWebSocketService;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.community.entities.Community;
@@ -25,6 +23,7 @@ import com.playvora.playvora_api.user.entities.User;
 import com.playvora.playvora_api.user.repo.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -48,9 +47,8 @@ public class ChatWebSocketService implements IChatWebSocketService {
     private final CommunityMemberRepository communityMemberRepository;
     private final PrivateChatMessageRepository privateChatMessageRepository;
     private final CommunityChatMessageRepository communityChatMessageRepository;
-    private final PrivateChatReadStateRepository privateChatReadStateRepository;
-    private final CommunityChatReadStateRepository communityChatReadStateRepository;
     private final IPushNotificationService pushNotificationService;
+    private final ApplicationEventPublisher eventPublisher;
     private final SimpMessagingTemplate messagingTemplate;
 
     @Override
@@ -85,15 +83,9 @@ public class ChatWebSocketService implements IChatWebSocketService {
                     .build();
             message = privateChatMessageRepository.save(message);
 
-            // Update read state for sender - they have read up to this message
-            PrivateChatReadState senderReadState = privateChatReadStateRepository
-                    .findByUserIdAndOtherUserId(currentUser.getId(), recipientId)
-                    .orElse(PrivateChatReadState.builder()
-                            .user(currentUser)
-                            .otherUser(recipient)
-                            .build());
-            senderReadState.setLastReadAt(message.getCreatedAt());
-            privateChatReadStateRepository.save(senderReadState);
+            // The sender's read marker and both inbox rows are updated off the send path
+            eventPublisher.publishEvent(new ChatMessageSent(ChatType.PRIVATE, recipientId, currentUser.getId(),
+                    message.getMessage(), message.getCreatedAt()));
 
             String senderName = currentUser.getFirstName() + " " + currentUser.getLastName();
             String recipientName = recipient.getFirstName() + " " + recipient.getLastName();
@@ -209,15 +201,9 @@ public class ChatWebSocketService implements IChatWebSocketService {
                     .build();
             message = communityChatMessageRepository.save(message);
 
-            // Update read state for sender - they have read up to this message
-            CommunityChatReadState senderReadState = communityChatReadStateRepository
-                    .findByUserIdAndCommunityId(currentUser.getId(), communityId)
-                    .orElse(CommunityChatReadState.builder()
-                            .user(currentUser)
-                            .community(community)
-                            .build());
-            senderReadState.setLastReadAt(message.getCreatedAt());
-            communityChatReadStateRepository.save(senderReadState);
+            // The sender's read marker and every member's inbox row are updated off the send path
+            eventPublisher.publishEvent(new ChatMessageSent(ChatType.COMMUNITY, communityId, currentUser.getId(),
+                    message.getMessage(), message.getCreatedAt()));
 
             String senderName = currentUser.getFirstName() + " " + currentUser.getLastName();
 
@@ -237,9 +223,10 @@ public class ChatWebSocketService implements IChatWebSocketService {
 
             log.info("Community chat message broadcasted to topic: {}", topic);
 
+            var members = communityMemberRepository.findActiveMembersByCommunityId(communityId);
+
             // Send chat notifications to all active community members except sender
             try {
-                var members = communityMemberRepository.findActiveMembersByCommunityId(communityId);
                 for (var member : members) {
                     if (!member.getUser().getId().equals(currentUser.getId())) {
                         sendChatNotification(ChatNotification.ChatType.COMMUNITY, communityId, message.getId(),
@@ -253,10 +240,8 @@ public class ChatWebSocketService implements IChatWebSocketService {
 
             // Push notifications to all active community members except sender
             try {
-                var members = communityMemberRepository.findActiveMembersByCommunityId(communityId);
-                List<String> memberUserIds = members.stream()
-                        .map(m -> m.getUser().getId().toString())
-                        .filter(id -> !id.equals(currentUser.getId().toString()))
+                List<UUID> memberUserIds = members.stream()
+                        .map(m -> m.getUser().getId())
                         .collect(Collectors.toList());
 
                 if (!memberUserIds.isEmpty()) {
@@ -270,8 +255,9 @@ public class ChatWebSocketService implements IChatWebSocketService {
                     String title = "New message in " + community.getName();
                     String body = senderName + ": " + request.getMessage();
 
-                    pushNotificationService.sendPushNotificationToUsers(
+                    pushNotificationService.sendMulticastNotification(
                             memberUserIds,
+                            List.of(currentUser.getId()),
                             title,
                             body,
                             notificationData
@@ -355,25 +341,25 @@ public class ChatWebSocketService implements IChatWebSocketService {
      * This mirrors the logic in {@code MatchWebSocketService} so authentication works the same way.
      */
     private User getCurrentUser(SimpMessageHeaderAccessor headerAccessor) {
-        log.info("ChatWebSocketService.getCurrentUser called - Session ID: {}",
+        log.debug("ChatWebSocketService.getCurrentUser called - Session ID: {}",
                 headerAccessor != null ? headerAccessor.getSessionId() : "null");
 
         org.springframework.security.core.Authentication authentication = null;
 
         if (headerAccessor != null) {
             java.security.Principal principal = headerAccessor.getUser();
-            log.info("HeaderAccessor.getUser() returned: {}",
+            log.debug("HeaderAccessor.getUser() returned: {}",
                     principal != null ? principal.getClass().getName() : "null");
 
             if (principal != null) {
                 if (principal instanceof org.springframework.security.core.Authentication) {
                     authentication = (org.springframework.security.core.Authentication) principal;
-                    log.info("✓ Direct cast successful - Authentication type: {}",
+                    log.debug("✓ Direct cast successful - Authentication type: {}",
                             authentication.getClass().getName());
                 } else {
                     try {
                         authentication = org.springframework.security.core.Authentication.class.cast(principal);
-                        log.info("✓ Explicit cast successful - Authentication type: {}",
+                        log.debug("✓ Explicit cast successful - Authentication type: {}",
                                 authentication.getClass().getName());
                     } catch (ClassCastException e) {
                         log.error("✗ Cannot cast principal to Authentication. Principal type: {}, Error: {}",
@@ -386,11 +372,11 @@ public class ChatWebSocketService implements IChatWebSocketService {
                         Object authPrincipal = authentication.getPrincipal();
                         if (authPrincipal != null) {
                             String userName = authentication.getName();
-                            log.info("✓✓ Authentication is valid (user: {}, principal type: {})",
+                            log.debug("✓✓ Authentication is valid (user: {}, principal type: {})",
                                     userName, authPrincipal.getClass().getName());
 
                             SecurityContextHolder.getContext().setAuthentication(authentication);
-                            log.info("✓ Authentication set in SecurityContext from HeaderAccessor");
+                            log.debug("✓ Authentication set in SecurityContext from HeaderAccessor");
                         } else {
                             log.error("✗✗ Authentication exists but principal is NULL!");
                             authentication = null;
@@ -404,19 +390,19 @@ public class ChatWebSocketService implements IChatWebSocketService {
 
             if (authentication == null || authentication.getPrincipal() == null) {
                 Map<String, Object> sessionAttributes = headerAccessor.getSessionAttributes();
-                log.info("Checking session attributes - Available keys: {}",
+                log.debug("Checking session attributes - Available keys: {}",
                         sessionAttributes != null ? sessionAttributes.keySet() : "null");
 
                 if (sessionAttributes != null) {
                     Object authObj = sessionAttributes.get("authentication");
                     if (authObj instanceof org.springframework.security.core.Authentication) {
                         authentication = (org.springframework.security.core.Authentication) authObj;
-                        log.info("✓ Authentication retrieved from session attributes (user: {})",
+                        log.debug("✓ Authentication retrieved from session attributes (user: {})",
                                 authentication.getName());
 
                         headerAccessor.setUser(authentication);
                         SecurityContextHolder.getContext().setAuthentication(authentication);
-                        log.info("✓ Authentication set in SecurityContext from session attributes");
+                        log.debug("✓ Authentication set in SecurityContext from session attributes");
                     }
                 }
             }
@@ -427,7 +413,7 @@ public class ChatWebSocketService implements IChatWebSocketService {
                     SecurityContextHolder.getContext().getAuthentication();
             if (securityAuth != null) {
                 authentication = securityAuth;
-                log.info("✓ Authentication found in SecurityContext (user: {})", authentication.getName());
+                log.debug("✓ Authentication found in SecurityContext (user: {})", authentication.getName());
             } else {
                 log.warn("✗ SecurityContext.getAuthentication() is null");
             }
@@ -446,10 +432,10 @@ public class ChatWebSocketService implements IChatWebSocketService {
             throw new BadRequestException("Invalid authentication: principal is null");
         }
 
-        log.info("Authentication principal type: {}", principal.getClass().getName());
+        log.debug("Authentication principal type: {}", principal.getClass().getName());
 
         if (principal instanceof AppUserDetail userDetail) {
-            log.info("Principal is AppUserDetail, email: {}", userDetail.getUsername());
+            log.debug("Principal is AppUserDetail, email: {}", userDetail.getUsername());
             return userRepository.findByEmail(userDetail.getUsername())
                     .orElseThrow(() -> new BadRequestException("User not found"));
         }
@@ -0,0 +1,45 @@
+package com.playvora.playvora_api.chat.services.impl;
+
+import com.playvora.playvora_api.chat.services.IConversationSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the conversation_summary projection from the existing chat tables.
+ * By default it runs once, on the first start after the table is created (table empty, messages present).
+ * Setting app.chat.conversation-summary.force-rebuild-on-startup=true recomputes it on the next start.
+ */
+@Slf4j
+@Component
+public class ConversationSummaryRebuildJob {
+
+    private final IConversationSummaryService conversationSummaryService;
+    private final boolean backfillOnStartup;
+    private final boolean forceRebuildOnStartup;
+
+    public ConversationSummaryRebuildJob(
+            IConversationSummaryService conversationSummaryService,
+            @Value("${app.chat.conversation-summary.backfill-on-startup:true}") boolean backfillOnStartup,
+            @Value("${app.chat.conversation-summary.force-rebuild-on-startup:false}") boolean forceRebuildOnStartup) {
+        this.conversationSummaryService = conversationSummaryService;
+        this.backfillOnStartup = backfillOnStartup;
+        this.forceRebuildOnStartup = forceRebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            if (forceRebuildOnStartup) {
+                conversationSummaryService.rebuild();
+            } else if (backfillOnStartup && conversationSummaryService.rebuildIfEmpty()) {
+                log.info("Backfilled conversation summaries from existing chat messages");
+            }
+        } catch (Exception e) {
+            // The inbox keeps working from live updates; the backfill is retried on the next start
+            log.error("Conversation summary rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+}
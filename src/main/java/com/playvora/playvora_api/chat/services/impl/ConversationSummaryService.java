@@ -0,0 +1,129 @@
+package com.playvora.playvora_api.chat.services.impl;
+
+import com.playvora.playvora_api.chat.enums.ChatType;
+import com.playvora.playvora_api.chat.events.ChatMessageSent;
+import com.playvora.playvora_api.chat.repo.CommunityChatReadStateRepository;
+import com.playvora.playvora_api.chat.repo.ConversationSummaryRepository;
+import com.playvora.playvora_api.chat.repo.PrivateChatReadStateRepository;
+import com.playvora.playvora_api.chat.services.IConversationSummaryService;
+import com.playvora.playvora_api.match.repo.MatchChatReadStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class ConversationSummaryService implements IConversationSummaryService {
+
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final PrivateChatReadStateRepository privateChatReadStateRepository;
+    private final CommunityChatReadStateRepository communityChatReadStateRepository;
+    private final MatchChatReadStateRepository matchChatReadStateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor conversationSummaryExecutor;
+
+    public ConversationSummaryService(ConversationSummaryRepository conversationSummaryRepository,
+                                      PrivateChatReadStateRepository privateChatReadStateRepository,
+                                      CommunityChatReadStateRepository communityChatReadStateRepository,
+                                      MatchChatReadStateRepository matchChatReadStateRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      @Qualifier("conversationSummaryExecutor") ThreadPoolTaskExecutor conversationSummaryExecutor) {
+        this.conversationSummaryRepository = conversationSummaryRepository;
+        this.privateChatReadStateRepository = privateChatReadStateRepository;
+        this.communityChatReadStateRepository = communityChatReadStateRepository;
+        this.matchChatReadStateRepository = matchChatReadStateRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.conversationSummaryExecutor = conversationSummaryExecutor;
+    }
+
+    /**
+     * Hand a sent message to the worker pool once the sending transaction (if any) has committed.
+     * A failed update only leaves inbox rows stale until the next rebuild; it never fails the send.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChatMessageSent(ChatMessageSent sent) {
+        conversationSummaryExecutor.execute(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> record(sent));
+            } catch (Exception e) {
+                log.error("Failed to record {} chat message from {} in conversation summaries: {}",
+                        sent.chatType(), sent.senderId(), e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void record(ChatMessageSent sent) {
+        UUID senderId = sent.senderId();
+        UUID targetId = sent.targetId();
+        switch (sent.chatType()) {
+            case PRIVATE -> {
+                privateChatReadStateRepository.markReadUpTo(senderId, targetId, sent.createdAt());
+                conversationSummaryRepository.upsertPrivateMessage(senderId, targetId, sent.message(), sent.createdAt());
+            }
+            case COMMUNITY -> {
+                communityChatReadStateRepository.markReadUpTo(senderId, targetId, sent.createdAt());
+                conversationSummaryRepository.upsertCommunityMessage(targetId, senderId, sent.message(), sent.createdAt());
+            }
+            case MATCH_EVENT -> {
+                matchChatReadStateRepository.markReadUpTo(senderId, targetId, sent.createdAt());
+                conversationSummaryRepository.upsertMatchMessage(targetId, senderId, sent.message(), sent.createdAt());
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void markRead(UUID userId, ChatType chatType, UUID targetId) {
+        // Upserts, because the ChatMessageSent worker may be inserting the same read state row
+        OffsetDateTime now = OffsetDateTime.now();
+        switch (chatType) {
+            case PRIVATE -> privateChatReadStateRepository.markReadUpTo(userId, targetId, now);
+            case COMMUNITY -> communityChatReadStateRepository.markReadUpTo(userId, targetId, now);
+            case MATCH_EVENT -> matchChatReadStateRepository.markReadUpTo(userId, targetId, now);
+        }
+        conversationSummaryRepository.markRead(userId, chatType.name(), targetId);
+    }
+
+    @Override
+    @Transactional
+    public boolean rebuild() {
+        if (!conversationSummaryRepository.tryLockForRebuild()) {
+            log.info("Conversation summary rebuild already running on another instance, skipping");
+            return false;
+        }
+        return doRebuild();
+    }
+
+    @Override
+    @Transactional
+    public boolean rebuildIfEmpty() {
+        if (!conversationSummaryRepository.tryLockForRebuild()) {
+            return false;
+        }
+        // Re-checked under the lock so two instances starting together do not both backfill
+        if (conversationSummaryRepository.count() > 0 || !conversationSummaryRepository.anyChatMessagesExist()) {
+            return false;
+        }
+        return doRebuild();
+    }
+
+    private boolean doRebuild() {
+        long start = System.currentTimeMillis();
+        int deleted = conversationSummaryRepository.deleteAllSummaries();
+        int privateRows = conversationSummaryRepository.rebuildPrivateSummaries();
+        int communityRows = conversationSummaryRepository.rebuildCommunitySummaries();
+        int matchRows = conversationSummaryRepository.rebuildMatchSummaries();
+        log.info("Rebuilt conversation summaries in {} ms: deleted={}, private={}, community={}, match={}",
+                System.currentTimeMillis() - start, deleted, privateRows, communityRows, matchRows);
+        return true;
+    }
+}
@@ -3,6 +3,8 @@ package com.playvora.playvora_api.common.config;
 import com.playvora.playvora_api.component.WebSocketAuthInterceptor;
 import com.playvora.playvora_api.component.WebSocketHandshakeInterceptor;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -11,13 +13,16 @@ import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
@@ -25,8 +30,96 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     // Create handshake interceptor instance
     private final WebSocketHandshakeInterceptor webSocketHandshakeInterceptor = new WebSocketHandshakeInterceptor();
 
+    /**
+     * Broker relay destinations broadcast between instances so that {@code /user/...} destinations
+     * resolve to sessions connected to any node (see {@link #configureMessageBroker}).
+     */
+    private static final String USER_DESTINATION_BROADCAST = "/topic/unresolved-user-destination";
+    private static final String USER_REGISTRY_BROADCAST = "/topic/simp-user-registry";
+
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${app.websocket.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${app.websocket.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${app.websocket.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${app.websocket.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    @Value("${app.websocket.broker.relay.system-heartbeat-send-interval-ms:10000}")
+    private long relaySystemHeartbeatSendInterval;
+
+    @Value("${app.websocket.broker.relay.system-heartbeat-receive-interval-ms:10000}")
+    private long relaySystemHeartbeatReceiveInterval;
+
+    @Value("${app.websocket.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.inbound.max-pool-size:16}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${app.websocket.channel.keep-alive-seconds:60}")
+    private int channelKeepAliveSeconds;
+
+    @Value("${app.websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${app.websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${app.websocket.transport.time-to-first-message-ms:60000}")
+    private int timeToFirstMessageMillis;
+
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            configureBrokerRelay(config);
+        } else {
+            configureSimpleBroker(config);
+        }
+
+        // Set the application destination prefix to "/app"
+        config.setApplicationDestinationPrefixes("/app");
+
+        // Set user destination prefix for private messages
+        config.setUserDestinationPrefix("/user");
+
+        // The outbound channel is multi-threaded; keep messages to each session in publish order
+        // so match deltas arrive in sequence
+        config.setPreservePublishOrder(true);
+    }
+
+    private void configureSimpleBroker(MessageBrokerRegistry config) {
         // Enable a simple in‑memory message broker for destinations prefixed with "/topic" and "/queue".
         //
         // Heartbeats:
@@ -37,15 +130,35 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // - This configuration does NOT itself log heartbeat frames. To see them on the server side,
         //   enable DEBUG/TRACE logging for Spring’s WebSocket/STOMP packages. On the client side
         //   (e.g. in draft-selection.html) you can see them via the STOMP debug logger.
+        log.info("WebSocket broker mode: simple (in-memory, single instance)");
         config.enableSimpleBroker("/topic", "/queue")
                 .setTaskScheduler(webSocketTaskScheduler())
                 .setHeartbeatValue(new long[]{10_000L, 10_000L});
+    }
 
-        // Set the application destination prefix to "/app"
-        config.setApplicationDestinationPrefixes("/app");
-
-        // Set user destination prefix for private messages
-        config.setUserDestinationPrefix("/user");
+    private void configureBrokerRelay(MessageBrokerRegistry config) {
+        // Forward "/topic" and "/queue" to an external STOMP broker shared by every instance.
+        // Each client session gets its own broker connection (client login); the "system" connection
+        // is used for messages sent from the application via SimpMessagingTemplate.
+        // Client heartbeats are negotiated end-to-end with the broker, so no local scheduler is needed.
+        log.info("WebSocket broker mode: relay ({}:{})", relayHost, relayPort);
+        var relay = config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayClientLogin)
+                .setClientPasscode(relayClientPasscode)
+                .setSystemLogin(relaySystemLogin)
+                .setSystemPasscode(relaySystemPasscode)
+                .setSystemHeartbeatSendInterval(relaySystemHeartbeatSendInterval)
+                .setSystemHeartbeatReceiveInterval(relaySystemHeartbeatReceiveInterval)
+                // Messages to /user/{name}/... that cannot be resolved locally are rebroadcast so the
+                // instance holding the user's session can deliver them, and each instance publishes
+                // its local sessions so the user registry reflects the whole cluster.
+                .setUserDestinationBroadcast(USER_DESTINATION_BROADCAST)
+                .setUserRegistryBroadcast(USER_REGISTRY_BROADCAST);
+        if (StringUtils.hasText(relayVirtualHost)) {
+            relay.setVirtualHost(relayVirtualHost);
+        }
     }
 
     @Bean
@@ -65,17 +178,42 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*") // Allow all origins for development
                 .addInterceptors(webSocketHandshakeInterceptor) // Add handshake interceptor to extract token from query params
                 .withSockJS(); // Enable SockJS fallback options
+
+        // The inbound channel is multi-threaded; handle each session's frames in the order they were sent
+        registry.setPreserveReceiveOrder(true);
     }
 
     @Override
     public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
-        // Add authentication interceptor for incoming messages
+        // Frames from clients (SEND/SUBSCRIBE/...). The queue is bounded so a burst of client
+        // frames is rejected instead of piling up on the heap; authentication happens here only.
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity)
+                .keepAliveSeconds(channelKeepAliveSeconds);
         registration.interceptors(webSocketAuthInterceptor);
     }
-    
+
     @Override
     public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
-        // Add interceptor to track outbound messages (messages sent to subscribers)
-        registration.interceptors(webSocketAuthInterceptor);
+        // Messages to subscribers. No interceptors: this channel carries one message per subscriber
+        // per broadcast, so anything registered here runs (fan-out × message rate) times.
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity)
+                .keepAliveSeconds(channelKeepAliveSeconds);
+    }
+
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        // Slow consumers: while a send to a session is in progress further messages are buffered.
+        // A session whose buffer exceeds send-buffer-size-limit, or whose current send takes longer
+        // than send-time-limit, is closed; the client reconnects and resyncs from the match snapshot.
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMillis)
+                .setTimeToFirstMessage(timeToFirstMessageMillis);
     }
 }
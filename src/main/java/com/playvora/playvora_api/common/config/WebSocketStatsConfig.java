@@ -0,0 +1,27 @@
+package com.playvora.playvora_api.common.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+
+/**
+ * Periodically logs the STOMP session counts and the inbound/outbound channel executor statistics
+ * (pool size, active threads, queued and completed tasks). Comparing completed task counts between
+ * two log lines gives the messages/sec handled by this node.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebSocketStatsConfig {
+
+    private final WebSocketMessageBrokerStats webSocketMessageBrokerStats;
+
+    @Value("${app.websocket.stats.logging-period-ms:60000}")
+    private long loggingPeriodMillis;
+
+    @PostConstruct
+    void configureLoggingPeriod() {
+        webSocketMessageBrokerStats.setLoggingPeriod(loggingPeriodMillis);
+    }
+}
@@ -0,0 +1,35 @@
+package com.playvora.playvora_api.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A page of records fetched with a (createdAt, id) keyset cursor instead of an offset.
+ * Pass nextBefore/nextBeforeId back as before/beforeId to fetch the next (older) page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPaginatedResponse<T> {
+
+    private List<T> records;
+
+    private boolean hasMore;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private OffsetDateTime nextBefore;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID nextBeforeId;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long unReadCount;
+}
@@ -0,0 +1,31 @@
+package com.playvora.playvora_api.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A page of records ordered by distance from a point, fetched with a (distance, id) keyset cursor.
+ * Pass nextAfterDistanceKm/nextAfterId back as afterDistanceKm/afterId to fetch the next (further) page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyPaginatedResponse<T> {
+
+    private List<NearbyRecord<T>> records;
+
+    private boolean hasMore;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double nextAfterDistanceKm;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID nextAfterId;
+}
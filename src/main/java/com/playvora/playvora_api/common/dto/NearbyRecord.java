@@ -0,0 +1,17 @@
+package com.playvora.playvora_api.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyRecord<T> {
+
+    private T record;
+
+    private double distanceKm;
+}
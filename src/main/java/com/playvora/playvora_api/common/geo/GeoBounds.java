@@ -0,0 +1,43 @@
+package com.playvora.playvora_api.common.geo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The latitude/longitude box enclosing a circle, used to prefilter rows on the
+ * (latitude, longitude) indexes before distances are computed. Bounds are rounded outwards to the
+ * columns' 8 decimal places.
+ */
+public record GeoBounds(BigDecimal minLatitude, BigDecimal maxLatitude,
+                        BigDecimal minLongitude, BigDecimal maxLongitude) {
+
+    public static GeoBounds around(GeoPoint center, double radiusKm) {
+        double angularRadius = radiusKm / GeoPoint.EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angularRadius);
+        double minLat = center.latitude() - latDelta;
+        double maxLat = center.latitude() + latDelta;
+
+        double minLon = -180;
+        double maxLon = 180;
+        // Near a pole, or when the box crosses the antimeridian, every longitude is in range
+        if (minLat > -90 && maxLat < 90) {
+            double lonDelta = Math.toDegrees(Math.asin(
+                    Math.sin(angularRadius) / Math.cos(Math.toRadians(center.latitude()))));
+            if (center.longitude() - lonDelta >= -180 && center.longitude() + lonDelta <= 180) {
+                minLon = center.longitude() - lonDelta;
+                maxLon = center.longitude() + lonDelta;
+            }
+        }
+        return new GeoBounds(
+                floor(Math.max(minLat, -90)), ceil(Math.min(maxLat, 90)),
+                floor(minLon), ceil(maxLon));
+    }
+
+    private static BigDecimal floor(double degrees) {
+        return BigDecimal.valueOf(degrees).setScale(8, RoundingMode.FLOOR);
+    }
+
+    private static BigDecimal ceil(double degrees) {
+        return BigDecimal.valueOf(degrees).setScale(8, RoundingMode.CEILING);
+    }
+}
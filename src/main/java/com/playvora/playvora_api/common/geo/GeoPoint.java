@@ -0,0 +1,33 @@
+package com.playvora.playvora_api.common.geo;
+
+import java.math.BigDecimal;
+
+/**
+ * A latitude/longitude pair in degrees.
+ */
+public record GeoPoint(double latitude, double longitude) {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /**
+     * @return null unless both coordinates are present
+     */
+    public static GeoPoint of(BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return new GeoPoint(latitude.doubleValue(), longitude.doubleValue());
+    }
+
+    /**
+     * Great-circle (haversine) distance to {@code other} in kilometres.
+     */
+    public double distanceKm(GeoPoint other) {
+        double dLat = Math.toRadians(other.latitude - latitude);
+        double dLon = Math.toRadians(other.longitude - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(other.latitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,126 @@
+package com.playvora.playvora_api.common.geo;
+
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
+import com.playvora.playvora_api.common.dto.NearbyRecord;
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "Near me" search and radius checks over the latitude/longitude columns of matches, venues and
+ * communities. The repositories' {@code findNearest} queries narrow rows to the {@link GeoBounds}
+ * box around the search circle using the (latitude, longitude) indexes (see V54), compute haversine
+ * distances for that box and return only the next page after the cursor, nearest first; this class
+ * then loads those rows.
+ */
+@Component
+public class GeoSearch {
+
+    /** Cursor of the first page: every row is further than -1 km away. */
+    private static final UUID FIRST_PAGE_ID = new UUID(0, 0);
+
+    private final double maxRadiusKm;
+    private final int maxPageSize;
+    private final double joinRadiusKm;
+
+    public GeoSearch(@Value("${app.geo.max-radius-km:100}") double maxRadiusKm,
+                     @Value("${app.geo.max-page-size:50}") int maxPageSize,
+                     @Value("${app.geo.join-radius-km:1.61}") double joinRadiusKm) {
+        this.maxRadiusKm = maxRadiusKm;
+        this.maxPageSize = maxPageSize;
+        this.joinRadiusKm = joinRadiusKm;
+    }
+
+    /**
+     * Find the page of rows nearest to the query's centre, after its cursor.
+     *
+     * @param nearest runs a repository's {@code findNearest} query
+     * @param loader  loads the rows for a list of ids, in any order
+     */
+    public <E, T> NearbyPaginatedResponse<T> findNearby(NearbyQuery query,
+                                                        Function<NearbySearch, List<NearbyHit>> nearest,
+                                                        Function<List<UUID>, List<E>> loader,
+                                                        Function<E, UUID> idOf,
+                                                        Function<E, T> mapper) {
+        validate(query);
+        GeoPoint center = query.center();
+        List<NearbyHit> hits = nearest.apply(new NearbySearch(center, query.radiusKm(),
+                GeoBounds.around(center, query.radiusKm()),
+                query.afterDistanceKm() != null ? query.afterDistanceKm() : -1,
+                query.afterId() != null ? query.afterId() : FIRST_PAGE_ID,
+                query.size() + 1));
+
+        boolean hasMore = hits.size() > query.size();
+        if (hasMore) {
+            hits = hits.subList(0, query.size());
+        }
+
+        Map<UUID, E> rows = hits.isEmpty()
+                ? Map.of()
+                : loader.apply(hits.stream().map(NearbyHit::id).toList()).stream()
+                        .collect(Collectors.toMap(idOf, Function.identity()));
+
+        List<NearbyRecord<T>> records = new ArrayList<>(hits.size());
+        for (NearbyHit hit : hits) {
+            E row = rows.get(hit.id());
+            // Deleted between the two queries
+            if (row != null) {
+                records.add(NearbyRecord.<T>builder()
+                        .record(mapper.apply(row))
+                        .distanceKm(hit.distanceKm())
+                        .build());
+            }
+        }
+
+        NearbyHit last = hasMore ? hits.get(hits.size() - 1) : null;
+        return NearbyPaginatedResponse.<T>builder()
+                .records(records)
+                .hasMore(hasMore)
+                .nextAfterDistanceKm(last != null ? last.distanceKm() : null)
+                .nextAfterId(last != null ? last.id() : null)
+                .build();
+    }
+
+    /**
+     * Whether a user at the given coordinates is close enough to {@code target} to join or mark
+     * availability for something held there. A target without coordinates cannot be checked and is
+     * allowed; a user without coordinates is not.
+     */
+    public boolean isWithinJoinRadius(BigDecimal userLatitude, BigDecimal userLongitude, GeoPoint target) {
+        if (target == null) {
+            return true;
+        }
+        GeoPoint user = GeoPoint.of(userLatitude, userLongitude);
+        return user != null && user.distanceKm(target) <= joinRadiusKm;
+    }
+
+    public double getJoinRadiusKm() {
+        return joinRadiusKm;
+    }
+
+    private void validate(NearbyQuery query) {
+        if (!(query.latitude() >= -90 && query.latitude() <= 90)) {
+            throw new BadRequestException("Latitude must be between -90 and 90");
+        }
+        if (!(query.longitude() >= -180 && query.longitude() <= 180)) {
+            throw new BadRequestException("Longitude must be between -180 and 180");
+        }
+        if (!(query.radiusKm() > 0 && query.radiusKm() <= maxRadiusKm)) {
+            throw new BadRequestException("Radius must be greater than 0 and at most " + maxRadiusKm + " km");
+        }
+        if (query.size() < 1 || query.size() > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+        if ((query.afterDistanceKm() == null) != (query.afterId() == null)) {
+            throw new BadRequestException("afterDistanceKm and afterId must be given together");
+        }
+    }
+}
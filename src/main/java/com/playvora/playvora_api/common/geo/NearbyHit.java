@@ -0,0 +1,14 @@
+package com.playvora.playvora_api.common.geo;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * A row within the search radius and its distance from the search centre.
+ */
+public record NearbyHit(UUID id, double distanceKm) {
+
+    /** Nearest first; ties broken by id so the cursor is a total order. */
+    static final Comparator<NearbyHit> ORDER = Comparator.comparingDouble(NearbyHit::distanceKm)
+            .thenComparing(NearbyHit::id);
+}
@@ -0,0 +1,15 @@
+package com.playvora.playvora_api.common.geo;
+
+import java.util.UUID;
+
+/**
+ * A "near me" request. {@code afterDistanceKm}/{@code afterId} are the cursor returned with the
+ * previous page, or null for the first page.
+ */
+public record NearbyQuery(double latitude, double longitude, double radiusKm, int size,
+                          Double afterDistanceKm, UUID afterId) {
+
+    public GeoPoint center() {
+        return new GeoPoint(latitude, longitude);
+    }
+}
@@ -0,0 +1,13 @@
+package com.playvora.playvora_api.common.geo;
+
+import java.util.UUID;
+
+/**
+ * The arguments of the repositories' {@code findNearest} queries: the {@code limit} rows nearest to
+ * {@code center}, within {@code radiusKm} and strictly after the (afterDistanceKm, afterId) cursor,
+ * nearest first. {@code bounds} encloses the circle so the (latitude, longitude) indexes can narrow
+ * the rows before distances are computed. The first page has a cursor of -1 km, before every row.
+ */
+public record NearbySearch(GeoPoint center, double radiusKm, GeoBounds bounds,
+                           double afterDistanceKm, UUID afterId, int limit) {
+}
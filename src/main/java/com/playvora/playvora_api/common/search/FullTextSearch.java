@@ -0,0 +1,76 @@
+package com.playvora.playvora_api.common.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a user's search box input into a PostgreSQL prefix query for the {@code search_vector}
+ * columns (see V53). Other databases (H2 in tests) have no full-text index; there
+ * {@link #prefixQuery(String)} returns null and callers fall back to their LIKE queries.
+ */
+@Component
+@Slf4j
+public class FullTextSearch {
+
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MAX_TERMS = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private volatile Boolean available;
+
+    public FullTextSearch(JdbcTemplate jdbcTemplate,
+                          @Value("${app.search.full-text.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Build a {@code to_tsquery('simple', ...)} argument matching rows that contain every term as a
+     * word prefix, e.g. {@code "Sunday foot"} becomes {@code "sunday:* & foot:*"}. Only letters and
+     * digits are kept, so the result is always valid tsquery syntax.
+     *
+     * @return null if full-text search is unavailable or the input has no searchable terms
+     */
+    public String prefixQuery(String search) {
+        if (search == null || search.isBlank() || !isAvailable()) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        Matcher matcher = TERM.matcher(search.toLowerCase(Locale.ROOT));
+        while (matcher.find() && terms.size() < MAX_TERMS) {
+            terms.add(matcher.group() + ":*");
+        }
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+
+    /**
+     * Ranked queries order by relevance themselves, so the caller's sort is dropped.
+     */
+    public Pageable ranked(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    private boolean isAvailable() {
+        Boolean supported = available;
+        if (supported == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            supported = enabled && "PostgreSQL".equalsIgnoreCase(product);
+            available = supported;
+            log.info("Full-text search {} on {}", supported ? "enabled" : "disabled", product);
+        }
+        return supported;
+    }
+}
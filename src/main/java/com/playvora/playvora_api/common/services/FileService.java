@@ -1,28 +1,54 @@
 package com.playvora.playvora_api.common.services;
 
+import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.community.services.IS3Service;
-import com.playvora.playvora_api.files.dtos.FileResourcePayload;
+import com.playvora.playvora_api.files.dtos.CompleteFileUploadRequest;
+import com.playvora.playvora_api.files.dtos.FileStreamPayload;
+import com.playvora.playvora_api.files.dtos.FileUploadRequest;
+import com.playvora.playvora_api.files.dtos.FileUploadTicket;
+import com.playvora.playvora_api.files.dtos.PartUploadUrl;
+import com.playvora.playvora_api.files.dtos.PresignedRequest;
+import com.playvora.playvora_api.files.dtos.PresignedUrl;
+import com.playvora.playvora_api.files.dtos.S3ObjectInfo;
+import com.playvora.playvora_api.files.dtos.S3ObjectStream;
+import com.playvora.playvora_api.files.dtos.S3UploadResult;
+import com.playvora.playvora_api.files.dtos.StoredBlob;
 import com.playvora.playvora_api.files.dtos.UserFileResponse;
 import com.playvora.playvora_api.files.entities.UserFile;
+import com.playvora.playvora_api.files.images.ImageVariants;
 import com.playvora.playvora_api.files.repositories.UserFileRepository;
+import com.playvora.playvora_api.files.services.IFileBlobService;
+import com.playvora.playvora_api.files.services.IImageVariantService;
+import com.playvora.playvora_api.files.services.impl.PresignedUrlCache;
 import com.playvora.playvora_api.user.entities.User;
 import com.playvora.playvora_api.user.repo.UserRepository;
 import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @Slf4j
@@ -30,10 +56,29 @@ import org.springframework.web.multipart.MultipartFile;
 public class FileService {
     private static final long MAX_FILE_SIZE_BYTES = 20 * 1024 * 1024; // 20 MB
     private static final String USER_FOLDER_PREFIX = "users";
+    // S3 serves a single byte range; other Range headers are ignored and the whole file is sent
+    private static final Pattern SINGLE_BYTE_RANGE = Pattern.compile("bytes=(\\d+-\\d*|-\\d+)");
+    // S3 rejects multipart parts smaller than 5 MB (except the last one)
+    private static final long MIN_PART_SIZE_BYTES = 5 * 1024 * 1024;
+    // User metadata stored with direct uploads, so completion needs no server-side state
+    private static final String ORIGINAL_FILE_NAME_METADATA = "original-file-name";
+    private static final String DECLARED_SIZE_METADATA = "declared-size";
 
     private final IS3Service s3Service;
     private final UserRepository userRepository;
     private final UserFileRepository userFileRepository;
+    private final IImageVariantService imageVariantService;
+    private final PresignedUrlCache presignedUrlCache;
+    private final IFileBlobService fileBlobService;
+
+    @Value("${app.files.upload.url-expiry-minutes:15}")
+    private long uploadUrlExpiryMinutes;
+
+    @Value("${app.files.upload.multipart-threshold-bytes:10485760}")
+    private long multipartThresholdBytes;
+
+    @Value("${app.files.upload.part-size-bytes:5242880}")
+    private long partSizeBytes;
 
     public Map<String, Object> uploadFile(MultipartFile file, Principal principal) {
         validateFile(file);
@@ -42,8 +87,11 @@ public class FileService {
         String sanitizedOriginalName = sanitizeOriginalFilename(file.getOriginalFilename());
         String folder = buildUserFolder(user);
         String uniqueFileName = s3Service.generateUniqueFileName(sanitizedOriginalName);
-        String fileKey = s3Service.uploadFile(file, folder, uniqueFileName);
-        String storedFileName = extractFileNameFromKey(fileKey);
+        StoredBlob blob = fileBlobService.store(file, folder, uniqueFileName);
+        S3UploadResult stored = blob.object();
+        String fileKey = stored.fileKey();
+        // A re-upload of content already stored in this user's folder shares that object but gets a name of its own
+        String storedFileName = blob.reused() ? uniqueFileName : extractFileNameFromKey(fileKey);
         String fileUrl = s3Service.getFileUrl(fileKey);
 
         UserFile userFile = userFileRepository.save(
@@ -56,8 +104,126 @@ public class FileService {
                         .fileUrl(fileUrl)
                         .fileKey(fileKey)
                         .uploadedAt(OffsetDateTime.now())
+                        .etag(stored.eTag())
+                        .contentEncoding(stored.contentEncoding())
+                        .storageSize(stored.storedSize())
+                        .storageLastModified(OffsetDateTime.now())
                         .build());
+        if (!blob.reused()) {
+            imageVariantService.generateAsync(fileKey);
+        }
+        return toUploadResponse(userFile);
+    }
 
+    /**
+     * First phase of a direct upload: reserve a key in the user's folder and presign the upload, so
+     * the file goes from the client to S3 without passing through this server. Files above the
+     * multipart threshold get one presigned URL per part.
+     */
+    public FileUploadTicket createUpload(FileUploadRequest request, Principal principal) {
+        User user = resolveUser(principal);
+        if (request.getSize() <= 0) {
+            throw new BadRequestException("File is empty");
+        }
+        if (request.getSize() > MAX_FILE_SIZE_BYTES) {
+            throw new BadRequestException("File exceeds maximum allowed size of 20 MB");
+        }
+        String contentType = validateContentType(request.getContentType());
+
+        String sanitizedOriginalName = sanitizeOriginalFilename(request.getFileName());
+        String fileName = s3Service.generateUniqueFileName(sanitizedOriginalName);
+        String fileKey = buildUserFolder(user) + "/" + fileName;
+        Map<String, String> metadata = Map.of(
+                ORIGINAL_FILE_NAME_METADATA, sanitizedOriginalName,
+                DECLARED_SIZE_METADATA, Long.toString(request.getSize()));
+        Duration expiry = Duration.ofMinutes(uploadUrlExpiryMinutes);
+
+        if (request.getSize() <= multipartThresholdBytes) {
+            PresignedRequest upload = s3Service.presignUpload(fileKey, contentType, request.getSize(), metadata, expiry);
+            return FileUploadTicket.builder()
+                    .fileKey(fileKey)
+                    .fileName(fileName)
+                    .url(upload.url())
+                    .headers(upload.headers())
+                    .expiresAt(upload.expiresAt())
+                    .build();
+        }
+
+        long partSize = Math.max(partSizeBytes, MIN_PART_SIZE_BYTES);
+        int partCount = (int) ((request.getSize() + partSize - 1) / partSize);
+        String uploadId = s3Service.createMultipartUpload(fileKey, contentType, metadata);
+        List<PresignedRequest> parts = s3Service.presignUploadParts(fileKey, uploadId, partCount, expiry);
+        return FileUploadTicket.builder()
+                .fileKey(fileKey)
+                .fileName(fileName)
+                .uploadId(uploadId)
+                .partSize(partSize)
+                .parts(IntStream.range(0, parts.size())
+                        .mapToObj(i -> PartUploadUrl.builder().partNumber(i + 1).url(parts.get(i).url()).build())
+                        .toList())
+                .expiresAt(parts.get(0).expiresAt())
+                .build();
+    }
+
+    /**
+     * Second phase of a direct upload: finish a multipart upload if there is one, check what actually
+     * landed in S3 against what was declared, and record the file. Completing the same key again
+     * returns the recorded file.
+     */
+    public Map<String, Object> completeUpload(CompleteFileUploadRequest request, Principal principal) {
+        User user = resolveUser(principal);
+        String fileKey = request.getFileKey();
+        String folder = buildUserFolder(user) + "/";
+        if (!fileKey.startsWith(folder) || fileKey.indexOf('/', folder.length()) >= 0
+                || fileKey.length() == folder.length()) {
+            throw new AccessDeniedException("File key does not belong to the current user");
+        }
+        Optional<UserFile> existing = userFileRepository.findFirstByUserAndFileKey(user, fileKey);
+        if (existing.isPresent()) {
+            return toUploadResponse(existing.get());
+        }
+
+        if (request.getUploadId() != null) {
+            if (request.getParts() == null || request.getParts().isEmpty()) {
+                throw new BadRequestException("Parts are required to complete a multipart upload");
+            }
+            s3Service.completeMultipartUpload(fileKey, request.getUploadId(), request.getParts());
+        }
+
+        S3ObjectInfo object = s3Service.headFile(fileKey)
+                .orElseThrow(() -> new BadRequestException("No uploaded file found for key: " + fileKey));
+        String declaredSize = object.metadata().get(DECLARED_SIZE_METADATA);
+        String originalFileName = object.metadata().get(ORIGINAL_FILE_NAME_METADATA);
+        if (declaredSize == null || originalFileName == null) {
+            throw new BadRequestException("File was not uploaded through an upload URL");
+        }
+        if (object.contentLength() > MAX_FILE_SIZE_BYTES || !declaredSize.equals(Long.toString(object.contentLength()))) {
+            s3Service.deleteFile(fileKey);
+            throw new BadRequestException("Uploaded file size does not match the declared size");
+        }
+        validateContentType(object.contentType());
+
+        UserFile userFile = userFileRepository.save(
+                UserFile.builder()
+                        .user(user)
+                        .fileName(extractFileNameFromKey(fileKey))
+                        .originalFileName(originalFileName)
+                        .contentType(object.contentType())
+                        .size(object.contentLength())
+                        .fileUrl(s3Service.getFileUrl(fileKey))
+                        .fileKey(fileKey)
+                        .uploadedAt(OffsetDateTime.now())
+                        .etag(object.eTag())
+                        .contentEncoding(object.contentEncoding())
+                        .storageSize(object.contentLength())
+                        .storageLastModified(toOffsetDateTime(object.lastModified()))
+                        .build());
+        log.info("Completed direct upload of {} ({} bytes)", fileKey, object.contentLength());
+        imageVariantService.generateAsync(fileKey);
+        return toUploadResponse(userFile);
+    }
+
+    private Map<String, Object> toUploadResponse(UserFile userFile) {
         Map<String, Object> response = new HashMap<>();
         response.put("fileName", userFile.getFileName());
         response.put("originalFileName", userFile.getOriginalFileName());
@@ -66,6 +232,7 @@ public class FileService {
         response.put("size", userFile.getSize());
         response.put("uploadedAt", userFile.getUploadedAt());
         response.put("fileKey", userFile.getFileKey());
+        response.put("variants", ImageVariants.urlsForKey(userFile.getFileKey()));
         return response;
     }
 
@@ -81,29 +248,54 @@ public class FileService {
         UserFile userFile = userFileRepository.findByUserAndFileName(user, fileName)
                 .orElseThrow(() -> new BadRequestException("File not found: " + fileName));
 
-        s3Service.deleteFile(userFile.getFileKey());
         userFileRepository.delete(userFile);
+        // Other files with the same content keep the object; they sign a new URL for it
+        presignedUrlCache.invalidate(userFile.getFileKey());
+        fileBlobService.release(userFile.getFileKey());
     }
 
-    public FileResourcePayload getFileImage(String userId, String fileName) {
+    /**
+     * Open a file for streaming to the client. A client that already has the file, going by the
+     * ETag recorded at upload, gets a 304 without S3 being called. Otherwise the object is fetched
+     * with a single GET that carries the client's Range and If-None-Match headers, so a missing
+     * object, a 304 or a partial response comes straight from S3 without a separate existence check.
+     * The caller must close the payload.
+     */
+    public FileStreamPayload openFileImage(String userId, String fileName, String range, String ifNoneMatch) {
         UUID userIdUUID = UUID.fromString(userId);
 
         UserFile userFile = userFileRepository.findByUserIdAndFileName(userIdUUID, fileName)
                 .orElseThrow(() -> new BadRequestException("File not found: " + fileName));
 
-        if (!s3Service.fileExists(userFile.getFileKey())) {
-            throw new BadRequestException("Stored file no longer exists in S3");
+        if (userFile.getEtag() != null && etagMatches(ifNoneMatch, userFile.getEtag())) {
+            return new FileStreamPayload(S3ObjectStream.withoutBody(HttpStatus.NOT_MODIFIED.value(), userFile.getEtag()),
+                    userFile.getContentType(), userFile.getOriginalFileName(), true);
         }
 
-        byte[] data = s3Service.downloadFile(userFile.getFileKey());
-        Resource resource = new ByteArrayResource(data);
-        return new FileResourcePayload(resource, userFile.getContentType(), userFile.getOriginalFileName());
+        String singleRange = range != null && SINGLE_BYTE_RANGE.matcher(range.trim()).matches() ? range.trim() : null;
+        return s3Service.openFile(userFile.getFileKey(), singleRange, ifNoneMatch)
+                .map(object -> new FileStreamPayload(object, userFile.getContentType(), userFile.getOriginalFileName(), true))
+                .orElseThrow(() -> new BadRequestException("Stored file no longer exists in S3"));
     }
 
+    /**
+     * File details including what S3 stores, served from the file's row. Files uploaded before the
+     * storage metadata was recorded are looked up in S3 once and the row filled in.
+     */
     public Map<String, Object> getFileMetadata(String fileName, Principal principal) {
         User user = resolveUser(principal);
         UserFile userFile = userFileRepository.findByUserAndFileName(user, fileName)
                 .orElseThrow(() -> new BadRequestException("File not found: " + fileName));
+        if (userFile.getEtag() == null) {
+            userFile = backfillStorageMetadata(userFile);
+        }
+
+        Map<String, Object> storage = new HashMap<>();
+        storage.put("size", userFile.getStorageSize());
+        storage.put("lastModified", userFile.getStorageLastModified());
+        storage.put("type", userFile.getContentType());
+        storage.put("contentEncoding", userFile.getContentEncoding());
+        storage.put("etag", userFile.getEtag());
 
         Map<String, Object> metadata = new HashMap<>();
         metadata.put("fileName", userFile.getFileName());
@@ -112,26 +304,68 @@ public class FileService {
         metadata.put("size", userFile.getSize());
         metadata.put("uploadedAt", userFile.getUploadedAt());
         metadata.put("url", userFile.getFileUrl());
-        metadata.put("s3Metadata", s3Service.getFileMetadata(userFile.getFileKey()));
+        metadata.put("s3Metadata", storage);
         return metadata;
     }
 
+    /**
+     * A presigned URL for one of the user's files, reused across calls until shortly before it
+     * expires. The file is always looked up first, as its object may be shared with other files and
+     * outlive this one.
+     */
     public Map<String, Object> getPresignedUrl(String fileName, Principal principal) {
         User user = resolveUser(principal);
         UserFile userFile = userFileRepository.findByUserAndFileName(user, fileName)
                 .orElseThrow(() -> new BadRequestException("File not found: " + fileName));
+        PresignedUrl url = presignedUrlCache.get(userFile.getFileKey());
 
         Map<String, Object> response = new HashMap<>();
-        response.put("fileName", userFile.getFileName());
-        response.put("url", s3Service.generatePresignedUrl(userFile.getFileKey(), 15 * 60 * 1000L));
+        response.put("fileName", fileName);
+        response.put("url", url.url());
+        response.put("expiresAt", url.expiresAt());
         return response;
     }
 
+    private UserFile backfillStorageMetadata(UserFile userFile) {
+        S3ObjectInfo object = s3Service.headFile(userFile.getFileKey())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found"));
+        userFile.setEtag(object.eTag());
+        userFile.setContentEncoding(object.contentEncoding());
+        userFile.setStorageSize(object.contentLength());
+        userFile.setStorageLastModified(toOffsetDateTime(object.lastModified()));
+        return userFileRepository.save(userFile);
+    }
+
+    /**
+     * Whether an If-None-Match header names {@code etag}; weak validators compare equal, as for a GET.
+     */
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String strong = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(strong)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : OffsetDateTime.now();
+    }
+
     private User resolveUser(Principal principal) {
         if (principal == null || principal.getName() == null) {
             throw new AccessDeniedException("User is not authenticated");
         }
 
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AppUserDetail userDetail) {
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
+        }
         return userRepository.findByEmail(principal.getName())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + principal.getName()));
     }
@@ -146,6 +380,18 @@ public class FileService {
         }
     }
 
+    private String validateContentType(String contentType) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+                throw new BadRequestException("Invalid content type: " + contentType);
+            }
+            return mediaType.toString();
+        } catch (InvalidMediaTypeException ex) {
+            throw new BadRequestException("Invalid content type: " + contentType);
+        }
+    }
+
     private String sanitizeOriginalFilename(String originalFilename) {
         if (originalFilename == null) {
             return "unknown-file";
@@ -176,6 +422,7 @@ public class FileService {
                 .contentType(userFile.getContentType())
                 .size(userFile.getSize())
                 .url(userFile.getFileUrl())
+                .variants(ImageVariants.urlsForKey(userFile.getFileKey()))
                 .uploadedAt(userFile.getUploadedAt())
                 .build();
     }
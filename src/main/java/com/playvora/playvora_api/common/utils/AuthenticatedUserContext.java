@@ -0,0 +1,56 @@
+package com.playvora.playvora_api.common.utils;
+
+import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.user.entities.User;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Request-scoped memo of the authenticated {@link User}. {@code JwtFilter} opens it for each request.
+ * The user is resolved from the cached principal's snapshot, so no query is run for it: the first
+ * caller in the request gets a reference by id (within the request's persistence context), which
+ * Hibernate only loads if something reads more than the id, and later callers reuse that instance.
+ * The cached principal itself only carries an immutable snapshot, so no entity is shared across
+ * requests. Outside an opened request (schedulers, message handlers) every call takes a new reference.
+ */
+public class AuthenticatedUserContext {
+
+    private static final ThreadLocal<Holder> currentUser = new ThreadLocal<>();
+
+    /**
+     * Start memoizing the authenticated user for this request
+     */
+    public static void open() {
+        currentUser.set(new Holder());
+    }
+
+    /**
+     * Get the authenticated user for this request, taking a reference to the user the principal
+     * names the first time it is needed in the request
+     */
+    public static User getCurrentUser(AppUserDetail principal, Function<UUID, User> reference) {
+        UUID userId = principal.getUserId();
+        Holder holder = currentUser.get();
+        if (holder == null) {
+            return reference.apply(userId);
+        }
+        if (holder.user == null || !userId.equals(holder.userId)) {
+            holder.userId = userId;
+            holder.user = reference.apply(userId);
+        }
+        return holder.user;
+    }
+
+    /**
+     * Clear the authenticated user (should be called at the end of request processing)
+     */
+    public static void clear() {
+        currentUser.remove();
+    }
+
+    private static final class Holder {
+        private UUID userId;
+        private User user;
+    }
+}
@@ -0,0 +1,188 @@
+package com.playvora.playvora_api.common.utils;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Small in-process cache with a fixed maximum size (least recently used entries are evicted first)
+ * and a time-to-live per entry. Hits, misses and evictions are counted so the cache can be sized.
+ * All map operations are synchronized; loaders run outside the lock. Each key being loaded has a
+ * generation that invalidation bumps, so a load that started before an invalidation cannot cache the
+ * value it read.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final Map<K, Load> loads = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlCache(String name, int maxSize, long ttlMillis) {
+        this(name, maxSize, ttlMillis, Clock.systemUTC());
+    }
+
+    public BoundedTtlCache(String name, int maxSize, long ttlMillis, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the cached value, or load and cache it. A {@code null} result from the loader is not cached,
+     * nor is a result whose key was invalidated while it was loading.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Load load;
+        long generation;
+        synchronized (this) {
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+            load = loads.computeIfAbsent(key, k -> new Load());
+            load.loaders++;
+            generation = load.generation;
+        }
+        V loaded = null;
+        try {
+            loaded = loader.apply(key);
+            return loaded;
+        } finally {
+            synchronized (this) {
+                if (--load.loaders == 0) {
+                    loads.remove(key);
+                }
+                if (loaded != null && load.generation == generation) {
+                    put(key, loaded);
+                }
+            }
+        }
+    }
+
+    public synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            entries.remove(key);
+            evictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        Load load = loads.get(key);
+        if (load != null) {
+            load.generation++;
+        }
+    }
+
+    /**
+     * Remove every entry matching the predicate. Linear in the cache size, which is bounded. Loads in
+     * progress have no value to test yet, so none of them is cached.
+     */
+    public synchronized int invalidateIf(BiPredicate<? super K, ? super V> predicate) {
+        invalidateLoads();
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        invalidateLoads();
+    }
+
+    private void invalidateLoads() {
+        for (Load load : loads.values()) {
+            load.generation++;
+        }
+    }
+
+    /**
+     * Drop expired entries; called periodically so idle entries do not hold memory until evicted by size.
+     */
+    public synchronized int purgeExpired() {
+        long now = clock.millis();
+        int removed = 0;
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() <= now) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Stats stats() {
+        return new Stats(name, size(), maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    /**
+     * The loads in progress for one key, and how many times the key was invalidated since they began.
+     */
+    private static final class Load {
+        private int loaders;
+        private long generation;
+    }
+
+    public record Stats(String name, int size, int maxSize, long hits, long misses, long evictions) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+}
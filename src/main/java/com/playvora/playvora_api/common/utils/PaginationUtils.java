@@ -1,7 +1,17 @@
 package com.playvora.playvora_api.common.utils;
 
+import com.playvora.playvora_api.common.dto.CursorPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
+import com.playvora.playvora_api.common.exception.BadRequestException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
 
 public class PaginationUtils {
 
@@ -25,6 +35,48 @@ public class PaginationUtils {
                 .nextPage(currentPage < totalPages - 1 ? currentPage + 1 : null)
                 .build();
     }
-}
 
+    /**
+     * The pageable for a keyset page: {@code before} and {@code beforeId} are the (createdAt, id) cursor
+     * from the previous response and must be given together, or both left out for the first page.
+     * Ordering is part of the keyset queries; the pageable only carries the limit.
+     *
+     * @throws BadRequestException if the size is not positive or only half of the cursor is given
+     */
+    public static Pageable cursorPageable(OffsetDateTime before, UUID beforeId, int size) {
+        if (size <= 0) {
+            throw new BadRequestException("Invalid page size");
+        }
+        if (before != null && beforeId == null) {
+            throw new BadRequestException("beforeId is required together with before");
+        }
+        if (before == null && beforeId != null) {
+            throw new BadRequestException("before is required together with beforeId");
+        }
+        return PageRequest.of(0, size);
+    }
 
+    /**
+     * Converts a Spring Data Slice (ordered newest first) to CursorPaginatedResponse.
+     * The cursor for the next page is the (createdAt, id) of the last record in the slice.
+     *
+     * @param slice The Spring Data Slice object
+     * @param mapper Maps entities to response records
+     * @param createdAt Extracts the cursor timestamp from an entity
+     * @param id Extracts the cursor id from an entity
+     */
+    public static <E, T> CursorPaginatedResponse<T> toCursorPaginatedResponse(Slice<E> slice,
+                                                                              Function<E, T> mapper,
+                                                                              Function<E, OffsetDateTime> createdAt,
+                                                                              Function<E, UUID> id) {
+        List<E> content = slice.getContent();
+        E last = content.isEmpty() ? null : content.get(content.size() - 1);
+
+        return CursorPaginatedResponse.<T>builder()
+                .records(content.stream().map(mapper).toList())
+                .hasMore(slice.hasNext())
+                .nextBefore(last != null && slice.hasNext() ? createdAt.apply(last) : null)
+                .nextBeforeId(last != null && slice.hasNext() ? id.apply(last) : null)
+                .build();
+    }
+}
@@ -1,6 +1,6 @@
 package com.playvora.playvora_api.common.utils;
 
-import com.playvora.playvora_api.user.entities.UserRole;
+import com.playvora.playvora_api.app.ActiveUserRole;
 
 import java.util.UUID;
 
@@ -10,20 +10,20 @@ import java.util.UUID;
  */
 public class UserRoleContext {
     
-    private static final ThreadLocal<UserRole> currentUserRole = new ThreadLocal<>();
+    private static final ThreadLocal<ActiveUserRole> currentUserRole = new ThreadLocal<>();
     
     /**
      * Set the current user role for this request
      */
-    public static void setCurrentUserRole(UserRole userRole) {
+    public static void setCurrentUserRole(ActiveUserRole userRole) {
         currentUserRole.set(userRole);
     }
     
     /**
      * Get the current user role for this request
-     * @return The current UserRole or null if not set
+     * @return The current role or null if not set
      */
-    public static UserRole getCurrentUserRole() {
+    public static ActiveUserRole getCurrentUserRole() {
         return currentUserRole.get();
     }
     
@@ -32,8 +32,8 @@ public class UserRoleContext {
      * @return The current UserRole ID or null if not set
      */
     public static UUID getCurrentUserRoleId() {
-        UserRole userRole = currentUserRole.get();
-        return userRole != null ? userRole.getId() : null;
+        ActiveUserRole userRole = currentUserRole.get();
+        return userRole != null ? userRole.id() : null;
     }
     
     /**
@@ -41,11 +41,8 @@ public class UserRoleContext {
      * @return The community ID or null if role is global or not set
      */
     public static UUID getCurrentCommunityId() {
-        UserRole userRole = currentUserRole.get();
-        if (userRole != null && userRole.getCommunity() != null) {
-            return userRole.getCommunity().getId();
-        }
-        return null;
+        ActiveUserRole userRole = currentUserRole.get();
+        return userRole != null ? userRole.communityId() : null;
     }
     
     /**
@@ -53,8 +50,8 @@ public class UserRoleContext {
      * @return true if the role is tied to a community, false otherwise
      */
     public static boolean isCommunityRole() {
-        UserRole userRole = currentUserRole.get();
-        return userRole != null && userRole.getCommunity() != null;
+        ActiveUserRole userRole = currentUserRole.get();
+        return userRole != null && userRole.isCommunityRole();
     }
     
     /**
@@ -72,4 +69,3 @@ public class UserRoleContext {
         return currentUserRole.get() != null;
     }
 }
-
@@ -1,10 +1,13 @@
 package com.playvora.playvora_api.community.controllers;
 
 import com.playvora.playvora_api.common.dto.ApiResponse;
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
+import com.playvora.playvora_api.common.geo.NearbyQuery;
 import com.playvora.playvora_api.community.dtos.AssignRoleRequest;
 import com.playvora.playvora_api.community.dtos.CommunityResponse;
 import com.playvora.playvora_api.community.dtos.CreateCommunityRequest;
+import com.playvora.playvora_api.community.dtos.SetSkillRatingRequest;
 import com.playvora.playvora_api.community.dtos.UpdateCommunityRequest;
 import com.playvora.playvora_api.community.entities.Community;
 import com.playvora.playvora_api.community.mappers.CommunityMapper;
@@ -92,6 +95,23 @@ public class CommunityController {
         return ResponseEntity.ok(ApiResponse.success(communities, "Communities retrieved successfully"));
     }
 
+    @GetMapping("/nearby")
+    @Operation(summary = "Get nearby communities", description = "Get communities within a radius of a point, nearest first, with a distance cursor")
+    public ResponseEntity<ApiResponse<NearbyPaginatedResponse<CommunityResponse>>> getNearbyCommunities(
+            @Parameter(description = "Latitude of the search centre") @RequestParam double latitude,
+            @Parameter(description = "Longitude of the search centre") @RequestParam double longitude,
+            @Parameter(description = "Search radius in kilometres") @RequestParam(defaultValue = "10") double radiusKm,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Distance cursor from the previous page (nextAfterDistanceKm)")
+            @RequestParam(required = false) Double afterDistanceKm,
+            @Parameter(description = "Id cursor from the previous page (nextAfterId)")
+            @RequestParam(required = false) UUID afterId) {
+
+        NearbyPaginatedResponse<CommunityResponse> communities = communityService.findNearbyCommunities(
+                new NearbyQuery(latitude, longitude, radiusKm, size, afterDistanceKm, afterId));
+        return ResponseEntity.ok(ApiResponse.success(communities, "Nearby communities retrieved successfully"));
+    }
+
     @GetMapping("/metadata")
     @Operation(summary = "Get all communities", description = "Get all communities with pagination")
     public ResponseEntity<ApiResponse<List<String>>> getAllCommunitiesMetadata() {
@@ -154,4 +174,13 @@ public class CommunityController {
         return ResponseEntity.ok(ApiResponse.success(null, "Role assigned successfully"));
     }
 
+    @PutMapping("/{id}/skill-rating")
+    @Operation(summary = "Set member skill rating", description = "Set the skill rating (0-5000) used to balance this community's teams for one of its members")
+    public ResponseEntity<ApiResponse<Void>> setMemberSkillRating(
+            @Parameter(description = "Community ID") @PathVariable UUID id,
+            @Valid @RequestBody SetSkillRatingRequest request) {
+        communityService.setMemberSkillRating(id, request);
+        return ResponseEntity.ok(ApiResponse.success(null, "Skill rating updated successfully"));
+    }
+
 }
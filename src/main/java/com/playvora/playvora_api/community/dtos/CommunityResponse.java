@@ -1,5 +1,6 @@
 package com.playvora.playvora_api.community.dtos;
 
+import com.playvora.playvora_api.files.dtos.ImageVariantUrls;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +20,8 @@ public class CommunityResponse {
     private String description;
     private String logoUrl;
     private String bannerUrl;
+    private ImageVariantUrls logoVariants;
+    private ImageVariantUrls bannerVariants;
     private String address;
     private String city;
     private String province;
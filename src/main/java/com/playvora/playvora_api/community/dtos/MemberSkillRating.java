@@ -0,0 +1,9 @@
+package com.playvora.playvora_api.community.dtos;
+
+import java.util.UUID;
+
+/**
+ * The skill rating a community's organisers gave one of its members.
+ */
+public record MemberSkillRating(UUID userId, int skillRating) {
+}
@@ -0,0 +1,25 @@
+package com.playvora.playvora_api.community.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SetSkillRatingRequest {
+    @NotNull(message = "User ID is required")
+    private UUID userId;
+
+    @NotNull(message = "Skill rating is required")
+    @Min(value = 0, message = "Skill rating must be between 0 and 5000")
+    @Max(value = 5000, message = "Skill rating must be between 0 and 5000")
+    private Integer skillRating;
+}
@@ -46,6 +46,13 @@ public class CommunityMember {
     @Column(name = "banned_at")
     private OffsetDateTime bannedAt;
 
+    /**
+     * Player strength used to balance this community's generated teams, set by its organisers;
+     * null means the default (1000, an average player).
+     */
+    @Column(name = "skill_rating")
+    private Integer skillRating;
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = OffsetDateTime.now();
@@ -2,6 +2,7 @@ package com.playvora.playvora_api.community.mappers;
 
 import com.playvora.playvora_api.community.dtos.CommunityResponse;
 import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.files.images.ImageVariants;
 
 public class CommunityMapper {
 
@@ -20,6 +21,8 @@ public class CommunityMapper {
                 .description(community.getDescription())
                 .logoUrl(community.getLogoUrl())
                 .bannerUrl(community.getBannerUrl())
+                .logoVariants(ImageVariants.urlsForUrl(community.getLogoUrl()))
+                .bannerVariants(ImageVariants.urlsForUrl(community.getBannerUrl()))
                 .address(community.getAddress())
                 .city(community.getCity())
                 .province(community.getProvince())
@@ -44,6 +47,8 @@ public class CommunityMapper {
                 .description(community.getDescription())
                 .logoUrl(community.getLogoUrl())
                 .bannerUrl(community.getBannerUrl())
+                .logoVariants(ImageVariants.urlsForUrl(community.getLogoUrl()))
+                .bannerVariants(ImageVariants.urlsForUrl(community.getBannerUrl()))
                 .address(community.getAddress())
                 .city(community.getCity())
                 .province(community.getProvince())
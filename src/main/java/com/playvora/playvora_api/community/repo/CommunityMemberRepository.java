@@ -1,11 +1,13 @@
 package com.playvora.playvora_api.community.repo;
 
+import com.playvora.playvora_api.community.dtos.MemberSkillRating;
 import com.playvora.playvora_api.community.entities.CommunityMember;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,4 +32,13 @@ public interface CommunityMemberRepository extends JpaRepository<CommunityMember
     
     @Query("SELECT COUNT(cm) FROM CommunityMember cm WHERE cm.community.id = :communityId AND cm.isActive = true")
     Long countActiveMembersByCommunityId(@Param("communityId") UUID communityId);
+
+    /**
+     * The skill ratings set in a community for the given users; users without one are left out.
+     */
+    @Query("SELECT new com.playvora.playvora_api.community.dtos.MemberSkillRating(cm.user.id, cm.skillRating) " +
+           "FROM CommunityMember cm " +
+           "WHERE cm.community.id = :communityId AND cm.user.id IN :userIds AND cm.skillRating IS NOT NULL")
+    List<MemberSkillRating> findSkillRatings(@Param("communityId") UUID communityId,
+                                             @Param("userIds") Collection<UUID> userIds);
 }
@@ -1,6 +1,8 @@
 package com.playvora.playvora_api.community.repo;
 
+import com.playvora.playvora_api.common.geo.NearbyHit;
 import com.playvora.playvora_api.community.entities.Community;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +10,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -41,4 +45,55 @@ public interface CommunityRepository extends JpaRepository<Community, UUID> {
                OR LOWER(c.country) LIKE :search)
     """)
     Page<Community> searchAllCommunities(@Param("search") String search, Pageable pageable);
+
+    /**
+     * Ranked full-text variant of {@link #searchAllCommunities}, for PostgreSQL (see FullTextSearch
+     * and V53). {@code query} is a to_tsquery argument; the Pageable must be unsorted.
+     */
+    @Query(value = """
+        SELECT c.* FROM communities c
+        WHERE c.search_vector @@ to_tsquery('simple', :query)
+        ORDER BY ts_rank(c.search_vector, to_tsquery('simple', :query)) DESC, c.name
+        """,
+        countQuery = "SELECT COUNT(*) FROM communities c WHERE c.search_vector @@ to_tsquery('simple', :query)",
+        nativeQuery = true)
+    Page<Community> fullTextSearchCommunities(@Param("query") String query, Pageable pageable);
+
+    /**
+     * Whether a community uses the image at this URL as its logo or banner.
+     */
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END " +
+           "FROM Community c WHERE c.logoUrl = :url OR c.bannerUrl = :url")
+    boolean existsByImageUrl(@Param("url") String url);
+
+    /**
+     * The next page of communities nearest to a point, for GeoSearch (see NearbySearch): rows are
+     * narrowed to the bounding box, then ranked by the same haversine distance as GeoPoint.
+     */
+    @Query("""
+        SELECT new com.playvora.playvora_api.common.geo.NearbyHit(hit.id, hit.distanceKm)
+        FROM (
+            SELECT c.id AS id,
+                   cast(12742.0176 AS Double) * asin(sqrt(
+                       power(sin(radians(cast(c.latitude AS Double) - :latitude) / 2), 2)
+                       + cos(radians(:latitude)) * cos(radians(cast(c.latitude AS Double)))
+                         * power(sin(radians(cast(c.longitude AS Double) - :longitude) / 2), 2))) AS distanceKm
+            FROM Community c
+            WHERE c.latitude BETWEEN :minLatitude AND :maxLatitude
+              AND c.longitude BETWEEN :minLongitude AND :maxLongitude
+        ) hit
+        WHERE hit.distanceKm <= :radiusKm
+          AND (hit.distanceKm > :afterDistanceKm OR (hit.distanceKm = :afterDistanceKm AND hit.id > :afterId))
+        ORDER BY hit.distanceKm, hit.id
+    """)
+    List<NearbyHit> findNearest(@Param("latitude") double latitude,
+                                @Param("longitude") double longitude,
+                                @Param("radiusKm") double radiusKm,
+                                @Param("minLatitude") BigDecimal minLatitude,
+                                @Param("maxLatitude") BigDecimal maxLatitude,
+                                @Param("minLongitude") BigDecimal minLongitude,
+                                @Param("maxLongitude") BigDecimal maxLongitude,
+                                @Param("afterDistanceKm") double afterDistanceKm,
+                                @Param("afterId") UUID afterId,
+                                Limit limit);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.playvora.playvora_api.community.services;
 
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
+import com.playvora.playvora_api.common.geo.NearbyQuery;
 import com.playvora.playvora_api.community.dtos.AssignRoleRequest;
+import com.playvora.playvora_api.community.dtos.SetSkillRatingRequest;
 import com.playvora.playvora_api.community.dtos.CommunityResponse;
 import com.playvora.playvora_api.community.dtos.CommunitySearchRequest;
 import com.playvora.playvora_api.community.dtos.CreateCommunityRequest;
@@ -20,6 +23,7 @@ public interface ICommunityService {
     Community getCommunityById(UUID id);
     PaginatedResponse<CommunityResponse> searchCommunities(CommunitySearchRequest request);
     PaginatedResponse<CommunityResponse> getAllCommunities(int page, int size, String sortBy, String sortDirection, String search);
+    NearbyPaginatedResponse<CommunityResponse> findNearbyCommunities(NearbyQuery query);
     void joinCommunity(UUID communityId);
     void leaveCommunity(UUID communityId);
     boolean isUserMember(UUID communityId);
@@ -27,6 +31,7 @@ public interface ICommunityService {
     String uploadCommunityLogo(UUID communityId, MultipartFile file);
     String uploadCommunityBanner(UUID communityId, MultipartFile file);
     void assignRoleToMember(UUID communityId, AssignRoleRequest request);
+    void setMemberSkillRating(UUID communityId, SetSkillRatingRequest request);
     List<String> getCommunitiesMetadata();
     Long getCommunityMemberCount(UUID id);
     boolean isUserMemberOfCommunity(UUID userId, UUID communityId);
@@ -1,10 +1,23 @@
 package com.playvora.playvora_api.community.services;
 
+import com.playvora.playvora_api.files.dtos.PresignedRequest;
+import com.playvora.playvora_api.files.dtos.S3ObjectInfo;
+import com.playvora.playvora_api.files.dtos.S3ObjectStream;
+import com.playvora.playvora_api.files.dtos.S3UploadResult;
+import com.playvora.playvora_api.files.dtos.UploadedPart;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface IS3Service {
-    String uploadFile(MultipartFile file, String folder, String fileName);
+    S3UploadResult uploadFile(MultipartFile file, String folder, String fileName);
+
+    /**
+     * Store a small payload generated by the server, such as an image variant, under an exact key.
+     */
+    void uploadBytes(String fileKey, byte[] content, String contentType);
 
     void deleteFile(String fileKey);
 
@@ -16,7 +29,40 @@ public interface IS3Service {
 
     byte[] downloadFile(String fileKey);
 
+    /**
+     * Open a streaming GET of an object, optionally for a byte range and conditional on its ETag.
+     *
+     * @param range       an HTTP Range header value, or null for the whole object
+     * @param ifNoneMatch an HTTP If-None-Match header value, or null
+     * @return empty if the object does not exist
+     */
+    Optional<S3ObjectStream> openFile(String fileKey, String range, String ifNoneMatch);
+
     Map<String, Object> getFileMetadata(String fileKey);
 
     String generatePresignedUrl(String fileKey, long expirationMs);
+
+    /**
+     * Presign a PUT of exactly {@code size} bytes of {@code contentType} with the given user metadata.
+     */
+    PresignedRequest presignUpload(String fileKey, String contentType, long size, Map<String, String> metadata,
+                                   Duration expiry);
+
+    /**
+     * Start a multipart upload; the content type and metadata are fixed here rather than by the client.
+     *
+     * @return the upload ID
+     */
+    String createMultipartUpload(String fileKey, String contentType, Map<String, String> metadata);
+
+    List<PresignedRequest> presignUploadParts(String fileKey, String uploadId, int partCount, Duration expiry);
+
+    void completeMultipartUpload(String fileKey, String uploadId, List<UploadedPart> parts);
+
+    void abortMultipartUpload(String fileKey, String uploadId);
+
+    /**
+     * @return empty if the object does not exist
+     */
+    Optional<S3ObjectInfo> headFile(String fileKey);
 }
@@ -1,12 +1,19 @@
 package com.playvora.playvora_api.community.services.impl;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
+import com.playvora.playvora_api.app.ActiveUserRole;
 import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.common.exception.ForbiddenException;
+import com.playvora.playvora_api.common.geo.GeoSearch;
+import com.playvora.playvora_api.common.geo.NearbyQuery;
+import com.playvora.playvora_api.common.search.FullTextSearch;
 import com.playvora.playvora_api.common.utils.PaginationUtils;
 import com.playvora.playvora_api.common.utils.UserRoleContext;
 import com.playvora.playvora_api.community.dtos.AssignRoleRequest;
+import com.playvora.playvora_api.community.dtos.SetSkillRatingRequest;
 import com.playvora.playvora_api.community.dtos.CommunityResponse;
 import com.playvora.playvora_api.community.dtos.CommunitySearchRequest;
 import com.playvora.playvora_api.community.dtos.CreateCommunityRequest;
@@ -28,8 +35,10 @@ import com.playvora.playvora_api.user.mappers.UserMapper;
 import com.playvora.playvora_api.user.repo.RoleRepository;
 import com.playvora.playvora_api.user.repo.UserRepository;
 import com.playvora.playvora_api.user.repo.UserRoleRepository;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -56,8 +65,11 @@ public class CommunityService implements ICommunityService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final UserRoleRepository userRoleRepository;
+    private final IPrincipalCacheService principalCacheService;
     private final IFileUploadService fileUploadService;
     private final MatchRepository matchRepository;
+    private final FullTextSearch fullTextSearch;
+    private final GeoSearch geoSearch;
 
 
     @Override
@@ -272,10 +284,13 @@ public class CommunityService implements ICommunityService {
         
         Pageable pageable = PageRequest.of(page, size, sort);
         String searchFilter = buildContainsFilter(search);
+        String fullTextQuery = fullTextSearch.prefixQuery(search);
         Page<Community> communities;
 
         if (searchFilter == null) {
             communities = communityRepository.findAll(pageable);
+        } else if (fullTextQuery != null) {
+            communities = communityRepository.fullTextSearchCommunities(fullTextQuery, fullTextSearch.ranked(pageable));
         } else {
             communities = communityRepository.searchAllCommunities(searchFilter, pageable);
         }
@@ -284,6 +299,18 @@ public class CommunityService implements ICommunityService {
         return PaginationUtils.toPaginatedResponse(responsePage);
     }
 
+    @Override
+    public NearbyPaginatedResponse<CommunityResponse> findNearbyCommunities(NearbyQuery query) {
+        return geoSearch.findNearby(query,
+                search -> communityRepository.findNearest(search.center().latitude(), search.center().longitude(),
+                        search.radiusKm(), search.bounds().minLatitude(), search.bounds().maxLatitude(),
+                        search.bounds().minLongitude(), search.bounds().maxLongitude(),
+                        search.afterDistanceKm(), search.afterId(), Limit.of(search.limit())),
+                communityRepository::findAllById,
+                Community::getId,
+                this::convertToResponse);
+    }
+
     @Override
     @Transactional
     public void joinCommunity(UUID communityId) {
@@ -376,13 +403,12 @@ public class CommunityService implements ICommunityService {
         // Validate that user has COMMUNITY_MANAGER role for this community
         validateCommunityManagerAccess(communityId);
         
-        // Delete old logo if exists
-        if (community.getLogoUrl() != null) {
-            fileUploadService.deleteImage(community.getLogoUrl());
+        // Upload new logo before releasing the old one, so re-uploading the same logo reuses it
+        String oldLogoUrl = community.getLogoUrl();
+        String logoUrl = fileUploadService.uploadImage(file, "community-logos/" + communityId);
+        if (oldLogoUrl != null) {
+            fileUploadService.deleteImage(oldLogoUrl);
         }
-        
-        // Upload new logo
-        String logoUrl = fileUploadService.uploadImage(file, "community-logos");
         community.setLogoUrl(logoUrl);
         communityRepository.save(community);
         
@@ -397,13 +423,12 @@ public class CommunityService implements ICommunityService {
         // Validate that user has COMMUNITY_MANAGER role for this community
         validateCommunityManagerAccess(communityId);
         
-        // Delete old banner if exists
-        if (community.getBannerUrl() != null) {
-            fileUploadService.deleteImage(community.getBannerUrl());
+        // Upload new banner before releasing the old one, so re-uploading the same banner reuses it
+        String oldBannerUrl = community.getBannerUrl();
+        String bannerUrl = fileUploadService.uploadImage(file, "community-banners/" + communityId);
+        if (oldBannerUrl != null) {
+            fileUploadService.deleteImage(oldBannerUrl);
         }
-        
-        // Upload new banner
-        String bannerUrl = fileUploadService.uploadImage(file, "community-banners");
         community.setBannerUrl(bannerUrl);
         communityRepository.save(community);
         
@@ -431,6 +456,33 @@ public class CommunityService implements ICommunityService {
         addRolesToUser(user, community, Set.of(request.getRole()));
     }
 
+    @Override
+    @Transactional
+    public void setMemberSkillRating(UUID communityId, SetSkillRatingRequest request) {
+        getCommunityById(communityId);
+
+        // Ratings decide team balance and captaincy, so only organisers set them, never their own, and
+        // only a global admin rates an organiser
+        validateCommunityManagerAccess(communityId);
+        User currentUser = getCurrentUser();
+        if (currentUser.getId().equals(request.getUserId())) {
+            throw new BadRequestException("You cannot set your own skill rating");
+        }
+        if (userRoleRepository.hasRole(request.getUserId(), "COMMUNITY_MANAGER", communityId)
+                && !userRoleRepository.hasRole(currentUser.getId(), "ROLE_ADMIN", null)) {
+            throw new ForbiddenException("Only an admin can set the skill rating of a community manager");
+        }
+
+        // The rating belongs to the membership, so it only balances this community's matches
+        CommunityMember member = communityMemberRepository.findByCommunityIdAndUserId(communityId, request.getUserId())
+                .filter(CommunityMember::isActive)
+                .orElseThrow(() -> new BadRequestException("User is not a member of this community"));
+
+        member.setSkillRating(request.getSkillRating());
+        communityMemberRepository.save(member);
+        log.info("Set skill rating of user {} to {} in community {}", request.getUserId(), request.getSkillRating(), communityId);
+    }
+
     private void addRolesToUser(User user, Community community, Set<String> roleNames) {
         for (String roleName : roleNames) {
             Role role = roleRepository.findByName(roleName)
@@ -450,6 +502,7 @@ public class CommunityService implements ICommunityService {
                         .community(community)
                         .build();
                 userRoleRepository.save(userRole);
+                principalCacheService.evictUser(user.getEmail());
                 
                 log.info("Assigned role {} to user {} in community {}", 
                         roleName, user.getId(), 
@@ -485,12 +538,11 @@ public class CommunityService implements ICommunityService {
         }
         
         // Check UserRoleContext first (if X-User-Role-Id header was provided)
-        UserRole currentUserRole = UserRoleContext.getCurrentUserRole();
-        if (currentUserRole != null && currentUserRole.isActive()) {
+        ActiveUserRole currentUserRole = UserRoleContext.getCurrentUserRole();
+        if (currentUserRole != null) {
             // Verify the role in context is COMMUNITY_MANAGER and matches the community
-            if ("COMMUNITY_MANAGER".equals(currentUserRole.getRole().getName())) {
-                if (currentUserRole.getCommunity() != null && 
-                    currentUserRole.getCommunity().getId().equals(communityId)) {
+            if ("COMMUNITY_MANAGER".equals(currentUserRole.roleName())) {
+                if (communityId.equals(currentUserRole.communityId())) {
                     log.debug("User {} has COMMUNITY_MANAGER role for community {} in context", 
                         currentUser.getId(), communityId);
                     return;
@@ -521,8 +573,7 @@ public class CommunityService implements ICommunityService {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
         
         throw new BadRequestException("Invalid authentication principal");
@@ -3,6 +3,9 @@ package com.playvora.playvora_api.community.services.impl;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.community.services.IFileUploadService;
 import com.playvora.playvora_api.community.services.IS3Service;
+import com.playvora.playvora_api.files.dtos.StoredBlob;
+import com.playvora.playvora_api.files.services.IFileBlobService;
+import com.playvora.playvora_api.files.services.IImageVariantService;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,6 +20,8 @@ import org.springframework.web.multipart.MultipartFile;
 public class FileUploadService implements IFileUploadService {
 
     private final IS3Service s3Service;
+    private final IImageVariantService imageVariantService;
+    private final IFileBlobService fileBlobService;
 
     private static final String[] ALLOWED_EXTENSIONS = {".jpg", ".jpeg", ".png", ".gif", ".webp"};
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
@@ -29,8 +34,12 @@ public class FileUploadService implements IFileUploadService {
         String fileName = s3Service.generateUniqueFileName(sanitizedOriginalName);
         String folder = "users/" + userId;
 
-        String fileKey = s3Service.uploadFile(file, folder, fileName);
+        StoredBlob blob = fileBlobService.store(file, folder, fileName);
+        String fileKey = blob.object().fileKey();
         String url = s3Service.getFileUrl(fileKey);
+        if (!blob.reused()) {
+            imageVariantService.generateAsync(fileKey);
+        }
 
         Map<String, String> fileData = new HashMap<>();
         fileData.put("fileKey", fileKey);
@@ -49,8 +58,12 @@ public class FileUploadService implements IFileUploadService {
         String sanitizedOriginalName = sanitizeOriginalName(file.getOriginalFilename());
         String fileName = s3Service.generateUniqueFileName(sanitizedOriginalName);
 
-        String fileKey = s3Service.uploadFile(file, folder, fileName);
+        StoredBlob blob = fileBlobService.store(file, folder, fileName);
+        String fileKey = blob.object().fileKey();
         String url = s3Service.getFileUrl(fileKey);
+        if (!blob.reused()) {
+            imageVariantService.generateAsync(fileKey);
+        }
         log.info("Image uploaded successfully to S3: {}", fileKey);
         return url;
     }
@@ -62,8 +75,7 @@ public class FileUploadService implements IFileUploadService {
         }
 
         String fileKey = extractFileKeyFromUrl(imageUrl);
-        if (fileKey != null) {
-            s3Service.deleteFile(fileKey);
+        if (fileKey != null && fileBlobService.release(fileKey)) {
             log.info("File deleted successfully from S3: {}", fileKey);
         }
     }
@@ -2,15 +2,25 @@ package com.playvora.playvora_api.community.services.impl;
 
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.community.services.IS3Service;
-import java.io.ByteArrayOutputStream;
+import com.playvora.playvora_api.files.dtos.PresignedRequest;
+import com.playvora.playvora_api.files.dtos.S3ObjectInfo;
+import com.playvora.playvora_api.files.dtos.S3ObjectStream;
+import com.playvora.playvora_api.files.dtos.S3UploadResult;
+import com.playvora.playvora_api.files.dtos.UploadedPart;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +33,11 @@ import org.springframework.web.server.ResponseStatusException;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
@@ -32,11 +47,17 @@ import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
 
 @Service
 @Slf4j
@@ -55,41 +76,59 @@ public class S3Service implements IS3Service {
     @Value("${aws.s3.compression.threshold-bytes:307200}") // 300KB default
     private long compressionThreshold;
 
+    /**
+     * Upload a file received by the server. The file is streamed from the multipart part (which the
+     * servlet container keeps on disk above its size threshold) and never held in memory; a file to
+     * be compressed is gzipped to a temporary file first, since S3 needs the length up front.
+     */
     @Override
-    public String uploadFile(MultipartFile file, String folder, String fileName) {
+    public S3UploadResult uploadFile(MultipartFile file, String folder, String fileName) {
         try {
             String normalizedFolder = normalizeFolder(folder);
             String fileKey = buildFileKey(normalizedFolder, fileName);
-
-            byte[] payload = file.getBytes();
             String contentType = file.getContentType();
-            boolean compressed = false;
 
-            if (shouldCompress(file)) {
+            if (!shouldCompress(file)) {
+                PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileKey)
+                        .contentLength(file.getSize());
+                if (contentType != null) {
+                    requestBuilder.contentType(contentType);
+                }
+                PutObjectResponse response;
                 try (InputStream inputStream = file.getInputStream()) {
-                    payload = compressFile(inputStream);
+                    response = s3Client.putObject(requestBuilder.build(), RequestBody.fromInputStream(inputStream, file.getSize()));
                 }
-                fileKey = fileKey + ".gz";
-                contentType = contentType != null ? contentType : "application/octet-stream";
-                compressed = true;
-                log.debug("Compressed file {} (original size: {} bytes, compressed size: {} bytes)",
-                        fileName, file.getSize(), payload.length);
+                log.info("Uploaded file to S3: {}", fileKey);
+                return new S3UploadResult(fileKey, response.eTag(), file.getSize(), null);
             }
 
-            PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileKey);
-
-            if (contentType != null) {
-                requestBuilder.contentType(contentType);
-            }
-            if (compressed) {
-                requestBuilder.contentEncoding("gzip");
+            fileKey = fileKey + ".gz";
+            Path compressedFile = Files.createTempFile("s3-upload-", ".gz");
+            PutObjectResponse response;
+            long compressedSize;
+            try {
+                try (InputStream inputStream = file.getInputStream();
+                     OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(compressedFile))) {
+                    inputStream.transferTo(outputStream);
+                }
+                compressedSize = Files.size(compressedFile);
+                log.debug("Compressed file {} (original size: {} bytes, compressed size: {} bytes)",
+                        fileName, file.getSize(), compressedSize);
+
+                PutObjectRequest request = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileKey)
+                        .contentType(contentType != null ? contentType : "application/octet-stream")
+                        .contentEncoding("gzip")
+                        .build();
+                response = s3Client.putObject(request, RequestBody.fromFile(compressedFile));
+            } finally {
+                Files.deleteIfExists(compressedFile);
             }
-
-            s3Client.putObject(requestBuilder.build(), RequestBody.fromBytes(payload));
             log.info("Uploaded file to S3: {}", fileKey);
-            return fileKey;
+            return new S3UploadResult(fileKey, response.eTag(), compressedSize, "gzip");
         } catch (IOException ex) {
             log.error("Error uploading file to S3", ex);
             throw new BadRequestException("Failed to upload file: " + ex.getMessage());
@@ -99,6 +138,22 @@ public class S3Service implements IS3Service {
         }
     }
 
+    @Override
+    public void uploadBytes(String fileKey, byte[] content, String contentType) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileKey)
+                .contentType(contentType)
+                .build();
+        try {
+            s3Client.putObject(request, RequestBody.fromBytes(content));
+            log.debug("Uploaded {} bytes to S3: {}", content.length, fileKey);
+        } catch (S3Exception ex) {
+            log.error("AWS S3 error while uploading file: {}", ex.awsErrorDetails().errorMessage());
+            throw new BadRequestException("Failed to upload file to S3");
+        }
+    }
+
     @Override
     public void deleteFile(String fileKey) {
         if (fileKey == null || fileKey.isBlank()) {
@@ -177,6 +232,51 @@ public class S3Service implements IS3Service {
         }
     }
 
+    @Override
+    public Optional<S3ObjectStream> openFile(String fileKey, String range, String ifNoneMatch) {
+        GetObjectRequest.Builder requestBuilder = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileKey);
+        if (range != null) {
+            requestBuilder.range(range);
+        }
+        if (ifNoneMatch != null) {
+            requestBuilder.ifNoneMatch(ifNoneMatch);
+        }
+
+        try {
+            ResponseInputStream<GetObjectResponse> stream = s3Client.getObject(requestBuilder.build());
+            GetObjectResponse response = stream.response();
+            return Optional.of(new S3ObjectStream(
+                    response.contentRange() != null ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value(),
+                    stream,
+                    response.contentLength(),
+                    response.contentType(),
+                    response.contentEncoding(),
+                    response.contentRange(),
+                    response.eTag(),
+                    response.lastModified()));
+        } catch (NoSuchKeyException ex) {
+            return Optional.empty();
+        } catch (S3Exception ex) {
+            // Conditional and range failures arrive as errors without a body
+            if (ex.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                String eTag = ex.awsErrorDetails() != null && ex.awsErrorDetails().sdkHttpResponse() != null
+                        ? ex.awsErrorDetails().sdkHttpResponse().firstMatchingHeader("ETag").orElse(null)
+                        : null;
+                return Optional.of(S3ObjectStream.withoutBody(ex.statusCode(), eTag));
+            }
+            if (ex.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                return Optional.of(S3ObjectStream.withoutBody(ex.statusCode(), null));
+            }
+            if (ex.statusCode() == HttpStatus.NOT_FOUND.value()) {
+                return Optional.empty();
+            }
+            log.error("AWS S3 error while opening file: {}", ex.getMessage());
+            throw new BadRequestException("Failed to download file from S3");
+        }
+    }
+
     @Override
     public Map<String, Object> getFileMetadata(String fileKey) {
         HeadObjectRequest headRequest = HeadObjectRequest.builder()
@@ -225,6 +325,127 @@ public class S3Service implements IS3Service {
         }
     }
 
+    @Override
+    public PresignedRequest presignUpload(String fileKey, String contentType, long size, Map<String, String> metadata,
+                                          Duration expiry) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileKey)
+                .contentType(contentType)
+                .contentLength(size)
+                .metadata(metadata)
+                .build();
+
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(expiry)
+                .putObjectRequest(putObjectRequest)
+                .build();
+
+        try {
+            PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(presignRequest);
+            return new PresignedRequest(presignedRequest.url().toString(),
+                    clientHeaders(presignedRequest.signedHeaders()), presignedRequest.expiration());
+        } catch (S3Exception ex) {
+            log.error("AWS S3 error while presigning upload: {}", ex.awsErrorDetails().errorMessage());
+            throw new BadRequestException("Failed to generate upload URL");
+        }
+    }
+
+    @Override
+    public String createMultipartUpload(String fileKey, String contentType, Map<String, String> metadata) {
+        CreateMultipartUploadRequest request = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(fileKey)
+                .contentType(contentType)
+                .metadata(metadata)
+                .build();
+        try {
+            return s3Client.createMultipartUpload(request).uploadId();
+        } catch (S3Exception ex) {
+            log.error("AWS S3 error while starting multipart upload: {}", ex.awsErrorDetails().errorMessage());
+            throw new BadRequestException("Failed to start upload");
+        }
+    }
+
+    @Override
+    public List<PresignedRequest> presignUploadParts(String fileKey, String uploadId, int partCount, Duration expiry) {
+        List<PresignedRequest> parts = new ArrayList<>(partCount);
+        try {
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileKey)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .build();
+                PresignedUploadPartRequest presignedRequest = s3Presigner.presignUploadPart(UploadPartPresignRequest.builder()
+                        .signatureDuration(expiry)
+                        .uploadPartRequest(uploadPartRequest)
+                        .build());
+                parts.add(new PresignedRequest(presignedRequest.url().toString(),
+                        clientHeaders(presignedRequest.signedHeaders()), presignedRequest.expiration()));
+            }
+        } catch (S3Exception ex) {
+            log.error("AWS S3 error while presigning upload parts: {}", ex.awsErrorDetails().errorMessage());
+            throw new BadRequestException("Failed to generate upload URL");
+        }
+        return parts;
+    }
+
+    @Override
+    public void completeMultipartUpload(String fileKey, String uploadId, List<UploadedPart> parts) {
+        List<CompletedPart> completedParts = parts.stream()
+                .sorted(Comparator.comparingInt(UploadedPart::getPartNumber))
+                .map(part -> CompletedPart.builder().partNumber(part.getPartNumber()).eTag(part.getEtag()).build())
+                .toList();
+        CompleteMultipartUploadRequest request = CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(fileKey)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build();
+        try {
+            s3Client.completeMultipartUpload(request);
+        } catch (S3Exception ex) {
+            log.error("AWS S3 error while completing multipart upload: {}", ex.awsErrorDetails().errorMessage());
+            throw new BadRequestException("Failed to complete upload");
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String fileKey, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileKey)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (S3Exception ex) {
+            // The bucket's lifecycle rule cleans up uploads that could not be aborted
+            log.warn("AWS S3 error while aborting multipart upload {}: {}", uploadId, ex.awsErrorDetails().errorMessage());
+        }
+    }
+
+    @Override
+    public Optional<S3ObjectInfo> headFile(String fileKey) {
+        try {
+            HeadObjectResponse response = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(fileKey)
+                    .build());
+            return Optional.of(new S3ObjectInfo(response.contentLength(), response.contentType(),
+                    response.contentEncoding(), response.eTag(), response.lastModified(), response.metadata()));
+        } catch (NoSuchKeyException ex) {
+            return Optional.empty();
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == HttpStatus.NOT_FOUND.value()) {
+                return Optional.empty();
+            }
+            log.error("AWS S3 error while checking file: {}", ex.getMessage());
+            throw new BadRequestException("Failed to check file in S3");
+        }
+    }
+
     public List<String> listUserFiles(String prefix) {
         ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
                 .bucket(bucketName)
@@ -264,16 +485,18 @@ public class S3Service implements IS3Service {
         return file.getSize() > compressionThreshold;
     }
 
-    private byte[] compressFile(InputStream input) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
-            byte[] buffer = new byte[8192];
-            int len;
-            while ((len = input.read(buffer)) != -1) {
-                gzipOutputStream.write(buffer, 0, len);
+    /**
+     * The signed headers the client has to send with a presigned request. Host is set by any HTTP
+     * client from the URL, so it is left out.
+     */
+    private static Map<String, String> clientHeaders(Map<String, List<String>> signedHeaders) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        signedHeaders.forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
             }
-        }
-        return byteArrayOutputStream.toByteArray();
+        });
+        return headers;
     }
 
     private String normalizeFolder(String folder) {
@@ -8,13 +8,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
+import com.playvora.playvora_api.app.ActiveUserRole;
+import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.common.exception.UserRoleHeaderException;
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.common.utils.UserRoleContext;
 import com.playvora.playvora_api.user.entities.User;
-import com.playvora.playvora_api.user.entities.UserRole;
 import com.playvora.playvora_api.user.repo.UserRepository;
 import com.playvora.playvora_api.user.repo.UserRoleRepository;
 import com.playvora.playvora_api.user.services.IJwtService;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
+import io.jsonwebtoken.Claims;
 import org.springframework.web.filter.OncePerRequestFilter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -39,6 +43,7 @@ public class JwtFilter extends OncePerRequestFilter {
     private final UserDetailsService userDetailsService;
     private final UserRepository userRepository;
     private final UserRoleRepository userRoleRepository;
+    private final IPrincipalCacheService principalCacheService;
     private final ObjectMapper objectMapper;
     
     private static final String USER_ROLE_ID_HEADER = "X-User-Role-Id";
@@ -95,22 +100,24 @@ public class JwtFilter extends OncePerRequestFilter {
                 return;
             }
 
-            // Validate JWT
-            String email = jwtService.extractUsername(jwt);
+            // Verify the signature and parse the claims once for the whole request
+            Claims claims = jwtService.extractAllClaims(jwt);
+            String email = claims.getSubject();
             if (email == null) {
                 chain.doFilter(request, response); // No email, let Spring handle 401
                 return;
             }
 
-            // Load user details
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            // Load user details (user and active roles in a single query), cached per token
+            UserDetails userDetails = principalCacheService.getPrincipal(email, claims.getIssuedAt(),
+                    () -> userDetailsService.loadUserByUsername(email));
             if (userDetails == null) {
                 chain.doFilter(request, response); // No user details, let Spring handle 401
                 return;
             }
 
             // Validate JWT
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                     userDetails,
                     null,
@@ -118,6 +125,7 @@ public class JwtFilter extends OncePerRequestFilter {
                 );
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                AuthenticatedUserContext.open();
                 
                 // After authentication is set, process user role header
                 processUserRoleHeader(request);
@@ -126,8 +134,9 @@ public class JwtFilter extends OncePerRequestFilter {
         } catch (UserRoleHeaderException ex) {
             handleUserRoleHeaderException(ex, response);
         } finally {
-            // Always clear the UserRoleContext at the end of the request
+            // Always clear the request-scoped contexts at the end of the request
             UserRoleContext.clear();
+            AuthenticatedUserContext.clear();
         }
     }
     
@@ -162,9 +171,7 @@ public class JwtFilter extends OncePerRequestFilter {
         String requestPath = request.getRequestURI();
         boolean isPublicRoute = isPublicRoute(requestPath);
 
-        log.info("requestPath: {}", requestPath);
-        log.info("isAuthenticated: {}", isAuthenticated);
-        log.info("isPublicRoute: {}", isPublicRoute);
+        log.debug("requestPath: {}, isAuthenticated: {}, isPublicRoute: {}", requestPath, isAuthenticated, isPublicRoute);
         
         if (!isAuthenticated || isPublicRoute) {
             log.debug("Skipping user role header validation for public or unauthenticated route: {}", requestPath);
@@ -187,42 +194,50 @@ public class JwtFilter extends OncePerRequestFilter {
             throw new UserRoleHeaderException("Invalid X-User-Role-Id format. Expected a valid UUID");
         }
         
-        // Get the authenticated user's email
+        // Get the authenticated user; the principal already carries its id and active roles
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
         String userEmail = userDetails.getUsername();
         
-        // Get the user from the database
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
-        if (userOpt.isEmpty()) {
+        Optional<UUID> userIdOpt = userDetails instanceof AppUserDetail appUserDetail
+                ? Optional.ofNullable(appUserDetail.getUserId())
+                : userRepository.findByEmail(userEmail).map(User::getId);
+        if (userIdOpt.isEmpty()) {
             log.warn("User not found for email: {}", userEmail);
             throw new UserRoleHeaderException("User not found");
         }
         
-        User user = userOpt.get();
+        UUID userId = userIdOpt.get();
         
-        // Validate the user role ID belongs to this user
-        Optional<UserRole> userRoleOpt = userRoleRepository.findActiveUserRoleById(userRoleId);
+        // Resolve the role from the principal's active roles; only fall back to the
+        // database when it is not one of them (to report why it was rejected)
+        Optional<ActiveUserRole> userRoleOpt = userDetails instanceof AppUserDetail appUserDetail
+                ? appUserDetail.findActiveRole(userRoleId)
+                : Optional.empty();
+        if (userRoleOpt.isEmpty()) {
+            userRoleOpt = principalCacheService.getActiveUserRole(userRoleId,
+                    () -> userRoleRepository.findActiveUserRoleById(userRoleId));
+        }
         
         if (userRoleOpt.isEmpty()) {
             log.warn("User role ID {} not found or inactive", userRoleId);
             throw new UserRoleHeaderException("User role ID not found or inactive");
         }
         
-        UserRole userRole = userRoleOpt.get();
+        ActiveUserRole userRole = userRoleOpt.get();
         
         // Verify the user role belongs to the authenticated user
-        if (!userRole.getUser().getId().equals(user.getId())) {
-            log.warn("User role ID {} does not belong to user {}", userRoleId, user.getId());
+        if (!userId.equals(userRole.userId())) {
+            log.warn("User role ID {} does not belong to user {}", userRoleId, userId);
             throw new UserRoleHeaderException("User role ID does not belong to the authenticated user");
         }
         
         // Set the validated user role in the context
         UserRoleContext.setCurrentUserRole(userRole);
         log.debug("Set user role context: roleId={}, roleName={}, communityId={}", 
-                userRole.getId(), 
-                userRole.getRole().getName(),
-                userRole.getCommunity() != null ? userRole.getCommunity().getId() : "global");
+                userRole.id(), 
+                userRole.roleName(),
+                userRole.isCommunityRole() ? userRole.communityId() : "global");
     }
     
     /**
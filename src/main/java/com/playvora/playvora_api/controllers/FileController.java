@@ -3,8 +3,14 @@ package com.playvora.playvora_api.controllers;
 import com.playvora.playvora_api.common.dto.ErrorResponse;
 import com.playvora.playvora_api.common.dto.SuccessResponse;
 import com.playvora.playvora_api.common.services.FileService;
-import com.playvora.playvora_api.files.dtos.FileResourcePayload;
+import com.playvora.playvora_api.files.dtos.CompleteFileUploadRequest;
+import com.playvora.playvora_api.files.dtos.FileStreamPayload;
+import com.playvora.playvora_api.files.dtos.FileUploadRequest;
+import com.playvora.playvora_api.files.dtos.FileUploadTicket;
+import com.playvora.playvora_api.files.dtos.S3ObjectStream;
 import com.playvora.playvora_api.files.dtos.UserFileResponse;
+import com.playvora.playvora_api.files.images.ImageVariant;
+import com.playvora.playvora_api.files.services.IImageVariantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,12 +19,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.Principal;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,6 +40,8 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -40,8 +56,13 @@ import org.springframework.web.multipart.MultipartFile;
 public class FileController {
 
     private final FileService fileService;
+    private final IImageVariantService imageVariantService;
 
-    @Operation(summary = "Upload a file to S3", description = "Uploads a file to the user's folder in S3 and returns a pre-signed URL for immediate access")
+    // Stored files never change under their key (every upload gets a new one), so clients may cache them
+    @Value("${app.files.download.cache-max-age-seconds:86400}")
+    private long cacheMaxAgeSeconds;
+
+    @Operation(summary = "Upload a file to S3", description = "Uploads a file to the user's folder in S3 through this server. Prefer the direct upload flow (POST /uploads, then POST /uploads/complete).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "File uploaded successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
@@ -57,6 +78,35 @@ public class FileController {
         return ResponseEntity.ok(SuccessResponse.of(fileInfo, "File uploaded successfully"));
     }
 
+    @Operation(summary = "Start a direct upload", description = "Returns a presigned PUT URL, with the headers that must be sent with it, or for large files a multipart upload with one presigned URL per part. Upload the file straight to S3, then call POST /uploads/complete.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload URL created"),
+            @ApiResponse(responseCode = "400", description = "Invalid size or content type", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/uploads")
+    public ResponseEntity<SuccessResponse<FileUploadTicket>> createUpload(
+            @Valid @RequestBody FileUploadRequest request,
+            Principal connectedUser) {
+        FileUploadTicket ticket = fileService.createUpload(request, connectedUser);
+        return ResponseEntity.ok(SuccessResponse.of(ticket, "Upload URL created"));
+    }
+
+    @Operation(summary = "Complete a direct upload", description = "Completes a multipart upload if there is one, verifies the uploaded file's size and content type and records it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File uploaded successfully"),
+            @ApiResponse(responseCode = "400", description = "File missing or not matching what was declared", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden - file key belongs to another user", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/uploads/complete")
+    public ResponseEntity<SuccessResponse<Map<String, Object>>> completeUpload(
+            @Valid @RequestBody CompleteFileUploadRequest request,
+            Principal connectedUser) {
+        Map<String, Object> fileInfo = fileService.completeUpload(request, connectedUser);
+        return ResponseEntity.ok(SuccessResponse.of(fileInfo, "File uploaded successfully"));
+    }
+
     @Operation(summary = "List user files", description = "Returns a list of all files uploaded by the authenticated user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Files listed successfully"),
@@ -83,34 +133,83 @@ public class FileController {
         return ResponseEntity.ok(SuccessResponse.<Void>of("File deleted successfully"));
     }
 
-    @Operation(summary = "Get a pre-signed URL image", description = "Generates an image from a pre-signed URL")
+    @Operation(summary = "Get a file image", description = "Streams a stored file from S3. Supports single byte ranges (Range), conditional requests (If-None-Match) and client caching.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "URL generated successfully"),
+            @ApiResponse(responseCode = "200", description = "File streamed successfully"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range streamed"),
+            @ApiResponse(responseCode = "304", description = "Not modified - the client's cached copy matches If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "File not found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "403", description = "Forbidden - file belongs to another user", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable"),
             @ApiResponse(responseCode = "500", description = "Server error", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
-
-
     @GetMapping("/{userId}/{fileName}")
-    public ResponseEntity<Resource> getFileImage(
+    public void getFileImage(
             @Parameter(description = "File name to get image for", required = true, example = "abc-123_file.jpg")
             @PathVariable String fileName,
             @Parameter(description = "userId of the file to get image for", required = true, example = "1")
-            @PathVariable String userId) {
-        FileResourcePayload payload = fileService.getFileImage(userId, fileName    );
-        MediaType responseMediaType = MediaType.APPLICATION_OCTET_STREAM;
-        if (payload.contentType() != null) {
-            try {
-                responseMediaType = MediaType.parseMediaType(payload.contentType());
-            } catch (Exception ignored) {
-                responseMediaType = MediaType.APPLICATION_OCTET_STREAM;
-            }
+            @PathVariable String userId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        try (FileStreamPayload payload = fileService.openFileImage(userId, fileName, range, ifNoneMatch)) {
+            writeFile(payload, response);
         }
-        return ResponseEntity.ok()
-                .contentType(responseMediaType)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + payload.originalFileName() + "\"")
-                .body(payload.resource());
+    }
+
+    @Operation(summary = "Get an image variant", description = "Streams an image at a fixed size: thumbnail (128px), card (640px) or full (1600px). Use the variant URLs in responses rather than building these. If the variant has not been generated yet, the original is returned uncached while it is.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Image streamed successfully"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range streamed"),
+            @ApiResponse(responseCode = "304", description = "Not modified - the client's cached copy matches If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Unknown variant, or not an image with variants", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/variants/{variant}")
+    public void getImageVariant(
+            @Parameter(description = "Variant to get", required = true, example = "thumbnail")
+            @PathVariable String variant,
+            @Parameter(description = "Storage key of the original image", required = true, example = "community-logos/abc.png")
+            @RequestParam String key,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        try (FileStreamPayload payload = imageVariantService.openVariant(key, ImageVariant.fromPathName(variant), range, ifNoneMatch)) {
+            writeFile(payload, response);
+        }
+    }
+
+    private void writeFile(FileStreamPayload payload, HttpServletResponse response) throws IOException {
+        S3ObjectStream object = payload.object();
+        response.setStatus(object.status());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, payload.immutable()
+                ? CacheControl.maxAge(Duration.ofSeconds(cacheMaxAgeSeconds)).cachePrivate().immutable().getHeaderValue()
+                : CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (object.eTag() != null) {
+            response.setHeader(HttpHeaders.ETAG, object.eTag());
+        }
+        if (object.status() == HttpStatus.NOT_MODIFIED.value()
+                || object.status() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+            return;
+        }
+
+        response.setContentType(resolveMediaType(payload.contentType(), object.contentType()).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + payload.originalFileName() + "\"");
+        if (object.contentEncoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, object.contentEncoding());
+        }
+        if (object.contentRange() != null) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, object.contentRange());
+        }
+        if (object.lastModified() != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, object.lastModified().toEpochMilli());
+        }
+        if (object.contentLength() != null) {
+            response.setContentLengthLong(object.contentLength());
+        }
+        copy(object, response.getOutputStream());
     }
 
     @Operation(summary = "Get a pre-signed URL for a file", description = "Generates a temporary pre-signed URL for accessing a specific file")
@@ -127,6 +226,37 @@ public class FileController {
         return ResponseEntity.ok(SuccessResponse.of(presignedUrl, "Pre-signed URL generated successfully"));
     }
 
+    private static MediaType resolveMediaType(String storedContentType, String s3ContentType) {
+        for (String candidate : new String[]{storedContentType, s3ContentType}) {
+            if (candidate != null) {
+                try {
+                    return MediaType.parseMediaType(candidate);
+                } catch (Exception ignored) {
+                    // Try the next candidate
+                }
+            }
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    /**
+     * Pipe the object to the client through a fixed buffer, so memory use does not depend on the file
+     * size. If the client goes away mid-transfer the S3 connection is aborted rather than drained.
+     */
+    private static void copy(S3ObjectStream object, OutputStream out) throws IOException {
+        InputStream in = object.body();
+        byte[] buffer = new byte[16 * 1024];
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            object.abort();
+            throw e;
+        }
+    }
+
     @Operation(summary = "Get a metadata for a file", description = "Gets the metadata of a specific file")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Metadata retrieved successfully"),
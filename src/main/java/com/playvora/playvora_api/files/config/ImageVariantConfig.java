@@ -0,0 +1,31 @@
+package com.playvora.playvora_api.files.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImageVariantConfig {
+
+    /**
+     * Generates image variants after uploads. Decoding an image takes tens of megabytes, so the pool
+     * is small and its queue bounded; when it is full the work is dropped instead of queued on the
+     * heap, and the variants are made on first request instead. Not a default candidate, so it does
+     * not replace Boot's {@code applicationTaskExecutor}.
+     */
+    @Bean(defaultCandidate = false)
+    public ThreadPoolTaskExecutor imageVariantExecutor(
+            @Value("${app.files.image-variants.workers:2}") int workers,
+            @Value("${app.files.image-variants.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
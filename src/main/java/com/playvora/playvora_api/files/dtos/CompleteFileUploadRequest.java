@@ -0,0 +1,25 @@
+package com.playvora.playvora_api.files.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CompleteFileUploadRequest {
+
+    @NotBlank(message = "File key is required")
+    private String fileKey;
+
+    // Only for multipart uploads, with the ETag S3 returned for every part
+    private String uploadId;
+
+    @Valid
+    private List<UploadedPart> parts;
+}
@@ -0,0 +1,17 @@
+package com.playvora.playvora_api.files.dtos;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * An open file to stream to a client. {@code immutable} is false when the bytes may change under the
+ * same URL, e.g. an original served while its variant is being generated, so it must not be cached.
+ */
+public record FileStreamPayload(S3ObjectStream object, String contentType, String originalFileName,
+                                boolean immutable) implements Closeable {
+
+    @Override
+    public void close() throws IOException {
+        object.close();
+    }
+}
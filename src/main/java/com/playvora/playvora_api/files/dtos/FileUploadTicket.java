@@ -0,0 +1,25 @@
+package com.playvora.playvora_api.files.dtos;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * How to upload a file straight to storage. Small files get one presigned PUT ({@code url} and
+ * {@code headers}); large ones get a multipart upload ({@code uploadId}, {@code partSize} and one URL per
+ * part). Either way the client then completes the upload with {@code fileKey}.
+ */
+@Value
+@Builder
+public class FileUploadTicket {
+    String fileKey;
+    String fileName;
+    String url;
+    Map<String, String> headers;
+    String uploadId;
+    Long partSize;
+    List<PartUploadUrl> parts;
+    Instant expiresAt;
+}
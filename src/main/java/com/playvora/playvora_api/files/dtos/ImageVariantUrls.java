@@ -0,0 +1,16 @@
+package com.playvora.playvora_api.files.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Where to fetch an image at each fixed size. Prefer these to the original URL, which is the image
+ * at its uploaded resolution.
+ */
+@Value
+@Builder
+public class ImageVariantUrls {
+    String thumbnail;
+    String card;
+    String full;
+}
@@ -0,0 +1,11 @@
+package com.playvora.playvora_api.files.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class PartUploadUrl {
+    int partNumber;
+    String url;
+}
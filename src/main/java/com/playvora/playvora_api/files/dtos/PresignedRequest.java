@@ -0,0 +1,11 @@
+package com.playvora.playvora_api.files.dtos;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A presigned S3 request. The client must send {@code headers} exactly as given, since they are part
+ * of the signature.
+ */
+public record PresignedRequest(String url, Map<String, String> headers, Instant expiresAt) {
+}
@@ -0,0 +1,9 @@
+package com.playvora.playvora_api.files.dtos;
+
+import java.time.Instant;
+
+/**
+ * A presigned GET URL of an object and when its signature stops being accepted.
+ */
+public record PresignedUrl(String url, Instant expiresAt) {
+}
@@ -0,0 +1,12 @@
+package com.playvora.playvora_api.files.dtos;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * What a HEAD of an S3 object reports. {@code metadata} is the user metadata without the
+ * {@code x-amz-meta-} prefix.
+ */
+public record S3ObjectInfo(long contentLength, String contentType, String contentEncoding, String eTag,
+                           Instant lastModified, Map<String, String> metadata) {
+}
@@ -0,0 +1,42 @@
+package com.playvora.playvora_api.files.dtos;
+
+import software.amazon.awssdk.http.Abortable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+
+/**
+ * An open GET of an S3 object. {@code status} is the HTTP status S3 answered with: 200 for the whole
+ * object, 206 for a range, 304 if it matched {@code If-None-Match} and 416 for an unsatisfiable range;
+ * only 200 and 206 have a body. The body must be closed, or aborted if it will not be read to the end,
+ * to release the pooled connection.
+ */
+public record S3ObjectStream(int status,
+                             InputStream body,
+                             Long contentLength,
+                             String contentType,
+                             String contentEncoding,
+                             String contentRange,
+                             String eTag,
+                             Instant lastModified) implements Closeable {
+
+    public static S3ObjectStream withoutBody(int status, String eTag) {
+        return new S3ObjectStream(status, InputStream.nullInputStream(), 0L, null, null, null, eTag, null);
+    }
+
+    /**
+     * Drop the connection instead of draining the rest of the object, e.g. when the client went away.
+     */
+    public void abort() {
+        if (body instanceof Abortable abortable) {
+            abortable.abort();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
@@ -0,0 +1,8 @@
+package com.playvora.playvora_api.files.dtos;
+
+/**
+ * What a server-side upload stored: the key, the object's ETag and its size and content encoding as
+ * stored, which differ from the original file's when it was compressed.
+ */
+public record S3UploadResult(String fileKey, String eTag, long storedSize, String contentEncoding) {
+}
@@ -0,0 +1,8 @@
+package com.playvora.playvora_api.files.dtos;
+
+/**
+ * The object an upload refers to. {@code reused} is true when identical content was already stored,
+ * so nothing was written to S3.
+ */
+public record StoredBlob(S3UploadResult object, boolean reused) {
+}
@@ -0,0 +1,21 @@
+package com.playvora.playvora_api.files.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UploadedPart {
+
+    @Positive(message = "Part number must be greater than zero")
+    private int partNumber;
+
+    @NotBlank(message = "Part ETag is required")
+    private String etag;
+}
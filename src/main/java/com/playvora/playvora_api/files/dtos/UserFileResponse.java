@@ -12,6 +12,8 @@ public class UserFileResponse {
     String contentType;
     long size;
     String url;
+    // Null unless the file is an image
+    ImageVariantUrls variants;
     OffsetDateTime uploadedAt;
 }
 
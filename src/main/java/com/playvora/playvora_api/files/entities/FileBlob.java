@@ -0,0 +1,66 @@
+package com.playvora.playvora_api.files.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A stored S3 object identified by the SHA-256 of its content within a namespace (the top-level
+ * folder), shared by every file or image with that content.
+ */
+@Entity
+@Table(name = "file_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileBlob {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "namespace", nullable = false)
+    private String namespace;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "file_key", nullable = false, unique = true)
+    private String fileKey;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "content_encoding")
+    private String contentEncoding;
+
+    @Column(name = "storage_size", nullable = false)
+    private long storageSize;
+
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+}
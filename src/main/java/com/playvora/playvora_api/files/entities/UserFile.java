@@ -56,6 +56,19 @@ public class UserFile {
     @Column(name = "uploaded_at", nullable = false)
     private OffsetDateTime uploadedAt;
 
+    // The stored S3 object, as reported when it was uploaded; null for files uploaded before these were recorded
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "content_encoding")
+    private String contentEncoding;
+
+    @Column(name = "storage_size")
+    private Long storageSize;
+
+    @Column(name = "storage_last_modified")
+    private OffsetDateTime storageLastModified;
+
     @PrePersist
     public void prePersist() {
         if (uploadedAt == null) {
@@ -0,0 +1,154 @@
+package com.playvora.playvora_api.files.images;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Decodes an image and scales it to every {@link ImageVariant}. The source is subsampled while it is
+ * decoded, so a large photo is never held in memory at full resolution: only at about twice the size
+ * of the largest variant, which is enough for a sharp downscale. Scaling halves the image repeatedly
+ * with bilinear interpolation, which looks close to bicubic at a fraction of the cost.
+ */
+public final class ImageResizer {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final long maxSourcePixels;
+
+    /**
+     * @param maxSourcePixels images with more pixels than this are rejected rather than decoded
+     */
+    public ImageResizer(long maxSourcePixels) {
+        this.maxSourcePixels = maxSourcePixels;
+    }
+
+    /**
+     * @param format "jpg" or "png"; JPEG variants are flattened onto white
+     * @return the encoded variants
+     * @throws IOException if the input is not a readable image
+     */
+    public Map<ImageVariant, byte[]> resize(InputStream input, String format) throws IOException {
+        BufferedImage source = decode(input);
+        Map<ImageVariant, byte[]> variants = new EnumMap<>(ImageVariant.class);
+        BufferedImage previous = source;
+        // Largest first, so each variant is scaled down from the one before it
+        ImageVariant[] largestFirst = ImageVariant.values();
+        for (int i = largestFirst.length - 1; i >= 0; i--) {
+            ImageVariant variant = largestFirst[i];
+            previous = scaleToFit(previous, variant.maxEdge());
+            variants.put(variant, encode(previous, format));
+        }
+        return variants;
+    }
+
+    private BufferedImage decode(InputStream input) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+            if (stream == null) {
+                throw new IOException("Unreadable image");
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    throw new IOException("Image of " + width + "x" + height + " exceeds the size limit");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int decodedEdge = 2 * ImageVariant.FULL.maxEdge();
+                int subsampling = Math.max(1, (Math.max(width, height) + decodedEdge - 1) / decodedEdge);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static BufferedImage scaleToFit(BufferedImage image, int maxEdge) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        BufferedImage current = toArgb(image);
+        while (current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            int nextWidth = Math.max(targetWidth, current.getWidth() / 2);
+            int nextHeight = Math.max(targetHeight, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    private static BufferedImage toArgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+            return image;
+        }
+        BufferedImage argb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = argb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return argb;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if ("png".equals(format)) {
+            ImageIO.write(image, "png", bytes);
+            return bytes.toByteArray();
+        }
+
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
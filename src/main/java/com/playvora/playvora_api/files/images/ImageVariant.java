@@ -0,0 +1,44 @@
+package com.playvora.playvora_api.files.images;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Fixed sizes images are delivered at. Each variant fits the image within a square of
+ * {@code maxEdge} pixels, keeping the aspect ratio; smaller images are not enlarged.
+ */
+public enum ImageVariant {
+    /** Avatars and list icons, sharp at 64px on 2x screens. */
+    THUMBNAIL(128),
+    /** Cards and feed items. */
+    CARD(640),
+    /** Full-screen viewing. */
+    FULL(1600);
+
+    private final int maxEdge;
+
+    ImageVariant(int maxEdge) {
+        this.maxEdge = maxEdge;
+    }
+
+    public int maxEdge() {
+        return maxEdge;
+    }
+
+    /**
+     * The variant's name in keys and URLs.
+     */
+    public String pathName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static ImageVariant fromPathName(String name) {
+        for (ImageVariant variant : values()) {
+            if (variant.pathName().equalsIgnoreCase(name)) {
+                return variant;
+            }
+        }
+        throw new BadRequestException("Unknown image variant: " + name);
+    }
+}
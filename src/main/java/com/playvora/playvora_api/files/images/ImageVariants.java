@@ -0,0 +1,129 @@
+package com.playvora.playvora_api.files.images;
+
+import com.playvora.playvora_api.files.dtos.ImageVariantUrls;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Naming of image variants. A variant is stored next to its original under a key derived from the
+ * original's, e.g. {@code community-logos/abc.png} has {@code community-logos/abc.thumbnail.png}, so
+ * no record of which variants exist is needed. Variants are JPEG for JPEG and BMP originals and PNG
+ * for formats that can be transparent.
+ */
+public final class ImageVariants {
+
+    public static final String VARIANTS_PATH = "/api/v1/files/variants/";
+
+    /** Folders of the bucket holding images that may have variants. */
+    static final List<String> IMAGE_FOLDERS = List.of("users/", "community-logos/", "community-banners/");
+
+    private static final List<String> OPAQUE_EXTENSIONS = List.of(".jpg", ".jpeg", ".bmp");
+    private static final List<String> TRANSPARENT_EXTENSIONS = List.of(".png", ".gif");
+
+    private ImageVariants() {
+        // Utility class
+    }
+
+    /**
+     * Whether the object under this key is an image that variants can be made of.
+     */
+    public static boolean isSupported(String sourceKey) {
+        if (sourceKey == null || sourceKey.contains("..") || IMAGE_FOLDERS.stream().noneMatch(sourceKey::startsWith)) {
+            return false;
+        }
+        return extension(sourceKey) != null && !isVariantKey(sourceKey);
+    }
+
+    /**
+     * "jpg" or "png", the format variants of this source are encoded in.
+     */
+    public static String format(String sourceKey) {
+        return OPAQUE_EXTENSIONS.contains(extension(sourceKey)) ? "jpg" : "png";
+    }
+
+    public static String contentType(String sourceKey) {
+        return "jpg".equals(format(sourceKey)) ? "image/jpeg" : "image/png";
+    }
+
+    public static String variantKey(String sourceKey, ImageVariant variant) {
+        String extension = extension(sourceKey);
+        String base = sourceKey.substring(0, sourceKey.length() - extension.length());
+        return base + "." + variant.pathName() + "." + format(sourceKey);
+    }
+
+    /**
+     * API URLs of the variants of the image stored under {@code sourceKey}, or null if it is not an
+     * image with variants.
+     */
+    public static ImageVariantUrls urlsForKey(String sourceKey) {
+        if (!isSupported(sourceKey)) {
+            return null;
+        }
+        String key = "?key=" + URLEncoder.encode(sourceKey, StandardCharsets.UTF_8);
+        return ImageVariantUrls.builder()
+                .thumbnail(VARIANTS_PATH + ImageVariant.THUMBNAIL.pathName() + key)
+                .card(VARIANTS_PATH + ImageVariant.CARD.pathName() + key)
+                .full(VARIANTS_PATH + ImageVariant.FULL.pathName() + key)
+                .build();
+    }
+
+    /**
+     * Variant URLs for an image referenced by its storage URL, such as a community logo. URLs that
+     * do not point into one of the image folders (e.g. an external banner) have none.
+     */
+    public static ImageVariantUrls urlsForUrl(String imageUrl) {
+        return keyFromUrl(imageUrl).map(ImageVariants::urlsForKey).orElse(null);
+    }
+
+    /**
+     * The object key in a storage URL. Both virtual-hosted ({@code https://bucket.host/key}) and
+     * path-style ({@code https://host/bucket/key}) URLs are understood, by finding the image folder
+     * in the path.
+     */
+    public static Optional<String> keyFromUrl(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return Optional.empty();
+        }
+        String path;
+        try {
+            path = URI.create(imageUrl.trim()).getPath();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (path == null) {
+            return Optional.empty();
+        }
+        for (String folder : IMAGE_FOLDERS) {
+            int index = path.indexOf("/" + folder);
+            if (index >= 0 && path.lastIndexOf('/', index - 1) <= 0) {
+                return Optional.of(path.substring(index + 1));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isVariantKey(String key) {
+        String withoutExtension = key.substring(0, key.lastIndexOf('.'));
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (withoutExtension.endsWith("." + variant.pathName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String extension(String key) {
+        int dot = key.lastIndexOf('.');
+        int slash = key.lastIndexOf('/');
+        if (dot <= slash + 1) {
+            return null;
+        }
+        String extension = key.substring(dot).toLowerCase(Locale.ROOT);
+        return OPAQUE_EXTENSIONS.contains(extension) || TRANSPARENT_EXTENSIONS.contains(extension) ? extension : null;
+    }
+}
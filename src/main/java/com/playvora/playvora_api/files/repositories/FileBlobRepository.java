@@ -0,0 +1,58 @@
+package com.playvora.playvora_api.files.repositories;
+
+import com.playvora.playvora_api.files.entities.FileBlob;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reference counts are only changed by single conditional statements, so concurrent uploads and
+ * deletes of the same content serialize on the blob's row.
+ */
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, UUID> {
+
+    Optional<FileBlob> findByNamespaceAndContentHash(String namespace, String contentHash);
+
+    /**
+     * @return 0 if no object with this content is stored
+     */
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount + 1 WHERE b.namespace = :namespace AND b.contentHash = :contentHash")
+    int incrementRefCount(@Param("namespace") String namespace, @Param("contentHash") String contentHash);
+
+    /**
+     * Record a newly stored object with one reference.
+     *
+     * @return 0 if an object with the same content was recorded first
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO file_blobs
+                (namespace, content_hash, file_key, content_type, content_encoding, storage_size, etag, ref_count, created_at)
+            VALUES (:namespace, :contentHash, :fileKey, :contentType, :contentEncoding, :storageSize, :etag, 1, NOW())
+            ON CONFLICT (namespace, content_hash) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("namespace") String namespace,
+                       @Param("contentHash") String contentHash,
+                       @Param("fileKey") String fileKey,
+                       @Param("contentType") String contentType,
+                       @Param("contentEncoding") String contentEncoding,
+                       @Param("storageSize") long storageSize,
+                       @Param("etag") String etag);
+
+    /**
+     * @return 0 if the key is not a recorded object
+     */
+    @Modifying
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1 WHERE b.fileKey = :fileKey")
+    int decrementRefCount(@Param("fileKey") String fileKey);
+
+    @Modifying
+    @Query("DELETE FROM FileBlob b WHERE b.fileKey = :fileKey AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("fileKey") String fileKey);
+}
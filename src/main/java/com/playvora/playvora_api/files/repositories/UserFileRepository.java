@@ -16,6 +16,10 @@ public interface UserFileRepository extends JpaRepository<UserFile, UUID> {
 
     Optional<UserFile> findByUserIdAndFileName(UUID userId, String fileName);
 
+    Optional<UserFile> findFirstByUserAndFileKey(User user, String fileKey);
+
     boolean existsByUserAndFileName(User user, String fileName);
+
+    boolean existsByFileKey(String fileKey);
 }
 
@@ -0,0 +1,23 @@
+package com.playvora.playvora_api.files.services;
+
+import com.playvora.playvora_api.files.dtos.StoredBlob;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface IFileBlobService {
+
+    /**
+     * Store an uploaded file as {@code fileName} in {@code folder}, unless a file with identical
+     * content is already stored in the same folder, in which case that object gains a
+     * reference and nothing is written to S3.
+     */
+    StoredBlob store(MultipartFile file, String folder, String fileName);
+
+    /**
+     * Drop a reference to a stored object. The object and its image variants are deleted, after
+     * the surrounding transaction commits, when the last reference goes; objects stored before
+     * deduplication have a single reference.
+     *
+     * @return whether the object is deleted
+     */
+    boolean release(String fileKey);
+}
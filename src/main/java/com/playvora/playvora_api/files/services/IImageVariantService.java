@@ -0,0 +1,29 @@
+package com.playvora.playvora_api.files.services;
+
+import com.playvora.playvora_api.files.dtos.FileStreamPayload;
+import com.playvora.playvora_api.files.images.ImageVariant;
+
+public interface IImageVariantService {
+
+    /**
+     * Queue generation of the variants of the object under {@code sourceKey} if it is a supported
+     * image. Returns immediately; under load the work may be dropped and done on first request.
+     */
+    void generateAsync(String sourceKey);
+
+    /**
+     * Generate and store all variants now.
+     *
+     * @return false if the source is missing or could not be converted
+     */
+    boolean generate(String sourceKey);
+
+    /**
+     * Open a variant for streaming. If it has not been generated (a legacy file, or generation is
+     * still queued) it is queued now and the original is returned instead, marked as not immutable.
+     * Only originals that a user file, community or match refers to are served.
+     */
+    FileStreamPayload openVariant(String sourceKey, ImageVariant variant, String range, String ifNoneMatch);
+
+    void deleteVariants(String sourceKey);
+}
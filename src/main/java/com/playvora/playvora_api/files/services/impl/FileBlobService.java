@@ -0,0 +1,151 @@
+package com.playvora.playvora_api.files.services.impl;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.community.services.IS3Service;
+import com.playvora.playvora_api.files.dtos.S3UploadResult;
+import com.playvora.playvora_api.files.dtos.StoredBlob;
+import com.playvora.playvora_api.files.entities.FileBlob;
+import com.playvora.playvora_api.files.repositories.FileBlobRepository;
+import com.playvora.playvora_api.files.services.IFileBlobService;
+import com.playvora.playvora_api.files.services.IImageVariantService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Content-addressed storage of uploads. An upload is hashed (SHA-256, streamed from the servlet's
+ * copy of the part) before anything is sent to S3; content already stored in the same folder gains a
+ * reference instead of being uploaded again. Folders belong to one owner, so an upload is never
+ * answered with a key from another owner's folder. Objects keep the random key of their first
+ * upload, so an object deleted with its last reference is never the one a new upload writes to.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileBlobService implements IFileBlobService {
+
+    private final IS3Service s3Service;
+    private final IImageVariantService imageVariantService;
+    private final FileBlobRepository fileBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder bytesNotUploaded = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+
+    @Override
+    public StoredBlob store(MultipartFile file, String folder, String fileName) {
+        String namespace = namespaceOf(folder);
+        String contentHash = sha256(file);
+
+        S3UploadResult uploaded = null;
+        while (true) {
+            StoredBlob existing = transactionTemplate.execute(status -> reference(namespace, contentHash));
+            if (existing != null) {
+                if (uploaded != null) {
+                    // The same content was stored concurrently and recorded first; keep that copy
+                    s3Service.deleteFile(uploaded.fileKey());
+                }
+                reused.increment();
+                bytesNotUploaded.add(file.getSize());
+                log.debug("Upload of {} matches stored object {}", fileName, existing.object().fileKey());
+                return existing;
+            }
+            if (uploaded == null) {
+                uploaded = s3Service.uploadFile(file, folder, fileName);
+            }
+            S3UploadResult object = uploaded;
+            Integer inserted = transactionTemplate.execute(status -> fileBlobRepository.insertIfAbsent(namespace,
+                    contentHash, object.fileKey(), file.getContentType(), object.contentEncoding(),
+                    object.storedSize(), object.eTag()));
+            if (inserted != null && inserted > 0) {
+                stored.increment();
+                return new StoredBlob(object, false);
+            }
+        }
+    }
+
+    @Override
+    public boolean release(String fileKey) {
+        Boolean last = transactionTemplate.execute(status -> {
+            if (fileBlobRepository.decrementRefCount(fileKey) == 0) {
+                // Stored before deduplication, so this was the only reference
+                return true;
+            }
+            return fileBlobRepository.deleteIfUnreferenced(fileKey) > 0;
+        });
+        if (!Boolean.TRUE.equals(last)) {
+            return false;
+        }
+
+        Runnable delete = () -> {
+            s3Service.deleteFile(fileKey);
+            imageVariantService.deleteVariants(fileKey);
+            deleted.increment();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete.run();
+                }
+            });
+        } else {
+            delete.run();
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.files.blobs.stats-interval-ms:300000}")
+    public void logStats() {
+        log.info("File blobs: stored={}, reused={}, bytesNotUploaded={}, deleted={}",
+                stored.sum(), reused.sum(), bytesNotUploaded.sum(), deleted.sum());
+    }
+
+    private StoredBlob reference(String namespace, String contentHash) {
+        if (fileBlobRepository.incrementRefCount(namespace, contentHash) == 0) {
+            return null;
+        }
+        FileBlob blob = fileBlobRepository.findByNamespaceAndContentHash(namespace, contentHash).orElseThrow();
+        return new StoredBlob(new S3UploadResult(blob.getFileKey(), blob.getEtag(), blob.getStorageSize(),
+                blob.getContentEncoding()), true);
+    }
+
+    /**
+     * Content is shared within the folder it is stored in, e.g. one user's files or one community's
+     * logos. Sharing across folders would hand one owner a key naming another owner's folder.
+     */
+    private static String namespaceOf(String folder) {
+        String trimmed = folder.startsWith("/") ? folder.substring(1) : folder;
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static String sha256(MultipartFile file) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException ex) {
+            log.error("Error reading uploaded file", ex);
+            throw new BadRequestException("Failed to upload file: " + ex.getMessage());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
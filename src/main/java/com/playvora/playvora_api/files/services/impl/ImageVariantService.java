@@ -0,0 +1,179 @@
+package com.playvora.playvora_api.files.services.impl;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.utils.BoundedTtlCache;
+import com.playvora.playvora_api.community.repo.CommunityRepository;
+import com.playvora.playvora_api.community.services.IS3Service;
+import com.playvora.playvora_api.files.dtos.FileStreamPayload;
+import com.playvora.playvora_api.files.dtos.S3ObjectStream;
+import com.playvora.playvora_api.files.images.ImageResizer;
+import com.playvora.playvora_api.files.images.ImageVariant;
+import com.playvora.playvora_api.files.images.ImageVariants;
+import com.playvora.playvora_api.files.repositories.UserFileRepository;
+import com.playvora.playvora_api.files.services.IImageVariantService;
+import com.playvora.playvora_api.match.repo.MatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Makes the fixed-size variants of uploaded images on {@code imageVariantExecutor} and serves them.
+ * A source is generated at most once at a time. Sources that are not decodable images are
+ * remembered for a while, so repeated requests for their variants do not decode them again.
+ */
+@Slf4j
+@Service
+public class ImageVariantService implements IImageVariantService {
+
+    private final IS3Service s3Service;
+    private final UserFileRepository userFileRepository;
+    private final CommunityRepository communityRepository;
+    private final MatchRepository matchRepository;
+    private final ThreadPoolTaskExecutor imageVariantExecutor;
+    private final ImageResizer imageResizer;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final BoundedTtlCache<String, Boolean> unconvertible;
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder lazyMisses = new LongAdder();
+
+    public ImageVariantService(IS3Service s3Service,
+                               UserFileRepository userFileRepository,
+                               CommunityRepository communityRepository,
+                               MatchRepository matchRepository,
+                               @Qualifier("imageVariantExecutor") ThreadPoolTaskExecutor imageVariantExecutor,
+                               @Value("${app.files.image-variants.max-source-pixels:100000000}") long maxSourcePixels,
+                               @Value("${app.files.image-variants.failure-ttl-minutes:60}") long failureTtlMinutes) {
+        this.s3Service = s3Service;
+        this.userFileRepository = userFileRepository;
+        this.communityRepository = communityRepository;
+        this.matchRepository = matchRepository;
+        this.imageVariantExecutor = imageVariantExecutor;
+        this.imageResizer = new ImageResizer(maxSourcePixels);
+        this.unconvertible = new BoundedTtlCache<>("unconvertibleImages", 10_000, failureTtlMinutes * 60_000);
+    }
+
+    @Override
+    public void generateAsync(String sourceKey) {
+        if (!ImageVariants.isSupported(sourceKey) || unconvertible.getIfPresent(sourceKey) != null
+                || !inFlight.add(sourceKey)) {
+            return;
+        }
+        try {
+            imageVariantExecutor.execute(() -> {
+                try {
+                    generate(sourceKey);
+                } finally {
+                    inFlight.remove(sourceKey);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(sourceKey);
+            rejected.increment();
+            log.debug("Image variant queue full, {} will be generated on first request", sourceKey);
+        }
+    }
+
+    @Override
+    public boolean generate(String sourceKey) {
+        if (!ImageVariants.isSupported(sourceKey)) {
+            return false;
+        }
+        long started = System.nanoTime();
+        Map<ImageVariant, byte[]> variants;
+        Optional<S3ObjectStream> source = s3Service.openFile(sourceKey, null, null);
+        if (source.isEmpty()) {
+            log.warn("Cannot generate image variants, {} does not exist", sourceKey);
+            return false;
+        }
+        try (S3ObjectStream object = source.get()) {
+            variants = imageResizer.resize(object.body(), ImageVariants.format(sourceKey));
+        } catch (IOException e) {
+            failed.increment();
+            unconvertible.put(sourceKey, Boolean.TRUE);
+            log.warn("Cannot generate image variants of {}: {}", sourceKey, e.getMessage());
+            return false;
+        }
+
+        try {
+            variants.forEach((variant, bytes) -> s3Service.uploadBytes(ImageVariants.variantKey(sourceKey, variant),
+                    bytes, ImageVariants.contentType(sourceKey)));
+        } catch (BadRequestException e) {
+            failed.increment();
+            log.warn("Cannot store image variants of {}: {}", sourceKey, e.getMessage());
+            return false;
+        }
+        generated.increment();
+        log.debug("Generated image variants of {} in {} ms", sourceKey, (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    @Override
+    public FileStreamPayload openVariant(String sourceKey, ImageVariant variant, String range, String ifNoneMatch) {
+        if (!ImageVariants.isSupported(sourceKey)) {
+            throw new BadRequestException("Image variants are not available for: " + sourceKey);
+        }
+        if (!isReferenced(sourceKey)) {
+            throw new BadRequestException("File not found: " + sourceKey);
+        }
+        String variantKey = ImageVariants.variantKey(sourceKey, variant);
+        Optional<S3ObjectStream> stored = s3Service.openFile(variantKey, range, ifNoneMatch);
+        if (stored.isPresent()) {
+            return new FileStreamPayload(stored.get(), ImageVariants.contentType(sourceKey), fileName(variantKey), true);
+        }
+
+        lazyMisses.increment();
+        generateAsync(sourceKey);
+        S3ObjectStream original = s3Service.openFile(sourceKey, range, ifNoneMatch)
+                .orElseThrow(() -> new BadRequestException("File not found: " + sourceKey));
+        return new FileStreamPayload(original, null, fileName(sourceKey), false);
+    }
+
+    @Override
+    public void deleteVariants(String sourceKey) {
+        if (!ImageVariants.isSupported(sourceKey)) {
+            return;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            s3Service.deleteFile(ImageVariants.variantKey(sourceKey, variant));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.files.image-variants.stats-interval-ms:300000}")
+    public void purgeExpiredAndLogStats() {
+        unconvertible.purgeExpired();
+        log.info("Image variants: generated={}, failed={}, rejected={}, lazyMisses={}, inFlight={}, queued={}",
+                generated.sum(), failed.sum(), rejected.sum(), lazyMisses.sum(), inFlight.size(),
+                imageVariantExecutor.getThreadPoolExecutor().getQueue().size());
+    }
+
+    /**
+     * Whether the original under this key is one the app refers to: a user's file, or the logo or
+     * banner of a community or the banner of a match, stored as the object's URL. Other objects in
+     * the image folders are not served.
+     */
+    private boolean isReferenced(String sourceKey) {
+        if (userFileRepository.existsByFileKey(sourceKey)) {
+            return true;
+        }
+        String url = s3Service.getFileUrl(sourceKey);
+        return communityRepository.existsByImageUrl(url) || matchRepository.existsByBannerUrl(url);
+    }
+
+    private static String fileName(String key) {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+}
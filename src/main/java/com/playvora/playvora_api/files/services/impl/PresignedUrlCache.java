@@ -0,0 +1,77 @@
+package com.playvora.playvora_api.files.services.impl;
+
+import com.playvora.playvora_api.common.utils.BoundedTtlCache;
+import com.playvora.playvora_api.community.services.IS3Service;
+import com.playvora.playvora_api.files.dtos.PresignedUrl;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Presigned GET URLs by file key. A URL is signed for {@code expiry} and handed out again until only
+ * {@code minRemaining} of it is left, so a file keeps one URL for most of its lifetime and clients and
+ * CDNs can cache what it points to instead of seeing a new URL on every request.
+ */
+@Slf4j
+@Component
+public class PresignedUrlCache {
+
+    private final IS3Service s3Service;
+    private final Duration expiry;
+    private final Clock clock;
+    private final BoundedTtlCache<String, PresignedUrl> urls;
+
+    @Autowired
+    public PresignedUrlCache(IS3Service s3Service,
+                             @Value("${app.files.presigned-url.expiry-minutes:60}") long expiryMinutes,
+                             @Value("${app.files.presigned-url.min-remaining-minutes:10}") long minRemainingMinutes,
+                             @Value("${app.files.presigned-url.cache-max-size:10000}") int maxSize) {
+        this(s3Service, Duration.ofMinutes(expiryMinutes), Duration.ofMinutes(minRemainingMinutes), maxSize,
+                Clock.systemUTC());
+    }
+
+    public PresignedUrlCache(IS3Service s3Service, Duration expiry, Duration minRemaining, int maxSize, Clock clock) {
+        if (minRemaining.compareTo(expiry) >= 0) {
+            throw new IllegalArgumentException("Presigned URL min-remaining must be shorter than its expiry");
+        }
+        this.s3Service = s3Service;
+        this.expiry = expiry;
+        this.clock = clock;
+        this.urls = new BoundedTtlCache<>("presignedUrls", maxSize, expiry.minus(minRemaining).toMillis(), clock);
+    }
+
+    /**
+     * Return the cached URL, or sign and cache a new one. Signing is local, so concurrent misses may
+     * each sign a URL; the last one is kept.
+     */
+    public PresignedUrl get(String fileKey) {
+        return urls.get(fileKey, key -> {
+            // Taken before signing, so the reported expiry is never later than the signature's
+            Instant expiresAt = clock.instant().plus(expiry);
+            return new PresignedUrl(s3Service.generatePresignedUrl(key, expiry.toMillis()), expiresAt);
+        });
+    }
+
+    public void invalidate(String fileKey) {
+        urls.invalidate(fileKey);
+    }
+
+    public BoundedTtlCache.Stats getStats() {
+        return urls.stats();
+    }
+
+    @Scheduled(fixedDelayString = "${app.files.presigned-url.stats-interval-ms:300000}")
+    public void purgeExpiredAndLogStats() {
+        urls.purgeExpired();
+        BoundedTtlCache.Stats stats = urls.stats();
+        log.info("Presigned URL cache: size={}/{}, hits={}, misses={}, hitRate={}, evictions={}",
+                stats.size(), stats.maxSize(), stats.hits(), stats.misses(),
+                String.format(Locale.ROOT, "%.3f", stats.hitRate()), stats.evictions());
+    }
+}
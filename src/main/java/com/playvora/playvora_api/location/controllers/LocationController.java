@@ -1,7 +1,9 @@
 package com.playvora.playvora_api.location.controllers;
 
 import com.playvora.playvora_api.common.dto.ApiResponse;
+import com.playvora.playvora_api.location.dtos.BulkPostcodeRequest;
 import com.playvora.playvora_api.location.dtos.LocationResponse;
+import com.playvora.playvora_api.location.dtos.PostcodeLookupResult;
 import com.playvora.playvora_api.location.dtos.PostcodeRequest;
 import com.playvora.playvora_api.location.services.ILocationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/location")
 @RequiredArgsConstructor
@@ -47,5 +51,18 @@ public class LocationController {
         return ResponseEntity.status(HttpStatus.OK)
                 .body(ApiResponse.success(location, "Location retrieved successfully"));
     }
-}
 
+    @PostMapping("/postcodes")
+    @Operation(
+        summary = "Get locations for several postcodes",
+        description = "Looks up to 100 UK postcodes at once. Results are returned in request order; the location is null for invalid postcodes"
+    )
+    public ResponseEntity<ApiResponse<List<PostcodeLookupResult>>> getLocationsByPostcodes(
+            @Valid @RequestBody BulkPostcodeRequest request) {
+
+        List<PostcodeLookupResult> locations = locationService.getLocationsByPostcodes(request.getPostcodes());
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(ApiResponse.success(locations, "Locations retrieved successfully"));
+    }
+}
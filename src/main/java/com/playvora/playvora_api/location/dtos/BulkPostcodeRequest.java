@@ -0,0 +1,21 @@
+package com.playvora.playvora_api.location.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPostcodeRequest {
+    @NotEmpty(message = "Postcodes are required")
+    @Size(max = 100, message = "At most 100 postcodes can be looked up at once")
+    private List<@NotBlank(message = "Postcode is required") String> postcodes;
+}
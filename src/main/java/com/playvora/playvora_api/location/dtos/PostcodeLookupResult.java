@@ -0,0 +1,18 @@
+package com.playvora.playvora_api.location.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a bulk postcode lookup. {@code location} is null when the postcode is invalid.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostcodeLookupResult {
+    private String query;
+    private LocationResponse location;
+}
@@ -1,8 +1,11 @@
 package com.playvora.playvora_api.location.services;
 
 import com.playvora.playvora_api.location.dtos.LocationResponse;
+import com.playvora.playvora_api.location.dtos.PostcodeLookupResult;
+
+import java.util.List;
 
 public interface ILocationService {
     LocationResponse getLocationByPostcode(String postcode);
+    List<PostcodeLookupResult> getLocationsByPostcodes(List<String> postcodes);
 }
-
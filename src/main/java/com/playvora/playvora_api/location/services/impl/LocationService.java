@@ -1,63 +1,198 @@
 package com.playvora.playvora_api.location.services.impl;
 
 import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.utils.BoundedTtlCache;
 import com.playvora.playvora_api.location.dtos.LocationResponse;
-import com.playvora.playvora_api.location.dtos.PostcodeApiResponse;
+import com.playvora.playvora_api.location.dtos.PostcodeLookupResult;
 import com.playvora.playvora_api.location.services.ILocationService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Postcode geocoding through postcodes.io. Postcodes almost never move, so results are cached for
+ * a long time, and postcodes the API does not know are cached (for a shorter time) as well.
+ * Concurrent lookups of the same uncached postcode share one in-flight API call.
+ */
 @Slf4j
 @Service
 public class LocationService implements ILocationService {
 
-    private static final String POSTCODE_API_BASE_URL = "https://api.postcodes.io/postcodes/";
-    private final RestTemplate restTemplate;
+    private static final Pattern POSTCODE = Pattern.compile("[A-Z0-9]{2,8}");
+
+    private final PostcodesIoClient postcodesIoClient;
+    private final BoundedTtlCache<String, LocationResponse> locations;
+    private final BoundedTtlCache<String, Boolean> invalidPostcodes;
+    private final Map<String, CompletableFuture<LocationResponse>> inFlight = new ConcurrentHashMap<>();
 
-    public LocationService() {
-        this.restTemplate = new RestTemplate();
+    public LocationService(PostcodesIoClient postcodesIoClient,
+                           @Value("${app.location.postcode-cache.max-size:50000}") int maxSize,
+                           @Value("${app.location.postcode-cache.ttl-hours:720}") long ttlHours,
+                           @Value("${app.location.postcode-cache.invalid-ttl-minutes:1440}") long invalidTtlMinutes) {
+        this.postcodesIoClient = postcodesIoClient;
+        this.locations = new BoundedTtlCache<>("postcodes", maxSize, ttlHours * 3_600_000);
+        this.invalidPostcodes = new BoundedTtlCache<>("invalidPostcodes", maxSize, invalidTtlMinutes * 60_000);
     }
 
     @Override
     public LocationResponse getLocationByPostcode(String postcode) {
-        // Remove spaces and convert to uppercase for API call
-        String cleanedPostcode = postcode.replaceAll("\\s+", "").toUpperCase();
-        
+        String key = normalize(postcode);
+        if (key == null || invalidPostcodes.getIfPresent(key) != null) {
+            throw new BadRequestException("Invalid postcode");
+        }
+        LocationResponse cached = locations.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<LocationResponse> pending = new CompletableFuture<>();
+        CompletableFuture<LocationResponse> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            return await(existing);
+        }
         try {
-            log.info("Fetching location data for postcode: {}", cleanedPostcode);
-            
-            String url = POSTCODE_API_BASE_URL + cleanedPostcode;
-            PostcodeApiResponse apiResponse = restTemplate.getForObject(url, PostcodeApiResponse.class);
-            
-            if (apiResponse == null || apiResponse.getStatus() != 200 || apiResponse.getResult() == null) {
-                log.warn("Invalid postcode: {}", postcode);
-                throw new BadRequestException("Invalid postcode");
+            // A lookup that finished between the cache checks and putIfAbsent has cached its result
+            if (invalidPostcodes.getIfPresent(key) != null) {
+                pending.complete(null);
+            } else if ((cached = locations.getIfPresent(key)) != null) {
+                pending.complete(cached);
+            } else {
+                log.debug("Fetching location data for postcode: {}", key);
+                complete(key, pending, postcodesIoClient.lookup(key).orElse(null));
             }
-            
-            PostcodeApiResponse.Result result = apiResponse.getResult();
-            
-            log.info("Successfully retrieved location for postcode: {}", result.getPostcode());
-            
-            return LocationResponse.builder()
-                    .postcode(result.getPostcode())
-                    .longitude(result.getLongitude())
-                    .latitude(result.getLatitude())
-                    .country(result.getCountry())
-                    .region(result.getRegion())
-                    .build();
-                    
-        } catch (HttpClientErrorException.NotFound e) {
-            log.warn("Postcode not found: {}", postcode);
-            throw new BadRequestException("Invalid postcode");
-        } catch (HttpClientErrorException e) {
-            log.error("Error calling postcode API: {}", e.getMessage());
-            throw new BadRequestException("Invalid postcode");
         } catch (Exception e) {
-            log.error("Unexpected error retrieving postcode: {}", e.getMessage(), e);
+            pending.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, pending);
+        }
+        return await(pending);
+    }
+
+    @Override
+    public List<PostcodeLookupResult> getLocationsByPostcodes(List<String> postcodes) {
+        Map<String, CompletableFuture<LocationResponse>> lookups = new LinkedHashMap<>();
+        List<String> toFetch = new ArrayList<>();
+        Map<String, CompletableFuture<LocationResponse>> owned = new LinkedHashMap<>();
+
+        for (String postcode : postcodes) {
+            String key = normalize(postcode);
+            if (key == null || lookups.containsKey(key)) {
+                continue;
+            }
+            if (invalidPostcodes.getIfPresent(key) != null) {
+                lookups.put(key, CompletableFuture.completedFuture(null));
+                continue;
+            }
+            LocationResponse cached = locations.getIfPresent(key);
+            if (cached != null) {
+                lookups.put(key, CompletableFuture.completedFuture(cached));
+                continue;
+            }
+            CompletableFuture<LocationResponse> pending = new CompletableFuture<>();
+            CompletableFuture<LocationResponse> existing = inFlight.putIfAbsent(key, pending);
+            if (existing != null) {
+                lookups.put(key, existing);
+            } else {
+                lookups.put(key, pending);
+                owned.put(key, pending);
+                toFetch.add(key);
+            }
+        }
+
+        for (int from = 0; from < toFetch.size(); from += PostcodesIoClient.MAX_BULK_POSTCODES) {
+            List<String> chunk = toFetch.subList(from, Math.min(from + PostcodesIoClient.MAX_BULK_POSTCODES, toFetch.size()));
+            try {
+                log.debug("Fetching location data for {} postcodes", chunk.size());
+                Map<String, LocationResponse> found = postcodesIoClient.bulkLookup(chunk);
+                chunk.forEach(key -> complete(key, owned.get(key), found.get(key)));
+            } catch (Exception e) {
+                chunk.forEach(key -> owned.get(key).completeExceptionally(e));
+            } finally {
+                chunk.forEach(key -> inFlight.remove(key, owned.get(key)));
+            }
+        }
+
+        List<PostcodeLookupResult> results = new ArrayList<>(postcodes.size());
+        for (String postcode : postcodes) {
+            String key = normalize(postcode);
+            LocationResponse location = null;
+            if (key != null) {
+                try {
+                    location = lookups.get(key).join();
+                } catch (CompletionException e) {
+                    log.error("Error retrieving postcode {}: {}", key, e.getCause().getMessage());
+                    throw new BadRequestException("Error retrieving postcode information");
+                }
+            }
+            results.add(PostcodeLookupResult.builder().query(postcode).location(location).build());
+        }
+        return results;
+    }
+
+    public List<BoundedTtlCache.Stats> getStats() {
+        return List.of(locations.stats(), invalidPostcodes.stats());
+    }
+
+    @Scheduled(fixedDelayString = "${app.location.postcode-cache.stats-interval-ms:300000}")
+    public void purgeExpiredAndLogStats() {
+        locations.purgeExpired();
+        invalidPostcodes.purgeExpired();
+        for (BoundedTtlCache.Stats stats : getStats()) {
+            log.info("Postcode cache [{}]: size={}/{}, hits={}, misses={}, hitRate={}, evictions={}",
+                    stats.name(), stats.size(), stats.maxSize(), stats.hits(), stats.misses(),
+                    String.format(Locale.ROOT, "%.3f", stats.hitRate()), stats.evictions());
+        }
+    }
+
+    /**
+     * Cache the result before completing the future, so a caller arriving after the in-flight entry
+     * is removed finds it in the cache instead of calling the API again.
+     */
+    private void complete(String key, CompletableFuture<LocationResponse> pending, LocationResponse location) {
+        if (location != null) {
+            locations.put(key, location);
+        } else {
+            log.warn("Invalid postcode: {}", key);
+            invalidPostcodes.put(key, Boolean.TRUE);
+        }
+        pending.complete(location);
+    }
+
+    private static LocationResponse await(CompletableFuture<LocationResponse> lookup) {
+        LocationResponse location;
+        try {
+            location = lookup.join();
+        } catch (CompletionException e) {
+            log.error("Error retrieving postcode: {}", e.getCause().getMessage());
             throw new BadRequestException("Error retrieving postcode information");
         }
+        if (location == null) {
+            throw new BadRequestException("Invalid postcode");
+        }
+        return location;
     }
-}
 
+    /**
+     * Remove spaces and convert to uppercase, as postcodes.io keys postcodes.
+     *
+     * @return null if the input cannot be a postcode
+     */
+    private static String normalize(String postcode) {
+        if (postcode == null) {
+            return null;
+        }
+        String cleaned = postcode.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+        return POSTCODE.matcher(cleaned).matches() ? cleaned : null;
+    }
+}
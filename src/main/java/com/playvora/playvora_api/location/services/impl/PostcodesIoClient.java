@@ -0,0 +1,126 @@
+package com.playvora.playvora_api.location.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playvora.playvora_api.location.dtos.LocationResponse;
+import com.playvora.playvora_api.location.dtos.PostcodeApiResponse;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * HTTP client for the postcodes.io API. It derives from the shared {@link OkHttpClient}, so it
+ * reuses its connection pool, with timeouts short enough that a slow lookup cannot tie up a
+ * request thread. The base URL is configurable so tests can point it at a stub server.
+ */
+@Component
+public class PostcodesIoClient {
+
+    /** postcodes.io accepts at most 100 postcodes per bulk lookup. */
+    static final int MAX_BULK_POSTCODES = 100;
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final OkHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final HttpUrl postcodesUrl;
+
+    public PostcodesIoClient(OkHttpClient okHttpClient,
+                             ObjectMapper objectMapper,
+                             @Value("${app.location.postcodes.base-url:https://api.postcodes.io}") String baseUrl,
+                             @Value("${app.location.postcodes.connect-timeout-ms:2000}") long connectTimeoutMs,
+                             @Value("${app.location.postcodes.read-timeout-ms:3000}") long readTimeoutMs,
+                             @Value("${app.location.postcodes.call-timeout-ms:5000}") long callTimeoutMs) {
+        this.httpClient = okHttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .writeTimeout(Duration.ofMillis(readTimeoutMs))
+                .callTimeout(Duration.ofMillis(callTimeoutMs))
+                .build();
+        this.objectMapper = objectMapper;
+        this.postcodesUrl = HttpUrl.get(baseUrl).newBuilder().addPathSegment("postcodes").build();
+    }
+
+    /**
+     * Look up a single postcode.
+     *
+     * @return empty if postcodes.io does not know the postcode
+     * @throws IOException if the API could not be reached or answered with an error
+     */
+    public Optional<LocationResponse> lookup(String postcode) throws IOException {
+        Request request = new Request.Builder()
+                .url(postcodesUrl.newBuilder().addPathSegment(postcode).build())
+                .addHeader("Accept", "application/json")
+                .get()
+                .build();
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (response.code() == 404) {
+                return Optional.empty();
+            }
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("postcodes.io returned " + response.code() + " for a postcode lookup");
+            }
+            PostcodeApiResponse apiResponse = objectMapper.readValue(response.body().byteStream(), PostcodeApiResponse.class);
+            return Optional.ofNullable(toLocation(apiResponse.getResult()));
+        }
+    }
+
+    /**
+     * Look up at most {@link #MAX_BULK_POSTCODES} postcodes in one request.
+     *
+     * @return every requested postcode, mapped to null if postcodes.io does not know it
+     * @throws IOException if the API could not be reached or answered with an error
+     */
+    public Map<String, LocationResponse> bulkLookup(List<String> postcodes) throws IOException {
+        if (postcodes.size() > MAX_BULK_POSTCODES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_POSTCODES + " postcodes per bulk lookup");
+        }
+        Request request = new Request.Builder()
+                .url(postcodesUrl)
+                .addHeader("Accept", "application/json")
+                .post(RequestBody.create(objectMapper.writeValueAsString(Map.of("postcodes", postcodes)), JSON))
+                .build();
+
+        Map<String, LocationResponse> locations = new HashMap<>();
+        postcodes.forEach(postcode -> locations.put(postcode, null));
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("postcodes.io returned " + response.code() + " for a bulk lookup");
+            }
+            for (JsonNode entry : objectMapper.readTree(response.body().byteStream()).path("result")) {
+                String query = entry.path("query").asText(null);
+                JsonNode result = entry.path("result");
+                if (query != null && locations.containsKey(query) && result.isObject()) {
+                    locations.put(query, toLocation(objectMapper.treeToValue(result, PostcodeApiResponse.Result.class)));
+                }
+            }
+        }
+        return locations;
+    }
+
+    private static LocationResponse toLocation(PostcodeApiResponse.Result result) {
+        if (result == null) {
+            return null;
+        }
+        return LocationResponse.builder()
+                .postcode(result.getPostcode())
+                .longitude(result.getLongitude())
+                .latitude(result.getLatitude())
+                .country(result.getCountry())
+                .region(result.getRegion())
+                .build();
+    }
+}
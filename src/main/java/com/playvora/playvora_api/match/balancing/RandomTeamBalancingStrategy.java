@@ -0,0 +1,53 @@
+package com.playvora.playvora_api.match.balancing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+
+/**
+ * Shuffles the players and slices them into teams, ignoring ratings, gender and history.
+ */
+@Component
+public class RandomTeamBalancingStrategy implements TeamBalancingStrategy {
+
+    public static final String NAME = "random";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int[][] assign(TeamBalancingProblem problem) {
+        int[] order = shuffledPlayers(problem);
+        int playersPerTeam = problem.playersPerTeam();
+        int[][] teams = new int[problem.numTeams()][playersPerTeam];
+        for (int t = 0; t < teams.length; t++) {
+            System.arraycopy(order, t * playersPerTeam, teams[t], 0, playersPerTeam);
+        }
+        return teams;
+    }
+
+    @Override
+    public int[] selectCaptains(TeamBalancingProblem problem) {
+        int[] order = shuffledPlayers(problem);
+        int[] captains = new int[problem.numTeams()];
+        System.arraycopy(order, 0, captains, 0, captains.length);
+        return captains;
+    }
+
+    static int[] shuffledPlayers(TeamBalancingProblem problem) {
+        SplittableRandom random = new SplittableRandom(problem.seed());
+        int[] order = new int[problem.playerCount()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,262 @@
+package com.playvora.playvora_api.match.balancing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Builds teams with even total skill rating, an even gender mix and as few repeat team mates as
+ * possible.
+ *
+ * - If there are more players than team places, the reserves are drawn at random.
+ * - The remaining players are dealt out by a snake draft on rating (A B C C B A ...), which is
+ *   already close to balanced.
+ * - A local search then tries random swaps of two players between teams and keeps every swap that
+ *   lowers the cost. The cost change of a swap is computed incrementally from per-team sums, so each
+ *   attempt costs O(1) plus the number of historical team mates of the two players.
+ *
+ * Cost = ratingWeight * sum((teamRating - meanTeamRating) / ratingStdDev)^2
+ *      + genderWeight * sum((teamFemales - mean)^2 + (teamMales - mean)^2)
+ *      + pairingWeight * (times each pair of team mates already played together)
+ *
+ * Everything runs on primitive arrays; 500 players take a few milliseconds.
+ */
+@Component
+public class SkillBalancedTeamBalancingStrategy implements TeamBalancingStrategy {
+
+    public static final String NAME = "balanced";
+
+    private static final double IMPROVEMENT_EPSILON = 1e-9;
+
+    private final double ratingWeight;
+    private final double genderWeight;
+    private final double pairingWeight;
+    private final int swapAttemptsPerPlayer;
+
+    public SkillBalancedTeamBalancingStrategy(
+            @Value("${app.match.team-balancing.rating-weight:1.0}") double ratingWeight,
+            @Value("${app.match.team-balancing.gender-weight:1.0}") double genderWeight,
+            @Value("${app.match.team-balancing.pairing-weight:0.25}") double pairingWeight,
+            @Value("${app.match.team-balancing.swap-attempts-per-player:40}") int swapAttemptsPerPlayer) {
+        this.ratingWeight = ratingWeight;
+        this.genderWeight = genderWeight;
+        this.pairingWeight = pairingWeight;
+        this.swapAttemptsPerPlayer = swapAttemptsPerPlayer;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean usesPairingHistory() {
+        return pairingWeight > 0;
+    }
+
+    @Override
+    public int[][] assign(TeamBalancingProblem problem) {
+        SplittableRandom random = new SplittableRandom(problem.seed());
+        int numTeams = problem.numTeams();
+        int playersPerTeam = problem.playersPerTeam();
+        int places = numTeams * playersPerTeam;
+
+        int[] participants = pickParticipants(problem.playerCount(), places, random);
+        sortByRatingDescending(problem, participants);
+
+        // slots[t * playersPerTeam + i] is the i-th player of team t
+        int[] slots = new int[places];
+        int[] teamOf = new int[problem.playerCount()];
+        Arrays.fill(teamOf, -1);
+        int[] filled = new int[numTeams];
+        for (int i = 0; i < places; i++) {
+            int round = i / numTeams;
+            int position = i % numTeams;
+            int team = (round & 1) == 0 ? position : numTeams - 1 - position;
+            int player = participants[i];
+            slots[team * playersPerTeam + filled[team]++] = player;
+            teamOf[player] = team;
+        }
+
+        improveBySwaps(problem, slots, teamOf, random);
+
+        int[][] teams = new int[numTeams][];
+        for (int t = 0; t < numTeams; t++) {
+            int[] team = Arrays.copyOfRange(slots, t * playersPerTeam, (t + 1) * playersPerTeam);
+            moveStrongestFirst(problem, team);
+            teams[t] = team;
+        }
+        return teams;
+    }
+
+    /**
+     * The strongest players captain the teams; the weakest of them picks first.
+     */
+    @Override
+    public int[] selectCaptains(TeamBalancingProblem problem) {
+        int[] players = pickParticipants(problem.playerCount(), problem.playerCount(),
+                new SplittableRandom(problem.seed()));
+        sortByRatingDescending(problem, players);
+        int[] captains = new int[problem.numTeams()];
+        for (int i = 0; i < captains.length; i++) {
+            captains[i] = players[captains.length - 1 - i];
+        }
+        return captains;
+    }
+
+    private void improveBySwaps(TeamBalancingProblem problem, int[] slots, int[] teamOf, SplittableRandom random) {
+        int numTeams = problem.numTeams();
+        int playersPerTeam = problem.playersPerTeam();
+        int places = slots.length;
+        if (numTeams < 2) {
+            return;
+        }
+
+        long[] ratingSum = new long[numTeams];
+        int[] females = new int[numTeams];
+        int[] males = new int[numTeams];
+        long totalRating = 0;
+        for (int i = 0; i < places; i++) {
+            int player = slots[i];
+            int team = i / playersPerTeam;
+            ratingSum[team] += problem.rating(player);
+            totalRating += problem.rating(player);
+            if (problem.gender(player) == TeamBalancingProblem.GENDER_FEMALE) {
+                females[team]++;
+            } else if (problem.gender(player) == TeamBalancingProblem.GENDER_MALE) {
+                males[team]++;
+            }
+        }
+
+        double meanRating = (double) totalRating / places;
+        double variance = 0;
+        for (int i = 0; i < places; i++) {
+            double deviation = problem.rating(slots[i]) - meanRating;
+            variance += deviation * deviation;
+        }
+        double ratingFactor = ratingWeight / Math.max(1.0, variance / places);
+        boolean pairings = pairingWeight > 0 && problem.hasPairings();
+
+        long maxAttempts = (long) places * swapAttemptsPerPlayer;
+        long staleLimit = (long) places * 4;
+        long stale = 0;
+        for (long attempt = 0; attempt < maxAttempts && stale < staleLimit; attempt++) {
+            int i = random.nextInt(places);
+            int j = random.nextInt(places);
+            int x = i / playersPerTeam;
+            int y = j / playersPerTeam;
+            if (x == y) {
+                stale++;
+                continue;
+            }
+            int a = slots[i];
+            int b = slots[j];
+
+            // Cost change of moving a to team y and b to team x
+            long dr = problem.rating(b) - problem.rating(a);
+            double delta = ratingFactor * 2.0 * dr * (ratingSum[x] - ratingSum[y] + dr);
+
+            int df = isGender(problem, b, TeamBalancingProblem.GENDER_FEMALE) - isGender(problem, a, TeamBalancingProblem.GENDER_FEMALE);
+            int dm = isGender(problem, b, TeamBalancingProblem.GENDER_MALE) - isGender(problem, a, TeamBalancingProblem.GENDER_MALE);
+            delta += genderWeight * 2.0 * (df * (females[x] - females[y] + df) + dm * (males[x] - males[y] + dm));
+
+            if (pairings) {
+                int together = pairCount(problem, a, b);
+                int pairDelta = togetherWith(problem, teamOf, a, y) - together
+                        + togetherWith(problem, teamOf, b, x) - together
+                        - togetherWith(problem, teamOf, a, x)
+                        - togetherWith(problem, teamOf, b, y);
+                delta += pairingWeight * pairDelta;
+            }
+
+            if (delta < -IMPROVEMENT_EPSILON) {
+                slots[i] = b;
+                slots[j] = a;
+                teamOf[a] = y;
+                teamOf[b] = x;
+                ratingSum[x] += dr;
+                ratingSum[y] -= dr;
+                females[x] += df;
+                females[y] -= df;
+                males[x] += dm;
+                males[y] -= dm;
+                stale = 0;
+            } else {
+                stale++;
+            }
+        }
+    }
+
+    /**
+     * Times {@code player} already played with the members of {@code team}, not counting itself.
+     */
+    private static int togetherWith(TeamBalancingProblem problem, int[] teamOf, int player, int team) {
+        int sum = 0;
+        for (int slot = problem.pairStart(player), end = problem.pairEnd(player); slot < end; slot++) {
+            if (teamOf[problem.pairPlayer(slot)] == team) {
+                sum += problem.pairCount(slot);
+            }
+        }
+        return sum;
+    }
+
+    private static int pairCount(TeamBalancingProblem problem, int a, int b) {
+        for (int slot = problem.pairStart(a), end = problem.pairEnd(a); slot < end; slot++) {
+            if (problem.pairPlayer(slot) == b) {
+                return problem.pairCount(slot);
+            }
+        }
+        return 0;
+    }
+
+    private static int isGender(TeamBalancingProblem problem, int player, byte gender) {
+        return problem.gender(player) == gender ? 1 : 0;
+    }
+
+    /**
+     * Randomly choose {@code count} players (partial Fisher-Yates shuffle).
+     */
+    private static int[] pickParticipants(int playerCount, int count, SplittableRandom random) {
+        int[] players = new int[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            players[i] = i;
+        }
+        for (int i = 0; i < count && i < playerCount - 1; i++) {
+            int j = i + random.nextInt(playerCount - i);
+            int swap = players[i];
+            players[i] = players[j];
+            players[j] = swap;
+        }
+        return count == playerCount ? players : Arrays.copyOf(players, count);
+    }
+
+    /**
+     * Sort player indices by rating, highest first, keeping the incoming (random) order for ties.
+     */
+    private static void sortByRatingDescending(TeamBalancingProblem problem, int[] players) {
+        long[] keys = new long[players.length];
+        for (int i = 0; i < players.length; i++) {
+            keys[i] = ((long) -problem.rating(players[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] sorted = new int[players.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = players[(int) keys[i]];
+        }
+        System.arraycopy(sorted, 0, players, 0, players.length);
+    }
+
+    private static void moveStrongestFirst(TeamBalancingProblem problem, int[] team) {
+        int strongest = 0;
+        for (int i = 1; i < team.length; i++) {
+            if (problem.rating(team[i]) > problem.rating(team[strongest])) {
+                strongest = i;
+            }
+        }
+        int swap = team[0];
+        team[0] = team[strongest];
+        team[strongest] = swap;
+    }
+}
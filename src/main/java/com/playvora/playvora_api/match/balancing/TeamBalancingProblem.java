@@ -0,0 +1,128 @@
+package com.playvora.playvora_api.match.balancing;
+
+import java.util.Arrays;
+
+/**
+ * Input of a {@link TeamBalancingStrategy}, flattened into primitive arrays so optimizers can work
+ * on it without boxing or entity access. Players are identified by their index.
+ *
+ * Historical pairings are stored as a symmetric sparse adjacency list (compressed rows): the
+ * neighbours of player {@code p} are {@code pairPlayers[pairOffsets[p] .. pairOffsets[p + 1])} and
+ * {@code pairCounts} holds how many times each pair has played on the same team before.
+ */
+public final class TeamBalancingProblem {
+
+    public static final byte GENDER_UNKNOWN = 0;
+    public static final byte GENDER_MALE = 1;
+    public static final byte GENDER_FEMALE = 2;
+
+    private final int numTeams;
+    private final int playersPerTeam;
+    private final int[] ratings;
+    private final byte[] genders;
+    private final int[] pairOffsets;
+    private final int[] pairPlayers;
+    private final int[] pairCounts;
+    private final long seed;
+
+    private TeamBalancingProblem(int numTeams, int playersPerTeam, int[] ratings, byte[] genders,
+                                 int[] pairOffsets, int[] pairPlayers, int[] pairCounts, long seed) {
+        this.numTeams = numTeams;
+        this.playersPerTeam = playersPerTeam;
+        this.ratings = ratings;
+        this.genders = genders;
+        this.pairOffsets = pairOffsets;
+        this.pairPlayers = pairPlayers;
+        this.pairCounts = pairCounts;
+        this.seed = seed;
+    }
+
+    /**
+     * @param ratings  skill rating per player
+     * @param genders  one of the {@code GENDER_*} constants per player
+     * @param pairA    first player of each historical pairing (may be empty)
+     * @param pairB    second player of each historical pairing
+     * @param together times {@code pairA[i]} and {@code pairB[i]} were team mates
+     * @param seed     seed for any randomised choices, so results are reproducible
+     */
+    public static TeamBalancingProblem of(int numTeams, int playersPerTeam, int[] ratings, byte[] genders,
+                                          int[] pairA, int[] pairB, int[] together, long seed) {
+        int playerCount = ratings.length;
+        if (genders.length != playerCount) {
+            throw new IllegalArgumentException("ratings and genders must have the same length");
+        }
+        if (pairA.length != pairB.length || pairA.length != together.length) {
+            throw new IllegalArgumentException("pairing arrays must have the same length");
+        }
+        if (numTeams < 1 || playersPerTeam < 1 || (long) numTeams * playersPerTeam > playerCount) {
+            throw new IllegalArgumentException("Not enough players for " + numTeams + " teams of " + playersPerTeam);
+        }
+
+        // Counting sort of both directions of every pairing into compressed rows
+        int[] offsets = new int[playerCount + 1];
+        for (int i = 0; i < pairA.length; i++) {
+            offsets[pairA[i] + 1]++;
+            offsets[pairB[i] + 1]++;
+        }
+        for (int p = 0; p < playerCount; p++) {
+            offsets[p + 1] += offsets[p];
+        }
+        int[] next = Arrays.copyOf(offsets, playerCount);
+        int[] players = new int[offsets[playerCount]];
+        int[] counts = new int[offsets[playerCount]];
+        for (int i = 0; i < pairA.length; i++) {
+            int a = pairA[i];
+            int b = pairB[i];
+            players[next[a]] = b;
+            counts[next[a]++] = together[i];
+            players[next[b]] = a;
+            counts[next[b]++] = together[i];
+        }
+
+        return new TeamBalancingProblem(numTeams, playersPerTeam, ratings, genders, offsets, players, counts, seed);
+    }
+
+    public int playerCount() {
+        return ratings.length;
+    }
+
+    public int numTeams() {
+        return numTeams;
+    }
+
+    public int playersPerTeam() {
+        return playersPerTeam;
+    }
+
+    public int rating(int player) {
+        return ratings[player];
+    }
+
+    public byte gender(int player) {
+        return genders[player];
+    }
+
+    public boolean hasPairings() {
+        return pairPlayers.length > 0;
+    }
+
+    public int pairStart(int player) {
+        return pairOffsets[player];
+    }
+
+    public int pairEnd(int player) {
+        return pairOffsets[player + 1];
+    }
+
+    public int pairPlayer(int slot) {
+        return pairPlayers[slot];
+    }
+
+    public int pairCount(int slot) {
+        return pairCounts[slot];
+    }
+
+    public long seed() {
+        return seed;
+    }
+}
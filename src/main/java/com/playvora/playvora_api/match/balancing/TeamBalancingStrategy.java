@@ -0,0 +1,36 @@
+package com.playvora.playvora_api.match.balancing;
+
+/**
+ * Decides how the available players of a match are split into teams. Implementations are Spring
+ * beans picked per match by {@link #name()} (see {@code Match.teamBalancingStrategy}).
+ */
+public interface TeamBalancingStrategy {
+
+    /**
+     * Identifier stored on the match, e.g. {@code random} or {@code balanced}.
+     */
+    String name();
+
+    /**
+     * Whether {@link TeamBalancingProblem} should be populated with historical pairings.
+     * Loading them costs a query, so strategies that ignore them should return false.
+     */
+    default boolean usesPairingHistory() {
+        return false;
+    }
+
+    /**
+     * Split players into {@code numTeams} teams of exactly {@code playersPerTeam}.
+     *
+     * @return player indices per team; the first player of each team is its captain. Players that
+     *         appear in no team become reserves.
+     */
+    int[][] assign(TeamBalancingProblem problem);
+
+    /**
+     * Pick one captain per team for a manual draft.
+     *
+     * @return {@code numTeams} distinct player indices, in draft order
+     */
+    int[] selectCaptains(TeamBalancingProblem problem);
+}
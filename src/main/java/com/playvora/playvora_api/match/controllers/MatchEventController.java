@@ -1,21 +1,23 @@
 package com.playvora.playvora_api.match.controllers;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.common.dto.ApiResponse;
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
 import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.geo.NearbyQuery;
 import com.playvora.playvora_api.match.dtos.AvailabilityRequest;
 import com.playvora.playvora_api.match.dtos.CreateMatchRequest;
 import com.playvora.playvora_api.match.dtos.MatchEventResponse;
 import com.playvora.playvora_api.match.dtos.JoinMatchRequest;
 import com.playvora.playvora_api.match.dtos.UpdateMatchRequest;
+import com.playvora.playvora_api.match.dtos.websocket.MatchSnapshotMessage;
 import com.playvora.playvora_api.match.dtos.websocket.MatchUpdateMessage;
 import com.playvora.playvora_api.match.entities.Match;
 import com.playvora.playvora_api.match.dtos.websocket.TeamSelectionMessage;
-import com.playvora.playvora_api.match.repo.AvailabilityRepository;
-import com.playvora.playvora_api.match.repo.MatchRepository;
-import com.playvora.playvora_api.match.repo.TeamRepository;
 import com.playvora.playvora_api.match.services.IMatchService;
+import com.playvora.playvora_api.match.services.IMatchWebSocketService;
 import com.playvora.playvora_api.match.mappers.MatchEventMapper;
 import com.playvora.playvora_api.user.entities.User;
 import com.playvora.playvora_api.user.repo.UserRepository;
@@ -44,9 +46,7 @@ public class MatchEventController {
     
     private final IMatchService matchService;
     private final UserRepository userRepository;
-    private final AvailabilityRepository availabilityRepository;
-    private final TeamRepository teamRepository;
-    private final MatchRepository matchRepository;
+    private final IMatchWebSocketService matchWebSocketService;
 
 
     @PostMapping
@@ -83,24 +83,20 @@ public class MatchEventController {
     @Operation(summary = "Get match by ID", description = "Get a match by its ID")
     public ResponseEntity<ApiResponse<MatchEventResponse>> getMatchById(
             @Parameter(description = "Match ID") @PathVariable UUID id) {
-        // Load match with Community eagerly to avoid lazy loading issues
-        Match match = matchRepository.findByIdWithCommunity(id)
-                .orElseThrow(() -> new BadRequestException("Match not found"));
-        
-        // Explicitly load teams with players and users using JOIN FETCH to avoid lazy loading issues
-        // This fetches teams, their players, and player users in a single query
-        var teams = teamRepository.findByMatchIdWithPlayers(id);
-        match.setTeams(teams);
-        
-        // Explicitly load availabilities with users (for total count calculation)
-        // Use the method that eagerly fetches User to avoid lazy loading issues
-        var availabilities = availabilityRepository.findByMatchIdWithUser(id);
-        match.setAvailabilities(availabilities);
-        
+        // Loads the community, teams with players and availabilities with users up front
+        Match match = matchService.getMatchEventDetails(id);
         MatchEventResponse response = MatchEventMapper.convertToResponse(match);
         return ResponseEntity.ok(ApiResponse.success(response, "Match retrieved successfully"));
     }
 
+    @GetMapping("/{id}/snapshot")
+    @Operation(summary = "Get match snapshot", description = "Full match state with the sequence number of the last real-time update it includes")
+    public ResponseEntity<ApiResponse<MatchSnapshotMessage>> getMatchSnapshot(
+            @Parameter(description = "Match ID") @PathVariable UUID id) {
+        MatchSnapshotMessage snapshot = matchWebSocketService.getSnapshot(id);
+        return ResponseEntity.ok(ApiResponse.success(snapshot, "Match snapshot retrieved successfully"));
+    }
+
     @PatchMapping("/{id}")
     @Operation(summary = "Update match", description = "Update an existing match")
     public ResponseEntity<ApiResponse<MatchEventResponse>> updateMatch(
@@ -123,7 +119,7 @@ public class MatchEventController {
     @Operation(summary = "Get match by ID", description = "Get a match by its ID")
     public ResponseEntity<ApiResponse<MatchEventResponse>> getMatchByIdMetadata(
             @Parameter(description = "Match ID") @PathVariable UUID id) {
-        Match match = matchService.getMatchEventById(id);
+        Match match = matchService.getMatchEventDetails(id);
         MatchEventResponse response = MatchEventMapper.convertToResponse(match);
         return ResponseEntity.ok(ApiResponse.success(response, "Match retrieved successfully"));
     }
@@ -153,6 +149,24 @@ public class MatchEventController {
         return ResponseEntity.ok(ApiResponse.success(matches, "Upcoming matches retrieved successfully"));
     }
 
+    @GetMapping("/nearby")
+    @Operation(summary = "Get nearby matches", description = "Get upcoming matches within a radius of a point, nearest first, with a distance cursor")
+    public ResponseEntity<ApiResponse<NearbyPaginatedResponse<MatchEventResponse>>> getNearbyMatches(
+            @Parameter(description = "Latitude of the search centre") @RequestParam double latitude,
+            @Parameter(description = "Longitude of the search centre") @RequestParam double longitude,
+            @Parameter(description = "Search radius in kilometres") @RequestParam(defaultValue = "10") double radiusKm,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Distance cursor from the previous page (nextAfterDistanceKm)")
+            @RequestParam(required = false) Double afterDistanceKm,
+            @Parameter(description = "Id cursor from the previous page (nextAfterId)")
+            @RequestParam(required = false) UUID afterId,
+            @Parameter(description = "Only matches of this type, e.g. FOOTBALL") @RequestParam(required = false) String type) {
+
+        NearbyPaginatedResponse<MatchEventResponse> matches = matchService.findNearbyMatchEvents(
+                new NearbyQuery(latitude, longitude, radiusKm, size, afterDistanceKm, afterId), type);
+        return ResponseEntity.ok(ApiResponse.success(matches, "Nearby matches retrieved successfully"));
+    }
+
     @GetMapping("/my-matches")
     @Operation(summary = "Get user matches", description = "Get matches that the current user has marked availability for")
     public ResponseEntity<ApiResponse<PaginatedResponse<MatchEventResponse>>> getUserMatches(
@@ -182,9 +196,7 @@ public class MatchEventController {
             @Parameter(description = "Team ID") @PathVariable UUID teamId,
             @Parameter(description = "User ID") @PathVariable UUID userId) {
         matchService.selectPlayerForTeam(matchId, teamId, userId);
-        // Load match with Community eagerly to avoid lazy loading issues
-        Match match = matchRepository.findByIdWithCommunity(matchId)
-                .orElseThrow(() -> new BadRequestException("Match not found"));
+        Match match = matchService.getMatchEventDetails(matchId);
         MatchEventResponse response = MatchEventMapper.convertToResponse(match);
         return ResponseEntity.ok(ApiResponse.success(response, "Player selected successfully"));
     }
@@ -450,8 +462,7 @@ public class MatchEventController {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
         
         throw new BadRequestException("Invalid authentication principal");
@@ -1,5 +1,6 @@
 package com.playvora.playvora_api.match.controllers;
 
+import com.playvora.playvora_api.match.dtos.websocket.MatchSnapshotMessage;
 import com.playvora.playvora_api.match.dtos.websocket.PlayerSelectionRequest;
 import com.playvora.playvora_api.match.services.IMatchWebSocketService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 
@@ -51,4 +53,14 @@ public class WebSocketController {
                             SimpMessageHeaderAccessor headerAccessor) {
         matchWebSocketService.completeMatch(matchId, headerAccessor);
     }
-}
\ No newline at end of file
+
+    /**
+     * Subscribing to {@code /app/match-events/{matchId}/snapshot} returns the current match state
+     * directly to the subscriber; used on join and whenever a gap in the delta sequence is detected.
+     */
+    @SubscribeMapping("/match-events/{matchId}/snapshot")
+    @Operation(summary = "Match snapshot", description = "Full match state and sequence for delta resync")
+    public MatchSnapshotMessage snapshot(@DestinationVariable UUID matchId) {
+        return matchWebSocketService.getSnapshot(matchId);
+    }
+}
@@ -0,0 +1,28 @@
+package com.playvora.playvora_api.match.draft;
+
+import com.playvora.playvora_api.match.enums.MatchStatus;
+
+import java.util.UUID;
+
+/**
+ * A pick applied to a {@link DraftSession}, with the draft state it left behind.
+ * Published as an application event once written, and broadcast after its transaction commits.
+ *
+ * @param sequence             update sequence of this pick; the match was at {@code sequence - 1} before it
+ * @param draftIndex           position in the draft order of the team picking next
+ * @param currentPickingTeamId team picking next, null once the draft is over
+ */
+public record DraftPick(
+        UUID matchId,
+        String title,
+        long sequence,
+        UUID teamId,
+        UUID captainId,
+        UUID playerId,
+        String playerName,
+        int draftIndex,
+        UUID currentPickingTeamId,
+        boolean draftInProgress,
+        MatchStatus status
+) {
+}
@@ -0,0 +1,132 @@
+package com.playvora.playvora_api.match.draft;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.match.enums.MatchStatus;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The state of one manual draft, rebuilt from the database for each pick so the pick can be
+ * validated and applied in a few array reads and hash lookups.
+ *
+ * Teams are addressed by their position in the draft order: position i is team {@code teamIds[i]},
+ * captained by {@code captainIds[i]}, with {@code teamCounts[i]} players. The turn is a position, so
+ * every check a pick needs is an array read or a hash lookup. Turns go round-robin over the teams
+ * that still have space, the same order the persisted draft used.
+ *
+ * Not thread safe; built and used by a single pick while the match row is locked.
+ */
+public final class DraftSession {
+
+    private final UUID matchId;
+    private final String title;
+    private final int playersPerTeam;
+    private final UUID[] teamIds;
+    private final UUID[] captainIds;
+    private final int[] teamCounts;
+    private final Map<UUID, String> availablePlayers;
+
+    private MatchStatus status;
+    private int turn;
+    private long sequence;
+    private boolean inProgress = true;
+
+    /**
+     * @param teamIds          team ids in draft order
+     * @param captainIds       captain user id of each team, null if it has none
+     * @param teamCounts       players already on each team, captain included
+     * @param turn             position of the team whose turn it is
+     * @param sequence         the match's last real-time update sequence
+     * @param availablePlayers players that can still be picked, by user id, with their display name
+     */
+    public DraftSession(UUID matchId, String title, MatchStatus status, int playersPerTeam,
+                        UUID[] teamIds, UUID[] captainIds, int[] teamCounts, int turn, long sequence,
+                        Map<UUID, String> availablePlayers) {
+        if (teamIds.length == 0 || captainIds.length != teamIds.length || teamCounts.length != teamIds.length) {
+            throw new IllegalArgumentException("Draft needs one captain and count per team");
+        }
+        if (turn < 0 || turn >= teamIds.length) {
+            throw new IllegalArgumentException("Turn " + turn + " is outside the draft order");
+        }
+        this.matchId = matchId;
+        this.title = title;
+        this.status = status;
+        this.playersPerTeam = playersPerTeam;
+        this.teamIds = teamIds;
+        this.captainIds = captainIds;
+        this.teamCounts = teamCounts;
+        this.turn = turn;
+        this.sequence = sequence;
+        this.availablePlayers = availablePlayers;
+    }
+
+    /**
+     * Validate and apply a pick, then hand the turn to the next team with space. When every team is
+     * full the draft ends and the match moves to {@link MatchStatus#TEAMS_SELECTED}.
+     *
+     * @param teamId    team the pick is for
+     * @param captainId user making the pick
+     * @param playerId  player being picked
+     * @return the pick, stamped with the next update sequence and the resulting draft state
+     * @throws BadRequestException if the pick is not allowed; the session is left unchanged
+     */
+    public DraftPick pick(UUID teamId, UUID captainId, UUID playerId) {
+        if (!inProgress) {
+            throw new BadRequestException("Manual draft is not in progress for this match");
+        }
+        if (!teamIds[turn].equals(teamId)) {
+            throw new BadRequestException("It is not this team's turn to pick");
+        }
+        if (captainIds[turn] == null || !captainIds[turn].equals(captainId)) {
+            throw new BadRequestException("Only the current captain can select players during the draft");
+        }
+        if (teamCounts[turn] >= playersPerTeam) {
+            throw new BadRequestException("Team is full");
+        }
+        String playerName = availablePlayers.remove(playerId);
+        if (playerName == null) {
+            throw new BadRequestException("User is not available for this match");
+        }
+
+        teamCounts[turn]++;
+        advance();
+        sequence++;
+
+        return new DraftPick(matchId, title, sequence, teamId, captainId, playerId, playerName,
+                turn, currentPickingTeamId(), inProgress, status);
+    }
+
+    private void advance() {
+        for (int offset = 1; offset <= teamIds.length; offset++) {
+            int candidate = (turn + offset) % teamIds.length;
+            if (teamCounts[candidate] < playersPerTeam) {
+                turn = candidate;
+                return;
+            }
+        }
+        inProgress = false;
+        turn = 0;
+        status = MatchStatus.TEAMS_SELECTED;
+    }
+
+    public UUID matchId() {
+        return matchId;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public boolean isInProgress() {
+        return inProgress;
+    }
+
+    public UUID currentPickingTeamId() {
+        return inProgress ? teamIds[turn] : null;
+    }
+
+    public int availablePlayerCount() {
+        return availablePlayers.size();
+    }
+}
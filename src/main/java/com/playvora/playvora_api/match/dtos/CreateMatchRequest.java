@@ -54,6 +54,9 @@ public class CreateMatchRequest {
     @NotNull(message = "Auto selection preference is required")
     private Boolean isAutoSelection;
 
+    @Size(max = 50, message = "Team balancing strategy must not exceed 50 characters")
+    private String teamBalancingStrategy;
+
     @NotNull(message = "Is paid event is required")
     private Boolean isPaidEvent;
 
@@ -0,0 +1,9 @@
+package com.playvora.playvora_api.match.dtos;
+
+import java.util.UUID;
+
+/**
+ * A team's captain and size, as needed to rebuild a draft session.
+ */
+public record DraftTeamState(UUID teamId, UUID captainId, long players) {
+}
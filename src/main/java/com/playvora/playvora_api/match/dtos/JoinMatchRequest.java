@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -17,6 +19,12 @@ public class JoinMatchRequest {
      * For free events this can be null.
      */
     private String paymentIntentId;
+
+    /**
+     * The user's current location, checked against the match location (see app.geo.join-radius-km).
+     */
+    private BigDecimal userLatitude;
+    private BigDecimal userLongitude;
 }
 
 
@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import com.playvora.playvora_api.community.dtos.CommunityResponse;
+import com.playvora.playvora_api.files.dtos.ImageVariantUrls;
 import com.playvora.playvora_api.match.enums.AvailabilityStatus;
 import com.playvora.playvora_api.match.enums.MatchStatus;
 import com.playvora.playvora_api.user.dtos.UserResponse;
@@ -30,6 +31,7 @@ public class MatchEventResponse {
     private Integer playersPerTeam;
     private MatchStatus status;
     private boolean isAutoSelection;
+    private String teamBalancingStrategy;
     private Integer availablePlayers;
     private Integer totalPlayers;
     private OffsetDateTime createdAt;
@@ -57,6 +59,7 @@ public class MatchEventResponse {
     private BigDecimal latitude;
     private BigDecimal longitude;
     private String bannerUrl;
+    private ImageVariantUrls bannerVariants;
     private String gender;
     public void setAvailablePlayers(Integer availablePlayers) {
         this.availablePlayers = availablePlayers;
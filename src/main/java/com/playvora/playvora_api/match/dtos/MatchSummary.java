@@ -0,0 +1,11 @@
+package com.playvora.playvora_api.match.dtos;
+
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.match.entities.Match;
+
+/**
+ * A match with its community and player counts, as needed for a list card. Selected in one query
+ * by the {@code MatchRepository} list queries; the match's teams and availabilities are not loaded.
+ */
+public record MatchSummary(Match match, Community community, long totalPlayers, long availablePlayers) {
+}
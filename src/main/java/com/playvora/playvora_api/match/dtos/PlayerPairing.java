@@ -0,0 +1,9 @@
+package com.playvora.playvora_api.match.dtos;
+
+import java.util.UUID;
+
+/**
+ * How many times two players were selected for the same team in past matches.
+ */
+public record PlayerPairing(UUID firstUserId, UUID secondUserId, long timesTogether) {
+}
@@ -47,6 +47,10 @@ public class UpdateMatchRequest {
         @Builder.Default
         private Optional<Boolean> isAutoSelection = Optional.empty();
 
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+        @Builder.Default
+        private Optional<String> teamBalancingStrategy = Optional.empty();
+
     @JsonSetter(nulls = Nulls.AS_EMPTY)
         @Builder.Default
         private Optional<Boolean> isPaidEvent = Optional.empty();
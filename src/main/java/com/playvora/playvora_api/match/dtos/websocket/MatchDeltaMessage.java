@@ -0,0 +1,40 @@
+package com.playvora.playvora_api.match.dtos.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.playvora.playvora_api.match.enums.MatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A single change to a match, broadcast on {@code /topic/match/{id}/updates} with type {@code match_delta}.
+ * Sequences are contiguous per match: a client that receives a sequence other than last + 1 should
+ * discard its state and reload it from the snapshot endpoint.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MatchDeltaMessage {
+    public static final int PROTOCOL_VERSION = 2;
+
+    @Builder.Default
+    private int protocolVersion = PROTOCOL_VERSION;
+    private long sequence;
+    private String action; // PLAYER_SELECTED, TEAMS_GENERATED, MATCH_STARTED, MATCH_COMPLETED
+    private UUID matchId;
+    private UUID teamId;
+    private UUID userId;
+    private String userName;
+    private UUID currentPickingTeamId;
+    private Boolean draftInProgress;
+    private MatchStatus status;
+    private String message;
+    private OffsetDateTime timestamp;
+    private Object snapshot; // Only set when the change is too broad for a delta (TEAMS_GENERATED)
+}
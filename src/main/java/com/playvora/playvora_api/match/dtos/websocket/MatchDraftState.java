@@ -0,0 +1,18 @@
+package com.playvora.playvora_api.match.dtos.websocket;
+
+import com.playvora.playvora_api.match.enums.MatchStatus;
+
+import java.util.UUID;
+
+/**
+ * The scalar state of a match that real-time deltas carry, read without loading teams or availabilities.
+ */
+public record MatchDraftState(
+        UUID matchId,
+        String title,
+        long sequence,
+        MatchStatus status,
+        Boolean draftInProgress,
+        UUID currentPickingTeamId
+) {
+}
@@ -0,0 +1,22 @@
+package com.playvora.playvora_api.match.dtos.websocket;
+
+import com.playvora.playvora_api.match.dtos.MatchEventResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Full match state for (re)synchronising a real-time client. Deltas with a sequence greater than
+ * {@code sequence} should be applied on top of it; earlier or equal ones are already included.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MatchSnapshotMessage {
+    @Builder.Default
+    private int protocolVersion = MatchDeltaMessage.PROTOCOL_VERSION;
+    private long sequence;
+    private MatchEventResponse match;
+}
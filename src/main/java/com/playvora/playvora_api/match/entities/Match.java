@@ -77,13 +77,27 @@ public class Match {
     @ManyToOne(fetch = FetchType.LAZY)
     private Team currentPickingTeam;
 
-    @Column(name = "manual_draft_order")
+    @Column(name = "manual_draft_order", columnDefinition = "TEXT")
     private String manualDraftOrder;
 
     @Column(name = "manual_draft_index")
     @Builder.Default
     private Integer manualDraftIndex = 0;
 
+    /**
+     * Name of the {@code TeamBalancingStrategy} used to generate teams; null means the configured default.
+     */
+    @Column(name = "team_balancing_strategy", length = 50)
+    private String teamBalancingStrategy;
+
+    /**
+     * Incremented for every real-time update broadcast for this match (see {@code MatchUpdateSequencer}).
+     * Only written by update queries, so saving a match loaded earlier cannot move it back.
+     */
+    @Column(name = "update_sequence", nullable = false, updatable = false)
+    @Builder.Default
+    private Long updateSequence = 0L;
+
     @Column(name = "created_at", updatable = false)
     @Builder.Default
     private OffsetDateTime createdAt = OffsetDateTime.now();
@@ -0,0 +1,59 @@
+package com.playvora.playvora_api.match.entities;
+
+import com.playvora.playvora_api.user.entities.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A player picked in a manual draft. Unique per match and player, and per match and update sequence,
+ * so a pick is recorded at most once however many nodes run the draft.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+@Table(name = "match_draft_picks",
+       uniqueConstraints = {
+               @UniqueConstraint(name = "uq_match_draft_pick_player", columnNames = {"match_id", "player_id"}),
+               @UniqueConstraint(name = "uq_match_draft_pick_sequence", columnNames = {"match_id", "pick_sequence"})
+       })
+public class MatchDraftPick {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "match_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Match match;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Team team;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "player_id", nullable = false)
+    private User player;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "captain_id")
+    private User captain;
+
+    @Column(name = "pick_sequence", nullable = false)
+    private long sequence;
+
+    @Column(name = "picked_at", nullable = false)
+    @Builder.Default
+    private OffsetDateTime pickedAt = OffsetDateTime.now();
+}
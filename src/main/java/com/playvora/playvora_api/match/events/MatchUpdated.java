@@ -0,0 +1,32 @@
+package com.playvora.playvora_api.match.events;
+
+import com.playvora.playvora_api.match.dtos.websocket.MatchDraftState;
+
+import java.util.UUID;
+
+/**
+ * Published by a change to a match outside a manual draft, with the update sequence the change was
+ * given in its own transaction. Broadcast as a delta once that transaction commits.
+ *
+ * @param state    the match's state after the change, including its new sequence
+ * @param action   PLAYER_SELECTED, TEAMS_GENERATED, MATCH_STARTED or MATCH_COMPLETED
+ * @param teamId   the team a player was selected for; PLAYER_SELECTED only
+ * @param userId   the selected player; PLAYER_SELECTED only
+ * @param userName the selected player's name; PLAYER_SELECTED only
+ */
+public record MatchUpdated(MatchDraftState state,
+                           String action,
+                           UUID teamId,
+                           UUID userId,
+                           String userName,
+                           String message) {
+
+    public static MatchUpdated of(MatchDraftState state, String action, String message) {
+        return new MatchUpdated(state, action, null, null, null, message);
+    }
+
+    public static MatchUpdated playerSelected(MatchDraftState state, UUID teamId, UUID userId, String userName) {
+        return new MatchUpdated(state, "PLAYER_SELECTED", teamId, userId, userName,
+                userName + " has been selected for the team");
+    }
+}
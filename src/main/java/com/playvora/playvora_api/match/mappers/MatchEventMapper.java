@@ -7,7 +7,9 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import com.playvora.playvora_api.community.mappers.CommunityMapper;
+import com.playvora.playvora_api.files.images.ImageVariants;
 import com.playvora.playvora_api.match.dtos.MatchEventResponse;
+import com.playvora.playvora_api.match.dtos.MatchSummary;
 import com.playvora.playvora_api.match.dtos.TeamResponse;
 import com.playvora.playvora_api.match.entities.Availability;
 import com.playvora.playvora_api.match.entities.Match;
@@ -27,7 +29,6 @@ public class MatchEventMapper {
                         .map(TeamMapper::convertToResponse)
                         .collect(Collectors.toList());
 
-        List<UUID> draftOrder = parseDraftOrder(match.getManualDraftOrder());
         UUID currentPickingTeamId = match.getCurrentPickingTeamId();
 
         String currentPickerName = null;
@@ -64,9 +65,47 @@ public class MatchEventMapper {
             }
         }
 
-        MatchEventResponse response = MatchEventResponse.builder()
-                .id(match.getId())
+        MatchEventResponse response = baseResponse(match)
                 .community(CommunityMapper.convertToResponse(match.getCommunity()))
+                .teams(teams)
+                .currentPickingTeamName(currentPickingTeamName)
+                .currentPickerId(currentPickerId)
+                .currentPickerName(currentPickerName)
+                .build();
+
+        List<Availability> availabilities = match.getAvailabilities();
+        int totalPlayers = availabilities == null ? 0 : availabilities.size();
+
+        Integer availabilitiesCount = availabilities != null ? availabilities.stream()
+                .filter(a -> a.getStatus() == AvailabilityStatus.AVAILABLE)
+                .collect(Collectors.toList()).size() : 0;
+        
+        // Use provided available players list or filter from match availabilities
+        response.setAvailablePlayers(availabilitiesCount);
+        response.setTotalPlayers(totalPlayers);
+        response.setPlayersAvailability(availabilities != null ? availabilities.stream()
+                .map(PlayerAvialabilityMapper::convertToResponse)
+                .collect(Collectors.toList()) : Collections.emptyList());
+        return response;
+    }
+
+    /**
+     * List card of a match: its own fields, community and player counts, without teams or
+     * availabilities, which are only loaded for the detail view.
+     */
+    public static MatchEventResponse convertToResponse(MatchSummary summary) {
+        return baseResponse(summary.match())
+                .community(CommunityMapper.convertToResponse(summary.community()))
+                .teams(Collections.emptyList())
+                .playersAvailability(Collections.emptyList())
+                .totalPlayers((int) summary.totalPlayers())
+                .availablePlayers((int) summary.availablePlayers())
+                .build();
+    }
+
+    private static MatchEventResponse.MatchEventResponseBuilder baseResponse(Match match) {
+        return MatchEventResponse.builder()
+                .id(match.getId())
                 .title(match.getTitle())
                 .description(match.getDescription())
                 .type(match.getType())
@@ -75,20 +114,16 @@ public class MatchEventMapper {
                 .playersPerTeam(match.getPlayersPerTeam())
                 .status(match.getStatus())
                 .isAutoSelection(match.isAutoSelection())
+                .teamBalancingStrategy(match.getTeamBalancingStrategy())
                 .createdAt(match.getCreatedAt())
                 .updatedAt(match.getUpdatedAt())
-                .teams(teams)
                 .draftInProgress(match.getDraftInProgress())
                 .currentPickingTeamId(match.getCurrentPickingTeamId())
-                .currentPickingTeamName(currentPickingTeamName)
-                .currentPickerId(currentPickerId)
-                .currentPickerName(currentPickerName)
-                .draftOrder(draftOrder)
                 .isPaidEvent(match.getIsPaidEvent())
                 .isRefundable(match.getIsRefundable())
                 .maxPlayers(match.getMaxPlayers())
                 .currency(match.getCurrency())
-                .pricePerPlayer(match.getPricePerPlayer())  
+                .pricePerPlayer(match.getPricePerPlayer())
                 .address(match.getAddress())
                 .city(match.getCity())
                 .province(match.getProvince())
@@ -98,23 +133,9 @@ public class MatchEventMapper {
                 .longitude(match.getLongitude())
                 .gender(match.getGender())
                 .bannerUrl(match.getBannerUrl())
+                .bannerVariants(ImageVariants.urlsForUrl(match.getBannerUrl()))
                 .draftIndex(match.getManualDraftIndex())
-                .build();
-
-        List<Availability> availabilities = match.getAvailabilities();
-        int totalPlayers = availabilities == null ? 0 : availabilities.size();
-
-        Integer availabilitiesCount = availabilities != null ? availabilities.stream()
-                .filter(a -> a.getStatus() == AvailabilityStatus.AVAILABLE)
-                .collect(Collectors.toList()).size() : 0;
-        
-        // Use provided available players list or filter from match availabilities
-        response.setAvailablePlayers(availabilitiesCount);
-        response.setTotalPlayers(totalPlayers);
-        response.setPlayersAvailability(availabilities != null ? availabilities.stream()
-                .map(PlayerAvialabilityMapper::convertToResponse)
-                .collect(Collectors.toList()) : Collections.emptyList());
-        return response;
+                .draftOrder(parseDraftOrder(match.getManualDraftOrder()));
     }
 
     private static List<UUID> parseDraftOrder(String manualDraftOrder) {
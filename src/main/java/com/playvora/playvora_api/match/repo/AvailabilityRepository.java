@@ -3,10 +3,12 @@ package com.playvora.playvora_api.match.repo;
 import com.playvora.playvora_api.match.entities.Availability;
 import com.playvora.playvora_api.match.enums.AvailabilityStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -39,4 +41,18 @@ public interface AvailabilityRepository extends JpaRepository<Availability, UUID
     
     @Query("SELECT a FROM Availability a WHERE a.user.id = :userId AND a.status = :status")
     List<Availability> findByUserIdAndStatus(@Param("userId") UUID userId, @Param("status") AvailabilityStatus status);
+
+    /**
+     * Move a player's availability from one status to another.
+     *
+     * @return 0 if the player's availability is not in {@code currentStatus}
+     */
+    @Modifying
+    @Query("UPDATE Availability a SET a.status = :newStatus, a.updatedAt = :updatedAt " +
+            "WHERE a.match.id = :matchId AND a.user.id = :userId AND a.status = :currentStatus")
+    int updateStatus(@Param("matchId") UUID matchId,
+                     @Param("userId") UUID userId,
+                     @Param("currentStatus") AvailabilityStatus currentStatus,
+                     @Param("newStatus") AvailabilityStatus newStatus,
+                     @Param("updatedAt") OffsetDateTime updatedAt);
 }
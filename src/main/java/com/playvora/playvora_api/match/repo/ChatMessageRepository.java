@@ -3,6 +3,7 @@ package com.playvora.playvora_api.match.repo;
 import com.playvora.playvora_api.match.entities.ChatMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -41,9 +42,26 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, UUID>
                                         @Param("lastReadAt") OffsetDateTime lastReadAt);
 
     /**
-     * Fetch the latest message for a match event.
+     * Latest messages of a match chat, newest first, without a count query.
+     * First page of the keyset pagination; continue with {@link #findByMatchIdBefore}.
      */
-    ChatMessage findTop1ByMatchIdOrderByCreatedAtDesc(UUID matchId);
-}
-
+    @Query("SELECT cm FROM ChatMessage cm " +
+           "LEFT JOIN FETCH cm.sender " +
+           "WHERE cm.match.id = :matchId " +
+           "ORDER BY cm.createdAt DESC, cm.id DESC")
+    Slice<ChatMessage> findLatestByMatchId(@Param("matchId") UUID matchId, Pageable pageable);
 
+    /**
+     * Messages of a match chat strictly older than the (createdAt, id) cursor, newest first.
+     */
+    @Query("SELECT cm FROM ChatMessage cm " +
+           "LEFT JOIN FETCH cm.sender " +
+           "WHERE cm.match.id = :matchId " +
+           "AND (cm.createdAt < :beforeCreatedAt " +
+           "     OR (cm.createdAt = :beforeCreatedAt AND cm.id < :beforeId)) " +
+           "ORDER BY cm.createdAt DESC, cm.id DESC")
+    Slice<ChatMessage> findByMatchIdBefore(@Param("matchId") UUID matchId,
+                                           @Param("beforeCreatedAt") OffsetDateTime beforeCreatedAt,
+                                           @Param("beforeId") UUID beforeId,
+                                           Pageable pageable);
+}
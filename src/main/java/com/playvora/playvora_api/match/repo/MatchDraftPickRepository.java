@@ -0,0 +1,21 @@
+package com.playvora.playvora_api.match.repo;
+
+import com.playvora.playvora_api.match.entities.MatchDraftPick;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface MatchDraftPickRepository extends JpaRepository<MatchDraftPick, UUID> {
+
+    boolean existsByMatchIdAndPlayerId(UUID matchId, UUID playerId);
+
+    /**
+     * Forget a player's pick (when they are taken off their team) so they can be picked again.
+     */
+    @Modifying
+    @Query("DELETE FROM MatchDraftPick p WHERE p.match.id = :matchId AND p.player.id = :playerId")
+    int deleteByMatchIdAndPlayerId(@Param("matchId") UUID matchId, @Param("playerId") UUID playerId);
+}
@@ -25,6 +25,12 @@ public interface MatchRegistrationRepository extends JpaRepository<MatchRegistra
      */
     @Query("SELECT mr.user FROM MatchRegistration mr WHERE mr.match.id = :matchId")
     List<User> findUsersByMatchId(@Param("matchId") UUID matchId);
+
+    /**
+     * Find the ids of all users who have registered for a given match, without loading the users.
+     */
+    @Query("SELECT mr.user.id FROM MatchRegistration mr WHERE mr.match.id = :matchId")
+    List<UUID> findUserIdsByMatchId(@Param("matchId") UUID matchId);
 }
 
 
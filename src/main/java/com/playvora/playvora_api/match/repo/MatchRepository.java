@@ -1,14 +1,24 @@
 package com.playvora.playvora_api.match.repo;
 
+import com.playvora.playvora_api.common.geo.NearbyHit;
+import com.playvora.playvora_api.match.dtos.MatchSummary;
+import com.playvora.playvora_api.match.dtos.websocket.MatchDraftState;
 import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.entities.Team;
 import com.playvora.playvora_api.match.enums.MatchStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -16,17 +26,36 @@ import java.util.UUID;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, UUID> {
-    
-    @Query("SELECT m FROM Match m WHERE m.community.id = :communityId")
-    Page<Match> findByCommunityId(@Param("communityId") UUID communityId, Pageable pageable);
+
+    /**
+     * Select clause of the {@link MatchSummary} list queries. Player counts are aggregated in the
+     * database so a page of summaries is a single statement; the alias {@code m} is kept for sorting.
+     */
+    String SELECT_SUMMARY = """
+        SELECT new com.playvora.playvora_api.match.dtos.MatchSummary(m, c,
+            (SELECT COUNT(ma) FROM Availability ma WHERE ma.match = m),
+            (SELECT COUNT(ma) FROM Availability ma WHERE ma.match = m
+                AND ma.status = com.playvora.playvora_api.match.enums.AvailabilityStatus.AVAILABLE))
+        FROM Match m
+        JOIN m.community c
+        """;
+
+    @Query(SELECT_SUMMARY)
+    Page<MatchSummary> findSummaries(Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "WHERE m.id IN :ids")
+    List<MatchSummary> findSummariesByIdIn(@Param("ids") List<UUID> ids);
+
+    @Query(SELECT_SUMMARY + "WHERE c.id = :communityId")
+    Page<MatchSummary> findByCommunityId(@Param("communityId") UUID communityId, Pageable pageable);
     
     @Query("SELECT m FROM Match m WHERE m.community.id = :communityId AND m.status = :status")
     Page<Match> findByCommunityIdAndStatus(@Param("communityId") UUID communityId, 
                                           @Param("status") MatchStatus status, 
                                           Pageable pageable);
     
-    @Query("SELECT m FROM Match m WHERE m.matchDate >= :startDate AND m.matchDate <= :endDate")
-    Page<Match> findByDateRange(@Param("startDate") OffsetDateTime startDate, 
+    @Query(SELECT_SUMMARY + "WHERE m.matchDate >= :startDate AND m.matchDate <= :endDate")
+    Page<MatchSummary> findByDateRange(@Param("startDate") OffsetDateTime startDate, 
                                @Param("endDate") OffsetDateTime endDate, 
                                Pageable pageable);
     
@@ -43,29 +72,37 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
     List<Match> findUpcomingMatches(@Param("startDate") OffsetDateTime startDate, 
                                    @Param("endDate") OffsetDateTime endDate);
     
-    @Query("SELECT m FROM Match m JOIN m.availabilities a WHERE a.user.id = :userId")
-    Page<Match> findByUserId(@Param("userId") UUID userId, Pageable pageable);
+    @Query(SELECT_SUMMARY + "JOIN m.availabilities a WHERE a.user.id = :userId")
+    Page<MatchSummary> findByUserId(@Param("userId") UUID userId, Pageable pageable);
     
     @Query("SELECT m FROM Match m JOIN m.availabilities a WHERE a.user.id = :userId AND a.status = :status")
     Page<Match> findByUserIdAndAvailabilityStatus(@Param("userId") UUID userId, 
                                                  @Param("status") String status, 
                                                  Pageable pageable);
     
+    /**
+     * Fetch plan of the match detail view: community and availabilities with their users. The users'
+     * wallets are fetched too, as an inverse one-to-one is otherwise read with a query per user. Teams
+     * are a second bag, so they are fetched separately by {@link #findByIdWithTeams} on the same instance.
+     */
+    @EntityGraph(attributePaths = {"community", "availabilities", "availabilities.user", "availabilities.user.wallet"})
     @Query("SELECT m FROM Match m WHERE m.id = :id")
     Optional<Match> findByIdWithDetails(@Param("id") UUID id);
+
+    @EntityGraph(attributePaths = {"teams"})
+    @Query("SELECT m FROM Match m WHERE m.id = :id")
+    Optional<Match> findByIdWithTeams(@Param("id") UUID id);
     
     @Query("SELECT DISTINCT m FROM Match m LEFT JOIN FETCH m.community WHERE m.id = :id")
     Optional<Match> findByIdWithCommunity(@Param("id") UUID id);
 
-    @Query("""
-        SELECT m FROM Match m
-        LEFT JOIN m.community c
-        WHERE (:search IS NULL 
+    @Query(SELECT_SUMMARY + """
+        WHERE (:search IS NULL
                OR LOWER(m.title) LIKE :search
                OR LOWER(m.description) LIKE :search
                OR LOWER(c.name) LIKE :search)
     """)
-    Page<Match> searchMatches(@Param("search") String search, Pageable pageable);
+    Page<MatchSummary> searchMatches(@Param("search") String search, Pageable pageable);
 
     @Query("""
         SELECT m FROM Match m
@@ -80,16 +117,14 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
                                          @Param("search") String search,
                                          Pageable pageable);
 
-    @Query("""
-        SELECT m FROM Match m
-        LEFT JOIN m.community c
+    @Query(SELECT_SUMMARY + """
         WHERE m.matchDate >= :startDate AND m.matchDate <= :endDate
-          AND (:search IS NULL 
+          AND (:search IS NULL
                OR LOWER(m.title) LIKE :search
                OR LOWER(m.description) LIKE :search
                OR LOWER(c.name) LIKE :search)
     """)
-    Page<Match> searchUpcomingMatches(@Param("startDate") OffsetDateTime startDate,
+    Page<MatchSummary> searchUpcomingMatches(@Param("startDate") OffsetDateTime startDate,
                                       @Param("endDate") OffsetDateTime endDate,
                                       @Param("search") String search,
                                       Pageable pageable);
@@ -110,16 +145,14 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
                                                  @Param("search") String search,
                                                  Pageable pageable);
 
-    @Query("""
-        SELECT m FROM Match m
-        LEFT JOIN m.community c
+    @Query(SELECT_SUMMARY + """
         WHERE m.createdBy.id = :creatorId
           AND (:search IS NULL
                OR LOWER(m.title) LIKE :search
                OR LOWER(m.description) LIKE :search
                OR LOWER(c.name) LIKE :search)
     """)
-    Page<Match> searchMatchesByCreator(@Param("creatorId") UUID creatorId,
+    Page<MatchSummary> searchMatchesByCreator(@Param("creatorId") UUID creatorId,
                                        @Param("search") String search,
                                        Pageable pageable);
 
@@ -148,9 +181,7 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
                                               @Param("creatorId") UUID creatorId,
                                               Pageable pageable);
 
-    @Query("""
-        SELECT m FROM Match m
-        LEFT JOIN m.community c
+    @Query(SELECT_SUMMARY + """
         JOIN m.availabilities a
         WHERE a.user.id = :userId
           AND (:search IS NULL
@@ -158,10 +189,114 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
                OR LOWER(m.description) LIKE :search
                OR LOWER(c.name) LIKE :search)
     """)
-    Page<Match> searchUserMatches(@Param("userId") UUID userId,
+    Page<MatchSummary> searchUserMatches(@Param("userId") UUID userId,
                                   @Param("search") String search,
                                   Pageable pageable);
 
+    // Ranked full-text variants of the searches above, for PostgreSQL (see FullTextSearch and V53).
+    // :query is a to_tsquery argument; the Pageable must be unsorted as the order is by relevance.
+    // They return the ranked page of matches only; list views read its summaries with findSummariesByIdIn.
+
+    @Query(value = """
+        SELECT m.* FROM matches m
+        WHERE m.search_vector @@ to_tsquery('simple', :query)
+        ORDER BY ts_rank(m.search_vector, to_tsquery('simple', :query)) DESC, m.match_date DESC
+        """,
+        countQuery = "SELECT COUNT(*) FROM matches m WHERE m.search_vector @@ to_tsquery('simple', :query)",
+        nativeQuery = true)
+    Page<Match> fullTextSearchMatches(@Param("query") String query, Pageable pageable);
+
+    @Query(value = """
+        SELECT m.* FROM matches m
+        WHERE m.created_by_id = :creatorId
+          AND m.search_vector @@ to_tsquery('simple', :query)
+        ORDER BY ts_rank(m.search_vector, to_tsquery('simple', :query)) DESC, m.match_date DESC
+        """,
+        countQuery = """
+        SELECT COUNT(*) FROM matches m
+        WHERE m.created_by_id = :creatorId
+          AND m.search_vector @@ to_tsquery('simple', :query)
+        """,
+        nativeQuery = true)
+    Page<Match> fullTextSearchMatchesByCreator(@Param("creatorId") UUID creatorId,
+                                               @Param("query") String query,
+                                               Pageable pageable);
+
+    @Query(value = """
+        SELECT m.* FROM matches m
+        WHERE m.match_date >= :startDate AND m.match_date <= :endDate
+          AND m.search_vector @@ to_tsquery('simple', :query)
+        ORDER BY ts_rank(m.search_vector, to_tsquery('simple', :query)) DESC, m.match_date ASC
+        """,
+        countQuery = """
+        SELECT COUNT(*) FROM matches m
+        WHERE m.match_date >= :startDate AND m.match_date <= :endDate
+          AND m.search_vector @@ to_tsquery('simple', :query)
+        """,
+        nativeQuery = true)
+    Page<Match> fullTextSearchUpcomingMatches(@Param("startDate") OffsetDateTime startDate,
+                                              @Param("endDate") OffsetDateTime endDate,
+                                              @Param("query") String query,
+                                              Pageable pageable);
+
+    @Query(value = """
+        SELECT m.* FROM matches m
+        JOIN availabilities a ON a.match_id = m.id
+        WHERE a.user_id = :userId
+          AND m.search_vector @@ to_tsquery('simple', :query)
+        ORDER BY ts_rank(m.search_vector, to_tsquery('simple', :query)) DESC, m.created_at DESC
+        """,
+        countQuery = """
+        SELECT COUNT(*) FROM matches m
+        JOIN availabilities a ON a.match_id = m.id
+        WHERE a.user_id = :userId
+          AND m.search_vector @@ to_tsquery('simple', :query)
+        """,
+        nativeQuery = true)
+    Page<Match> fullTextSearchUserMatches(@Param("userId") UUID userId,
+                                          @Param("query") String query,
+                                          Pageable pageable);
+
+    boolean existsByBannerUrl(String bannerUrl);
+
+    /**
+     * The next page of upcoming matches nearest to a point, for GeoSearch (see NearbySearch): rows are
+     * narrowed to the bounding box, then ranked by the same haversine distance as GeoPoint.
+     * Cancelled and completed matches are left out.
+     */
+    @Query("""
+        SELECT new com.playvora.playvora_api.common.geo.NearbyHit(hit.id, hit.distanceKm)
+        FROM (
+            SELECT m.id AS id,
+                   cast(12742.0176 AS Double) * asin(sqrt(
+                       power(sin(radians(cast(m.latitude AS Double) - :latitude) / 2), 2)
+                       + cos(radians(:latitude)) * cos(radians(cast(m.latitude AS Double)))
+                         * power(sin(radians(cast(m.longitude AS Double) - :longitude) / 2), 2))) AS distanceKm
+            FROM Match m
+            WHERE m.latitude BETWEEN :minLatitude AND :maxLatitude
+              AND m.longitude BETWEEN :minLongitude AND :maxLongitude
+              AND m.matchDate >= :from
+              AND m.status NOT IN :excludedStatuses
+              AND (:type IS NULL OR m.type = :type)
+        ) hit
+        WHERE hit.distanceKm <= :radiusKm
+          AND (hit.distanceKm > :afterDistanceKm OR (hit.distanceKm = :afterDistanceKm AND hit.id > :afterId))
+        ORDER BY hit.distanceKm, hit.id
+    """)
+    List<NearbyHit> findNearest(@Param("latitude") double latitude,
+                                @Param("longitude") double longitude,
+                                @Param("radiusKm") double radiusKm,
+                                @Param("minLatitude") BigDecimal minLatitude,
+                                @Param("maxLatitude") BigDecimal maxLatitude,
+                                @Param("minLongitude") BigDecimal minLongitude,
+                                @Param("maxLongitude") BigDecimal maxLongitude,
+                                @Param("afterDistanceKm") double afterDistanceKm,
+                                @Param("afterId") UUID afterId,
+                                @Param("from") OffsetDateTime from,
+                                @Param("excludedStatuses") List<MatchStatus> excludedStatuses,
+                                @Param("type") String type,
+                                Limit limit);
+
     /**
      * Check if a community has any active (upcoming or ongoing) matches.
      * Active here means any status other than COMPLETED or CANCELLED.
@@ -185,12 +320,11 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
                                                                @Param("startDate") OffsetDateTime startDate,
                                                                @Param("endDate") OffsetDateTime endDate, Pageable pageable);
 
-    @Query("""
-        SELECT m FROM Match m
-        WHERE m.community.id = :communityId
+    @Query(SELECT_SUMMARY + """
+        WHERE c.id = :communityId
           AND m.matchDate >= :startDate AND m.matchDate <= :endDate
     """)
-    Page<Match> searchUpcomingMatchesByCommunityId(@Param("communityId") UUID communityId,
+    Page<MatchSummary> searchUpcomingMatchesByCommunityId(@Param("communityId") UUID communityId,
                                                    @Param("startDate") OffsetDateTime startDate,
                                                    @Param("endDate") OffsetDateTime endDate, Pageable pageable);
 
@@ -218,4 +352,49 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
     """)
     List<Match> findUnfinishedMatchesWithinDateRange(@Param("startDate") OffsetDateTime startDate,
                                                      @Param("endDate") OffsetDateTime endDate);
+
+    @Modifying
+    @Query("UPDATE Match m SET m.updateSequence = m.updateSequence + 1 WHERE m.id = :id")
+    int incrementUpdateSequence(@Param("id") UUID id);
+
+    @Query("""
+        SELECT new com.playvora.playvora_api.match.dtos.websocket.MatchDraftState(
+            m.id, m.title, m.updateSequence, m.status, m.draftInProgress, t.id)
+        FROM Match m
+        LEFT JOIN m.currentPickingTeam t
+        WHERE m.id = :id
+        """)
+    Optional<MatchDraftState> findDraftStateById(@Param("id") UUID id);
+
+    /**
+     * Load a match and lock its row until the transaction ends. Draft picks take this lock, so the
+     * picks of one match are applied one at a time on whichever node receives them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Match m WHERE m.id = :id")
+    Optional<Match> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Record a draft pick's effect on the match. Only applies if the match is still at the sequence
+     * the pick was made against, so a pick made on stale state is rejected.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Match m
+        SET m.updateSequence = :sequence,
+            m.manualDraftIndex = :draftIndex,
+            m.draftInProgress = :draftInProgress,
+            m.status = :status,
+            m.currentPickingTeam = :currentPickingTeam,
+            m.updatedAt = :updatedAt
+        WHERE m.id = :id AND m.updateSequence = :expectedSequence
+        """)
+    int applyDraftPick(@Param("id") UUID id,
+                       @Param("expectedSequence") long expectedSequence,
+                       @Param("sequence") long sequence,
+                       @Param("draftIndex") int draftIndex,
+                       @Param("draftInProgress") boolean draftInProgress,
+                       @Param("status") MatchStatus status,
+                       @Param("currentPickingTeam") Team currentPickingTeam,
+                       @Param("updatedAt") OffsetDateTime updatedAt);
 }
@@ -1,11 +1,14 @@
 package com.playvora.playvora_api.match.repo;
 
+import com.playvora.playvora_api.match.dtos.PlayerPairing;
 import com.playvora.playvora_api.match.entities.TeamPlayer;
+import com.playvora.playvora_api.match.enums.TeamAvailabilityStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,4 +39,16 @@ public interface TeamPlayerRepository extends JpaRepository<TeamPlayer, UUID> {
     
     @Query("SELECT tp FROM TeamPlayer tp WHERE tp.isCaptain = true AND tp.team.id = :teamId")
     Optional<TeamPlayer> findCaptainByTeamId(@Param("teamId") UUID teamId);
+
+    /**
+     * Count, for every pair of the given users, how many teams they were both selected for.
+     * Each pair is returned once, with the smaller user id first.
+     */
+    @Query("SELECT new com.playvora.playvora_api.match.dtos.PlayerPairing(a.user.id, b.user.id, COUNT(a)) " +
+           "FROM TeamPlayer a JOIN TeamPlayer b ON b.team = a.team " +
+           "WHERE a.user.id IN :userIds AND b.user.id IN :userIds AND a.user.id < b.user.id " +
+           "AND a.teamAvailabilityStatus = :status AND b.teamAvailabilityStatus = :status " +
+           "GROUP BY a.user.id, b.user.id")
+    List<PlayerPairing> countPairings(@Param("userIds") Collection<UUID> userIds,
+                                      @Param("status") TeamAvailabilityStatus status);
 }
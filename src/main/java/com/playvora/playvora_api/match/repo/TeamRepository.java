@@ -1,7 +1,9 @@
 package com.playvora.playvora_api.match.repo;
 
+import com.playvora.playvora_api.match.dtos.DraftTeamState;
 import com.playvora.playvora_api.match.entities.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,4 +30,17 @@ public interface TeamRepository extends JpaRepository<Team, UUID> {
     List<Team> findByCaptainId(@Param("captainId") UUID captainId);
 
     Optional<Team> findByMatchIdAndName(UUID matchId, String name);
+
+    /**
+     * Delete every team of a match in one statement; team players go with them through
+     * {@code ON DELETE CASCADE}.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Team t WHERE t.match.id = :matchId")
+    int deleteByMatchId(@Param("matchId") UUID matchId);
+
+    @Query("SELECT new com.playvora.playvora_api.match.dtos.DraftTeamState(t.id, c.id, COUNT(tp)) " +
+            "FROM Team t LEFT JOIN t.captain c LEFT JOIN t.players tp " +
+            "WHERE t.match.id = :matchId GROUP BY t.id, c.id")
+    List<DraftTeamState> findDraftTeamStates(@Param("matchId") UUID matchId);
 }
@@ -0,0 +1,19 @@
+package com.playvora.playvora_api.match.services;
+
+import com.playvora.playvora_api.match.draft.DraftPick;
+
+import java.util.UUID;
+
+public interface IDraftService {
+
+    /**
+     * Whether the match has a manual draft in progress.
+     */
+    boolean isLiveDraft(UUID matchId);
+
+    /**
+     * Apply a pick to the match's draft. The pick is written first and broadcast once the
+     * transaction it was written in commits.
+     */
+    DraftPick pick(UUID matchId, UUID teamId, UUID captainId, UUID playerId);
+}
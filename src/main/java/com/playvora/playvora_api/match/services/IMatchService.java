@@ -1,6 +1,8 @@
 package com.playvora.playvora_api.match.services;
 
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
+import com.playvora.playvora_api.common.geo.NearbyQuery;
 import com.playvora.playvora_api.match.dtos.AvailabilityRequest;
 import com.playvora.playvora_api.match.dtos.CreateMatchRequest;
 import com.playvora.playvora_api.match.dtos.MatchEventResponse;
@@ -16,9 +18,11 @@ public interface IMatchService {
     Match updateMatchEvent(UUID id, UpdateMatchRequest request);
     void deleteMatchEvent(UUID id);
     Match getMatchEventById(UUID id);
+    Match getMatchEventDetails(UUID id);
     PaginatedResponse<MatchEventResponse> getMatchEvents(int page, int size, String sortBy, String sortDirection, String search);
     PaginatedResponse<MatchEventResponse> getMatchEventsByCommunity(UUID communityId, int page, int size, String sortBy, String sortDirection);
     PaginatedResponse<MatchEventResponse> getUpcomingMatchEvents(int page, int size, String search);
+    NearbyPaginatedResponse<MatchEventResponse> findNearbyMatchEvents(NearbyQuery query, String type);
     PaginatedResponse<MatchEventResponse> getUserMatchEvents(int page, int size, String search);
     void markAvailability(UUID matchId, AvailabilityRequest request);
     void removeAvailability(UUID matchId);
@@ -1,6 +1,7 @@
 package com.playvora.playvora_api.match.services;
 
 import com.playvora.playvora_api.match.dtos.chat.ChatMessageRequest;
+import com.playvora.playvora_api.match.dtos.websocket.MatchSnapshotMessage;
 import com.playvora.playvora_api.match.dtos.websocket.PlayerSelectionRequest;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 
@@ -26,6 +27,12 @@ public interface IMatchWebSocketService {
     void completeMatch(UUID matchId,
                        SimpMessageHeaderAccessor headerAccessor);
 
+    /**
+     * Full match state plus the sequence of the last update it reflects, for clients that
+     * join late or detect a gap in the delta stream.
+     */
+    MatchSnapshotMessage getSnapshot(UUID matchId);
+
     void sendChatMessage(UUID matchId,
                          ChatMessageRequest request,
                          SimpMessageHeaderAccessor headerAccessor);
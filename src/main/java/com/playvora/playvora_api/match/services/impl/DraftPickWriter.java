@@ -0,0 +1,289 @@
+package com.playvora.playvora_api.match.services.impl;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.match.draft.DraftPick;
+import com.playvora.playvora_api.match.draft.DraftSession;
+import com.playvora.playvora_api.match.dtos.DraftTeamState;
+import com.playvora.playvora_api.match.entities.Availability;
+import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.entities.MatchDraftPick;
+import com.playvora.playvora_api.match.entities.Team;
+import com.playvora.playvora_api.match.entities.TeamPlayer;
+import com.playvora.playvora_api.match.enums.AvailabilityStatus;
+import com.playvora.playvora_api.match.enums.TeamAvailabilityStatus;
+import com.playvora.playvora_api.match.repo.AvailabilityRepository;
+import com.playvora.playvora_api.match.repo.MatchDraftPickRepository;
+import com.playvora.playvora_api.match.repo.MatchRegistrationRepository;
+import com.playvora.playvora_api.match.repo.MatchRepository;
+import com.playvora.playvora_api.match.repo.TeamPlayerRepository;
+import com.playvora.playvora_api.match.repo.TeamRepository;
+import com.playvora.playvora_api.notification.services.IPushNotificationService;
+import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.user.repo.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies manual draft picks against the database. Each pick locks the match row, rebuilds the
+ * match's {@link DraftSession} from the persisted draft, validates the pick and writes it, all in
+ * one transaction. No draft state is kept between picks, so any node can take the next one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DraftPickWriter {
+
+    private final MatchRepository matchRepository;
+    private final TeamRepository teamRepository;
+    private final TeamPlayerRepository teamPlayerRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final MatchRegistrationRepository matchRegistrationRepository;
+    private final MatchDraftPickRepository matchDraftPickRepository;
+    private final UserRepository userRepository;
+    private final TeamGenerator teamGenerator;
+    private final IPushNotificationService pushNotificationService;
+
+    /**
+     * Whether the match has a manual draft in progress.
+     */
+    @Transactional(readOnly = true)
+    public boolean isLiveDraft(UUID matchId) {
+        return matchRepository.findById(matchId)
+                .map(DraftPickWriter::hasDraftInProgress)
+                .orElseThrow(() -> new BadRequestException("Match not found"));
+    }
+
+    /**
+     * Validate and persist a pick while holding the match's row lock, so concurrent picks for the
+     * same match are applied one after the other.
+     *
+     * @return the pick as written
+     * @throws BadRequestException if the match has no draft in progress or the pick is not allowed
+     */
+    @Transactional
+    public DraftPick pick(UUID matchId, UUID teamId, UUID captainId, UUID playerId) {
+        Match match = matchRepository.findByIdForUpdate(matchId)
+                .orElseThrow(() -> new BadRequestException("Match not found"));
+        DraftSession session = session(match);
+        if (session == null) {
+            throw new BadRequestException("Manual draft is not in progress for this match");
+        }
+        DraftPick pick = session.pick(teamId, captainId, playerId);
+        write(pick);
+        return pick;
+    }
+
+    /**
+     * Rebuild the draft session of a match from the database.
+     *
+     * @return null if the match has no manual draft in progress
+     */
+    @Transactional(readOnly = true)
+    public DraftSession load(UUID matchId) {
+        Match match = matchRepository.findById(matchId)
+                .orElseThrow(() -> new BadRequestException("Match not found"));
+        return session(match);
+    }
+
+    private DraftSession session(Match match) {
+        if (!hasDraftInProgress(match) || match.getPlayersPerTeam() == null) {
+            return null;
+        }
+
+        UUID matchId = match.getId();
+        List<UUID> order = parseDraftOrder(match.getManualDraftOrder());
+        if (order.isEmpty()) {
+            return null;
+        }
+
+        Map<UUID, DraftTeamState> teams = teamRepository.findDraftTeamStates(matchId).stream()
+                .collect(Collectors.toMap(DraftTeamState::teamId, Function.identity()));
+        UUID[] teamIds = new UUID[order.size()];
+        UUID[] captainIds = new UUID[order.size()];
+        int[] teamCounts = new int[order.size()];
+        for (int i = 0; i < order.size(); i++) {
+            DraftTeamState team = teams.get(order.get(i));
+            if (team == null) {
+                throw new IllegalStateException("Draft order of match " + matchId + " names missing team " + order.get(i));
+            }
+            teamIds[i] = team.teamId();
+            captainIds[i] = team.captainId();
+            teamCounts[i] = (int) team.players();
+        }
+
+        // The picking team is authoritative; the index is only a hint
+        int turn = match.getManualDraftIndex() == null ? 0 : match.getManualDraftIndex();
+        UUID pickingTeamId = match.getCurrentPickingTeamId();
+        if (turn < 0 || turn >= teamIds.length || (pickingTeamId != null && !pickingTeamId.equals(teamIds[turn]))) {
+            turn = Math.max(0, order.indexOf(pickingTeamId));
+        }
+
+        List<Availability> available = availabilityRepository.findAvailablePlayers(matchId);
+        Map<UUID, String> availablePlayers = new HashMap<>(available.size() * 2);
+        for (Availability availability : available) {
+            User user = availability.getUser();
+            availablePlayers.put(user.getId(), user.getFirstName() + " " + user.getLastName());
+        }
+
+        return new DraftSession(matchId, match.getTitle(), match.getStatus(), match.getPlayersPerTeam(),
+                teamIds, captainIds, teamCounts, turn, match.getUpdateSequence(), availablePlayers);
+    }
+
+    /**
+     * Persist a pick: the draft pick record, the team player, the player's availability and the
+     * match's draft state, plus the pick's push notifications through the outbox. When the pick ends
+     * the draft the remaining players go to the reserve team.
+     *
+     * @throws BadRequestException   if the player was already picked in this match
+     * @throws IllegalStateException if the match or the player changed since the session was loaded;
+     *                               nothing is written
+     */
+    @Transactional
+    public void write(DraftPick pick) {
+        UUID matchId = pick.matchId();
+        OffsetDateTime now = OffsetDateTime.now();
+        Team nextTeam = pick.currentPickingTeamId() == null ? null
+                : teamRepository.getReferenceById(pick.currentPickingTeamId());
+
+        if (matchRepository.applyDraftPick(matchId, pick.sequence() - 1, pick.sequence(), pick.draftIndex(),
+                pick.draftInProgress(), pick.status(), nextTeam, now) == 0) {
+            throw new IllegalStateException("Match " + matchId + " changed outside its draft session");
+        }
+
+        // The unique keys on match and player, and on match and sequence, reject a duplicate pick
+        try {
+            matchDraftPickRepository.saveAndFlush(MatchDraftPick.builder()
+                    .match(matchRepository.getReferenceById(matchId))
+                    .team(teamRepository.getReferenceById(pick.teamId()))
+                    .player(userRepository.getReferenceById(pick.playerId()))
+                    .captain(userRepository.getReferenceById(pick.captainId()))
+                    .sequence(pick.sequence())
+                    .pickedAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("This player has already been picked");
+        }
+
+        if (availabilityRepository.updateStatus(matchId, pick.playerId(),
+                AvailabilityStatus.AVAILABLE, AvailabilityStatus.SELECTED, now) == 0) {
+            throw new IllegalStateException("Player " + pick.playerId() + " is no longer available in match " + matchId);
+        }
+
+        teamPlayerRepository.save(TeamPlayer.builder()
+                .team(teamRepository.getReferenceById(pick.teamId()))
+                .user(userRepository.getReferenceById(pick.playerId()))
+                .teamAvailabilityStatus(TeamAvailabilityStatus.SELECTED)
+                .isCaptain(false)
+                .build());
+
+        notifyPlayerSelected(pick);
+        notifyParticipants(pick);
+
+        if (!pick.draftInProgress()) {
+            Match match = matchRepository.findById(matchId)
+                    .orElseThrow(() -> new BadRequestException("Match not found"));
+            assignReserveTeam(match);
+        }
+    }
+
+    private void assignReserveTeam(Match match) {
+        List<Availability> remainingAvailabilities = availabilityRepository.findAvailablePlayers(match.getId());
+
+        if (remainingAvailabilities.isEmpty()) {
+            return;
+        }
+
+        Team reserveTeam = teamRepository.findByMatchIdAndName(match.getId(), TeamGenerator.RESERVE_TEAM_NAME)
+                .orElseGet(() -> teamGenerator.newReserveTeam(match));
+
+        if (reserveTeam.getId() != null) {
+            List<TeamPlayer> existingReservePlayers = teamPlayerRepository.findByTeamId(reserveTeam.getId());
+            if (!existingReservePlayers.isEmpty()) {
+                teamPlayerRepository.deleteAll(existingReservePlayers);
+                reserveTeam.getPlayers().clear();
+            }
+        }
+
+        teamGenerator.addReserves(match, reserveTeam, remainingAvailabilities);
+        matchRepository.save(match);
+    }
+
+    private void notifyPlayerSelected(DraftPick pick) {
+        try {
+            Map<String, Object> data = new HashMap<>();
+            data.put("type", "PLAYER_SELECTED");
+            data.put("matchId", pick.matchId());
+            data.put("teamId", pick.teamId());
+            data.put("matchTitle", pick.title());
+
+            pushNotificationService.sendPushNotificationToUser(
+                    pick.playerId().toString(),
+                    "You've Been Selected!",
+                    "You have been selected for " + pick.title(),
+                    data
+            );
+        } catch (Exception e) {
+            log.error("Error sending push notification for player selection", e);
+        }
+    }
+
+    private void notifyParticipants(DraftPick pick) {
+        try {
+            List<UUID> participantUserIds = matchRegistrationRepository.findUserIdsByMatchId(pick.matchId());
+            if (participantUserIds.isEmpty()) {
+                return;
+            }
+
+            String selectorName = userRepository.findById(pick.captainId())
+                    .map(user -> user.getFirstName() + " " + user.getLastName())
+                    .orElse("A captain");
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("type", "PLAYER_SELECTED_TEAM_UPDATE");
+            data.put("matchId", pick.matchId().toString());
+            data.put("teamId", pick.teamId().toString());
+            data.put("selectedUserId", pick.playerId().toString());
+            data.put("selectedUserName", pick.playerName());
+            data.put("selectorId", pick.captainId().toString());
+            data.put("selectorName", selectorName);
+
+            // The selector and the selected player are not notified here
+            pushNotificationService.sendMulticastNotification(
+                    participantUserIds,
+                    List.of(pick.captainId(), pick.playerId()),
+                    "Team updated for " + pick.title(),
+                    selectorName + " selected " + pick.playerName() + " for Team " + pick.teamId(),
+                    data
+            );
+        } catch (Exception e) {
+            log.error("Error sending push notifications for team selection: {}", e.getMessage(), e);
+        }
+    }
+
+    private static boolean hasDraftInProgress(Match match) {
+        return !match.isAutoSelection() && Boolean.TRUE.equals(match.getDraftInProgress());
+    }
+
+    private static List<UUID> parseDraftOrder(String draftOrder) {
+        if (draftOrder == null || draftOrder.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(draftOrder.split(","))
+                .map(String::trim)
+                .filter(token -> !token.isBlank())
+                .map(UUID::fromString)
+                .toList();
+    }
+}
@@ -0,0 +1,38 @@
+package com.playvora.playvora_api.match.services.impl;
+
+import com.playvora.playvora_api.match.draft.DraftPick;
+import com.playvora.playvora_api.match.draft.DraftSession;
+import com.playvora.playvora_api.match.services.IDraftService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Runs manual drafts. The draft lives in the database: each pick locks the match row, rebuilds the
+ * {@link DraftSession} from it and writes the pick (see {@link DraftPickWriter}). Only then is the
+ * pick published as a {@link DraftPick} event, whose listener broadcasts it after commit, so clients
+ * never see a pick that was not persisted and every node picks from the same state.
+ */
+@Service
+@RequiredArgsConstructor
+public class DraftService implements IDraftService {
+
+    private final DraftPickWriter draftPickWriter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public boolean isLiveDraft(UUID matchId) {
+        return draftPickWriter.isLiveDraft(matchId);
+    }
+
+    @Override
+    @Transactional
+    public DraftPick pick(UUID matchId, UUID teamId, UUID captainId, UUID playerId) {
+        DraftPick pick = draftPickWriter.pick(matchId, teamId, captainId, playerId);
+        eventPublisher.publishEvent(pick);
+        return pick;
+    }
+}
@@ -1,9 +1,16 @@
 package com.playvora.playvora_api.match.services.impl;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
+import com.playvora.playvora_api.app.ActiveUserRole;
 import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.common.exception.ForbiddenException;
+import com.playvora.playvora_api.common.geo.GeoPoint;
+import com.playvora.playvora_api.common.geo.GeoSearch;
+import com.playvora.playvora_api.common.geo.NearbyQuery;
+import com.playvora.playvora_api.common.search.FullTextSearch;
 import com.playvora.playvora_api.common.utils.CurrencyMapper;
 import com.playvora.playvora_api.common.utils.PaginationUtils;
 import com.playvora.playvora_api.common.utils.UserRoleContext;
@@ -16,15 +23,17 @@ import com.playvora.playvora_api.match.entities.*;
 import com.playvora.playvora_api.match.enums.AvailabilityStatus;
 import com.playvora.playvora_api.match.enums.MatchStatus;
 import com.playvora.playvora_api.match.enums.TeamAvailabilityStatus;
+import com.playvora.playvora_api.match.events.MatchUpdated;
 import com.playvora.playvora_api.match.repo.*;
+import com.playvora.playvora_api.match.services.IDraftService;
 import com.playvora.playvora_api.match.services.IMatchService;
 import com.playvora.playvora_api.notification.services.IPushNotificationService;
 import com.playvora.playvora_api.payment.entities.Payment;
 import com.playvora.playvora_api.payment.enums.PaymentStatus;
 import com.playvora.playvora_api.payment.enums.PaymentType;
+import com.playvora.playvora_api.payment.enums.TransactionType;
 import com.playvora.playvora_api.payment.repo.PaymentRepository;
 import com.playvora.playvora_api.user.entities.User;
-import com.playvora.playvora_api.user.entities.UserRole;
 import com.playvora.playvora_api.user.repo.UserRepository;
 import com.playvora.playvora_api.user.repo.UserRoleRepository;
 import com.playvora.playvora_api.community.repo.CommunityMemberRepository;
@@ -32,10 +41,14 @@ import com.playvora.playvora_api.payment.entities.EventBooking;
 import com.playvora.playvora_api.payment.repo.EventBookingRepository;
 import com.playvora.playvora_api.payment.services.ITransactionService;
 import com.playvora.playvora_api.wallet.entities.Wallet;
-import com.playvora.playvora_api.wallet.repo.WalletRepository;
+import com.playvora.playvora_api.wallet.dto.WalletLedgerEntry;
+import com.playvora.playvora_api.wallet.dto.WalletLedgerResult;
+import com.playvora.playvora_api.wallet.services.IWalletLedgerService;
 import com.playvora.playvora_api.wallet.services.IWalletService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -45,6 +58,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.playvora.playvora_api.match.mappers.MatchEventMapper;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -71,9 +85,17 @@ public class MatchService implements IMatchService {
     private final PaymentRepository paymentRepository;
     private final MatchRegistrationRepository matchRegistrationRepository;
     private final EventBookingRepository eventBookingRepository;
+    private final MatchDraftPickRepository matchDraftPickRepository;
     private final IWalletService walletService;
     private final ITransactionService transactionService;
-    private final WalletRepository walletRepository;
+    private final TeamGenerator teamGenerator;
+    private final IWalletLedgerService walletLedgerService;
+    private final IPrincipalCacheService principalCacheService;
+    private final IDraftService draftService;
+    private final FullTextSearch fullTextSearch;
+    private final GeoSearch geoSearch;
+    private final MatchUpdateSequencer matchUpdateSequencer;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -123,6 +145,7 @@ public class MatchService implements IMatchService {
                 .gender(request.getGender().name())
                 .playersPerTeam(request.getPlayersPerTeam())
                 .isAutoSelection(request.getIsAutoSelection())
+                .teamBalancingStrategy(teamGenerator.validateStrategy(request.getTeamBalancingStrategy()))
                 .status(MatchStatus.UPCOMING)
                 .build();
         
@@ -133,7 +156,6 @@ public class MatchService implements IMatchService {
             List<UUID> memberUserIds = communityMemberRepository.findActiveMembersByCommunityId(community.getId())
                     .stream()
                     .map(member -> member.getUser().getId())
-                    .filter(userId -> !userId.equals(getCurrentUser().getId())) // Don't notify the creator
                     .collect(Collectors.toList());
             
             if (!memberUserIds.isEmpty()) {
@@ -142,8 +164,10 @@ public class MatchService implements IMatchService {
                 data.put("matchId", savedMatch.getId());
                 data.put("communityId", community.getId());
                 
-                pushNotificationService.sendPushNotificationToUsers(
-                        memberUserIds.stream().map(UUID::toString).collect(Collectors.toList()),
+                // Don't notify the creator
+                pushNotificationService.sendMulticastNotification(
+                        memberUserIds,
+                        List.of(currentUser.getId()),
                         "New Match Created",
                         "A new match \"" + savedMatch.getTitle() + "\" has been created in " + community.getName(),
                         data
@@ -193,6 +217,9 @@ public class MatchService implements IMatchService {
         if (request.getIsAutoSelection().isPresent()) {
             match.setAutoSelection(request.getIsAutoSelection().orElse(match.isAutoSelection()));
         }
+        if (request.getTeamBalancingStrategy().isPresent()) {
+            match.setTeamBalancingStrategy(teamGenerator.validateStrategy(request.getTeamBalancingStrategy().get()));
+        }
 
         if (request.getType().isPresent()) {
             match.setType(request.getType().get().name());
@@ -261,6 +288,30 @@ public class MatchService implements IMatchService {
                 .orElseThrow(() -> new BadRequestException("Match not found"));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Match getMatchEventDetails(UUID id) {
+        Match match = matchRepository.findByIdWithDetails(id)
+                .orElseThrow(() -> new BadRequestException("Match not found"));
+        // Fills in the teams, then their captains and players, of the match loaded above
+        matchRepository.findByIdWithTeams(id);
+        teamRepository.findByMatchIdWithPlayers(id);
+        return match;
+    }
+
+    /**
+     * Summaries of a page of full-text search results, in rank order.
+     */
+    private Page<MatchSummary> toSummaries(Page<Match> matches) {
+        List<UUID> ids = matches.map(Match::getId).getContent();
+        if (ids.isEmpty()) {
+            return matches.map(match -> null);
+        }
+        Map<UUID, MatchSummary> summaries = matchRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(summary -> summary.match().getId(), summary -> summary));
+        return matches.map(match -> summaries.get(match.getId()));
+    }
+
     private String buildContainsFilter(String value) {
         if (value == null) {
             return null;
@@ -281,23 +332,26 @@ public class MatchService implements IMatchService {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Match> matches;
+        Page<MatchSummary> matches;
         String searchFilter = buildContainsFilter(search);
+        String fullTextQuery = fullTextSearch.prefixQuery(search);
 
         // If the current role is COMMUNITY_MANAGER, only show events created by that user.
         // Regular users (or when no role context) see all events.
         var currentUserRole = UserRoleContext.getCurrentUserRole();
         boolean isCommunityManager = currentUserRole != null
-                && currentUserRole.isActive()
-                && currentUserRole.getRole() != null
-                && "COMMUNITY_MANAGER".equals(currentUserRole.getRole().getName());
+                && "COMMUNITY_MANAGER".equals(currentUserRole.roleName());
 
         if (isCommunityManager) {
             User currentUser = getCurrentUser();
-            matches = matchRepository.searchMatchesByCreator(currentUser.getId(), searchFilter, pageable);
+            matches = fullTextQuery != null
+                    ? toSummaries(matchRepository.fullTextSearchMatchesByCreator(currentUser.getId(), fullTextQuery, fullTextSearch.ranked(pageable)))
+                    : matchRepository.searchMatchesByCreator(currentUser.getId(), searchFilter, pageable);
         } else {
             if (searchFilter == null) {
-                matches = matchRepository.findAll(pageable);
+                matches = matchRepository.findSummaries(pageable);
+            } else if (fullTextQuery != null) {
+                matches = toSummaries(matchRepository.fullTextSearchMatches(fullTextQuery, fullTextSearch.ranked(pageable)));
             } else {
                 matches = matchRepository.searchMatches(searchFilter, pageable);
             }
@@ -315,15 +369,13 @@ public class MatchService implements IMatchService {
         );
         
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Match> matches;
+        Page<MatchSummary> matches;
 
         // For COMMUNITY_MANAGER role, only return matches in this community that they created.
         // Other roles see all matches for the community.
         var currentUserRole = UserRoleContext.getCurrentUserRole();
         boolean isCommunityManager = currentUserRole != null
-                && currentUserRole.isActive()
-                && currentUserRole.getRole() != null
-                && "COMMUNITY_MANAGER".equals(currentUserRole.getRole().getName());
+                && "COMMUNITY_MANAGER".equals(currentUserRole.roleName());
 
 
         if (isCommunityManager) {
@@ -346,22 +398,23 @@ public class MatchService implements IMatchService {
         Pageable pageable = PageRequest.of(page, size, sort);
         
         String searchFilter = buildContainsFilter(search);
-        Page<Match> matches;
+        Page<MatchSummary> matches;
 
         UUID communityId = UserRoleContext.getCurrentCommunityId();
-        UserRole roleContext = UserRoleContext.getCurrentUserRole();
+        ActiveUserRole roleContext = UserRoleContext.getCurrentUserRole();
         boolean isCommunityManager = roleContext != null
-                && roleContext.isActive()
-                && roleContext.getRole() != null
-                && "COMMUNITY_MANAGER".equals(roleContext.getRole().getName());
+                && "COMMUNITY_MANAGER".equals(roleContext.roleName());
         log.info("isCommunityManager: {}", isCommunityManager);
         if (isCommunityManager) {
             // For community managers, fetch upcoming matches they created within this community
             matches = matchRepository.searchUpcomingMatchesByCommunityId(
                     communityId, now, endDate, pageable);
         } else {
+            String fullTextQuery = fullTextSearch.prefixQuery(search);
             if (searchFilter == null) {
                 matches = matchRepository.findByDateRange(now, endDate, pageable);
+            } else if (fullTextQuery != null) {
+                matches = toSummaries(matchRepository.fullTextSearchUpcomingMatches(now, endDate, fullTextQuery, fullTextSearch.ranked(pageable)));
             } else {
                 matches = matchRepository.searchUpcomingMatches(now, endDate, searchFilter, pageable);
             }
@@ -370,6 +423,21 @@ public class MatchService implements IMatchService {
         return PaginationUtils.toPaginatedResponse(responsePage);
     }
 
+    @Override
+    public NearbyPaginatedResponse<MatchEventResponse> findNearbyMatchEvents(NearbyQuery query, String type) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<MatchStatus> excludedStatuses = List.of(MatchStatus.CANCELLED, MatchStatus.COMPLETED);
+        return geoSearch.findNearby(query,
+                search -> matchRepository.findNearest(search.center().latitude(), search.center().longitude(),
+                        search.radiusKm(), search.bounds().minLatitude(), search.bounds().maxLatitude(),
+                        search.bounds().minLongitude(), search.bounds().maxLongitude(),
+                        search.afterDistanceKm(), search.afterId(), now, excludedStatuses, type,
+                        Limit.of(search.limit())),
+                matchRepository::findSummariesByIdIn,
+                summary -> summary.match().getId(),
+                MatchEventMapper::convertToResponse);
+    }
+
     @Override
     public PaginatedResponse<MatchEventResponse> getUserMatchEvents(int page, int size, String search) {
         User currentUser = getCurrentUser();
@@ -378,9 +446,12 @@ public class MatchService implements IMatchService {
         Pageable pageable = PageRequest.of(page, size, sort);
         
         String searchFilter = buildContainsFilter(search);
-        Page<Match> matches;
+        Page<MatchSummary> matches;
+        String fullTextQuery = fullTextSearch.prefixQuery(search);
         if (searchFilter == null) {
             matches = matchRepository.findByUserId(currentUser.getId(), pageable);
+        } else if (fullTextQuery != null) {
+            matches = toSummaries(matchRepository.fullTextSearchUserMatches(currentUser.getId(), fullTextQuery, fullTextSearch.ranked(pageable)));
         } else {
             matches = matchRepository.searchUserMatches(currentUser.getId(), searchFilter, pageable);
         }
@@ -460,24 +531,28 @@ public class MatchService implements IMatchService {
         }
         
         // Clear existing teams
-        List<Team> existingTeams = teamRepository.findByMatchId(matchId);
-        if (!existingTeams.isEmpty()) {
-            teamRepository.deleteAll(existingTeams);
-        }
-        match.getTeams().clear();
         resetDraftState(match);
+        match.getTeams().clear();
+        teamRepository.deleteByMatchId(matchId);
         
         // Generate teams
+        List<Team> teams;
         if (match.isAutoSelection()) {
-            log.info("Generating auto teams");
-            generateAutoTeams(match, availablePlayers);
+            log.info("Generating auto teams for match {} from {} players", matchId, availablePlayers.size());
+            teams = teamGenerator.generateAutoTeams(match, availablePlayers);
             match.setStatus(MatchStatus.TEAMS_SELECTED);
         } else {
-            log.info("Generating manual teams");
-            generateManualTeams(match, availablePlayers);
+            log.info("Generating manual teams for match {} from {} players", matchId, availablePlayers.size());
+            teams = teamGenerator.generateManualTeams(match, availablePlayers);
             match.setStatus(MatchStatus.TEAMS_MANUALLY_SELECTED);
         }
-        return matchRepository.save(match);
+        Match savedMatch = matchRepository.save(match);
+
+        // Queued on the push outbox, so captains are only notified once the teams are committed
+        notifyCaptainsAssigned(savedMatch, teams);
+        eventPublisher.publishEvent(MatchUpdated.of(matchUpdateSequencer.next(matchId), "TEAMS_GENERATED",
+                "Teams have been generated successfully"));
+        return savedMatch;
     }
 
     @Override
@@ -493,18 +568,9 @@ public class MatchService implements IMatchService {
         }
         
         if (!match.isAutoSelection()) {
-            if (!Boolean.TRUE.equals(match.getDraftInProgress())) {
-                throw new BadRequestException("Manual draft is not in progress for this match");
-            }
-
-            if (!teamId.equals(match.getCurrentPickingTeamId())) {
-                throw new BadRequestException("It is not this team's turn to pick");
-            }
-
-            User currentUser = getCurrentUser();
-            if (team.getCaptain() == null || !team.getCaptain().getId().equals(currentUser.getId())) {
-                throw new BadRequestException("Only the current captain can select players during the draft");
-            }
+            // Manual drafts validate and write the pick under the match's row lock, then broadcast it after commit
+            draftService.pick(matchId, teamId, getCurrentUser().getId(), userId);
+            return;
         }
         
         User user = userRepository.findById(userId)
@@ -543,6 +609,10 @@ public class MatchService implements IMatchService {
 
         availability.setStatus(AvailabilityStatus.SELECTED);
         availabilityRepository.save(availability);
+
+        // Sequenced with the selection and broadcast once it commits
+        eventPublisher.publishEvent(MatchUpdated.playerSelected(matchUpdateSequencer.next(matchId),
+                teamId, userId, user.getFirstName() + " " + user.getLastName()));
         
         // Send push notification to the selected player
         try {
@@ -562,10 +632,6 @@ public class MatchService implements IMatchService {
             log.error("Error sending push notification for player selection", e);
             // Don't fail the selection if notification fails
         }
-        
-        if (!match.isAutoSelection()) {
-            advanceDraft(match, teamId);
-        }
 
     }
 
@@ -585,6 +651,8 @@ public class MatchService implements IMatchService {
         String matchTitle = match.getTitle();
         
         teamPlayerRepository.delete(teamPlayer);
+        // Forget the draft pick too, so the player can be picked again
+        matchDraftPickRepository.deleteByMatchIdAndPlayerId(matchId, userId);
         
         // Update availability status back to available
         Availability availability = availabilityRepository.findByMatchIdAndUserId(matchId, userId)
@@ -725,6 +793,7 @@ public class MatchService implements IMatchService {
         
         match.setStatus(MatchStatus.IN_PROGRESS);
         matchRepository.save(match);
+        eventPublisher.publishEvent(MatchUpdated.of(matchUpdateSequencer.next(matchId), "MATCH_STARTED", "Match has started!"));
         
         // Send push notification to all players
         try {
@@ -770,6 +839,7 @@ public class MatchService implements IMatchService {
         
         match.setStatus(MatchStatus.COMPLETED);
         matchRepository.save(match);
+        eventPublisher.publishEvent(MatchUpdated.of(matchUpdateSequencer.next(matchId), "MATCH_COMPLETED", "Match has been completed!"));
         
         // Send push notification to all players
         try {
@@ -812,286 +882,31 @@ public class MatchService implements IMatchService {
                 .collect(Collectors.toList());
     }
 
-    private void generateAutoTeams(Match match, List<Availability> availablePlayers) {
-        // Shuffle players for random assignment
-        Collections.shuffle(availablePlayers);
-        
-        int playersPerTeam = match.getPlayersPerTeam();
-        int numTeams = availablePlayers.size() / playersPerTeam;
-        
-        // Create teams
-        for (int i = 0; i < numTeams; i++) {
-            Team team = Team.builder()
-                    .match(match)
-                    .name("Team " + (char)('A' + i))
-                    .color(getTeamColor(i))
-                    .build();
-
-            match.getTeams().add(team);
-            Team savedTeam = teamRepository.save(team);
-
-            User teamCaptain = null;
-
-            // Assign players to team
-            for (int j = 0; j < playersPerTeam; j++) {
-                int playerIndex = i * playersPerTeam + j;
-                if (playerIndex < availablePlayers.size()) {
-                    Availability availability = availablePlayers.get(playerIndex);
-
-                    if (teamCaptain == null) {
-                        teamCaptain = availability.getUser();
-                    }
-
-                    TeamPlayer teamPlayer = TeamPlayer.builder()
-                            .team(savedTeam)
-                            .user(availability.getUser())
-                            .teamAvailabilityStatus(TeamAvailabilityStatus.SELECTED)
-                            .isCaptain(j == 0) // First player is captain
-                            .build();
-
-                    teamPlayerRepository.save(teamPlayer);
-                    savedTeam.getPlayers().add(teamPlayer);
-                    availability.setStatus(AvailabilityStatus.SELECTED);
-                    availabilityRepository.save(availability);
-                }
+    private void notifyCaptainsAssigned(Match match, List<Team> teams) {
+        for (Team team : teams) {
+            if (team.getCaptain() == null) {
+                continue;
             }
-
-            if (teamCaptain != null) {
-                savedTeam.setCaptain(teamCaptain);
-                teamRepository.save(savedTeam);
-
-                // Send push notification to the auto-selected captain
-                try {
-                    Map<String, Object> data = new HashMap<>();
-                    data.put("type", "CAPTAIN_ASSIGNED");
-                    data.put("matchId", match.getId());
-                    data.put("teamId", savedTeam.getId());
-                    data.put("matchTitle", match.getTitle());
-                    data.put("teamName", savedTeam.getName());
-
-                    pushNotificationService.sendPushNotificationToUser(
-                            teamCaptain.getId().toString(),
-                            "You're Now a Captain!",
-                            "You have been assigned as captain of " + savedTeam.getName()
-                                    + " for " + match.getTitle(),
-                            data
-                    );
-                } catch (Exception e) {
-                    log.error("Error sending push notification for auto captain assignment", e);
-                    // Don't fail team generation if notification fails
-                }
-            }
-        }
-        
-        // Handle remaining players as reserves
-        int remainingPlayers = availablePlayers.size() % playersPerTeam;
-        if (remainingPlayers > 0) {
-            Team reserveTeam = Team.builder()
-                    .match(match)
-                    .name("Reserve Team")
-                    .color(getTeamColor(numTeams))
-                    .build();
-
-            match.getTeams().add(reserveTeam);
-            Team savedReserveTeam = teamRepository.save(reserveTeam);
-
-            for (int i = availablePlayers.size() - remainingPlayers; i < availablePlayers.size(); i++) {
-                Availability availability = availablePlayers.get(i);
-
-                TeamPlayer teamPlayer = TeamPlayer.builder()
-                        .team(savedReserveTeam)
-                        .user(availability.getUser())
-                        .teamAvailabilityStatus(TeamAvailabilityStatus.RESERVE)
-                        .isCaptain(false)
-                        .build();
-
-                teamPlayerRepository.save(teamPlayer);
-                savedReserveTeam.getPlayers().add(teamPlayer);
-                availability.setStatus(AvailabilityStatus.RESERVE);
-                availabilityRepository.save(availability);
-            }
-        }
-    }
-
-    private void generateManualTeams(Match match, List<Availability> availablePlayers) {
-        int playersPerTeam = match.getPlayersPerTeam();
-        int numTeams = (int) Math.floor((double) availablePlayers.size() / playersPerTeam);
-
-        if (numTeams < 2) {
-            throw new BadRequestException("Manual drafting requires at least two teams");
-        }
-
-        Random random = new Random();
-        List<UUID> draftOrder = new ArrayList<>();
-
-        for (int i = 0; i < numTeams; i++) {
-            Team team = Team.builder()
-                    .match(match)
-                    .name("Team " + (char)('A' + i))
-                    .color(getTeamColor(i))
-                    .build();
-
-            Team savedTeam = teamRepository.save(team);
-            match.getTeams().add(savedTeam);
-            draftOrder.add(savedTeam.getId());
-
-            if (availablePlayers.isEmpty()) {
-                throw new BadRequestException("Not enough players to assign captains");
-            }
-
-            int randomIndex = random.nextInt(availablePlayers.size());
-            Availability captainAvailability = availablePlayers.remove(randomIndex);
-            User captain = captainAvailability.getUser();
-
-            TeamPlayer teamPlayer = TeamPlayer.builder()
-                    .team(savedTeam)
-                    .user(captain)
-                    .teamAvailabilityStatus(TeamAvailabilityStatus.SELECTED)
-                    .isCaptain(true)
-                    .build();
-            teamPlayerRepository.save(teamPlayer);
-            savedTeam.getPlayers().add(teamPlayer);
-            savedTeam.setCaptain(captain);
-            teamRepository.save(savedTeam);
-
-            captainAvailability.setStatus(AvailabilityStatus.SELECTED);
-            availabilityRepository.save(captainAvailability);
-
-            // Send push notification to the manually-selected captain
             try {
                 Map<String, Object> data = new HashMap<>();
                 data.put("type", "CAPTAIN_ASSIGNED");
                 data.put("matchId", match.getId());
-                data.put("teamId", savedTeam.getId());
+                data.put("teamId", team.getId());
                 data.put("matchTitle", match.getTitle());
-                data.put("teamName", savedTeam.getName());
+                data.put("teamName", team.getName());
 
                 pushNotificationService.sendPushNotificationToUser(
-                        captain.getId().toString(),
+                        team.getCaptain().getId().toString(),
                         "You're Now a Captain!",
-                        "You have been assigned as captain of " + savedTeam.getName()
+                        "You have been assigned as captain of " + team.getName()
                                 + " for " + match.getTitle(),
                         data
                 );
             } catch (Exception e) {
-                log.error("Error sending push notification for manual captain assignment", e);
+                log.error("Error sending push notification for captain assignment", e);
                 // Don't fail team generation if notification fails
             }
         }
-
-        if (!draftOrder.isEmpty()) {
-            match.setManualDraftOrder(draftOrder.stream().map(UUID::toString).collect(Collectors.joining(",")));
-            match.setManualDraftIndex(0);
-            Team firstTeam = teamRepository.findById(draftOrder.get(0))
-                    .orElseThrow(() -> new BadRequestException("Team not found"));
-            match.setCurrentPickingTeam(firstTeam);
-            match.setDraftInProgress(true);
-        } else {
-            resetDraftState(match);
-        }
-    }
-
-    private void advanceDraft(Match match, UUID justPickedTeamId) {
-        List<UUID> draftOrder = parseDraftOrder(match);
-
-        if (draftOrder.isEmpty() || match.getPlayersPerTeam() == null) {
-            resetDraftState(match);
-            matchRepository.save(match);
-            return;
-        }
-
-        int currentIndex = match.getManualDraftIndex() == null ? 0 : match.getManualDraftIndex();
-        if (currentIndex < 0 || currentIndex >= draftOrder.size() || !Objects.equals(draftOrder.get(currentIndex), justPickedTeamId)) {
-            currentIndex = draftOrder.indexOf(justPickedTeamId);
-        }
-        if (currentIndex < 0) {
-            currentIndex = 0;
-        }
-
-        int playersPerTeam = match.getPlayersPerTeam();
-        int nextIndex = -1;
-
-        for (int offset = 1; offset <= draftOrder.size(); offset++) {
-            int candidateIndex = (currentIndex + offset) % draftOrder.size();
-            UUID candidateTeamId = draftOrder.get(candidateIndex);
-            Long count = teamPlayerRepository.countPlayersByTeamId(candidateTeamId);
-            if (count < playersPerTeam) {
-                nextIndex = candidateIndex;
-                break;
-            }
-        }
-
-        if (nextIndex == -1) {
-            match.setDraftInProgress(false);
-            match.setCurrentPickingTeam(null);
-            match.setManualDraftIndex(0);
-            match.setStatus(MatchStatus.TEAMS_SELECTED);
-            matchRepository.save(match);
-            assignReserveTeam(match);
-        } else {
-            match.setManualDraftIndex(nextIndex);
-            Team nextTeam = teamRepository.findById(draftOrder.get(nextIndex))
-                    .orElseThrow(() -> new BadRequestException("Team not found"));
-            match.setCurrentPickingTeam(nextTeam);
-            matchRepository.save(match);
-        }
-    }
-
-    private List<UUID> parseDraftOrder(Match match) {
-        String draftOrder = match.getManualDraftOrder();
-        if (draftOrder == null || draftOrder.isBlank()) {
-            return Collections.emptyList();
-        }
-        return Arrays.stream(draftOrder.split(","))
-                .filter(token -> !token.isBlank())
-                .map(String::trim)
-                .map(UUID::fromString)
-                .collect(Collectors.toList());
-    }
-
-    private void assignReserveTeam(Match match) {
-        List<Availability> remainingAvailabilities = availabilityRepository.findAvailablePlayers(match.getId());
-
-        if (remainingAvailabilities.isEmpty()) {
-            return;
-        }
-
-        Team reserveTeam = teamRepository.findByMatchIdAndName(match.getId(), "Reserve Team")
-                .orElseGet(() -> {
-                    Team newReserveTeam = Team.builder()
-                            .match(match)
-                            .name("Reserve Team")
-                            .color(getTeamColor(match.getTeams().size()))
-                            .build();
-                    Team saved = teamRepository.save(newReserveTeam);
-                    if (match.getTeams().stream().noneMatch(team -> team.getId().equals(saved.getId()))) {
-                        match.getTeams().add(saved);
-                    }
-                    return saved;
-                });
-
-        List<TeamPlayer> existingReservePlayers = teamPlayerRepository.findByTeamId(reserveTeam.getId());
-        if (!existingReservePlayers.isEmpty()) {
-            teamPlayerRepository.deleteAll(existingReservePlayers);
-            reserveTeam.getPlayers().clear();
-        }
-
-        for (Availability availability : remainingAvailabilities) {
-            TeamPlayer reservePlayer = TeamPlayer.builder()
-                    .team(reserveTeam)
-                    .user(availability.getUser())
-                    .teamAvailabilityStatus(TeamAvailabilityStatus.RESERVE)
-                    .isCaptain(false)
-                    .build();
-            teamPlayerRepository.save(reservePlayer);
-            reserveTeam.getPlayers().add(reservePlayer);
-
-            availability.setStatus(AvailabilityStatus.RESERVE);
-            availabilityRepository.save(availability);
-        }
-
-        teamRepository.save(reserveTeam);
-        matchRepository.save(match);
     }
 
     private void resetDraftState(Match match) {
@@ -1101,11 +916,6 @@ public class MatchService implements IMatchService {
         match.setManualDraftIndex(0);
     }
 
-    private String getTeamColor(int teamIndex) {
-        String[] colors = {"#FF6B6B", "#4ECDC4", "#45B7D1", "#96CEB4", "#FFEAA7", "#DDA0DD", "#F7CAC9", "#F7819F", "#92A8D1", "#A2D2FF", "#B1E19B", "#FFFFC7", "#F7A35C", "#FF6B6B", "#4ECDC4", "#45B7D1", "#96CEB4", "#FFEAA7", "#DDA0DD", "#F7CAC9", "#F7819F", "#92A8D1", "#A2D2FF", "#B1E19B", "#FFFFC7", "#F7A35C"};
-        return colors[teamIndex % colors.length];
-    }
-
     private boolean isUserMemberOfCommunity(UUID userId, UUID communityId) {
         if (userId == null || communityId == null) {
             return false;
@@ -1138,12 +948,11 @@ public class MatchService implements IMatchService {
         }
         
         // Check UserRoleContext first (if X-User-Role-Id header was provided)
-        UserRole currentUserRole = UserRoleContext.getCurrentUserRole();
-        if (currentUserRole != null && currentUserRole.isActive()) {
+        ActiveUserRole currentUserRole = UserRoleContext.getCurrentUserRole();
+        if (currentUserRole != null) {
             // Verify the role in context is COMMUNITY_MANAGER and matches the community
-            if ("COMMUNITY_MANAGER".equals(currentUserRole.getRole().getName())) {
-                if (currentUserRole.getCommunity() != null && 
-                    currentUserRole.getCommunity().getId().equals(communityId)) {
+            if ("COMMUNITY_MANAGER".equals(currentUserRole.roleName())) {
+                if (communityId.equals(currentUserRole.communityId())) {
                     log.debug("User {} has COMMUNITY_MANAGER role for community {} in context", 
                         currentUser.getId(), communityId);
                     return;
@@ -1185,8 +994,7 @@ public class MatchService implements IMatchService {
         }
         
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
         
         throw new BadRequestException("Invalid authentication principal type: " + 
@@ -1215,10 +1023,8 @@ public class MatchService implements IMatchService {
             communityMemberRepository.save(communityMember);
         }
 
-        // Check if the person is around 0.5 mile radius of the community using the longitude and latitude of the community
-        if (!isUserInRadius(currentUser.getId(), match.getCommunity().getLongitude(), match.getCommunity().getLatitude())) {
-            throw new BadRequestException("Please be within one mile radius of the community to mark availability");
-        }
+        // Check that the person is within the join radius of where the match is played
+        checkJoinRadius(request.getUserLatitude(), request.getUserLongitude(), match, "mark availability");
         
         // Create new availability
         Availability availability = Availability.builder()
@@ -1250,10 +1056,9 @@ public class MatchService implements IMatchService {
             throw new BadRequestException("Cannot join a cancelled or completed match");
         }
 
-        // Optional: ensure the user is within the allowed radius of the community
-        if (!isUserInRadius(currentUser.getId(), match.getCommunity().getLongitude(), match.getCommunity().getLatitude())) {
-            throw new BadRequestException("Please be within one mile radius of the community to join this match");
-        }
+        // Ensure the user is within the allowed radius of where the match is played
+        checkJoinRadius(request != null ? request.getUserLatitude() : null,
+                request != null ? request.getUserLongitude() : null, match, "join this match");
 
         // Prevent duplicate joins (separate from availability)
         if (matchRegistrationRepository.existsByMatchIdAndUserId(matchId, currentUser.getId())) {
@@ -1324,23 +1129,28 @@ public class MatchService implements IMatchService {
                     throw new BadRequestException("Wallet currency (" + userWallet.getCurrency() + ") does not match match currency (" + match.getCurrency() + ")");
                 }
 
-                if (userWallet.getBalance().compareTo(expectedAmount) < 0) {
-                    throw new BadRequestException("Insufficient wallet balance. Required: " + expectedAmount + " " + match.getCurrency() + ", Available: " + userWallet.getBalance() + " " + userWallet.getCurrency());
+                // Conditional debit in the database: concurrent joins from the same wallet cannot
+                // lose updates or overdraw it, and a retried join is charged at most once
+                WalletLedgerResult debit = walletLedgerService.debit(WalletLedgerEntry.builder()
+                        .walletId(userWallet.getId())
+                        .amount(expectedAmount)
+                        .type(TransactionType.MATCH_PAYMENT)
+                        .matchId(match.getId())
+                        .description("Match fee payment for " + match.getTitle())
+                        .idempotencyKey("match-fee:" + match.getId() + ":" + currentUser.getId())
+                        .build());
+                // The fee is debited in the same transaction as the registration, so a replayed
+                // debit means a join that raced this one has already registered the player
+                if (debit.replayed()) {
+                    throw new BadRequestException("You have already joined this match");
                 }
-
-                // Deduct from wallet
-                userWallet.setBalance(userWallet.getBalance().subtract(expectedAmount));
-                walletRepository.save(userWallet);
-
-                // Create transaction record for wallet deduction
-                transactionService.recordMatchPayment(
-                        currentUser,
-                        userWallet,
-                        null, // no payment entity for wallet transactions
-                        match,
-                        expectedAmount.negate(), // negative amount for deduction
-                        match.getCurrency(),
-                        "Match fee payment for " + match.getTitle()
+                principalCacheService.evictUser(currentUser.getEmail());
+                transactionService.notifyTransactionRecorded(
+                        currentUser.getId(),
+                        debit.transactionId(),
+                        TransactionType.MATCH_PAYMENT,
+                        expectedAmount.negate(),
+                        debit.currency()
                 );
 
                 // Create event booking for wallet payment (without payment entity)
@@ -1401,8 +1211,8 @@ public class MatchService implements IMatchService {
         }
 
         // Send push notification to all players that the user has joined the match
-        List<User> players = matchRegistrationRepository.findUsersByMatchId(matchId);
-        if (!players.isEmpty()) {
+        List<UUID> playerIds = matchRegistrationRepository.findUserIdsByMatchId(matchId);
+        if (!playerIds.isEmpty()) {
             String joiningUserName = (currentUser.getFirstName() != null ? currentUser.getFirstName() : "") +
                     (currentUser.getLastName() != null ? " " + currentUser.getLastName() : "");
 
@@ -1411,24 +1221,34 @@ public class MatchService implements IMatchService {
             data.put("matchId", matchId);
             data.put("joiningUserId", currentUser.getId());
 
-            for (User player : players) {
-                // Don't send a push notification to the user who initiated the join
-                if (!player.getId().equals(currentUser.getId())) {
-                    pushNotificationService.sendPushNotificationToUser(
-                            player.getId().toString(),
-                            "Player Joined Match",
-                            joiningUserName.trim() + " has joined " + match.getTitle(),
-                            data
-                    );
-                }
-            }
+            // Don't send a push notification to the user who initiated the join
+            pushNotificationService.sendMulticastNotification(
+                    playerIds,
+                    List.of(currentUser.getId()),
+                    "Player Joined Match",
+                    joiningUserName.trim() + " has joined " + match.getTitle(),
+                    data
+            );
         }
     }
 
-    private boolean isUserInRadius(UUID userId, BigDecimal longitude, BigDecimal latitude) {
-        // This would need to be implemented based on your location service logic
-        // For now, return true - you can implement proper location check
-        return true;
+    /**
+     * The match's own coordinates are checked, falling back to its community's. The user's location
+     * is required whenever the match has one.
+     */
+    private void checkJoinRadius(BigDecimal userLatitude, BigDecimal userLongitude, Match match, String action) {
+        GeoPoint location = GeoPoint.of(match.getLatitude(), match.getLongitude());
+        if (location == null && match.getCommunity() != null) {
+            location = GeoPoint.of(match.getCommunity().getLatitude(), match.getCommunity().getLongitude());
+        }
+        if (geoSearch.isWithinJoinRadius(userLatitude, userLongitude, location)) {
+            return;
+        }
+        if (userLatitude == null || userLongitude == null) {
+            throw new BadRequestException("Your location is required to " + action);
+        }
+        String radius = BigDecimal.valueOf(geoSearch.getJoinRadiusKm()).stripTrailingZeros().toPlainString();
+        throw new BadRequestException("Please be within " + radius + " km of where the match is played to " + action);
     }
     
     /**
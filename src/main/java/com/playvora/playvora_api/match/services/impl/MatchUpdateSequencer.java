@@ -0,0 +1,41 @@
+package com.playvora.playvora_api.match.services.impl;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.match.dtos.websocket.MatchDraftState;
+import com.playvora.playvora_api.match.repo.MatchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Hands out the per-match sequence numbers stamped on real-time updates.
+ * The counter lives on the match row so it is shared by every node and survives restarts.
+ */
+@Component
+@RequiredArgsConstructor
+public class MatchUpdateSequencer {
+
+    private final MatchRepository matchRepository;
+
+    /**
+     * Increment the match's sequence and return it together with the match's current draft state.
+     * Called from the transaction that makes the change, so the sequence commits or rolls back with
+     * it. The increment holds the row lock until commit, so concurrent callers are serialised and the
+     * state returned for sequence N includes every change committed before N was issued.
+     */
+    @Transactional
+    public MatchDraftState next(UUID matchId) {
+        if (matchRepository.incrementUpdateSequence(matchId) == 0) {
+            throw new BadRequestException("Match not found");
+        }
+        return current(matchId);
+    }
+
+    @Transactional(readOnly = true)
+    public MatchDraftState current(UUID matchId) {
+        return matchRepository.findDraftStateById(matchId)
+                .orElseThrow(() -> new BadRequestException("Match not found"));
+    }
+}
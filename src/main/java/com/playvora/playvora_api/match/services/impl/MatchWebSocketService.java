@@ -1,25 +1,28 @@
 package com.playvora.playvora_api.match.services.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.chat.dtos.ChatNotification;
+import com.playvora.playvora_api.chat.enums.ChatType;
+import com.playvora.playvora_api.chat.events.ChatMessageSent;
+import com.playvora.playvora_api.match.draft.DraftPick;
 import com.playvora.playvora_api.match.dtos.chat.ChatMessageRequest;
 import com.playvora.playvora_api.match.dtos.chat.ChatMessageResponse;
-import com.playvora.playvora_api.match.dtos.websocket.MatchUpdateMessage;
+import com.playvora.playvora_api.match.dtos.websocket.MatchDeltaMessage;
+import com.playvora.playvora_api.match.dtos.websocket.MatchDraftState;
+import com.playvora.playvora_api.match.dtos.websocket.MatchSnapshotMessage;
 import com.playvora.playvora_api.match.dtos.websocket.PlayerSelectionRequest;
-import com.playvora.playvora_api.match.dtos.websocket.TeamSelectionMessage;
 import com.playvora.playvora_api.match.dtos.websocket.WebSocketMessage;
 import com.playvora.playvora_api.match.entities.ChatMessage;
 import com.playvora.playvora_api.match.entities.Match;
-import com.playvora.playvora_api.match.entities.MatchChatReadState;
+import com.playvora.playvora_api.match.events.MatchUpdated;
 import com.playvora.playvora_api.match.mappers.MatchEventMapper;
 import com.playvora.playvora_api.match.repo.AvailabilityRepository;
 import com.playvora.playvora_api.match.repo.ChatMessageRepository;
-import com.playvora.playvora_api.match.repo.MatchChatReadStateRepository;
 import com.playvora.playvora_api.match.repo.MatchRegistrationRepository;
 import com.playvora.playvora_api.match.repo.MatchRepository;
 import com.playvora.playvora_api.match.repo.TeamRepository;
+import com.playvora.playvora_api.match.services.IDraftService;
 import com.playvora.playvora_api.match.services.IMatchService;
 import com.playvora.playvora_api.match.services.IMatchWebSocketService;
 import com.playvora.playvora_api.notification.services.IPushNotificationService;
@@ -27,10 +30,12 @@ import com.playvora.playvora_api.user.entities.User;
 import com.playvora.playvora_api.user.repo.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -60,10 +65,11 @@ public class MatchWebSocketService implements IMatchWebSocketService {
     private final MatchRepository matchRepository;
     private final ChatMessageRepository chatMessageRepository;
     private final MatchRegistrationRepository matchRegistrationRepository;
-    private final MatchChatReadStateRepository matchChatReadStateRepository;
     private final IPushNotificationService pushNotificationService;
+    private final ApplicationEventPublisher eventPublisher;
     private final SimpMessagingTemplate messagingTemplate;
-    private final ObjectMapper objectMapper;
+    private final MatchUpdateSequencer matchUpdateSequencer;
+    private final IDraftService draftService;
 
     @Override
     public void selectPlayer(UUID matchId,
@@ -74,117 +80,16 @@ public class MatchWebSocketService implements IMatchWebSocketService {
             log.info("User {} selecting player {} for team {} in match {}",
                     currentUser.getId(), request.getUserId(), request.getTeamId(), matchId);
 
-            // Double-check SecurityContext is set (should be set by getCurrentUser)
-            org.springframework.security.core.Authentication authCheck =
-                    SecurityContextHolder.getContext().getAuthentication();
-            if (authCheck == null) {
-                log.error("✗✗✗ SecurityContext is NULL after getCurrentUser! Setting it now...");
-                // Try to get authentication from headerAccessor and set it
-                if (headerAccessor != null && headerAccessor.getUser() != null) {
-                    Object userObj = headerAccessor.getUser();
-                    if (userObj instanceof org.springframework.security.core.Authentication) {
-                        SecurityContextHolder.getContext().setAuthentication(
-                                (org.springframework.security.core.Authentication) userObj);
-                        log.info("✓ SecurityContext set from headerAccessor as fallback");
-                    }
-                }
-            } else {
-                log.info("✓ SecurityContext verified - Authentication exists (user: {})", authCheck.getName());
-            }
-
             // Validate request
             if (!request.getMatchId().equals(matchId)) {
                 throw new BadRequestException("Match ID mismatch");
             }
 
-            matchService.selectPlayerForTeam(matchId, request.getTeamId(), request.getUserId());
-
-            // Get updated match data with all relationships loaded
-            Match match = loadMatchWithRelationships(matchId);
-
-            var matchResponse = MatchEventMapper.convertToResponse(match);
-            var user = userRepository.findById(request.getUserId())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
-
-            // Create and send update message
-            TeamSelectionMessage message = TeamSelectionMessage.builder()
-                    .action("SELECT_PLAYER")
-                    .matchId(matchId)
-                    .teamId(request.getTeamId())
-                    .userId(request.getUserId())
-                    .userName(user.getFirstName() + " " + user.getLastName())
-                    .teamName("Team " + request.getTeamId())
-                    .message(user.getFirstName() + " " + user.getLastName() + " has been selected for the team")
-                    .data(matchResponse)
-                    .build();
-
-            // Broadcast to all subscribers of this match
-            String topic = "/topic/match/" + matchId + "/updates";
-            WebSocketMessage wsMessage = WebSocketMessage.create("team_selection", message);
-
-            // Send the message
-            try {
-                // Convert and send the message
-                messagingTemplate.convertAndSend(topic, wsMessage);
-                log.info("✓ WebSocket broadcast sent to topic={} type={} matchId={}",
-                        topic, wsMessage.getType(), matchId);
-
-                // Send push notification to all other participants in the match
-                try {
-                    var registeredUsers = matchRegistrationRepository.findUsersByMatchId(matchId);
-                    List<String> participantUserIds = registeredUsers.stream()
-                            .map(u -> u.getId().toString())
-                            // Don't notify the user who made the selection
-                            .filter(id -> !id.equals(currentUser.getId().toString()))
-                            // Don't notify the player who was just selected (they get a direct push already)
-                            .filter(id -> !id.equals(request.getUserId().toString()))
-                            .collect(Collectors.toList());
-
-                    if (!participantUserIds.isEmpty()) {
-                        String selectorName = currentUser.getFirstName() + " " + currentUser.getLastName();
-                        String selectedPlayerName = user.getFirstName() + " " + user.getLastName();
-
-                        String notificationTitle = "Team updated for " + match.getTitle();
-                        String notificationBody = selectorName + " selected " + selectedPlayerName +
-                                " for Team " + request.getTeamId();
-
-                        Map<String, Object> notificationData = new java.util.HashMap<>();
-                        notificationData.put("type", "PLAYER_SELECTED_TEAM_UPDATE");
-                        notificationData.put("matchId", matchId.toString());
-                        notificationData.put("teamId", request.getTeamId().toString());
-                        notificationData.put("selectedUserId", request.getUserId().toString());
-                        notificationData.put("selectedUserName", selectedPlayerName);
-                        notificationData.put("selectorId", currentUser.getId().toString());
-                        notificationData.put("selectorName", selectorName);
-
-                        pushNotificationService.sendPushNotificationToUsers(
-                                participantUserIds,
-                                notificationTitle,
-                                notificationBody,
-                                notificationData
-                        );
-
-                        log.info("Push notifications sent to {} participants for team selection",
-                                participantUserIds.size());
-                    }
-                } catch (Exception pushError) {
-                    log.error("Error sending push notifications for team selection: {}",
-                            pushError.getMessage(), pushError);
-                    // Don't fail the WebSocket operation if push notification fails
-                }
-
-                // Verify the message was serialized correctly
-                try {
-                    String jsonMessage = objectMapper.writeValueAsString(wsMessage);
-                    log.info("Message JSON (first 500 chars): {}",
-                            jsonMessage.length() > 500 ? jsonMessage.substring(0, 500) + "..." : jsonMessage);
-                } catch (Exception jsonError) {
-                    log.warn("Could not serialize message to JSON for logging: {}", jsonError.getMessage());
-                }
-            } catch (Exception e) {
-                log.error("✗ Error broadcasting match update: {}", e.getMessage(), e);
-                log.error("Error stack trace:", e);
-                throw e;
+            if (draftService.isLiveDraft(matchId)) {
+                // Validated and written under the match's row lock, then broadcast after commit (see onDraftPick)
+                draftService.pick(matchId, request.getTeamId(), currentUser.getId(), request.getUserId());
+            } else {
+                selectPlayerOutsideDraft(matchId, request, currentUser);
             }
 
             // Send confirmation to the user who made the selection
@@ -211,35 +116,66 @@ public class MatchWebSocketService implements IMatchWebSocketService {
         }
     }
 
+    /**
+     * Selection for auto-selection matches, which have no draft session. The selection is broadcast
+     * after commit (see onMatchUpdated).
+     */
+    private void selectPlayerOutsideDraft(UUID matchId, PlayerSelectionRequest request, User currentUser) {
+        matchService.selectPlayerForTeam(matchId, request.getTeamId(), request.getUserId());
+
+        var user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new BadRequestException("User not found"));
+        String selectedPlayerName = user.getFirstName() + " " + user.getLastName();
+
+        // Send push notification to all other participants in the match
+        try {
+            List<UUID> participantUserIds = matchRegistrationRepository.findUserIdsByMatchId(matchId);
+
+            if (!participantUserIds.isEmpty()) {
+                String selectorName = currentUser.getFirstName() + " " + currentUser.getLastName();
+
+                String notificationTitle = "Team updated for " + matchUpdateSequencer.current(matchId).title();
+                String notificationBody = selectorName + " selected " + selectedPlayerName +
+                        " for Team " + request.getTeamId();
+
+                Map<String, Object> notificationData = new java.util.HashMap<>();
+                notificationData.put("type", "PLAYER_SELECTED_TEAM_UPDATE");
+                notificationData.put("matchId", matchId.toString());
+                notificationData.put("teamId", request.getTeamId().toString());
+                notificationData.put("selectedUserId", request.getUserId().toString());
+                notificationData.put("selectedUserName", selectedPlayerName);
+                notificationData.put("selectorId", currentUser.getId().toString());
+                notificationData.put("selectorName", selectorName);
+
+                // Don't notify the user who made the selection, nor the player who was
+                // just selected (they get a direct push already)
+                pushNotificationService.sendMulticastNotification(
+                        participantUserIds,
+                        List.of(currentUser.getId(), request.getUserId()),
+                        notificationTitle,
+                        notificationBody,
+                        notificationData
+                );
+
+                log.info("Push notifications queued for {} participants for team selection",
+                        participantUserIds.size());
+            }
+        } catch (Exception pushError) {
+            log.error("Error sending push notifications for team selection: {}",
+                    pushError.getMessage(), pushError);
+            // Don't fail the WebSocket operation if push notification fails
+        }
+    }
+
     @Override
     public void generateTeams(UUID matchId, SimpMessageHeaderAccessor headerAccessor) {
         try {
             User currentUser = getCurrentUser(headerAccessor);
             log.info("User {} generating teams for match {}", currentUser.getId(), matchId);
 
-            // Perform team generation
+            // Perform team generation; broadcast after commit (see onMatchUpdated)
             matchService.generateTeams(matchId);
 
-            // Get updated match data with all relationships loaded
-            Match match = loadMatchWithRelationships(matchId);
-
-            var matchResponse = MatchEventMapper.convertToResponse(match);
-
-            // Create and send update message
-            MatchUpdateMessage message = MatchUpdateMessage.builder()
-                    .action("TEAMS_GENERATED")
-                    .matchId(matchId)
-                    .matchTitle(match.getTitle())
-                    .status(match.getStatus())
-                    .message("Teams have been generated successfully")
-                    .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
-                    .data(matchResponse)
-                    .build();
-
-            // Broadcast to all subscribers of this match
-            messagingTemplate.convertAndSend("/topic/match/" + matchId + "/updates",
-                    WebSocketMessage.create("match_update", message));
-
         } catch (Exception e) {
             log.error("Error generating teams: {}", e.getMessage());
 
@@ -258,29 +194,9 @@ public class MatchWebSocketService implements IMatchWebSocketService {
             User currentUser = getCurrentUser(headerAccessor);
             log.info("User {} starting match {}", currentUser.getId(), matchId);
 
-            // Start the match
+            // Start the match; broadcast after commit (see onMatchUpdated)
             matchService.startMatch(matchId);
 
-            // Get updated match data with all relationships loaded
-            Match match = loadMatchWithRelationships(matchId);
-
-            var matchResponse = MatchEventMapper.convertToResponse(match);
-
-            // Create and send update message
-            MatchUpdateMessage message = MatchUpdateMessage.builder()
-                    .action("MATCH_STARTED")
-                    .matchId(matchId)
-                    .matchTitle(match.getTitle())
-                    .status(match.getStatus())
-                    .message("Match has started!")
-                    .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
-                    .data(matchResponse)
-                    .build();
-
-            // Broadcast to all subscribers of this match
-            messagingTemplate.convertAndSend("/topic/match/" + matchId + "/updates",
-                    WebSocketMessage.create("match_update", message));
-
         } catch (Exception e) {
             log.error("Error starting match: {}", e.getMessage());
 
@@ -299,29 +215,9 @@ public class MatchWebSocketService implements IMatchWebSocketService {
             User currentUser = getCurrentUser(headerAccessor);
             log.info("User {} completing match {}", currentUser.getId(), matchId);
 
-            // Complete the match
+            // Complete the match; broadcast after commit (see onMatchUpdated)
             matchService.completeMatch(matchId);
 
-            // Get updated match data with all relationships loaded
-            Match match = loadMatchWithRelationships(matchId);
-
-            var matchResponse = MatchEventMapper.convertToResponse(match);
-
-            // Create and send update message
-            MatchUpdateMessage message = MatchUpdateMessage.builder()
-                    .action("MATCH_COMPLETED")
-                    .matchId(matchId)
-                    .matchTitle(match.getTitle())
-                    .status(match.getStatus())
-                    .message("Match has been completed!")
-                    .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
-                    .data(matchResponse)
-                    .build();
-
-            // Broadcast to all subscribers of this match
-            messagingTemplate.convertAndSend("/topic/match/" + matchId + "/updates",
-                    WebSocketMessage.create("match_update", message));
-
         } catch (Exception e) {
             log.error("Error completing match: {}", e.getMessage());
 
@@ -334,6 +230,58 @@ public class MatchWebSocketService implements IMatchWebSocketService {
         }
     }
 
+    /**
+     * Broadcast a draft pick once the transaction that wrote it has committed, so a pick that is
+     * rolled back is never seen by clients.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDraftPick(DraftPick pick) {
+        broadcastDelta(MatchDeltaMessage.builder()
+                .sequence(pick.sequence())
+                .action("PLAYER_SELECTED")
+                .matchId(pick.matchId())
+                .teamId(pick.teamId())
+                .userId(pick.playerId())
+                .userName(pick.playerName())
+                .currentPickingTeamId(pick.currentPickingTeamId())
+                .draftInProgress(pick.draftInProgress())
+                .status(pick.status())
+                .message(pick.playerName() + " has been selected for the team")
+                .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
+                .build());
+    }
+
+    /**
+     * Broadcast a change made outside a manual draft once the transaction that sequenced it has
+     * committed, so sequences reach clients only for changes that were persisted.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatchUpdated(MatchUpdated update) {
+        MatchDeltaMessage.MatchDeltaMessageBuilder delta = deltaBuilder(update.state(), update.action())
+                .teamId(update.teamId())
+                .userId(update.userId())
+                .userName(update.userName())
+                .message(update.message());
+        if ("TEAMS_GENERATED".equals(update.action())) {
+            // Generation replaces every team at once, so this delta carries a full snapshot. It is
+            // loaded after the sequence was taken, so it is at least as new as it.
+            delta.snapshot(MatchEventMapper.convertToResponse(loadMatchWithRelationships(update.state().matchId())));
+        }
+        broadcastDelta(delta.build());
+    }
+
+    @Override
+    public MatchSnapshotMessage getSnapshot(UUID matchId) {
+        // Read the sequence first: the state loaded afterwards may already include later changes,
+        // which is harmless because deltas are idempotent, whereas the reverse order could miss one
+        long sequence = matchUpdateSequencer.current(matchId).sequence();
+        var matchResponse = MatchEventMapper.convertToResponse(loadMatchWithRelationships(matchId));
+        return MatchSnapshotMessage.builder()
+                .sequence(sequence)
+                .match(matchResponse)
+                .build();
+    }
+
     @Override
     public void sendChatMessage(UUID matchId,
                                 ChatMessageRequest request,
@@ -365,15 +313,9 @@ public class MatchWebSocketService implements IMatchWebSocketService {
                     .build();
             chatMessage = chatMessageRepository.save(chatMessage);
 
-            // Update read state for sender - they have read up to this message
-            MatchChatReadState senderReadState = matchChatReadStateRepository
-                    .findByUserIdAndMatchId(currentUser.getId(), matchId)
-                    .orElse(MatchChatReadState.builder()
-                            .user(currentUser)
-                            .match(match)
-                            .build());
-            senderReadState.setLastReadAt(chatMessage.getCreatedAt());
-            matchChatReadStateRepository.save(senderReadState);
+            // The sender's read marker and every participant's inbox row are updated off the send path
+            eventPublisher.publishEvent(new ChatMessageSent(ChatType.MATCH_EVENT, matchId, currentUser.getId(),
+                    chatMessage.getMessage(), chatMessage.getCreatedAt()));
 
             // Convert to response DTO
             String senderName = currentUser.getFirstName() + " " + currentUser.getLastName();
@@ -396,9 +338,10 @@ public class MatchWebSocketService implements IMatchWebSocketService {
 
             log.info("Chat message broadcasted to topic: {}", topic);
 
+            var registeredUsers = matchRegistrationRepository.findUsersByMatchId(matchId);
+
             // Send chat notifications to all registered participants except sender
             try {
-                var registeredUsers = matchRegistrationRepository.findUsersByMatchId(matchId);
                 for (var user : registeredUsers) {
                     if (!user.getId().equals(currentUser.getId())) {
                         sendChatNotification(ChatNotification.ChatType.MATCH_EVENT, matchId, chatMessage.getId(),
@@ -410,14 +353,11 @@ public class MatchWebSocketService implements IMatchWebSocketService {
                 log.error("Error sending chat notifications for match chat: {}", e.getMessage(), e);
             }
 
-            // Get all registered participants in the match (excluding sender)
-            var registeredUsers = matchRegistrationRepository.findUsersByMatchId(matchId);
-            List<String> participantUserIds = registeredUsers.stream()
-                    .map(user -> user.getId().toString())
-                    .filter(userId -> !userId.equals(currentUser.getId().toString()))
+            // Send push notifications to all registered participants except sender
+            List<UUID> participantUserIds = registeredUsers.stream()
+                    .map(User::getId)
                     .collect(Collectors.toList());
 
-            // Send push notifications to all participants except sender
             if (!participantUserIds.isEmpty()) {
                 String notificationTitle = "New message in " + match.getTitle();
                 String notificationBody = senderName + ": " + request.getMessage();
@@ -430,13 +370,14 @@ public class MatchWebSocketService implements IMatchWebSocketService {
                 notificationData.put("senderName", senderName);
 
                 try {
-                    pushNotificationService.sendPushNotificationToUsers(
+                    pushNotificationService.sendMulticastNotification(
                             participantUserIds,
+                            List.of(currentUser.getId()),
                             notificationTitle,
                             notificationBody,
                             notificationData
                     );
-                    log.info("Push notifications sent to {} participants", participantUserIds.size());
+                    log.info("Push notifications queued for {} participants", participantUserIds.size());
                 } catch (Exception e) {
                     log.error("Error sending push notifications: {}", e.getMessage(), e);
                     // Don't fail the chat message if push notification fails
@@ -461,6 +402,23 @@ public class MatchWebSocketService implements IMatchWebSocketService {
         }
     }
 
+    private MatchDeltaMessage.MatchDeltaMessageBuilder deltaBuilder(MatchDraftState state, String action) {
+        return MatchDeltaMessage.builder()
+                .sequence(state.sequence())
+                .action(action)
+                .matchId(state.matchId())
+                .currentPickingTeamId(state.currentPickingTeamId())
+                .draftInProgress(state.draftInProgress())
+                .status(state.status())
+                .timestamp(OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    private void broadcastDelta(MatchDeltaMessage delta) {
+        messagingTemplate.convertAndSend("/topic/match/" + delta.getMatchId() + "/updates",
+                WebSocketMessage.create("match_delta", delta));
+        log.debug("Broadcast {} #{} for match {}", delta.getAction(), delta.getSequence(), delta.getMatchId());
+    }
+
     /**
      * Loads a Match entity with all necessary relationships eagerly fetched to avoid lazy loading issues.
      * This method loads:
@@ -541,14 +499,14 @@ public class MatchWebSocketService implements IMatchWebSocketService {
      * Resolve the current authenticated {@link User} from WebSocket headers / session and SecurityContext.
      */
     private User getCurrentUser(SimpMessageHeaderAccessor headerAccessor) {
-        log.info("getCurrentUser called - Session ID: {}", headerAccessor != null ? headerAccessor.getSessionId() : "null");
+        log.debug("getCurrentUser called - Session ID: {}", headerAccessor != null ? headerAccessor.getSessionId() : "null");
 
         org.springframework.security.core.Authentication authentication = null;
 
         // CRITICAL: Always try headerAccessor first - this is set by the interceptor
         if (headerAccessor != null) {
             java.security.Principal principal = headerAccessor.getUser();
-            log.info("HeaderAccessor.getUser() returned: {}", principal != null ? principal.getClass().getName() : "null");
+            log.debug("HeaderAccessor.getUser() returned: {}", principal != null ? principal.getClass().getName() : "null");
 
             // The interceptor sets an Authentication object in headerAccessor.getUser()
             // UsernamePasswordAuthenticationToken implements both Principal and Authentication
@@ -556,12 +514,12 @@ public class MatchWebSocketService implements IMatchWebSocketService {
                 // Direct cast should work - interceptor sets Authentication here
                 if (principal instanceof org.springframework.security.core.Authentication) {
                     authentication = (org.springframework.security.core.Authentication) principal;
-                    log.info("✓ Direct cast successful - Authentication type: {}", authentication.getClass().getName());
+                    log.debug("✓ Direct cast successful - Authentication type: {}", authentication.getClass().getName());
                 } else {
                     // Try explicit cast as fallback
                     try {
                         authentication = org.springframework.security.core.Authentication.class.cast(principal);
-                        log.info("✓ Explicit cast successful - Authentication type: {}", authentication.getClass().getName());
+                        log.debug("✓ Explicit cast successful - Authentication type: {}", authentication.getClass().getName());
                     } catch (ClassCastException e) {
                         log.error("✗ Cannot cast principal to Authentication. Principal type: {}, Error: {}",
                                 principal.getClass().getName(), e.getMessage());
@@ -574,13 +532,13 @@ public class MatchWebSocketService implements IMatchWebSocketService {
                         Object authPrincipal = authentication.getPrincipal();
                         if (authPrincipal != null) {
                             String userName = authentication.getName();
-                            log.info("✓✓ Authentication is valid (user: {}, principal type: {})",
+                            log.debug("✓✓ Authentication is valid (user: {}, principal type: {})",
                                     userName, authPrincipal.getClass().getName());
 
                             // CRITICAL: Set authentication in SecurityContext for this thread
                             // This ensures any code that accesses SecurityContext will find it
                             SecurityContextHolder.getContext().setAuthentication(authentication);
-                            log.info("✓ Authentication set in SecurityContext from HeaderAccessor");
+                            log.debug("✓ Authentication set in SecurityContext from HeaderAccessor");
                         } else {
                             log.error("✗✗ Authentication exists but principal is NULL!");
                             authentication = null; // Reset if principal is null
@@ -595,20 +553,20 @@ public class MatchWebSocketService implements IMatchWebSocketService {
             // Fallback: Check session attributes if authentication not found or invalid
             if (authentication == null || authentication.getPrincipal() == null) {
                 Map<String, Object> sessionAttributes = headerAccessor.getSessionAttributes();
-                log.info("Checking session attributes - Available keys: {}",
+                log.debug("Checking session attributes - Available keys: {}",
                         sessionAttributes != null ? sessionAttributes.keySet() : "null");
 
                 if (sessionAttributes != null) {
                     Object authObj = sessionAttributes.get("authentication");
                     if (authObj instanceof org.springframework.security.core.Authentication) {
                         authentication = (org.springframework.security.core.Authentication) authObj;
-                        log.info("✓ Authentication retrieved from session attributes (user: {})",
+                        log.debug("✓ Authentication retrieved from session attributes (user: {})",
                                 authentication.getName());
                         // Update headerAccessor for consistency
                         headerAccessor.setUser(authentication);
                         // CRITICAL: Also set in SecurityContext
                         SecurityContextHolder.getContext().setAuthentication(authentication);
-                        log.info("✓ Authentication set in SecurityContext from session attributes");
+                        log.debug("✓ Authentication set in SecurityContext from session attributes");
                     }
                 }
             }
@@ -620,7 +578,7 @@ public class MatchWebSocketService implements IMatchWebSocketService {
                     SecurityContextHolder.getContext().getAuthentication();
             if (securityAuth != null) {
                 authentication = securityAuth;
-                log.info("✓ Authentication found in SecurityContext (user: {})", authentication.getName());
+                log.debug("✓ Authentication found in SecurityContext (user: {})", authentication.getName());
             } else {
                 log.warn("✗ SecurityContext.getAuthentication() is null");
             }
@@ -641,11 +599,11 @@ public class MatchWebSocketService implements IMatchWebSocketService {
             throw new BadRequestException("Invalid authentication: principal is null");
         }
 
-        log.info("Authentication principal type: {}", principal.getClass().getName());
+        log.debug("Authentication principal type: {}", principal.getClass().getName());
 
         // Extract user from principal
         if (principal instanceof AppUserDetail userDetail) {
-            log.info("Principal is AppUserDetail, email: {}", userDetail.getUsername());
+            log.debug("Principal is AppUserDetail, email: {}", userDetail.getUsername());
             return userRepository.findByEmail(userDetail.getUsername())
                     .orElseThrow(() -> new BadRequestException("User not found"));
         }
@@ -0,0 +1,279 @@
+package com.playvora.playvora_api.match.services.impl;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.community.dtos.MemberSkillRating;
+import com.playvora.playvora_api.community.repo.CommunityMemberRepository;
+import com.playvora.playvora_api.match.balancing.TeamBalancingProblem;
+import com.playvora.playvora_api.match.balancing.TeamBalancingStrategy;
+import com.playvora.playvora_api.match.dtos.PlayerPairing;
+import com.playvora.playvora_api.match.entities.Availability;
+import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.entities.Team;
+import com.playvora.playvora_api.match.entities.TeamPlayer;
+import com.playvora.playvora_api.match.enums.AvailabilityStatus;
+import com.playvora.playvora_api.match.enums.Gender;
+import com.playvora.playvora_api.match.enums.TeamAvailabilityStatus;
+import com.playvora.playvora_api.match.repo.TeamPlayerRepository;
+import com.playvora.playvora_api.match.repo.TeamRepository;
+import com.playvora.playvora_api.user.entities.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the teams of a match in memory and persists them in one go.
+ *
+ * Who plays with whom is decided by the match's {@link TeamBalancingStrategy}; this class turns the
+ * strategy's index-based answer into entities. Teams are saved with a single {@code saveAll}; their
+ * players follow through the cascade and the availability status changes are picked up by dirty
+ * checking, so nothing is flushed until the surrounding transaction commits. UUID ids are generated
+ * in memory, which lets Hibernate batch the inserts and updates ({@code hibernate.jdbc.batch_size},
+ * ordered inserts/updates) instead of issuing one statement per player.
+ */
+@Component
+@Slf4j
+public class TeamGenerator {
+
+    static final String RESERVE_TEAM_NAME = "Reserve Team";
+    private static final int DEFAULT_SKILL_RATING = 1000;
+
+    private static final String[] TEAM_COLORS = {"#FF6B6B", "#4ECDC4", "#45B7D1", "#96CEB4", "#FFEAA7", "#DDA0DD", "#F7CAC9", "#F7819F", "#92A8D1", "#A2D2FF", "#B1E19B", "#FFFFC7", "#F7A35C"};
+
+    private final TeamRepository teamRepository;
+    private final TeamPlayerRepository teamPlayerRepository;
+    private final CommunityMemberRepository communityMemberRepository;
+    private final Map<String, TeamBalancingStrategy> strategies;
+    private final String defaultStrategy;
+
+    public TeamGenerator(TeamRepository teamRepository,
+                         TeamPlayerRepository teamPlayerRepository,
+                         CommunityMemberRepository communityMemberRepository,
+                         List<TeamBalancingStrategy> strategies,
+                         @Value("${app.match.team-balancing.default-strategy:balanced}") String defaultStrategy) {
+        this.teamRepository = teamRepository;
+        this.teamPlayerRepository = teamPlayerRepository;
+        this.communityMemberRepository = communityMemberRepository;
+        this.strategies = strategies.stream()
+                .collect(Collectors.toUnmodifiableMap(TeamBalancingStrategy::name, Function.identity()));
+        if (!this.strategies.containsKey(defaultStrategy)) {
+            throw new IllegalStateException("Unknown default team balancing strategy: " + defaultStrategy);
+        }
+        this.defaultStrategy = defaultStrategy;
+    }
+
+    /**
+     * Check a strategy name from a request; null means the default.
+     *
+     * @return the name to store on the match
+     */
+    public String validateStrategy(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        if (!strategies.containsKey(name)) {
+            throw new BadRequestException("Unknown team balancing strategy: " + name
+                    + ". Available: " + String.join(", ", new TreeSet<>(strategies.keySet())));
+        }
+        return name;
+    }
+
+    /**
+     * Split the available players into full teams (the strategy picks the captains) and put any
+     * remainder into a reserve team.
+     *
+     * @return the persisted teams, reserve team last
+     */
+    public List<Team> generateAutoTeams(Match match, List<Availability> availablePlayers) {
+        int playersPerTeam = match.getPlayersPerTeam();
+        int numTeams = availablePlayers.size() / playersPerTeam;
+        TeamBalancingStrategy strategy = strategyFor(match);
+
+        long start = System.nanoTime();
+        int[][] assignment = strategy.assign(buildProblem(strategy, match, availablePlayers, numTeams, playersPerTeam));
+        log.debug("Team balancing '{}' for match {} ({} players) took {} us", strategy.name(), match.getId(),
+                availablePlayers.size(), (System.nanoTime() - start) / 1_000);
+
+        boolean[] assigned = new boolean[availablePlayers.size()];
+        List<Team> teams = new ArrayList<>(numTeams + 1);
+        for (int i = 0; i < assignment.length; i++) {
+            Team team = newTeam(match, "Team " + (char) ('A' + i), i);
+            int[] members = assignment[i];
+            for (int j = 0; j < members.length; j++) {
+                if (assigned[members[j]]) {
+                    throw new IllegalStateException("Strategy " + strategy.name() + " assigned a player twice");
+                }
+                assigned[members[j]] = true;
+                addPlayer(team, availablePlayers.get(members[j]), TeamAvailabilityStatus.SELECTED, j == 0);
+            }
+            team.setCaptain(availablePlayers.get(members[0]).getUser());
+            teams.add(team);
+        }
+
+        if (assignment.length * playersPerTeam < availablePlayers.size()) {
+            Team reserveTeam = newTeam(match, RESERVE_TEAM_NAME, assignment.length);
+            for (int p = 0; p < assigned.length; p++) {
+                if (!assigned[p]) {
+                    addPlayer(reserveTeam, availablePlayers.get(p), TeamAvailabilityStatus.RESERVE, false);
+                }
+            }
+            teams.add(reserveTeam);
+        }
+
+        return persist(match, teams);
+    }
+
+    /**
+     * Create one team per full squad with a captain chosen by the strategy and set up the draft
+     * order. The remaining players stay available for the captains to pick.
+     *
+     * @return the persisted teams, in draft order
+     */
+    public List<Team> generateManualTeams(Match match, List<Availability> availablePlayers) {
+        int playersPerTeam = match.getPlayersPerTeam();
+        int numTeams = availablePlayers.size() / playersPerTeam;
+
+        if (numTeams < 2) {
+            throw new BadRequestException("Manual drafting requires at least two teams");
+        }
+
+        TeamBalancingStrategy strategy = strategyFor(match);
+        int[] captains = strategy.selectCaptains(buildProblem(strategy, match, availablePlayers, numTeams, playersPerTeam));
+
+        List<Team> teams = new ArrayList<>(numTeams);
+        for (int i = 0; i < captains.length; i++) {
+            Availability captainAvailability = availablePlayers.get(captains[i]);
+            Team team = newTeam(match, "Team " + (char) ('A' + i), i);
+            addPlayer(team, captainAvailability, TeamAvailabilityStatus.SELECTED, true);
+            team.setCaptain(captainAvailability.getUser());
+            teams.add(team);
+        }
+
+        persist(match, teams);
+
+        match.setManualDraftOrder(teams.stream()
+                .map(Team::getId)
+                .map(UUID::toString)
+                .collect(Collectors.joining(",")));
+        match.setManualDraftIndex(0);
+        match.setCurrentPickingTeam(teams.get(0));
+        match.setDraftInProgress(true);
+        return teams;
+    }
+
+    /**
+     * Put the given players into the reserve team, persisting the team if it is new.
+     * The caller is responsible for clearing previous reserve players.
+     */
+    public void addReserves(Match match, Team reserveTeam, List<Availability> reserves) {
+        reserves.forEach(availability -> addPlayer(reserveTeam, availability, TeamAvailabilityStatus.RESERVE, false));
+        if (reserveTeam.getId() == null) {
+            persist(match, List.of(reserveTeam));
+        }
+    }
+
+    public Team newReserveTeam(Match match) {
+        return newTeam(match, RESERVE_TEAM_NAME, match.getTeams().size());
+    }
+
+    static String teamColor(int teamIndex) {
+        return TEAM_COLORS[teamIndex % TEAM_COLORS.length];
+    }
+
+    private TeamBalancingStrategy strategyFor(Match match) {
+        String name = match.getTeamBalancingStrategy();
+        TeamBalancingStrategy strategy = strategies.get(name == null ? defaultStrategy : name);
+        if (strategy == null) {
+            log.warn("Match {} uses unknown team balancing strategy '{}', falling back to '{}'",
+                    match.getId(), name, defaultStrategy);
+            strategy = strategies.get(defaultStrategy);
+        }
+        return strategy;
+    }
+
+    /**
+     * Ratings are the ones set in the match's community; players without one get the default.
+     */
+    private TeamBalancingProblem buildProblem(TeamBalancingStrategy strategy, Match match, List<Availability> players,
+                                              int numTeams, int playersPerTeam) {
+        int size = players.size();
+        int[] ratings = new int[size];
+        byte[] genders = new byte[size];
+        Map<UUID, Integer> indexByUser = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            User user = players.get(i).getUser();
+            ratings[i] = DEFAULT_SKILL_RATING;
+            genders[i] = genderCode(user.getGender());
+            indexByUser.put(user.getId(), i);
+        }
+        for (MemberSkillRating rating : communityMemberRepository.findSkillRatings(match.getCommunity().getId(),
+                indexByUser.keySet())) {
+            ratings[indexByUser.get(rating.userId())] = rating.skillRating();
+        }
+
+        int[] pairA = new int[0];
+        int[] pairB = new int[0];
+        int[] together = new int[0];
+        if (strategy.usesPairingHistory()) {
+            List<PlayerPairing> pairings = teamPlayerRepository.countPairings(indexByUser.keySet(),
+                    TeamAvailabilityStatus.SELECTED);
+            pairA = new int[pairings.size()];
+            pairB = new int[pairings.size()];
+            together = new int[pairings.size()];
+            for (int i = 0; i < pairings.size(); i++) {
+                PlayerPairing pairing = pairings.get(i);
+                pairA[i] = indexByUser.get(pairing.firstUserId());
+                pairB[i] = indexByUser.get(pairing.secondUserId());
+                together[i] = (int) Math.min(Integer.MAX_VALUE, pairing.timesTogether());
+            }
+        }
+
+        return TeamBalancingProblem.of(numTeams, playersPerTeam, ratings, genders, pairA, pairB, together,
+                ThreadLocalRandom.current().nextLong());
+    }
+
+    private static byte genderCode(String gender) {
+        if (Gender.MALE.name().equals(gender)) {
+            return TeamBalancingProblem.GENDER_MALE;
+        }
+        if (Gender.FEMALE.name().equals(gender)) {
+            return TeamBalancingProblem.GENDER_FEMALE;
+        }
+        return TeamBalancingProblem.GENDER_UNKNOWN;
+    }
+
+    private List<Team> persist(Match match, List<Team> teams) {
+        List<Team> saved = teamRepository.saveAll(teams);
+        match.getTeams().addAll(saved);
+        return saved;
+    }
+
+    private static Team newTeam(Match match, String name, int index) {
+        return Team.builder()
+                .match(match)
+                .name(name)
+                .color(teamColor(index))
+                .build();
+    }
+
+    private static void addPlayer(Team team, Availability availability, TeamAvailabilityStatus status, boolean captain) {
+        team.getPlayers().add(TeamPlayer.builder()
+                .team(team)
+                .user(availability.getUser())
+                .teamAvailabilityStatus(status)
+                .isCaptain(captain)
+                .build());
+        availability.setStatus(status == TeamAvailabilityStatus.RESERVE
+                ? AvailabilityStatus.RESERVE
+                : AvailabilityStatus.SELECTED);
+    }
+}
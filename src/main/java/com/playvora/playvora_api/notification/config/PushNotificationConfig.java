@@ -1,8 +1,10 @@
 package com.playvora.playvora_api.notification.config;
 
 import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.TimeUnit;
 
@@ -17,5 +19,26 @@ public class PushNotificationConfig {
                 .writeTimeout(30, TimeUnit.SECONDS)
                 .build();
     }
-}
 
+    /**
+     * Bounded worker pool used by the push notification dispatcher to call the Expo API.
+     * The queue is intentionally small: the dispatcher only claims as many outbox rows as the
+     * pool can accept, so unsent notifications wait in the database rather than on the heap.
+     * Not a default candidate, so Boot still auto-configures {@code applicationTaskExecutor} for
+     * everything else; inject it with {@code @Qualifier("pushNotificationExecutor")}.
+     */
+    @Bean(defaultCandidate = false)
+    public ThreadPoolTaskExecutor pushNotificationExecutor(
+            @Value("${expo.push.dispatcher.workers:4}") int workers,
+            @Value("${expo.push.dispatcher.queue-capacity:8}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("push-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
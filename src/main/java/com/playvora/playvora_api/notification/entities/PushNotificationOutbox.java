@@ -0,0 +1,86 @@
+package com.playvora.playvora_api.notification.entities;
+
+import com.playvora.playvora_api.notification.enums.PushNotificationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A single push notification intent for one Expo device token.
+ * Rows are written by {@code PushNotificationService} and drained by {@code PushNotificationDispatcher}.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+@Table(name = "push_notification_outbox")
+public class PushNotificationOutbox {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false, length = 500)
+    private String token;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    /**
+     * JSON-serialized custom data payload forwarded to the device.
+     */
+    @Column(name = "data", columnDefinition = "TEXT")
+    private String data;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private PushNotificationStatus status = PushNotificationStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * When the row becomes eligible for (re)dispatch. While SENDING this acts as the lease expiry.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    @Builder.Default
+    private OffsetDateTime nextAttemptAt = OffsetDateTime.now();
+
+    @Column(name = "ticket_id")
+    private String ticketId;
+
+    @Column(name = "sent_at")
+    private OffsetDateTime sentAt;
+
+    @Column(name = "receipt_checked_at")
+    private OffsetDateTime receiptCheckedAt;
+
+    @Column(name = "error_code", length = 100)
+    private String errorCode;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", updatable = false)
+    @Builder.Default
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    @Column(name = "updated_at")
+    @Builder.Default
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,9 @@
+package com.playvora.playvora_api.notification.enums;
+
+public enum PushNotificationStatus {
+    PENDING,    // Enqueued, waiting for the dispatcher (or for its next retry)
+    SENDING,    // Claimed by a dispatcher worker; reclaimed if the lease expires
+    SENT,       // Accepted by Expo, ticket id recorded, receipt not yet checked
+    DELIVERED,  // Expo receipt reported "ok"
+    FAILED      // Permanently failed (ticket/receipt error or retries exhausted)
+}
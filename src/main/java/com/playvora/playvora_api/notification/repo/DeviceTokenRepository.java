@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,6 +22,9 @@ public interface DeviceTokenRepository extends JpaRepository<DeviceToken, UUID>
     
     @Query("SELECT dt FROM DeviceToken dt WHERE dt.user.id IN :userIds AND dt.isActive = true")
     List<DeviceToken> findByUserIdsAndIsActiveTrue(@Param("userIds") List<UUID> userIds);
+
+    @Query("SELECT DISTINCT dt.token FROM DeviceToken dt WHERE dt.user.id IN :userIds AND dt.isActive = true")
+    List<String> findActiveTokensByUserIds(@Param("userIds") Collection<UUID> userIds);
     
     @Modifying
     @Query("UPDATE DeviceToken dt SET dt.isActive = false WHERE dt.user = :user AND dt.token = :token")
@@ -0,0 +1,60 @@
+package com.playvora.playvora_api.notification.repo;
+
+import com.playvora.playvora_api.notification.entities.PushNotificationOutbox;
+import com.playvora.playvora_api.notification.enums.PushNotificationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface PushNotificationOutboxRepository extends JpaRepository<PushNotificationOutbox, UUID> {
+
+    /**
+     * Lock due rows for dispatch. Rows already locked by another dispatcher (e.g. on another node)
+     * are skipped rather than waited on (lock timeout -2 = SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT n FROM PushNotificationOutbox n
+            WHERE n.status IN :statuses
+              AND n.nextAttemptAt <= :now
+            ORDER BY n.nextAttemptAt ASC
+            """)
+    List<PushNotificationOutbox> findDueForDispatch(
+            @Param("statuses") Collection<PushNotificationStatus> statuses,
+            @Param("now") OffsetDateTime now,
+            Pageable pageable
+    );
+
+    @Query("""
+            SELECT n FROM PushNotificationOutbox n
+            WHERE n.status = com.playvora.playvora_api.notification.enums.PushNotificationStatus.SENT
+              AND n.ticketId IS NOT NULL
+              AND n.receiptCheckedAt IS NULL
+              AND n.sentAt <= :sentBefore
+            ORDER BY n.sentAt ASC
+            """)
+    List<PushNotificationOutbox> findAwaitingReceipt(@Param("sentBefore") OffsetDateTime sentBefore, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            DELETE FROM PushNotificationOutbox n
+            WHERE n.status IN :statuses
+              AND n.updatedAt < :before
+            """)
+    int deleteFinishedBefore(
+            @Param("statuses") Collection<PushNotificationStatus> statuses,
+            @Param("before") OffsetDateTime before
+    );
+}
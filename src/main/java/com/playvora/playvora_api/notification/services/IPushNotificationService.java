@@ -3,8 +3,10 @@ package com.playvora.playvora_api.notification.services;
 import com.playvora.playvora_api.notification.dtos.RegisterDeviceTokenRequest;
 import com.playvora.playvora_api.user.entities.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 public interface IPushNotificationService {
     void registerDeviceToken(User user, RegisterDeviceTokenRequest request);
@@ -13,5 +15,12 @@ public interface IPushNotificationService {
     void sendPushNotifications(List<String> tokens, String title, String body, Map<String, Object> data);
     void sendPushNotificationToUser(String userId, String title, String body, Map<String, Object> data);
     void sendPushNotificationToUsers(List<String> userIds, String title, String body, Map<String, Object> data);
+
+    /**
+     * Send one notification to every active device of {@code recipientIds}, skipping anyone in
+     * {@code excludedUserIds}. All device tokens are resolved with a single query.
+     */
+    void sendMulticastNotification(Collection<UUID> recipientIds, Collection<UUID> excludedUserIds,
+                                   String title, String body, Map<String, Object> data);
 }
 
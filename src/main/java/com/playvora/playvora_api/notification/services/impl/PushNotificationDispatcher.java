@@ -0,0 +1,379 @@
+package com.playvora.playvora_api.notification.services.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playvora.playvora_api.notification.entities.PushNotificationOutbox;
+import com.playvora.playvora_api.notification.enums.PushNotificationStatus;
+import com.playvora.playvora_api.notification.repo.DeviceTokenRepository;
+import com.playvora.playvora_api.notification.repo.PushNotificationOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the push notification outbox and delivers it to the Expo push API.
+ *
+ * - A scheduled poller claims due outbox rows (skipping rows locked by other nodes) and leases them.
+ * - Claimed rows are coalesced into chunks of at most 100 messages (Expo's per-request limit)
+ *   and handed to the bounded {@code pushNotificationExecutor} pool.
+ * - Transport failures, 429s and 5xx responses are retried with exponential backoff.
+ * - Per-message tickets are recorded and later resolved against Expo's receipts endpoint;
+ *   tokens reported as DeviceNotRegistered are deactivated.
+ */
+@Component
+@Slf4j
+public class PushNotificationDispatcher {
+
+    private static final String EXPO_PUSH_API_URL = "https://exp.host/--/api/v2/push/send";
+    private static final String EXPO_RECEIPTS_API_URL = "https://exp.host/--/api/v2/push/getReceipts";
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    static final int EXPO_MAX_MESSAGES_PER_REQUEST = 100;
+    static final int EXPO_MAX_RECEIPT_IDS_PER_REQUEST = 1000;
+    private static final String DEVICE_NOT_REGISTERED = "DeviceNotRegistered";
+    private static final String MESSAGE_RATE_EXCEEDED = "MessageRateExceeded";
+
+    private static final List<PushNotificationStatus> DISPATCHABLE_STATUSES =
+            List.of(PushNotificationStatus.PENDING, PushNotificationStatus.SENDING);
+    private static final List<PushNotificationStatus> FINISHED_STATUSES =
+            List.of(PushNotificationStatus.SENT, PushNotificationStatus.DELIVERED, PushNotificationStatus.FAILED);
+
+    private final PushNotificationOutboxRepository outboxRepository;
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final OkHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor pushNotificationExecutor;
+
+    @Value("${expo.push.enabled:true}")
+    private boolean pushEnabled;
+
+    @Value("${expo.push.dispatcher.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${expo.push.dispatcher.base-backoff-seconds:5}")
+    private long baseBackoffSeconds;
+
+    @Value("${expo.push.dispatcher.max-backoff-seconds:900}")
+    private long maxBackoffSeconds;
+
+    @Value("${expo.push.dispatcher.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${expo.push.receipts.delay-minutes:15}")
+    private long receiptDelayMinutes;
+
+    @Value("${expo.push.outbox.retention-days:7}")
+    private long retentionDays;
+
+    public PushNotificationDispatcher(PushNotificationOutboxRepository outboxRepository,
+                                      DeviceTokenRepository deviceTokenRepository,
+                                      OkHttpClient httpClient,
+                                      ObjectMapper objectMapper,
+                                      TransactionTemplate transactionTemplate,
+                                      @Qualifier("pushNotificationExecutor") ThreadPoolTaskExecutor pushNotificationExecutor) {
+        this.outboxRepository = outboxRepository;
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.pushNotificationExecutor = pushNotificationExecutor;
+    }
+
+    /**
+     * Claim due outbox rows and submit them to the worker pool in Expo-sized chunks.
+     * Only as many chunks as the pool can currently accept are claimed, so the poller
+     * never blocks and never drops work: anything left over stays PENDING in the outbox.
+     */
+    @Scheduled(fixedDelayString = "${expo.push.dispatcher.poll-interval-ms:1000}")
+    public void dispatchPending() {
+        if (!pushEnabled) {
+            return;
+        }
+
+        int freeSlots = availableWorkerSlots();
+        if (freeSlots <= 0) {
+            log.debug("Push dispatcher pool saturated, skipping this poll");
+            return;
+        }
+
+        List<UUID> claimed = claimDueNotifications(freeSlots * EXPO_MAX_MESSAGES_PER_REQUEST);
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        for (int from = 0; from < claimed.size(); from += EXPO_MAX_MESSAGES_PER_REQUEST) {
+            List<UUID> chunk = claimed.subList(from, Math.min(from + EXPO_MAX_MESSAGES_PER_REQUEST, claimed.size()));
+            List<UUID> chunkIds = new ArrayList<>(chunk);
+            try {
+                pushNotificationExecutor.execute(() -> sendChunk(chunkIds));
+            } catch (TaskRejectedException e) {
+                // Rows stay SENDING and are picked up again once their lease expires
+                log.warn("Push dispatcher rejected chunk of {} notifications: {}", chunkIds.size(), e.getMessage());
+            }
+        }
+        log.debug("Dispatched {} push notifications", claimed.size());
+    }
+
+    private int availableWorkerSlots() {
+        var pool = pushNotificationExecutor.getThreadPoolExecutor();
+        int idleThreads = pool.getMaximumPoolSize() - pool.getActiveCount();
+        return Math.max(0, idleThreads) + pool.getQueue().remainingCapacity();
+    }
+
+    private List<UUID> claimDueNotifications(int limit) {
+        List<UUID> ids = transactionTemplate.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            List<PushNotificationOutbox> due = outboxRepository.findDueForDispatch(
+                    DISPATCHABLE_STATUSES, now, PageRequest.of(0, limit));
+            for (PushNotificationOutbox notification : due) {
+                notification.setStatus(PushNotificationStatus.SENDING);
+                notification.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            outboxRepository.saveAll(due);
+            return due.stream().map(PushNotificationOutbox::getId).collect(Collectors.toList());
+        });
+        return ids != null ? ids : Collections.emptyList();
+    }
+
+    void sendChunk(List<UUID> ids) {
+        List<PushNotificationOutbox> notifications = outboxRepository.findAllById(ids);
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        try {
+            String jsonBody = objectMapper.writeValueAsString(
+                    notifications.stream().map(this::toExpoMessage).collect(Collectors.toList()));
+
+            Request request = new Request.Builder()
+                    .url(EXPO_PUSH_API_URL)
+                    .post(RequestBody.create(jsonBody, JSON))
+                    .addHeader("Accept", "application/json")
+                    .build();
+
+            try (Response response = httpClient.newCall(request).execute()) {
+                String responseBody = response.body() != null ? response.body().string() : "";
+                if (!response.isSuccessful()) {
+                    boolean retryable = response.code() == 429 || response.code() >= 500;
+                    log.error("Expo push request failed. Response code: {}, Body: {}", response.code(), responseBody);
+                    handleRequestFailure(notifications, "HTTP_" + response.code(), responseBody, retryable);
+                    return;
+                }
+                applyTickets(notifications, objectMapper.readTree(responseBody).path("data"));
+            }
+        } catch (IOException e) {
+            log.error("Error sending push notification chunk of {}", notifications.size(), e);
+            handleRequestFailure(notifications, "IO_ERROR", e.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error sending push notification chunk of {}", notifications.size(), e);
+            handleRequestFailure(notifications, "UNEXPECTED_ERROR", e.getMessage(), true);
+        }
+    }
+
+    private Map<String, Object> toExpoMessage(PushNotificationOutbox notification) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("to", notification.getToken());
+        message.put("sound", "whistle.wav");
+        message.put("priority", "high"); // High priority for maximum alertness
+        message.put("title", notification.getTitle());
+        message.put("body", notification.getBody());
+
+        // Android-specific settings for loud sound
+        Map<String, Object> androidConfig = new HashMap<>();
+        androidConfig.put("priority", "high");
+        androidConfig.put("sound", "default");
+        androidConfig.put("channelId", "default"); // Use default notification channel
+        message.put("android", androidConfig);
+
+        // iOS-specific settings
+        Map<String, Object> iosConfig = new HashMap<>();
+        iosConfig.put("sound", "whistle.wav");
+        iosConfig.put("badge", 1);
+        message.put("ios", iosConfig);
+
+        if (notification.getData() != null && !notification.getData().isBlank()) {
+            try {
+                message.put("data", objectMapper.readValue(notification.getData(), new TypeReference<Map<String, Object>>() {}));
+            } catch (IOException e) {
+                log.warn("Dropping unreadable data payload for push notification {}", notification.getId());
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Expo returns one ticket per message, in request order.
+     */
+    private void applyTickets(List<PushNotificationOutbox> notifications, JsonNode tickets) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Set<String> unregisteredTokens = new HashSet<>();
+
+        for (int i = 0; i < notifications.size(); i++) {
+            PushNotificationOutbox notification = notifications.get(i);
+            JsonNode ticket = tickets.path(i);
+
+            if ("ok".equals(ticket.path("status").asText())) {
+                notification.setStatus(PushNotificationStatus.SENT);
+                notification.setTicketId(ticket.path("id").asText(null));
+                notification.setSentAt(now);
+                notification.setAttempts(notification.getAttempts() + 1);
+                notification.setErrorCode(null);
+                notification.setErrorMessage(null);
+                continue;
+            }
+
+            String errorCode = ticket.path("details").path("error").asText(null);
+            String errorMessage = ticket.path("message").asText(ticket.isMissingNode() ? "Missing ticket" : null);
+            if (DEVICE_NOT_REGISTERED.equals(errorCode)) {
+                unregisteredTokens.add(notification.getToken());
+            }
+            scheduleRetryOrFail(notification, errorCode != null ? errorCode : "TICKET_ERROR", errorMessage,
+                    MESSAGE_RATE_EXCEEDED.equals(errorCode) || ticket.isMissingNode());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.saveAll(notifications);
+            unregisteredTokens.forEach(deviceTokenRepository::deactivateTokenByToken);
+        });
+
+        if (!unregisteredTokens.isEmpty()) {
+            log.info("Deactivated {} unregistered device tokens", unregisteredTokens.size());
+        }
+    }
+
+    private void handleRequestFailure(List<PushNotificationOutbox> notifications,
+                                      String errorCode,
+                                      String errorMessage,
+                                      boolean retryable) {
+        notifications.forEach(n -> scheduleRetryOrFail(n, errorCode, errorMessage, retryable));
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(notifications));
+    }
+
+    private void scheduleRetryOrFail(PushNotificationOutbox notification,
+                                     String errorCode,
+                                     String errorMessage,
+                                     boolean retryable) {
+        int attempts = notification.getAttempts() + 1;
+        notification.setAttempts(attempts);
+        notification.setErrorCode(errorCode);
+        notification.setErrorMessage(errorMessage);
+
+        if (retryable && attempts < maxAttempts) {
+            notification.setStatus(PushNotificationStatus.PENDING);
+            notification.setNextAttemptAt(OffsetDateTime.now().plusSeconds(backoffSeconds(attempts)));
+        } else {
+            notification.setStatus(PushNotificationStatus.FAILED);
+        }
+    }
+
+    long backoffSeconds(int attempts) {
+        long backoff = baseBackoffSeconds << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoffSeconds);
+    }
+
+    /**
+     * Resolve tickets into delivery receipts. Expo recommends waiting ~15 minutes after sending,
+     * and keeps receipts for 24 hours; tickets without a receipt after that are marked checked as-is.
+     */
+    @Scheduled(fixedDelayString = "${expo.push.receipts.poll-interval-ms:300000}",
+            initialDelayString = "${expo.push.receipts.poll-interval-ms:300000}")
+    public void checkReceipts() {
+        if (!pushEnabled) {
+            return;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<PushNotificationOutbox> awaiting = outboxRepository.findAwaitingReceipt(
+                now.minusMinutes(receiptDelayMinutes), PageRequest.of(0, EXPO_MAX_RECEIPT_IDS_PER_REQUEST));
+        if (awaiting.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, Object> payload = Map.of("ids",
+                    awaiting.stream().map(PushNotificationOutbox::getTicketId).collect(Collectors.toList()));
+
+            Request request = new Request.Builder()
+                    .url(EXPO_RECEIPTS_API_URL)
+                    .post(RequestBody.create(objectMapper.writeValueAsString(payload), JSON))
+                    .addHeader("Accept", "application/json")
+                    .build();
+
+            try (Response response = httpClient.newCall(request).execute()) {
+                String responseBody = response.body() != null ? response.body().string() : "";
+                if (!response.isSuccessful()) {
+                    log.error("Expo receipts request failed. Response code: {}, Body: {}", response.code(), responseBody);
+                    return;
+                }
+                applyReceipts(awaiting, objectMapper.readTree(responseBody).path("data"), now);
+            }
+        } catch (IOException e) {
+            log.error("Error fetching push notification receipts", e);
+        }
+    }
+
+    private void applyReceipts(List<PushNotificationOutbox> awaiting, JsonNode receipts, OffsetDateTime now) {
+        Set<String> unregisteredTokens = new HashSet<>();
+        int delivered = 0;
+        int failed = 0;
+
+        for (PushNotificationOutbox notification : awaiting) {
+            JsonNode receipt = receipts.path(notification.getTicketId());
+            if (receipt.isMissingNode()) {
+                // Receipt not ready yet; give up once Expo would have discarded it
+                if (notification.getSentAt() != null && notification.getSentAt().isBefore(now.minusHours(24))) {
+                    notification.setReceiptCheckedAt(now);
+                }
+                continue;
+            }
+
+            notification.setReceiptCheckedAt(now);
+            if ("ok".equals(receipt.path("status").asText())) {
+                notification.setStatus(PushNotificationStatus.DELIVERED);
+                delivered++;
+            } else {
+                String errorCode = receipt.path("details").path("error").asText(null);
+                notification.setStatus(PushNotificationStatus.FAILED);
+                notification.setErrorCode(errorCode != null ? errorCode : "RECEIPT_ERROR");
+                notification.setErrorMessage(receipt.path("message").asText(null));
+                if (DEVICE_NOT_REGISTERED.equals(errorCode)) {
+                    unregisteredTokens.add(notification.getToken());
+                }
+                failed++;
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.saveAll(awaiting);
+            unregisteredTokens.forEach(deviceTokenRepository::deactivateTokenByToken);
+        });
+
+        log.info("Processed push receipts: {} delivered, {} failed, {} tokens deactivated",
+                delivered, failed, unregisteredTokens.size());
+    }
+
+    /**
+     * Remove sent/delivered/failed outbox rows once they are past the retention window.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeFinishedNotifications() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusDays(retentionDays);
+        Integer removed = transactionTemplate.execute(status ->
+                outboxRepository.deleteFinishedBefore(FINISHED_STATUSES, cutoff));
+        log.info("Purged {} finished push notifications older than {}", removed, cutoff);
+    }
+}
@@ -1,20 +1,21 @@
 package com.playvora.playvora_api.notification.services.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.notification.dtos.RegisterDeviceTokenRequest;
 import com.playvora.playvora_api.notification.entities.DeviceToken;
+import com.playvora.playvora_api.notification.entities.PushNotificationOutbox;
 import com.playvora.playvora_api.notification.repo.DeviceTokenRepository;
+import com.playvora.playvora_api.notification.repo.PushNotificationOutboxRepository;
 import com.playvora.playvora_api.notification.services.IPushNotificationService;
 import com.playvora.playvora_api.user.entities.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -23,11 +24,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PushNotificationService implements IPushNotificationService {
 
-    private static final String EXPO_PUSH_API_URL = "https://exp.host/--/api/v2/push/send";
-    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
-
     private final DeviceTokenRepository deviceTokenRepository;
-    private final OkHttpClient httpClient;
+    private final PushNotificationOutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
 
     @Value("${expo.push.enabled:true}")
@@ -85,7 +83,13 @@ public class PushNotificationService implements IPushNotificationService {
         sendPushNotifications(Collections.singletonList(token), title, body, data);
     }
 
+    /**
+     * Enqueue one outbox row per token. Delivery to Expo happens asynchronously in
+     * {@link PushNotificationDispatcher}, so callers never wait on the Expo API and, when
+     * called inside a transaction, notifications are only sent if that transaction commits.
+     */
     @Override
+    @Transactional
     public void sendPushNotifications(List<String> tokens, String title, String body, Map<String, Object> data) {
         if (!pushEnabled) {
             log.debug("Push notifications are disabled");
@@ -97,66 +101,33 @@ public class PushNotificationService implements IPushNotificationService {
             return;
         }
 
-        try {
-            // Expo push API expects either a single message object or an *array* of messages,
-            // NOT an object wrapping the messages. We therefore send the list of messages directly.
-            List<Map<String, Object>> messages = tokens.stream()
-                    .map(token -> {
-                        Map<String, Object> message = new HashMap<>();
-                        message.put("to", token);
-                        message.put("sound", "whistle.wav");
-                        message.put("priority", "high"); // High priority for maximum alertness
-                        message.put("title", title);
-                        message.put("body", body);
-                        
-                        // Android-specific settings for loud sound
-                        Map<String, Object> androidConfig = new HashMap<>();
-                        androidConfig.put("priority", "high");
-                        androidConfig.put("sound", "default");
-                        androidConfig.put("channelId", "default"); // Use default notification channel
-                        message.put("android", androidConfig);
-                        
-                        // iOS-specific settings
-                        Map<String, Object> iosConfig = new HashMap<>();
-                        iosConfig.put("sound", "whistle.wav");
-                        iosConfig.put("badge", 1);
-                        message.put("ios", iosConfig);
-                        
-                        if (data != null && !data.isEmpty()) {
-                            message.put("data", data);
-                        }
-                        return message;
-                    })
-                    .collect(Collectors.toList());
-
-            String jsonBody = objectMapper.writeValueAsString(messages);
-            RequestBody bodyRequest = RequestBody.create(jsonBody, JSON);
-
-            Request request = new Request.Builder()
-                    .url(EXPO_PUSH_API_URL)
-                    .post(bodyRequest)
-                    .addHeader("Content-Type", "application/json")
-                    .addHeader("Accept", "application/json")
-                    .addHeader("Accept-Encoding", "gzip, deflate")
-                    .build();
-
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    log.error("Failed to send push notification. Response code: {}, Body: {}", 
-                            response.code(), response.body() != null ? response.body().string() : "No body");
-                    throw new BadRequestException("Failed to send push notification");
-                }
-
-                String responseBody = response.body() != null ? response.body().string() : "";
-                log.info("Push notification sent successfully. Response: {}", responseBody);
+        String dataJson = null;
+        if (data != null && !data.isEmpty()) {
+            try {
+                dataJson = objectMapper.writeValueAsString(data);
+            } catch (JsonProcessingException e) {
+                log.error("Error serializing push notification data", e);
+                throw new BadRequestException("Error serializing push notification data: " + e.getMessage());
             }
-        } catch (IOException e) {
-            log.error("Error sending push notification", e);
-            throw new BadRequestException("Error sending push notification: " + e.getMessage());
         }
+
+        String payload = dataJson;
+        List<PushNotificationOutbox> notifications = tokens.stream()
+                .distinct()
+                .map(token -> PushNotificationOutbox.builder()
+                        .token(token)
+                        .title(title)
+                        .body(body)
+                        .data(payload)
+                        .build())
+                .collect(Collectors.toList());
+
+        outboxRepository.saveAll(notifications);
+        log.debug("Enqueued {} push notifications", notifications.size());
     }
 
     @Override
+    @Transactional
     public void sendPushNotificationToUser(String userId, String title, String body, Map<String, Object> data) {
         UUID userIdUUID = UUID.fromString(userId);
         List<String> tokens = deviceTokenRepository.findByUserIdAndIsActiveTrue(userIdUUID)
@@ -172,6 +143,7 @@ public class PushNotificationService implements IPushNotificationService {
     }
 
     @Override
+    @Transactional
     public void sendPushNotificationToUsers(List<String> userIds, String title, String body, Map<String, Object> data) {
         if (userIds == null || userIds.isEmpty()) {
             log.warn("No user IDs provided for push notification");
@@ -180,16 +152,32 @@ public class PushNotificationService implements IPushNotificationService {
 
         List<UUID> userIdUUIDs = userIds.stream()
                 .map(UUID::fromString)
-                .collect(java.util.stream.Collectors.toList());
-        List<String> tokens = deviceTokenRepository.findByUserIdsAndIsActiveTrue(userIdUUIDs)
-                .stream()
-                .map(DeviceToken::getToken)
                 .collect(Collectors.toList());
+        sendMulticastNotification(userIdUUIDs, Collections.emptyList(), title, body, data);
+    }
+
+    @Override
+    @Transactional
+    public void sendMulticastNotification(Collection<UUID> recipientIds, Collection<UUID> excludedUserIds,
+                                          String title, String body, Map<String, Object> data) {
+        if (recipientIds == null || recipientIds.isEmpty()) {
+            log.debug("No recipients provided for multicast push notification");
+            return;
+        }
+
+        Set<UUID> recipients = new HashSet<>(recipientIds);
+        if (excludedUserIds != null) {
+            recipients.removeAll(excludedUserIds);
+        }
+        if (recipients.isEmpty()) {
+            return;
+        }
 
+        List<String> tokens = deviceTokenRepository.findActiveTokensByUserIds(recipients);
         if (!tokens.isEmpty()) {
             sendPushNotifications(tokens, title, body, data);
         } else {
-            log.debug("No active device tokens found for users {}", userIds);
+            log.debug("No active device tokens found for {} recipients", recipients.size());
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.playvora.playvora_api.payment.controllers;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.common.config.StripeConfig;
 import com.playvora.playvora_api.common.dto.ApiResponse;
@@ -249,8 +250,7 @@ public class PaymentController {
     private User getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
         throw new BadRequestException("Invalid authentication principal");
     }
@@ -84,6 +84,13 @@ public class Transaction {
     @Column(name = "external_reference")
     private String externalReference;
 
+    /**
+     * Identifies the operation that produced this row so retries are applied at most once.
+     * Set for wallet balance changes made through the wallet ledger.
+     */
+    @Column(name = "idempotency_key", length = 150, unique = true)
+    private String idempotencyKey;
+
     @Column(name = "created_at", updatable = false)
     @Builder.Default
     private OffsetDateTime createdAt = OffsetDateTime.now();
@@ -57,6 +57,14 @@ public interface ITransactionService {
                               String currency,
                               String description,
                               String externalReference);
-}
-
 
+    /**
+     * Send the "new transaction" push for a transaction row written outside this service
+     * (e.g. by the wallet ledger).
+     */
+    void notifyTransactionRecorded(UUID userId,
+                                   UUID transactionId,
+                                   TransactionType type,
+                                   BigDecimal amount,
+                                   String currency);
+}
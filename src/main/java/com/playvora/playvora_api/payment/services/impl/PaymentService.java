@@ -1,5 +1,6 @@
 package com.playvora.playvora_api.payment.services.impl;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.common.config.StripeConfig;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
@@ -32,6 +33,7 @@ import com.playvora.playvora_api.user.entities.User;
 import com.playvora.playvora_api.user.repo.UserRepository;
 import com.playvora.playvora_api.wallet.entities.Wallet;
 import com.playvora.playvora_api.wallet.services.IWalletService;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Account;
@@ -70,6 +72,7 @@ public class PaymentService implements IPaymentService {
     private final EventBookingRepository eventBookingRepository;
     private final SavedPaymentMethodRepository savedPaymentMethodRepository;
     private final UserRepository userRepository;
+    private final IPrincipalCacheService principalCacheService;
     private final StripeConfig stripeConfig;
     private final IWalletService walletService;
 
@@ -247,9 +250,10 @@ public class PaymentService implements IPaymentService {
             }
 
             // If this payment represents a wallet top-up, apply it to the user's wallet.
-            // WalletService will already record a WALLET_TOPUP transaction and trigger push.
+            // WalletService will already record a WALLET_TOPUP transaction and trigger push;
+            // keyed by payment intent so confirming the same payment twice credits it once.
             if (payment.getType() == PaymentType.WALLET_DEPOSIT) {
-                walletService.topUpWallet(payment.getUser(), payment.getAmount());
+                walletService.topUpWallet(payment.getUser(), payment.getAmount(), "wallet-topup:" + paymentIntentId);
             }
 
             return convertToPaymentResponse(payment);
@@ -436,6 +440,7 @@ public class PaymentService implements IPaymentService {
                 if (!user.isPayoutsEnabled()) {
                     user.setPayoutsEnabled(true);
                     userRepository.save(user);
+                    principalCacheService.evictUser(user.getEmail());
                     log.info("Marked user {} as payoutsEnabled for Stripe account {}", user.getId(), accountId);
                 } else {
                     log.debug("User {} already has payoutsEnabled=true for Stripe account {}", user.getId(), accountId);
@@ -711,6 +716,7 @@ public class PaymentService implements IPaymentService {
         // Save customer ID to user
         user.setStripeCustomerId(customer.getId());
         userRepository.save(user);
+        principalCacheService.evictUser(user.getEmail());
 
         return customer.getId();
     }
@@ -733,8 +739,7 @@ public class PaymentService implements IPaymentService {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
         
         throw new BadRequestException("Invalid authentication principal");
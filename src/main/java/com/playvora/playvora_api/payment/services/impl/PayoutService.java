@@ -1,5 +1,7 @@
 package com.playvora.playvora_api.payment.services.impl;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
+import com.playvora.playvora_api.app.ActiveUserRole;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.common.config.StripeConfig;
 import com.playvora.playvora_api.common.exception.BadRequestException;
@@ -14,8 +16,8 @@ import com.playvora.playvora_api.payment.repo.PayoutRepository;
 import com.playvora.playvora_api.payment.services.IPayoutService;
 import com.playvora.playvora_api.payment.services.ITransactionService;
 import com.playvora.playvora_api.user.entities.User;
-import com.playvora.playvora_api.user.entities.UserRole;
 import com.playvora.playvora_api.user.repo.UserRepository;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Account;
 import com.stripe.model.AccountSession;
@@ -37,6 +39,7 @@ import java.util.UUID;
 public class PayoutService implements IPayoutService {
 
     private final UserRepository userRepository;
+    private final IPrincipalCacheService principalCacheService;
     private final StripeConfig stripeConfig;
     private final PayoutRepository payoutRepository;
     private final ITransactionService transactionService;
@@ -59,8 +62,12 @@ public class PayoutService implements IPayoutService {
             if (!alreadySetup) {
                 accountId = createConnectedAccount(currentUser);
                 updateConnectedAccount(accountId);
-                currentUser.setConnectedAccountId(accountId);
-                userRepository.save(currentUser);
+                // Change a managed copy loaded in this transaction, not the request's principal
+                User managedUser = userRepository.findById(currentUser.getId())
+                        .orElseThrow(() -> new BadRequestException("User not found"));
+                managedUser.setConnectedAccountId(accountId);
+                userRepository.save(managedUser);
+                principalCacheService.evictUser(managedUser.getEmail());
             }
 
             // Always create a fresh Account Session so the frontend can open
@@ -185,12 +192,12 @@ public class PayoutService implements IPayoutService {
     }
 
     private void validateManagerRole() {
-        UserRole currentUserRole = UserRoleContext.getCurrentUserRole();
-        if (currentUserRole == null || currentUserRole.getRole() == null) {
+        ActiveUserRole currentUserRole = UserRoleContext.getCurrentUserRole();
+        if (currentUserRole == null || currentUserRole.roleName() == null) {
             throw new ForbiddenException("Payout setup is only available when acting as a community manager");
         }
 
-        String roleName = currentUserRole.getRole().getName();
+        String roleName = currentUserRole.roleName();
         if (!"COMMUNITY_MANAGER".equals(roleName)) {
             throw new ForbiddenException("Payout setup is only available for COMMUNITY_MANAGER role");
         }
@@ -269,8 +276,7 @@ public class PayoutService implements IPayoutService {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
 
         throw new BadRequestException("Invalid authentication principal");
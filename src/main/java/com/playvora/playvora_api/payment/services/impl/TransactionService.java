@@ -1,5 +1,6 @@
 package com.playvora.playvora_api.payment.services.impl;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
 import com.playvora.playvora_api.common.exception.BadRequestException;
@@ -216,8 +217,7 @@ public class TransactionService implements ITransactionService {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
 
         throw new BadRequestException("Invalid authentication principal");
@@ -241,30 +241,41 @@ public class TransactionService implements ITransactionService {
         };
     }
 
+    @Override
+    public void notifyTransactionRecorded(UUID userId,
+                                          UUID transactionId,
+                                          TransactionType type,
+                                          BigDecimal amount,
+                                          String currency) {
+        sendPush(userId, transactionId, type, amount, currency);
+    }
+
     private void sendPush(User user, Transaction tx) {
+        sendPush(user.getId(), tx.getId(), tx.getType(), tx.getAmount(), tx.getCurrency());
+    }
+
+    private void sendPush(UUID userId, UUID transactionId, TransactionType type, BigDecimal amount, String currency) {
         try {
             Map<String, Object> data = new HashMap<>();
-            data.put("transactionId", tx.getId().toString());
-            data.put("type", tx.getType().name());
-            data.put("amount", tx.getAmount());
-            data.put("currency", tx.getCurrency());
+            data.put("transactionId", transactionId.toString());
+            data.put("type", type.name());
+            data.put("amount", amount);
+            data.put("currency", currency);
 
             String title = "New transaction";
             String body = String.format("%s %s %s",
-                    tx.getAmount().compareTo(BigDecimal.ZERO) >= 0 ? "+" : "",
-                    tx.getAmount(),
-                    tx.getCurrency());
+                    amount.compareTo(BigDecimal.ZERO) >= 0 ? "+" : "",
+                    amount,
+                    currency);
 
             pushNotificationService.sendPushNotificationToUser(
-                    user.getId().toString(),
+                    userId.toString(),
                     title,
                     body,
                     data
             );
         } catch (Exception ex) {
-            log.error("Failed to send transaction push notification for user {}: {}", user.getId(), ex.getMessage(), ex);
+            log.error("Failed to send transaction push notification for user {}: {}", userId, ex.getMessage(), ex);
         }
     }
 }
-
-
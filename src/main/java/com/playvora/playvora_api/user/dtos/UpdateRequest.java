@@ -4,6 +4,7 @@ import java.util.Optional;
 
 import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.Nulls;
+import com.playvora.playvora_api.match.enums.Gender;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,4 +30,7 @@ public class UpdateRequest {
 
     @JsonSetter(nulls = Nulls.AS_EMPTY)
     private Optional<String> country;
+
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private Optional<Gender> gender;
 }
@@ -0,0 +1,15 @@
+package com.playvora.playvora_api.user.dtos;
+
+import java.util.UUID;
+
+/**
+ * One row of what authentication needs about a user: the credentials, plus one active role per
+ * row. A user without active roles has a single row whose role columns are null.
+ */
+public record UserPrincipalRow(UUID userId,
+                               String email,
+                               String password,
+                               UUID userRoleId,
+                               String roleName,
+                               UUID communityId) {
+}
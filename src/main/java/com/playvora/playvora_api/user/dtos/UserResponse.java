@@ -25,6 +25,7 @@ public class UserResponse {
     private boolean enabled;
     private String profilePictureUrl;
     private String country;
+    private String gender;
     private WalletResponse wallet;
 
     /**
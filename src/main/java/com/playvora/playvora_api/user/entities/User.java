@@ -65,6 +65,9 @@ public class User {
     @Column(name = "provider_id")
     private String providerId;
 
+    @Column(name = "gender")
+    private String gender;
+
     @Column(nullable = false)
     @Builder.Default
     private boolean enabled = true;
@@ -43,6 +43,7 @@ public class UserMapper {
                 .enabled(user.isEnabled())
                 .userRoles(userRoles)
                 .country(user.getCountry())
+                .gender(user.getGender())
                 .walletCurrency(walletCurrency)
                 .wallet(walletResponse)
                 // By default, expose an empty map so clients never see `registeredEvents: null`.
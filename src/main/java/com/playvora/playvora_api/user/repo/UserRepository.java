@@ -1,17 +1,32 @@
 package com.playvora.playvora_api.user.repo;
 
+import com.playvora.playvora_api.user.dtos.UserPrincipalRow;
 import com.playvora.playvora_api.user.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
 
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.userRoles WHERE u.email = :email")
-    Optional<User> findByEmailWithRoles(@Param("email") String email);
+    /**
+     * Everything authentication needs about a user (credentials and active roles with their role and
+     * community) in one query. Only columns are selected: loading the User entity would also load its
+     * wallet, which Hibernate cannot fetch lazily from this side, with a second select.
+     */
+    @Query("""
+        SELECT new com.playvora.playvora_api.user.dtos.UserPrincipalRow(
+            u.id, u.email, u.password, ur.id, r.name, c.id)
+        FROM User u
+        LEFT JOIN u.userRoles ur ON ur.deletedAt IS NULL
+        LEFT JOIN ur.role r
+        LEFT JOIN ur.community c
+        WHERE u.email = :email
+        """)
+    List<UserPrincipalRow> findPrincipalRowsByEmail(@Param("email") String email);
 
     Optional<User> findByEmail(String email);
 
@@ -38,6 +38,7 @@ public interface UserRoleRepository extends JpaRepository<UserRole, UUID> {
      * Find a specific user role by ID (for header validation)
      */
     @Query("SELECT ur FROM UserRole ur " +
+           "JOIN FETCH ur.user " +
            "LEFT JOIN FETCH ur.role " +
            "LEFT JOIN FETCH ur.community " +
            "WHERE ur.id = :userRoleId AND ur.deletedAt IS NULL")
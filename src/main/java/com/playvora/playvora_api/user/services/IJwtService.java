@@ -1,5 +1,6 @@
 package com.playvora.playvora_api.user.services;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +18,8 @@ public interface IJwtService {
     String generateShortLivedRefreshTokenForOAuth2Login(User user);
     String generateRefreshTokenForOAuth2Login(User user);
     Boolean isTokenValid(String token, UserDetails userDetails);
+    Boolean isTokenValid(Claims claims, UserDetails userDetails);
+    Claims extractAllClaims(String token);
     Boolean isTokenExpired(String token);
     String extractUsername(String token);
     Date extractExpiration(String token);
@@ -0,0 +1,42 @@
+package com.playvora.playvora_api.user.services;
+
+import com.playvora.playvora_api.app.ActiveUserRole;
+import com.playvora.playvora_api.common.utils.BoundedTtlCache;
+import com.playvora.playvora_api.user.entities.UserRole;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public interface IPrincipalCacheService {
+
+    /**
+     * Get the principal for a verified token, keyed by subject email and token issued-at,
+     * loading it with the given loader on a miss
+     */
+    UserDetails getPrincipal(String email, Date issuedAt, Supplier<UserDetails> loader);
+
+    /**
+     * Get a snapshot of an active user role by id, loading it with the given loader on a miss
+     */
+    Optional<ActiveUserRole> getActiveUserRole(UUID userRoleId, Supplier<Optional<UserRole>> loader);
+
+    /**
+     * Evict every cached principal and role of a user (call after updating the user or its roles,
+     * or on logout). Eviction is repeated after the surrounding transaction commits.
+     */
+    void evictUser(String email);
+
+    /**
+     * Evict a single user role (call after it is revoked)
+     */
+    void evictUserRole(UUID userRoleId);
+
+    /**
+     * Hit/miss/eviction counters for the principal and user role caches
+     */
+    List<BoundedTtlCache.Stats> getStats();
+}
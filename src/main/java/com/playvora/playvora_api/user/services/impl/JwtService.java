@@ -88,17 +88,33 @@ public class JwtService implements IJwtService {
 
     @Override
     public String extractUsername(String token) {
+        return extractAllClaims(token).getSubject();
+    }
+
+    /**
+     * Verify the signature and parse the token once; callers needing several claims should use this
+     * instead of calling {@link #extractUsername} / {@link #isTokenExpired} separately.
+     */
+    @Override
+    public Claims extractAllClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSecretKey())
                 .build()
                 .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+                .getBody();
     }
 
     @Override
     public Boolean isTokenValid(String token, UserDetails userDetails) {
-        return extractUsername(token).equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+
+    @Override
+    public Boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration() != null
+                && !claims.getExpiration().before(new Date());
     }
 
     @Override
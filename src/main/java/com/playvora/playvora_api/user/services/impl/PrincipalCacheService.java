@@ -0,0 +1,143 @@
+package com.playvora.playvora_api.user.services.impl;
+
+import com.playvora.playvora_api.app.ActiveUserRole;
+import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.common.utils.BoundedTtlCache;
+import com.playvora.playvora_api.user.entities.UserRole;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of authenticated principals and active user roles, so that requests carrying
+ * the same access token do not reload the user and its roles from Postgres every time.
+ * Only immutable snapshots ({@link AppUserDetail}, {@link ActiveUserRole}) are cached, never JPA entities.
+ * Entries are bounded by size and TTL and are evicted explicitly whenever a user or its roles change.
+ */
+@Slf4j
+@Service
+public class PrincipalCacheService implements IPrincipalCacheService {
+
+    private final boolean enabled;
+    private final BoundedTtlCache<PrincipalKey, UserDetails> principals;
+    private final BoundedTtlCache<UUID, CachedUserRole> userRoles;
+
+    public PrincipalCacheService(
+            @Value("${app.security.principal-cache.enabled:true}") boolean enabled,
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+            @Value("${app.security.principal-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.principals = new BoundedTtlCache<>("principals", maxSize, ttlSeconds * 1000);
+        this.userRoles = new BoundedTtlCache<>("userRoles", maxSize, ttlSeconds * 1000);
+    }
+
+    @Override
+    public UserDetails getPrincipal(String email, Date issuedAt, Supplier<UserDetails> loader) {
+        if (!enabled || email == null || issuedAt == null) {
+            return loader.get();
+        }
+        return principals.get(new PrincipalKey(normalize(email), issuedAt.getTime()), key -> loader.get());
+    }
+
+    @Override
+    public Optional<ActiveUserRole> getActiveUserRole(UUID userRoleId, Supplier<Optional<UserRole>> loader) {
+        if (!enabled || userRoleId == null) {
+            return loader.get().map(ActiveUserRole::of);
+        }
+        // Misses are not cached: an unknown or inactive role id is rejected by the caller anyway
+        return Optional.ofNullable(userRoles.get(userRoleId, key -> loader.get().map(CachedUserRole::of).orElse(null)))
+                .map(CachedUserRole::role);
+    }
+
+    @Override
+    public void evictUser(String email) {
+        if (email == null) {
+            return;
+        }
+        runNowAndAfterCommit(() -> {
+            String normalized = normalize(email);
+            principals.invalidateIf((key, principal) -> key.email().equals(normalized));
+            userRoles.invalidateIf((id, cached) -> cached.email() == null || normalized.equals(cached.email()));
+        });
+    }
+
+    @Override
+    public void evictUserRole(UUID userRoleId) {
+        if (userRoleId == null) {
+            return;
+        }
+        runNowAndAfterCommit(() -> {
+            userRoles.invalidate(userRoleId);
+            // The role is also part of its user's cached principal
+            principals.invalidateIf((key, principal) -> principal instanceof AppUserDetail appUserDetail
+                    && appUserDetail.findActiveRole(userRoleId).isPresent());
+        });
+    }
+
+    @Override
+    public List<BoundedTtlCache.Stats> getStats() {
+        return List.of(principals.stats(), userRoles.stats());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.principal-cache.stats-interval-ms:300000}")
+    public void purgeExpiredAndLogStats() {
+        principals.purgeExpired();
+        userRoles.purgeExpired();
+        for (BoundedTtlCache.Stats stats : getStats()) {
+            log.info("Principal cache [{}]: size={}/{}, hits={}, misses={}, hitRate={}, evictions={}",
+                    stats.name(), stats.size(), stats.maxSize(), stats.hits(), stats.misses(),
+                    String.format(Locale.ROOT, "%.3f", stats.hitRate()), stats.evictions());
+        }
+    }
+
+    /**
+     * Evict immediately so the current request sees fresh data, and again after commit so a concurrent
+     * request cannot re-cache the pre-commit state.
+     */
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+
+    private record PrincipalKey(String email, long issuedAt) {
+    }
+
+    /**
+     * A cached role with its user's normalized email, so {@link #evictUser(String)} can find it
+     */
+    private record CachedUserRole(ActiveUserRole role, String email) {
+
+        static CachedUserRole of(UserRole userRole) {
+            String email = null;
+            try {
+                email = userRole.getUser() != null ? normalize(userRole.getUser().getEmail()) : null;
+            } catch (RuntimeException e) {
+                // Uninitialized lazy user outside a session; leave it unknown so any user eviction drops it
+            }
+            return new CachedUserRole(ActiveUserRole.of(userRole), email);
+        }
+    }
+}
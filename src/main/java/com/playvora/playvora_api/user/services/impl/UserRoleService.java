@@ -1,5 +1,6 @@
 package com.playvora.playvora_api.user.services.impl;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.community.entities.Community;
@@ -13,6 +14,7 @@ import com.playvora.playvora_api.user.repo.RoleRepository;
 import com.playvora.playvora_api.user.repo.UserRepository;
 import com.playvora.playvora_api.user.repo.UserRoleRepository;
 import com.playvora.playvora_api.user.services.IUserRoleService;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,6 +35,7 @@ public class UserRoleService implements IUserRoleService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final CommunityRepository communityRepository;
+    private final IPrincipalCacheService principalCacheService;
 
     @Override
     @Transactional(readOnly = true)
@@ -112,6 +115,7 @@ public class UserRoleService implements IUserRoleService {
                 .build();
         
         UserRole savedUserRole = userRoleRepository.save(userRole);
+        principalCacheService.evictUser(user.getEmail());
         log.info("Assigned role {} to user {} in context {}", 
                 role.getName(), user.getId(), 
                 community != null ? "community " + community.getId() : "global");
@@ -129,6 +133,8 @@ public class UserRoleService implements IUserRoleService {
         
         userRole.softDelete();
         userRoleRepository.save(userRole);
+        principalCacheService.evictUserRole(userRoleId);
+        principalCacheService.evictUser(userRole.getUser().getEmail());
         
         log.info("Soft deleted user role: {}", userRoleId);
     }
@@ -152,8 +158,7 @@ public class UserRoleService implements IUserRoleService {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
         
         throw new BadRequestException("Invalid authentication principal");
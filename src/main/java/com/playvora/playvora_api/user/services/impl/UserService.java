@@ -1,10 +1,12 @@
 package com.playvora.playvora_api.user.services.impl;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.auth.dtos.AuthProviderAttribute;
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.community.entities.CommunityMember;
 import com.playvora.playvora_api.community.repo.CommunityMemberRepository;
+import com.playvora.playvora_api.match.enums.Gender;
 import com.playvora.playvora_api.user.dtos.RegisterRequest;
 import com.playvora.playvora_api.user.dtos.UpdateRequest;       
 import com.playvora.playvora_api.user.entities.Role;
@@ -15,6 +17,7 @@ import com.playvora.playvora_api.user.repo.UserRepository;
 import com.playvora.playvora_api.user.repo.UserRoleRepository;
 import com.playvora.playvora_api.user.services.IUserService;
 import com.playvora.playvora_api.wallet.services.IWalletService;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -32,6 +35,7 @@ public class UserService implements IUserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final UserRoleRepository userRoleRepository;
+    private final IPrincipalCacheService principalCacheService;
     private final PasswordEncoder passwordEncoder;
     private final IWalletService walletService;
     private final CommunityMemberRepository communityMemberRepository;
@@ -115,8 +119,7 @@ public class UserService implements IUserService {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmailWithRoles(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
         
         throw new BadRequestException("Invalid authentication principal");
@@ -125,9 +128,26 @@ public class UserService implements IUserService {
     @Override
     @Transactional
     public User updateCurrentUser(UpdateRequest updateRequest) {
-        User currentUser = getCurrentUser();
+        // Load a managed copy in this transaction; the authenticated principal is only a snapshot
+        User currentUser = userRepository.findById(getCurrentUser().getId())
+                .orElseThrow(() -> new BadRequestException("User not found"));
 
         String originalCountry = currentUser.getCountry();
+
+        // Validate the whole request before changing anything
+        if (updateRequest.getCountry() != null && updateRequest.getCountry().isPresent()) {
+            String requestedCountry = updateRequest.getCountry().get();
+
+            // If country is already set and a different value is requested, block the change
+            if (originalCountry != null && !originalCountry.equals(requestedCountry)) {
+                throw new BadRequestException("Country cannot be changed once it has been set");
+            }
+        }
+        if (updateRequest.getGender() != null && updateRequest.getGender().isPresent()
+                && updateRequest.getGender().get() == Gender.COED) {
+            throw new BadRequestException("Gender must be MALE or FEMALE");
+        }
+
         boolean shouldCreateWallet = false;
 
         // Safely handle Optional fields that might be null (when field is missing from JSON)
@@ -143,22 +163,17 @@ public class UserService implements IUserService {
         if (updateRequest.getProfilePictureUrl() != null && updateRequest.getProfilePictureUrl().isPresent()) {
             currentUser.setProfilePictureUrl(updateRequest.getProfilePictureUrl().get());
         }
-        if (updateRequest.getCountry() != null && updateRequest.getCountry().isPresent()) {
-            String requestedCountry = updateRequest.getCountry().get();
-
-            // If country is already set and a different value is requested, block the change
-            if (originalCountry != null && !originalCountry.equals(requestedCountry)) {
-                throw new BadRequestException("Country cannot be changed once it has been set");
-            }
-
-            // If this is the first time country is being set, allow it and mark for wallet creation
-            if (originalCountry == null) {
-                currentUser.setCountry(requestedCountry);
-                shouldCreateWallet = true;
-            }
+        // If this is the first time country is being set, allow it and mark for wallet creation
+        if (updateRequest.getCountry() != null && updateRequest.getCountry().isPresent() && originalCountry == null) {
+            currentUser.setCountry(updateRequest.getCountry().get());
+            shouldCreateWallet = true;
+        }
+        if (updateRequest.getGender() != null && updateRequest.getGender().isPresent()) {
+            currentUser.setGender(updateRequest.getGender().get().name());
         }
 
         User savedUser = userRepository.save(currentUser);
+        principalCacheService.evictUser(savedUser.getEmail());
 
         if (shouldCreateWallet) {
             walletService.createWalletForUser(savedUser);
@@ -0,0 +1,21 @@
+package com.playvora.playvora_api.venue.availability;
+
+import com.playvora.playvora_api.venue.enums.VenueBookingStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Start and end of a booking that blocks its venue, as loaded for a {@link VenueCalendar}: either
+ * CONFIRMED, or PENDING_PAYMENT and holding the slot until {@code holdExpiresAt}.
+ */
+public record BookedInterval(OffsetDateTime startTime, OffsetDateTime endTime, VenueBookingStatus status,
+                             OffsetDateTime holdExpiresAt) {
+
+    public BookedInterval(OffsetDateTime startTime, OffsetDateTime endTime) {
+        this(startTime, endTime, VenueBookingStatus.CONFIRMED, null);
+    }
+
+    public boolean isHold() {
+        return status == VenueBookingStatus.PENDING_PAYMENT;
+    }
+}
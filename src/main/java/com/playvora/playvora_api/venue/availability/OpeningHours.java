@@ -0,0 +1,47 @@
+package com.playvora.playvora_api.venue.availability;
+
+import com.playvora.playvora_api.venue.entities.Venue;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The days and hours a venue can be booked. A booking must start and end on the same day (in the
+ * offset it was given in), on a day the venue is open, between its opening and closing time.
+ */
+public record OpeningHours(LocalTime openingTime, LocalTime closingTime, Set<DayOfWeek> openDays) {
+
+    public static OpeningHours of(Venue venue) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (venue.isOpenMonday()) days.add(DayOfWeek.MONDAY);
+        if (venue.isOpenTuesday()) days.add(DayOfWeek.TUESDAY);
+        if (venue.isOpenWednesday()) days.add(DayOfWeek.WEDNESDAY);
+        if (venue.isOpenThursday()) days.add(DayOfWeek.THURSDAY);
+        if (venue.isOpenFriday()) days.add(DayOfWeek.FRIDAY);
+        if (venue.isOpenSaturday()) days.add(DayOfWeek.SATURDAY);
+        if (venue.isOpenSunday()) days.add(DayOfWeek.SUNDAY);
+        return new OpeningHours(venue.getOpeningTime(), venue.getClosingTime(), days);
+    }
+
+    public static boolean isSameDay(OffsetDateTime start, OffsetDateTime end) {
+        return !start.toLocalDate().isBefore(end.toLocalDate());
+    }
+
+    public boolean isOpenOn(DayOfWeek dayOfWeek) {
+        return openDays.contains(dayOfWeek);
+    }
+
+    public boolean isWithinHours(OffsetDateTime start, OffsetDateTime end) {
+        return !start.toLocalTime().isBefore(openingTime) && !end.toLocalTime().isAfter(closingTime);
+    }
+
+    /**
+     * Whether a booking from {@code start} to {@code end} satisfies every opening-hours rule.
+     */
+    public boolean allows(OffsetDateTime start, OffsetDateTime end) {
+        return isSameDay(start, end) && isOpenOn(start.getDayOfWeek()) && isWithinHours(start, end);
+    }
+}
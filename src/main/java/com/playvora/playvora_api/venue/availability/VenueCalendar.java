@@ -0,0 +1,163 @@
+package com.playvora.playvora_api.venue.availability;
+
+import com.playvora.playvora_api.venue.dtos.AvailabilitySlot;
+import com.playvora.playvora_api.venue.enums.AvailabilitySlotStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable index of the time a venue is booked. Confirmed bookings are sorted and merged into
+ * disjoint runs held in two parallel arrays, so checking a range for an overlap is one binary search
+ * and a calendar of n bookings costs 16n bytes. Holds of pending bookings are few and short-lived;
+ * they are kept unmerged with their expiry and scanned, so a hold stops counting the moment it
+ * expires even if the calendar is older. Times are kept as epoch microseconds, the precision of
+ * Postgres timestamps; all ranges are half-open.
+ */
+public final class VenueCalendar {
+
+    private static final long[] NONE = new long[0];
+    private static final VenueCalendar EMPTY = new VenueCalendar(NONE, NONE, NONE, NONE, NONE);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] holdStarts;
+    private final long[] holdEnds;
+    private final long[] holdExpiries;
+
+    private VenueCalendar(long[] starts, long[] ends, long[] holdStarts, long[] holdEnds, long[] holdExpiries) {
+        this.starts = starts;
+        this.ends = ends;
+        this.holdStarts = holdStarts;
+        this.holdEnds = holdEnds;
+        this.holdExpiries = holdExpiries;
+    }
+
+    public static VenueCalendar of(Collection<BookedInterval> bookings) {
+        if (bookings.isEmpty()) {
+            return EMPTY;
+        }
+        List<BookedInterval> sorted = new ArrayList<>(bookings);
+        sorted.sort(Comparator.comparing(BookedInterval::startTime));
+
+        long[] starts = new long[sorted.size()];
+        long[] ends = new long[sorted.size()];
+        long[] holdStarts = new long[sorted.size()];
+        long[] holdEnds = new long[sorted.size()];
+        long[] holdExpiries = new long[sorted.size()];
+        int runs = 0;
+        int holds = 0;
+        for (BookedInterval booking : sorted) {
+            long start = micros(booking.startTime().toInstant());
+            long end = micros(booking.endTime().toInstant());
+            if (end <= start) {
+                continue;
+            }
+            if (booking.isHold()) {
+                if (booking.holdExpiresAt() != null) {
+                    holdStarts[holds] = start;
+                    holdEnds[holds] = end;
+                    holdExpiries[holds] = micros(booking.holdExpiresAt().toInstant());
+                    holds++;
+                }
+                continue;
+            }
+            if (runs > 0 && start <= ends[runs - 1]) {
+                ends[runs - 1] = Math.max(ends[runs - 1], end);
+            } else {
+                starts[runs] = start;
+                ends[runs] = end;
+                runs++;
+            }
+        }
+        return new VenueCalendar(Arrays.copyOf(starts, runs), Arrays.copyOf(ends, runs),
+                Arrays.copyOf(holdStarts, holds), Arrays.copyOf(holdEnds, holds), Arrays.copyOf(holdExpiries, holds));
+    }
+
+    /**
+     * Whether any confirmed booking overlaps [start, end).
+     */
+    public boolean isBooked(Instant start, Instant end) {
+        long from = micros(start);
+        long to = micros(end);
+        // Last run starting before the end of the range; earlier runs end before it starts
+        int index = lastStartBefore(to);
+        return index >= 0 && ends[index] > from;
+    }
+
+    /**
+     * Whether a hold that is still live at {@code now} overlaps [start, end).
+     */
+    public boolean isHeld(Instant start, Instant end, Instant now) {
+        long from = micros(start);
+        long to = micros(end);
+        long at = micros(now);
+        for (int i = 0; i < holdStarts.length && holdStarts[i] < to; i++) {
+            if (holdEnds[i] > from && holdExpiries[i] > at) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split [from, to) into slots of {@code granularity}, starting at {@code from}, and classify each
+     * one. A trailing partial slot is dropped. Opening hours are applied in the offset of {@code from}.
+     */
+    public List<AvailabilitySlot> slots(OpeningHours openingHours, OffsetDateTime from, OffsetDateTime to,
+                                        Duration granularity, Instant now) {
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        for (OffsetDateTime start = from, end = from.plus(granularity);
+             !end.isAfter(to);
+             start = end, end = end.plus(granularity)) {
+            slots.add(AvailabilitySlot.builder()
+                    .startTime(start)
+                    .endTime(end)
+                    .status(statusOf(openingHours, start, end, now))
+                    .build());
+        }
+        return slots;
+    }
+
+    public int size() {
+        return starts.length + holdStarts.length;
+    }
+
+    private AvailabilitySlotStatus statusOf(OpeningHours openingHours, OffsetDateTime start, OffsetDateTime end,
+                                            Instant now) {
+        if (start.toInstant().isBefore(now)) {
+            return AvailabilitySlotStatus.PAST;
+        }
+        if (!openingHours.allows(start, end)) {
+            return AvailabilitySlotStatus.CLOSED;
+        }
+        if (isBooked(start.toInstant(), end.toInstant())) {
+            return AvailabilitySlotStatus.BOOKED;
+        }
+        return isHeld(start.toInstant(), end.toInstant(), now) ? AvailabilitySlotStatus.HELD : AvailabilitySlotStatus.FREE;
+    }
+
+    private int lastStartBefore(long time) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private static long micros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+}
@@ -4,13 +4,16 @@ import com.playvora.playvora_api.common.dto.ApiResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
 import com.playvora.playvora_api.venue.dtos.ConfirmVenueBookingPaymentRequest;
 import com.playvora.playvora_api.venue.dtos.CreateVenueBookingRequest;
+import com.playvora.playvora_api.venue.dtos.VenueAvailabilityResponse;
 import com.playvora.playvora_api.venue.dtos.VenueBookingResponse;
+import com.playvora.playvora_api.venue.services.IVenueAvailabilityService;
 import com.playvora.playvora_api.venue.services.IVenueBookingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -22,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @RestController
@@ -31,9 +35,24 @@ import java.util.UUID;
 public class VenueBookingController {
 
     private final IVenueBookingService bookingService;
+    private final IVenueAvailabilityService availabilityService;
+
+    @GetMapping("/{venueId}/availability")
+    @Operation(summary = "Get venue availability", description = "Split a time range into slots and mark each one FREE, HELD (by an unpaid booking), BOOKED, CLOSED (outside opening hours) or PAST. Opening hours are applied in the offset of 'from'.")
+    public ResponseEntity<ApiResponse<VenueAvailabilityResponse>> getAvailability(
+            @Parameter(description = "Venue ID") @PathVariable UUID venueId,
+            @Parameter(description = "Start of the range (ISO-8601 with offset)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @Parameter(description = "End of the range (ISO-8601 with offset)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @Parameter(description = "Slot length in minutes") @RequestParam(defaultValue = "60") int granularity
+    ) {
+        VenueAvailabilityResponse availability = availabilityService.getAvailability(venueId, from, to, granularity);
+        return ResponseEntity.ok(ApiResponse.success(availability, "Venue availability retrieved successfully"));
+    }
 
     @PostMapping("/{venueId}/bookings")
-    @Operation(summary = "Create venue booking", description = "Create a new booking for a venue. Booking is pending until payment is confirmed.")
+    @Operation(summary = "Create venue booking", description = "Create a new booking for a venue. The booking holds its slot until holdExpiresAt and must be paid for and confirmed before then.")
     public ResponseEntity<ApiResponse<VenueBookingResponse>> createBooking(
             @Parameter(description = "Venue ID") @PathVariable UUID venueId,
             @Valid @RequestBody CreateVenueBookingRequest request
@@ -44,7 +63,7 @@ public class VenueBookingController {
     }
 
     @PostMapping("/bookings/{bookingId}/confirm-payment")
-    @Operation(summary = "Confirm venue booking payment", description = "Mark a venue booking as paid and confirmed. Should be called after successful payment.")
+    @Operation(summary = "Confirm venue booking payment", description = "Mark a venue booking as paid and confirmed. Should be called after successful payment, before the hold expires.")
     public ResponseEntity<ApiResponse<VenueBookingResponse>> confirmPayment(
             @Parameter(description = "Booking ID") @PathVariable UUID bookingId,
             @Valid @RequestBody ConfirmVenueBookingPaymentRequest request
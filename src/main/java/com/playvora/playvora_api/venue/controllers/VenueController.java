@@ -1,10 +1,13 @@
 package com.playvora.playvora_api.venue.controllers;
 
 import com.playvora.playvora_api.common.dto.ApiResponse;
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
+import com.playvora.playvora_api.common.geo.NearbyQuery;
 import com.playvora.playvora_api.venue.dtos.CreateVenueRequest;
 import com.playvora.playvora_api.venue.dtos.UpdateVenueRequest;
 import com.playvora.playvora_api.venue.dtos.VenueResponse;
+import com.playvora.playvora_api.venue.enums.VenueType;
 import com.playvora.playvora_api.venue.services.IVenueService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -82,6 +85,24 @@ public class VenueController {
         PaginatedResponse<VenueResponse> venues = venueService.getAllVenues(page, size, sortBy, sortDirection);
         return ResponseEntity.ok(ApiResponse.success(venues, "Venues retrieved successfully"));
     }
+
+    @GetMapping("/nearby")
+    @Operation(summary = "Get nearby venues", description = "Get venues within a radius of a point, nearest first, with a distance cursor")
+    public ResponseEntity<ApiResponse<NearbyPaginatedResponse<VenueResponse>>> getNearbyVenues(
+            @Parameter(description = "Latitude of the search centre") @RequestParam double latitude,
+            @Parameter(description = "Longitude of the search centre") @RequestParam double longitude,
+            @Parameter(description = "Search radius in kilometres") @RequestParam(defaultValue = "10") double radiusKm,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Distance cursor from the previous page (nextAfterDistanceKm)")
+            @RequestParam(required = false) Double afterDistanceKm,
+            @Parameter(description = "Id cursor from the previous page (nextAfterId)")
+            @RequestParam(required = false) UUID afterId,
+            @Parameter(description = "Only venues of this type") @RequestParam(required = false) VenueType venueType
+    ) {
+        NearbyPaginatedResponse<VenueResponse> venues = venueService.findNearbyVenues(
+                new NearbyQuery(latitude, longitude, radiusKm, size, afterDistanceKm, afterId), venueType);
+        return ResponseEntity.ok(ApiResponse.success(venues, "Nearby venues retrieved successfully"));
+    }
 }
 
 
@@ -0,0 +1,20 @@
+package com.playvora.playvora_api.venue.dtos;
+
+import com.playvora.playvora_api.venue.enums.AvailabilitySlotStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AvailabilitySlot {
+
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+    private AvailabilitySlotStatus status;
+}
@@ -0,0 +1,23 @@
+package com.playvora.playvora_api.venue.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VenueAvailabilityResponse {
+
+    private UUID venueId;
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+    private int granularityMinutes;
+    private List<AvailabilitySlot> slots;
+}
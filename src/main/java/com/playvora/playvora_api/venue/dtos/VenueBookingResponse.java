@@ -27,6 +27,7 @@ public class VenueBookingResponse {
     private BigDecimal totalPrice;
     private VenueBookingStatus status;
     private String paymentReference;
+    private OffsetDateTime holdExpiresAt;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
 }
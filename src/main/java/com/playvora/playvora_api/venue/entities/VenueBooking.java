@@ -64,6 +64,12 @@ public class VenueBooking {
     @Column(name = "payment_reference")
     private String paymentReference;
 
+    /**
+     * While PENDING_PAYMENT, the booking holds its slot until this time; it is then expired.
+     */
+    @Column(name = "hold_expires_at")
+    private OffsetDateTime holdExpiresAt;
+
     @Column(name = "created_at", updatable = false)
     @Builder.Default
     private OffsetDateTime createdAt = OffsetDateTime.now();
@@ -0,0 +1,9 @@
+package com.playvora.playvora_api.venue.enums;
+
+public enum AvailabilitySlotStatus {
+    FREE,
+    HELD,
+    BOOKED,
+    CLOSED,
+    PAST
+}
@@ -3,7 +3,7 @@ package com.playvora.playvora_api.venue.enums;
 public enum VenueBookingStatus {
     PENDING_PAYMENT,
     CONFIRMED,
-    CANCELED
+    CANCELED,
+    EXPIRED,
+    REFUND_REQUIRED
 }
-
-
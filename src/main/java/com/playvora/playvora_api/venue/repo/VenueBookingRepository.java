@@ -1,33 +1,156 @@
 package com.playvora.playvora_api.venue.repo;
 
+import com.playvora.playvora_api.venue.availability.BookedInterval;
 import com.playvora.playvora_api.venue.entities.VenueBooking;
 import com.playvora.playvora_api.venue.enums.VenueBookingStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface VenueBookingRepository extends JpaRepository<VenueBooking, UUID> {
 
     Page<VenueBooking> findByUserId(UUID userId, Pageable pageable);
 
+    /**
+     * Whether the range overlaps a booking that blocks it: one in {@code confirmed} status, or one in
+     * {@code pending} status whose hold has not expired at {@code now}.
+     */
+    @Query("""
+            SELECT COUNT(b) > 0 FROM VenueBooking b
+            WHERE b.venue.id = :venueId
+              AND b.startTime < :endTime
+              AND b.endTime > :startTime
+              AND (b.status = :confirmed OR (b.status = :pending AND b.holdExpiresAt > :now))
+            """)
+    boolean existsBlockingBooking(
+            @Param("venueId") UUID venueId,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime,
+            @Param("confirmed") VenueBookingStatus confirmed,
+            @Param("pending") VenueBookingStatus pending,
+            @Param("now") OffsetDateTime now
+    );
+
     @Query("""
             SELECT COUNT(b) > 0 FROM VenueBooking b
             WHERE b.venue.id = :venueId
               AND b.status = :status
+              AND b.id <> :excludedBookingId
               AND b.startTime < :endTime
               AND b.endTime > :startTime
             """)
-    boolean existsOverlappingBooking(
+    boolean existsOverlappingBookingExcluding(
             @Param("venueId") UUID venueId,
             @Param("status") VenueBookingStatus status,
             @Param("startTime") OffsetDateTime startTime,
-            @Param("endTime") OffsetDateTime endTime
+            @Param("endTime") OffsetDateTime endTime,
+            @Param("excludedBookingId") UUID excludedBookingId
     );
-}
 
+    /**
+     * Blocking bookings of a venue (as in {@link #existsBlockingBooking}) that end after {@code now},
+     * for its availability calendar.
+     */
+    @Query("""
+            SELECT new com.playvora.playvora_api.venue.availability.BookedInterval(
+                b.startTime, b.endTime, b.status, b.holdExpiresAt)
+            FROM VenueBooking b
+            WHERE b.venue.id = :venueId
+              AND b.endTime > :now
+              AND (b.status = :confirmed OR (b.status = :pending AND b.holdExpiresAt > :now))
+            """)
+    List<BookedInterval> findBookedIntervals(
+            @Param("venueId") UUID venueId,
+            @Param("confirmed") VenueBookingStatus confirmed,
+            @Param("pending") VenueBookingStatus pending,
+            @Param("now") OffsetDateTime now
+    );
 
+    /**
+     * Confirm a booking only if it is still {@code pending} and its hold is live at {@code now}.
+     * The status check and the write are one statement, so a concurrent expiry cannot interleave.
+     *
+     * @return 1 if the hold was converted, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE VenueBooking b
+            SET b.status = :confirmed, b.paymentReference = :paymentReference, b.updatedAt = :now
+            WHERE b.id = :bookingId
+              AND b.status = :pending
+              AND b.holdExpiresAt > :now
+            """)
+    int convertLiveHold(
+            @Param("bookingId") UUID bookingId,
+            @Param("paymentReference") String paymentReference,
+            @Param("confirmed") VenueBookingStatus confirmed,
+            @Param("pending") VenueBookingStatus pending,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Settle a paid booking whose hold lapsed before the payment was confirmed: set it to
+     * {@code status} with the payment reference, if it is still {@code pending} or {@code expired}.
+     * Callers hold the venue lock and have checked whether the slot is still free.
+     *
+     * @return 1 if the booking was updated, 0 if it was confirmed or canceled in the meantime
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE VenueBooking b
+            SET b.status = :status, b.paymentReference = :paymentReference, b.updatedAt = :now
+            WHERE b.id = :bookingId
+              AND b.status IN (:pending, :expired)
+            """)
+    int settleLapsedHold(
+            @Param("bookingId") UUID bookingId,
+            @Param("paymentReference") String paymentReference,
+            @Param("status") VenueBookingStatus status,
+            @Param("pending") VenueBookingStatus pending,
+            @Param("expired") VenueBookingStatus expired,
+            @Param("now") OffsetDateTime now
+    );
+
+    /**
+     * Ids of bookings in {@code pending} status whose hold expired by {@code now}, oldest first.
+     * Served by the (status, hold_expires_at) index.
+     */
+    @Query("""
+            SELECT b.id FROM VenueBooking b
+            WHERE b.status = :pending
+              AND b.holdExpiresAt <= :now
+            ORDER BY b.holdExpiresAt ASC
+            """)
+    List<UUID> findExpiredHoldIds(
+            @Param("pending") VenueBookingStatus pending,
+            @Param("now") OffsetDateTime now,
+            Pageable pageable
+    );
+
+    /**
+     * Expire the given holds, skipping any that were confirmed or canceled in the meantime.
+     *
+     * @return the number of bookings expired
+     */
+    @Modifying
+    @Query("""
+            UPDATE VenueBooking b
+            SET b.status = :expired, b.updatedAt = :now
+            WHERE b.id IN :bookingIds
+              AND b.status = :pending
+              AND b.holdExpiresAt <= :now
+            """)
+    int expireHolds(
+            @Param("bookingIds") List<UUID> bookingIds,
+            @Param("expired") VenueBookingStatus expired,
+            @Param("pending") VenueBookingStatus pending,
+            @Param("now") OffsetDateTime now
+    );
+}
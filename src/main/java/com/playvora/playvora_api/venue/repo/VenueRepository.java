@@ -1,11 +1,60 @@
 package com.playvora.playvora_api.venue.repo;
 
+import com.playvora.playvora_api.common.geo.NearbyHit;
 import com.playvora.playvora_api.venue.entities.Venue;
+import com.playvora.playvora_api.venue.enums.VenueType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface VenueRepository extends JpaRepository<Venue, UUID> {
-}
 
+    /**
+     * The next page of venues nearest to a point, for GeoSearch (see NearbySearch): rows are
+     * narrowed to the bounding box, then ranked by the same haversine distance as GeoPoint.
+     */
+    @Query("""
+        SELECT new com.playvora.playvora_api.common.geo.NearbyHit(hit.id, hit.distanceKm)
+        FROM (
+            SELECT v.id AS id,
+                   cast(12742.0176 AS Double) * asin(sqrt(
+                       power(sin(radians(cast(v.latitude AS Double) - :latitude) / 2), 2)
+                       + cos(radians(:latitude)) * cos(radians(cast(v.latitude AS Double)))
+                         * power(sin(radians(cast(v.longitude AS Double) - :longitude) / 2), 2))) AS distanceKm
+            FROM Venue v
+            WHERE v.latitude BETWEEN :minLatitude AND :maxLatitude
+              AND v.longitude BETWEEN :minLongitude AND :maxLongitude
+              AND (:venueType IS NULL OR v.venueType = :venueType)
+        ) hit
+        WHERE hit.distanceKm <= :radiusKm
+          AND (hit.distanceKm > :afterDistanceKm OR (hit.distanceKm = :afterDistanceKm AND hit.id > :afterId))
+        ORDER BY hit.distanceKm, hit.id
+    """)
+    List<NearbyHit> findNearest(@Param("latitude") double latitude,
+                                @Param("longitude") double longitude,
+                                @Param("radiusKm") double radiusKm,
+                                @Param("minLatitude") BigDecimal minLatitude,
+                                @Param("maxLatitude") BigDecimal maxLatitude,
+                                @Param("minLongitude") BigDecimal minLongitude,
+                                @Param("maxLongitude") BigDecimal maxLongitude,
+                                @Param("afterDistanceKm") double afterDistanceKm,
+                                @Param("afterId") UUID afterId,
+                                @Param("venueType") VenueType venueType,
+                                Limit limit);
 
+    /**
+     * Load a venue and lock its row until the transaction ends. Booking writes take this lock so that
+     * the overlap check and the write for one venue never interleave, without blocking other venues.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Venue v WHERE v.id = :id")
+    Optional<Venue> findByIdForUpdate(@Param("id") UUID id);
+}
@@ -0,0 +1,16 @@
+package com.playvora.playvora_api.venue.services;
+
+import com.playvora.playvora_api.venue.dtos.VenueAvailabilityResponse;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public interface IVenueAvailabilityService {
+
+    VenueAvailabilityResponse getAvailability(UUID venueId, OffsetDateTime from, OffsetDateTime to, int granularityMinutes);
+
+    /**
+     * Drop the cached calendar of a venue, now and again after the current transaction commits.
+     */
+    void evict(UUID venueId);
+}
@@ -1,9 +1,12 @@
 package com.playvora.playvora_api.venue.services;
 
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
+import com.playvora.playvora_api.common.geo.NearbyQuery;
 import com.playvora.playvora_api.venue.dtos.CreateVenueRequest;
 import com.playvora.playvora_api.venue.dtos.UpdateVenueRequest;
 import com.playvora.playvora_api.venue.dtos.VenueResponse;
+import com.playvora.playvora_api.venue.enums.VenueType;
 
 import java.util.UUID;
 
@@ -18,6 +21,8 @@ public interface IVenueService {
     VenueResponse getVenueById(UUID id);
 
     PaginatedResponse<VenueResponse> getAllVenues(int page, int size, String sortBy, String sortDirection);
+
+    NearbyPaginatedResponse<VenueResponse> findNearbyVenues(NearbyQuery query, VenueType venueType);
 }
 
 
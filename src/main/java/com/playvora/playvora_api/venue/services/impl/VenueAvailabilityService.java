@@ -0,0 +1,142 @@
+package com.playvora.playvora_api.venue.services.impl;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.utils.BoundedTtlCache;
+import com.playvora.playvora_api.venue.availability.OpeningHours;
+import com.playvora.playvora_api.venue.availability.VenueCalendar;
+import com.playvora.playvora_api.venue.dtos.VenueAvailabilityResponse;
+import com.playvora.playvora_api.venue.entities.Venue;
+import com.playvora.playvora_api.venue.enums.VenueBookingStatus;
+import com.playvora.playvora_api.venue.repo.VenueBookingRepository;
+import com.playvora.playvora_api.venue.repo.VenueRepository;
+import com.playvora.playvora_api.venue.services.IVenueAvailabilityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Free/held/booked slots of a venue over a time range. Each venue's confirmed bookings and live
+ * holds that have not ended are held in memory as a {@link VenueCalendar}, evicted whenever a booking
+ * of the venue is placed, confirmed or canceled on this instance and otherwise refreshed after the
+ * TTL; a hold that lapses stops counting without an eviction. Opening hours are read from the
+ * venue on every request. The calendar only answers availability queries: booking writes check for
+ * overlaps in the database under the venue lock.
+ */
+@Slf4j
+@Service
+public class VenueAvailabilityService implements IVenueAvailabilityService {
+
+    private static final int MIN_GRANULARITY_MINUTES = 15;
+    private static final int MAX_GRANULARITY_MINUTES = 1440;
+
+    private final VenueRepository venueRepository;
+    private final VenueBookingRepository venueBookingRepository;
+    private final BoundedTtlCache<UUID, VenueCalendar> calendars;
+    private final int maxRangeDays;
+    private final Clock clock;
+    // Bumped on every eviction, so a calendar loaded before a booking change is not cached after it
+    private final AtomicLong generation = new AtomicLong();
+
+    public VenueAvailabilityService(VenueRepository venueRepository,
+                                    VenueBookingRepository venueBookingRepository,
+                                    @Value("${app.venue.availability.cache-max-size:10000}") int cacheMaxSize,
+                                    @Value("${app.venue.availability.cache-ttl-seconds:300}") long cacheTtlSeconds,
+                                    @Value("${app.venue.availability.max-range-days:31}") int maxRangeDays) {
+        this.venueRepository = venueRepository;
+        this.venueBookingRepository = venueBookingRepository;
+        this.calendars = new BoundedTtlCache<>("venueCalendars", cacheMaxSize, cacheTtlSeconds * 1000);
+        this.maxRangeDays = maxRangeDays;
+        this.clock = Clock.systemUTC();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VenueAvailabilityResponse getAvailability(UUID venueId, OffsetDateTime from, OffsetDateTime to,
+                                                     int granularityMinutes) {
+        if (from == null || to == null) {
+            throw new BadRequestException("from and to are required");
+        }
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("to must be after from");
+        }
+        if (Duration.between(from, to).compareTo(Duration.ofDays(maxRangeDays)) > 0) {
+            throw new BadRequestException("Availability can be requested for at most " + maxRangeDays + " days");
+        }
+        if (granularityMinutes < MIN_GRANULARITY_MINUTES || granularityMinutes > MAX_GRANULARITY_MINUTES) {
+            throw new BadRequestException("Granularity must be between " + MIN_GRANULARITY_MINUTES
+                    + " and " + MAX_GRANULARITY_MINUTES + " minutes");
+        }
+
+        Venue venue = venueRepository.findById(venueId)
+                .orElseThrow(() -> new BadRequestException("Venue not found"));
+
+        Instant now = clock.instant();
+        return VenueAvailabilityResponse.builder()
+                .venueId(venueId)
+                .from(from)
+                .to(to)
+                .granularityMinutes(granularityMinutes)
+                .slots(calendarOf(venueId, now).slots(OpeningHours.of(venue), from, to,
+                        Duration.ofMinutes(granularityMinutes), now))
+                .build();
+    }
+
+    @Override
+    public void evict(UUID venueId) {
+        Runnable eviction = () -> {
+            synchronized (calendars) {
+                generation.incrementAndGet();
+                calendars.invalidate(venueId);
+            }
+        };
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.venue.availability.stats-interval-ms:300000}")
+    public void purgeExpiredAndLogStats() {
+        calendars.purgeExpired();
+        BoundedTtlCache.Stats stats = calendars.stats();
+        log.info("Venue calendar cache: size={}/{}, hits={}, misses={}, hitRate={}, evictions={}",
+                stats.size(), stats.maxSize(), stats.hits(), stats.misses(),
+                String.format(Locale.ROOT, "%.3f", stats.hitRate()), stats.evictions());
+    }
+
+    private VenueCalendar calendarOf(UUID venueId, Instant now) {
+        VenueCalendar calendar = calendars.getIfPresent(venueId);
+        if (calendar != null) {
+            return calendar;
+        }
+        long loadedAt = generation.get();
+        calendar = VenueCalendar.of(venueBookingRepository.findBookedIntervals(
+                venueId, VenueBookingStatus.CONFIRMED, VenueBookingStatus.PENDING_PAYMENT,
+                OffsetDateTime.ofInstant(now, ZoneOffset.UTC)));
+        synchronized (calendars) {
+            if (generation.get() == loadedAt) {
+                calendars.put(venueId, calendar);
+            }
+        }
+        log.debug("Loaded availability calendar for venue {} ({} intervals)", venueId, calendar.size());
+        return calendar;
+    }
+}
@@ -0,0 +1,81 @@
+package com.playvora.playvora_api.venue.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the lifecycle of venue booking holds on this instance since startup: how many holds
+ * were placed and how each one ended (confirmed, canceled, expired), plus payments confirmed after
+ * the hold had lapsed: accepted when the slot was still free, otherwise left for a refund. Logged
+ * periodically like the cache statistics.
+ */
+@Slf4j
+@Component
+public class VenueBookingHoldMetrics {
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder converted = new LongAdder();
+    private final LongAdder canceled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder lateConfirmations = new LongAdder();
+    private final LongAdder refundsRequired = new LongAdder();
+
+    public void holdCreated() {
+        created.increment();
+    }
+
+    public void holdConverted() {
+        converted.increment();
+    }
+
+    public void holdCanceled() {
+        canceled.increment();
+    }
+
+    public void holdsExpired(int count) {
+        expired.add(count);
+    }
+
+    public void lateConfirmationAccepted() {
+        lateConfirmations.increment();
+    }
+
+    public void refundRequired() {
+        refundsRequired.increment();
+    }
+
+    public Stats stats() {
+        return new Stats(created.sum(), converted.sum(), canceled.sum(), expired.sum(), lateConfirmations.sum(),
+                refundsRequired.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${app.venue.booking.hold-stats-interval-ms:300000}")
+    public void logStats() {
+        Stats stats = stats();
+        log.info("Venue booking holds: created={}, converted={}, canceled={}, expired={}, lateConfirmations={}, refundsRequired={}, conversionRate={}, expiryRate={}",
+                stats.created(), stats.converted(), stats.canceled(), stats.expired(), stats.lateConfirmations(),
+                stats.refundsRequired(),
+                String.format(Locale.ROOT, "%.3f", stats.conversionRate()),
+                String.format(Locale.ROOT, "%.3f", stats.expiryRate()));
+    }
+
+    public record Stats(long created, long converted, long canceled, long expired, long lateConfirmations,
+                        long refundsRequired) {
+
+        /** Share of finished holds that were paid for and confirmed. */
+        public double conversionRate() {
+            long finished = converted + canceled + expired;
+            return finished == 0 ? 0.0 : (double) converted / finished;
+        }
+
+        /** Share of finished holds that lapsed without payment. */
+        public double expiryRate() {
+            long finished = converted + canceled + expired;
+            return finished == 0 ? 0.0 : (double) expired / finished;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.playvora.playvora_api.venue.services.impl;
+
+import com.playvora.playvora_api.venue.enums.VenueBookingStatus;
+import com.playvora.playvora_api.venue.repo.VenueBookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Marks PENDING_PAYMENT bookings whose hold has lapsed as EXPIRED, in batches of at most
+ * {@code batch-size} rows per transaction. Expired holds stop blocking their slot as soon as they
+ * lapse, whether or not the reaper has run; the reaper keeps the status accurate and the pending
+ * set small. Each batch is a conditional update, so reapers on several nodes, or a confirmation
+ * racing with a batch, cannot both win for the same booking.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VenueBookingHoldReaper {
+
+    private final VenueBookingRepository venueBookingRepository;
+    private final VenueBookingHoldMetrics holdMetrics;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.venue.booking.hold-reaper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.venue.booking.hold-reaper.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${app.venue.booking.hold-reaper.interval-ms:60000}")
+    public void expireLapsedHolds() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            BatchResult result = transactionTemplate.execute(status -> expireBatch(OffsetDateTime.now()));
+            if (result == null) {
+                break;
+            }
+            total += result.expired();
+            if (result.found() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            holdMetrics.holdsExpired(total);
+            log.debug("Expired {} venue booking holds", total);
+        }
+    }
+
+    private BatchResult expireBatch(OffsetDateTime now) {
+        List<UUID> ids = venueBookingRepository.findExpiredHoldIds(
+                VenueBookingStatus.PENDING_PAYMENT, now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+        int expired = venueBookingRepository.expireHolds(
+                ids, VenueBookingStatus.EXPIRED, VenueBookingStatus.PENDING_PAYMENT, now);
+        return new BatchResult(ids.size(), expired);
+    }
+
+    /**
+     * Lapsed holds found by a batch, and how many of them it expired (others may have been
+     * confirmed, canceled or expired by another node in between).
+     */
+    private record BatchResult(int found, int expired) {
+    }
+}
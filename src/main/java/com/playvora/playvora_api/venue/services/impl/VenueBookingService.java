@@ -1,5 +1,6 @@
 package com.playvora.playvora_api.venue.services.impl;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.app.AppUserDetail;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
 import com.playvora.playvora_api.common.exception.BadRequestException;
@@ -7,6 +8,7 @@ import com.playvora.playvora_api.common.services.IMailService;
 import com.playvora.playvora_api.common.utils.PaginationUtils;
 import com.playvora.playvora_api.user.entities.User;
 import com.playvora.playvora_api.user.repo.UserRepository;
+import com.playvora.playvora_api.venue.availability.OpeningHours;
 import com.playvora.playvora_api.venue.dtos.ConfirmVenueBookingPaymentRequest;
 import com.playvora.playvora_api.venue.dtos.CreateVenueBookingRequest;
 import com.playvora.playvora_api.venue.dtos.VenueBookingResponse;
@@ -16,9 +18,12 @@ import com.playvora.playvora_api.venue.enums.RentType;
 import com.playvora.playvora_api.venue.enums.VenueBookingStatus;
 import com.playvora.playvora_api.venue.repo.VenueBookingRepository;
 import com.playvora.playvora_api.venue.repo.VenueRepository;
+import com.playvora.playvora_api.venue.services.IVenueAvailabilityService;
 import com.playvora.playvora_api.venue.services.IVenueBookingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -28,10 +33,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.OffsetDateTime;
-import java.time.LocalTime;
 import java.util.UUID;
 
 @Service
@@ -43,11 +46,17 @@ public class VenueBookingService implements IVenueBookingService {
     private final VenueBookingRepository venueBookingRepository;
     private final UserRepository userRepository;
     private final IMailService mailService;
+    private final IVenueAvailabilityService venueAvailabilityService;
+    private final VenueBookingHoldMetrics holdMetrics;
+
+    @Value("${app.venue.booking.hold-minutes:15}")
+    private long holdMinutes;
 
     @Override
     @Transactional
     public VenueBookingResponse createBooking(UUID venueId, CreateVenueBookingRequest request) {
-        Venue venue = venueRepository.findById(venueId)
+        // Serializes booking writes for this venue until commit
+        Venue venue = venueRepository.findByIdForUpdate(venueId)
                 .orElseThrow(() -> new BadRequestException("Venue not found"));
 
         User user = getCurrentUser();
@@ -62,12 +71,15 @@ public class VenueBookingService implements IVenueBookingService {
         validateWithinOpeningHours(venue, start, end);
         validateMaxDuration(venue, start, end);
 
-        // Prevent double-booking only on confirmed bookings
-        boolean overlap = venueBookingRepository.existsOverlappingBooking(
+        // Confirmed bookings and live holds both block the slot
+        OffsetDateTime now = OffsetDateTime.now();
+        boolean overlap = venueBookingRepository.existsBlockingBooking(
                 venue.getId(),
-                VenueBookingStatus.CONFIRMED,
                 start,
-                end
+                end,
+                VenueBookingStatus.CONFIRMED,
+                VenueBookingStatus.PENDING_PAYMENT,
+                now
         );
         if (overlap) {
             throw new BadRequestException("This venue is already booked for the selected time range");
@@ -83,9 +95,12 @@ public class VenueBookingService implements IVenueBookingService {
                 .rentType(venue.getRentType())
                 .totalPrice(totalPrice)
                 .status(VenueBookingStatus.PENDING_PAYMENT)
+                .holdExpiresAt(now.plusMinutes(holdMinutes))
                 .build();
 
         VenueBooking saved = venueBookingRepository.save(booking);
+        holdMetrics.holdCreated();
+        venueAvailabilityService.evict(venue.getId());
         return toResponse(saved);
     }
 
@@ -100,7 +115,8 @@ public class VenueBookingService implements IVenueBookingService {
             throw new BadRequestException("You are not allowed to confirm this booking");
         }
 
-        if (booking.getStatus() == VenueBookingStatus.CONFIRMED) {
+        if (booking.getStatus() == VenueBookingStatus.CONFIRMED
+                || booking.getStatus() == VenueBookingStatus.REFUND_REQUIRED) {
             return toResponse(booking);
         }
 
@@ -108,10 +124,61 @@ public class VenueBookingService implements IVenueBookingService {
             throw new BadRequestException("Cannot confirm a canceled booking");
         }
 
-        booking.setPaymentReference(request.getPaymentReference());
-        booking.setStatus(VenueBookingStatus.CONFIRMED);
+        // Serializes booking writes for this venue until commit, so the checks below and the write agree
+        UUID venueId = booking.getVenue().getId();
+        venueRepository.findByIdForUpdate(venueId)
+                .orElseThrow(() -> new BadRequestException("Venue not found"));
+
+        OffsetDateTime now = OffsetDateTime.now();
+        int converted = 0;
+        boolean liveHold = booking.getStatus() == VenueBookingStatus.PENDING_PAYMENT
+                && booking.getHoldExpiresAt() != null && booking.getHoldExpiresAt().isAfter(now);
+        if (liveHold) {
+            // A live hold already excludes other bookings; the check guards pending bookings made before holds existed
+            boolean overlap = venueBookingRepository.existsOverlappingBookingExcluding(
+                    venueId,
+                    VenueBookingStatus.CONFIRMED,
+                    booking.getStartTime(),
+                    booking.getEndTime(),
+                    booking.getId()
+            );
+            if (overlap) {
+                throw new BadRequestException("This venue is already booked for the selected time range");
+            }
+
+            try {
+                converted = venueBookingRepository.convertLiveHold(
+                        bookingId,
+                        request.getPaymentReference(),
+                        VenueBookingStatus.CONFIRMED,
+                        VenueBookingStatus.PENDING_PAYMENT,
+                        now
+                );
+            } catch (DataIntegrityViolationException e) {
+                // venue_bookings_confirmed_no_overlap, if another writer confirmed an overlapping booking
+                throw new BadRequestException("This venue is already booked for the selected time range");
+            }
+        }
 
-        VenueBooking updated = venueBookingRepository.save(booking);
+        VenueBooking updated = venueBookingRepository.findById(bookingId)
+                .orElseThrow(() -> new BadRequestException("Booking not found"));
+        if (converted == 1) {
+            holdMetrics.holdConverted();
+        } else {
+            // Confirmed, canceled or expired since it was loaded, or the hold lapsed before the reaper ran
+            if (updated.getStatus() == VenueBookingStatus.CONFIRMED
+                    || updated.getStatus() == VenueBookingStatus.REFUND_REQUIRED) {
+                return toResponse(updated);
+            }
+            if (updated.getStatus() == VenueBookingStatus.CANCELED) {
+                throw new BadRequestException("Cannot confirm a canceled booking");
+            }
+            updated = settleLateConfirmation(updated, request.getPaymentReference(), now);
+            if (updated.getStatus() != VenueBookingStatus.CONFIRMED) {
+                return toResponse(updated);
+            }
+        }
+        venueAvailabilityService.evict(venueId);
 
         // Send confirmation email
         try {
@@ -123,6 +190,46 @@ public class VenueBookingService implements IVenueBookingService {
         return toResponse(updated);
     }
 
+    /**
+     * The user paid after the hold lapsed. Confirm the booking if its slot is still free; otherwise keep
+     * the payment reference and mark the booking REFUND_REQUIRED so the payment is refunded rather than
+     * lost. The caller holds the venue lock, so no other booking can take the slot in between.
+     */
+    private VenueBooking settleLateConfirmation(VenueBooking booking, String paymentReference, OffsetDateTime now) {
+        boolean blocked = venueBookingRepository.existsBlockingBooking(
+                booking.getVenue().getId(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                VenueBookingStatus.CONFIRMED,
+                VenueBookingStatus.PENDING_PAYMENT,
+                now
+        );
+        VenueBookingStatus status = blocked ? VenueBookingStatus.REFUND_REQUIRED : VenueBookingStatus.CONFIRMED;
+        int settled = venueBookingRepository.settleLapsedHold(
+                booking.getId(),
+                paymentReference,
+                status,
+                VenueBookingStatus.PENDING_PAYMENT,
+                VenueBookingStatus.EXPIRED,
+                now
+        );
+
+        VenueBooking updated = venueBookingRepository.findById(booking.getId())
+                .orElseThrow(() -> new BadRequestException("Booking not found"));
+        if (settled == 0) {
+            // Canceled since it was loaded (a confirmation takes the venue lock, so it cannot race here)
+            throw new BadRequestException("Cannot confirm a canceled booking");
+        }
+        if (blocked) {
+            holdMetrics.refundRequired();
+            log.warn("Venue booking {} was paid (reference {}) after its hold lapsed and the slot was taken; refund required",
+                    booking.getId(), paymentReference);
+        } else {
+            holdMetrics.lateConfirmationAccepted();
+        }
+        return updated;
+    }
+
     @Override
     @Transactional
     public void cancelBooking(UUID bookingId) {
@@ -134,12 +241,19 @@ public class VenueBookingService implements IVenueBookingService {
             throw new BadRequestException("You are not allowed to cancel this booking");
         }
 
-        if (booking.getStatus() == VenueBookingStatus.CANCELED) {
+        // A booking waiting for its refund keeps that state until the refund is handled
+        if (booking.getStatus() == VenueBookingStatus.CANCELED || booking.getStatus() == VenueBookingStatus.EXPIRED
+                || booking.getStatus() == VenueBookingStatus.REFUND_REQUIRED) {
             return;
         }
 
+        boolean wasHold = booking.getStatus() == VenueBookingStatus.PENDING_PAYMENT;
         booking.setStatus(VenueBookingStatus.CANCELED);
         venueBookingRepository.save(booking);
+        if (wasHold) {
+            holdMetrics.holdCanceled();
+        }
+        venueAvailabilityService.evict(booking.getVenue().getId());
     }
 
     @Override
@@ -167,29 +281,16 @@ public class VenueBookingService implements IVenueBookingService {
     }
 
     private void validateWithinOpeningHours(Venue venue, OffsetDateTime start, OffsetDateTime end) {
-        DayOfWeek dayOfWeek = start.getDayOfWeek();
-        if (start.toLocalDate().isBefore(end.toLocalDate())) {
+        if (!OpeningHours.isSameDay(start, end)) {
             throw new BadRequestException("Bookings must start and end on the same day");
         }
 
-        boolean openThatDay = switch (dayOfWeek) {
-            case MONDAY -> venue.isOpenMonday();
-            case TUESDAY -> venue.isOpenTuesday();
-            case WEDNESDAY -> venue.isOpenWednesday();
-            case THURSDAY -> venue.isOpenThursday();
-            case FRIDAY -> venue.isOpenFriday();
-            case SATURDAY -> venue.isOpenSaturday();
-            case SUNDAY -> venue.isOpenSunday();
-        };
-
-        if (!openThatDay) {
+        OpeningHours openingHours = OpeningHours.of(venue);
+        if (!openingHours.isOpenOn(start.getDayOfWeek())) {
             throw new BadRequestException("Venue is closed on the selected day");
         }
 
-        LocalTime opening = venue.getOpeningTime();
-        LocalTime closing = venue.getClosingTime();
-
-        if (start.toLocalTime().isBefore(opening) || end.toLocalTime().isAfter(closing)) {
+        if (!openingHours.isWithinHours(start, end)) {
             throw new BadRequestException("Booking time must be within venue opening hours");
         }
     }
@@ -248,6 +349,7 @@ public class VenueBookingService implements IVenueBookingService {
                 .totalPrice(booking.getTotalPrice())
                 .status(booking.getStatus())
                 .paymentReference(booking.getPaymentReference())
+                .holdExpiresAt(booking.getHoldExpiresAt())
                 .createdAt(booking.getCreatedAt())
                 .updatedAt(booking.getUpdatedAt())
                 .build();
@@ -257,8 +359,7 @@ public class VenueBookingService implements IVenueBookingService {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
 
         throw new BadRequestException("Invalid authentication principal");
@@ -1,8 +1,12 @@
 package com.playvora.playvora_api.venue.services.impl;
 
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
 import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
 import com.playvora.playvora_api.common.dto.PaginatedResponse;
 import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.geo.GeoSearch;
+import com.playvora.playvora_api.common.geo.NearbyQuery;
 import com.playvora.playvora_api.common.utils.PaginationUtils;
 import com.playvora.playvora_api.user.entities.User;
 import com.playvora.playvora_api.user.repo.UserRepository;
@@ -11,10 +15,12 @@ import com.playvora.playvora_api.venue.dtos.UpdateVenueRequest;
 import com.playvora.playvora_api.venue.dtos.VenueResponse;
 import com.playvora.playvora_api.venue.entities.Venue;
 import com.playvora.playvora_api.venue.enums.RentType;
+import com.playvora.playvora_api.venue.enums.VenueType;
 import com.playvora.playvora_api.venue.repo.VenueRepository;
 import com.playvora.playvora_api.venue.services.IVenueService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -34,6 +40,7 @@ public class VenueService implements IVenueService {
 
     private final VenueRepository venueRepository;
     private final UserRepository userRepository;
+    private final GeoSearch geoSearch;
 
     @Override
     @Transactional
@@ -237,6 +244,18 @@ public class VenueService implements IVenueService {
         return PaginationUtils.toPaginatedResponse(responsePage);
     }
 
+    @Override
+    public NearbyPaginatedResponse<VenueResponse> findNearbyVenues(NearbyQuery query, VenueType venueType) {
+        return geoSearch.findNearby(query,
+                search -> venueRepository.findNearest(search.center().latitude(), search.center().longitude(),
+                        search.radiusKm(), search.bounds().minLatitude(), search.bounds().maxLatitude(),
+                        search.bounds().minLongitude(), search.bounds().maxLongitude(),
+                        search.afterDistanceKm(), search.afterId(), venueType, Limit.of(search.limit())),
+                venueRepository::findAllById,
+                Venue::getId,
+                this::toResponse);
+    }
+
     private VenueResponse toResponse(Venue venue) {
         return VenueResponse.builder()
                 .id(venue.getId())
@@ -343,8 +362,7 @@ public class VenueService implements IVenueService {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (principal instanceof AppUserDetail userDetail) {
-            return userRepository.findByEmail(userDetail.getUsername())
-                    .orElseThrow(() -> new BadRequestException("User not found"));
+            return AuthenticatedUserContext.getCurrentUser(userDetail, userRepository::getReferenceById);
         }
 
         throw new BadRequestException("Invalid authentication principal");
@@ -0,0 +1,34 @@
+package com.playvora.playvora_api.wallet.dto;
+
+import com.playvora.playvora_api.payment.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A single wallet balance change and the transaction row that records it.
+ * {@code amount} is always positive; the ledger operation (debit or credit) decides the sign.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WalletLedgerEntry {
+    private UUID walletId;
+    private BigDecimal amount;
+    private TransactionType type;
+    private UUID matchId;
+    private UUID paymentId;
+    private String description;
+    private String externalReference;
+
+    /**
+     * Identifies the operation (e.g. {@code match-fee:{matchId}:{userId}}). Applying an entry whose key
+     * was already applied returns the original result without changing the balance again.
+     */
+    private String idempotencyKey;
+}
@@ -0,0 +1,21 @@
+package com.playvora.playvora_api.wallet.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Outcome of a wallet ledger operation.
+ *
+ * @param transactionId the transaction row recording the change
+ * @param balance       the wallet balance after the change
+ * @param replayed      true when the idempotency key had already been applied and nothing changed
+ */
+public record WalletLedgerResult(
+        UUID transactionId,
+        UUID walletId,
+        UUID userId,
+        BigDecimal balance,
+        String currency,
+        boolean replayed
+) {
+}
@@ -41,7 +41,11 @@ public class Wallet {
     @Column(name = "country_snapshot")
     private String countrySnapshot;
 
-    @Column(name = "balance", precision = 10, scale = 2, nullable = false)
+    /**
+     * Only changed through the wallet ledger (conditional UPDATE in the database); never written
+     * back from this entity, so a stale copy in a persistence context cannot overwrite it.
+     */
+    @Column(name = "balance", precision = 10, scale = 2, nullable = false, updatable = false)
     @Builder.Default
     private BigDecimal balance = BigDecimal.ZERO;
 
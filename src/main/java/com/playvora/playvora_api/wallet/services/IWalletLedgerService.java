@@ -0,0 +1,25 @@
+package com.playvora.playvora_api.wallet.services;
+
+import com.playvora.playvora_api.wallet.dto.WalletLedgerEntry;
+import com.playvora.playvora_api.wallet.dto.WalletLedgerResult;
+
+/**
+ * Applies wallet balance changes atomically in the database instead of read-modify-write in Java.
+ * Each operation is one conditional UPDATE of the wallet row plus the matching transactions row,
+ * so concurrent operations on the same wallet never lose updates and never overdraw it.
+ */
+public interface IWalletLedgerService {
+
+    /**
+     * Subtract the entry's amount if, and only if, the balance covers it.
+     *
+     * @throws com.playvora.playvora_api.common.exception.BadRequestException if the wallet does not exist,
+     *         the balance is insufficient, or the idempotency key was used for a different operation
+     */
+    WalletLedgerResult debit(WalletLedgerEntry entry);
+
+    /**
+     * Add the entry's amount to the wallet.
+     */
+    WalletLedgerResult credit(WalletLedgerEntry entry);
+}
@@ -22,8 +22,10 @@ public interface IWalletService {
 
     /**
      * Increase the user's wallet balance by the given positive amount.
+     * The idempotency key identifies the top-up (e.g. the payment intent it comes from);
+     * repeating a top-up with the same key does not credit the wallet again.
      */
-    Wallet topUpWallet(User user, BigDecimal amount);
+    Wallet topUpWallet(User user, BigDecimal amount, String idempotencyKey);
 }
 
 
@@ -0,0 +1,176 @@
+package com.playvora.playvora_api.wallet.services.impl;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.wallet.dto.WalletLedgerEntry;
+import com.playvora.playvora_api.wallet.dto.WalletLedgerResult;
+import com.playvora.playvora_api.wallet.services.IWalletLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of the wallet ledger. The conditional update and the transactions insert run
+ * as consecutive statements in the caller's transaction. The wallet row lock is only taken by the
+ * UPDATE itself, so concurrent operations on one wallet queue in the database rather than on a Java
+ * lock, and a debit that would overdraw the wallet matches no row.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WalletLedgerService implements IWalletLedgerService {
+
+    private static final String APPLY_UPDATE = """
+            UPDATE wallets
+            SET balance = balance + :delta, updated_at = CURRENT_TIMESTAMP
+            WHERE id = :walletId
+              AND balance + :delta >= 0
+              AND NOT EXISTS (SELECT 1 FROM transactions WHERE idempotency_key = :idempotencyKey)
+            """;
+
+    private static final String APPLY_INSERT = """
+            INSERT INTO transactions (id, user_id, wallet_id, payment_id, match_id, type, amount, currency,
+                                      description, external_reference, idempotency_key, created_at, updated_at)
+            SELECT :transactionId, w.user_id, w.id, CAST(:paymentId AS UUID), CAST(:matchId AS UUID), :type,
+                   :delta, w.currency, :description, :externalReference, :idempotencyKey,
+                   CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            FROM wallets w
+            WHERE w.id = :walletId
+            """;
+
+    private static final String SELECT_WALLET = """
+            SELECT id AS wallet_id, user_id, balance, currency, CAST(NULL AS UUID) AS transaction_id
+            FROM wallets
+            WHERE id = :walletId
+            """;
+
+    private static final String SELECT_BY_IDEMPOTENCY_KEY = """
+            SELECT id, wallet_id, amount
+            FROM transactions
+            WHERE idempotency_key = :idempotencyKey
+            """;
+
+    private static final RowMapper<WalletLedgerResult> RESULT_MAPPER = (rs, rowNum) -> new WalletLedgerResult(
+            rs.getObject("transaction_id", UUID.class),
+            rs.getObject("wallet_id", UUID.class),
+            rs.getObject("user_id", UUID.class),
+            rs.getBigDecimal("balance"),
+            rs.getString("currency"),
+            false);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public WalletLedgerResult debit(WalletLedgerEntry entry) {
+        return apply(entry, validAmount(entry).negate());
+    }
+
+    @Override
+    @Transactional
+    public WalletLedgerResult credit(WalletLedgerEntry entry) {
+        return apply(entry, validAmount(entry));
+    }
+
+    private WalletLedgerResult apply(WalletLedgerEntry entry, BigDecimal delta) {
+        if (entry.getWalletId() == null) {
+            throw new BadRequestException("Wallet is required");
+        }
+        if (entry.getType() == null) {
+            throw new BadRequestException("Transaction type is required");
+        }
+        if (entry.getIdempotencyKey() == null || entry.getIdempotencyKey().isBlank()) {
+            throw new BadRequestException("Idempotency key is required");
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("transactionId", UUID.randomUUID())
+                .addValue("walletId", entry.getWalletId())
+                .addValue("delta", delta)
+                .addValue("paymentId", entry.getPaymentId())
+                .addValue("matchId", entry.getMatchId())
+                .addValue("type", entry.getType().name())
+                .addValue("description", entry.getDescription())
+                .addValue("externalReference", entry.getExternalReference())
+                .addValue("idempotencyKey", entry.getIdempotencyKey());
+
+        Optional<WalletLedgerResult> applied;
+        try {
+            applied = applyStatements(params);
+        } catch (DuplicateKeyException e) {
+            // Another request with the same key committed between our check and our insert
+            throw new BadRequestException("This wallet operation is already being processed");
+        }
+
+        if (applied.isPresent()) {
+            log.debug("Wallet {} {} {} ({}), balance now {}", entry.getWalletId(), entry.getType(), delta,
+                    entry.getIdempotencyKey(), applied.get().balance());
+            return applied.get();
+        }
+        return resolveNotApplied(entry, delta);
+    }
+
+    private Optional<WalletLedgerResult> applyStatements(MapSqlParameterSource params) {
+        if (jdbcTemplate.update(APPLY_UPDATE, params) == 0) {
+            return Optional.empty();
+        }
+        jdbcTemplate.update(APPLY_INSERT, params);
+        UUID transactionId = (UUID) params.getValue("transactionId");
+        return findWallet(params).map(wallet -> new WalletLedgerResult(transactionId, wallet.walletId(),
+                wallet.userId(), wallet.balance(), wallet.currency(), false));
+    }
+
+    /**
+     * Nothing was changed: either the key was already applied (return the original transaction),
+     * the wallet does not exist, or the balance does not cover the debit.
+     */
+    private WalletLedgerResult resolveNotApplied(WalletLedgerEntry entry, BigDecimal delta) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("walletId", entry.getWalletId())
+                .addValue("idempotencyKey", entry.getIdempotencyKey());
+
+        WalletLedgerResult wallet = findWallet(params)
+                .orElseThrow(() -> new BadRequestException("Wallet not found"));
+
+        List<ExistingTransaction> existing = jdbcTemplate.query(SELECT_BY_IDEMPOTENCY_KEY, params,
+                (rs, rowNum) -> new ExistingTransaction(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("wallet_id", UUID.class),
+                        rs.getBigDecimal("amount")));
+        if (!existing.isEmpty()) {
+            ExistingTransaction original = existing.get(0);
+            if (!entry.getWalletId().equals(original.walletId()) || original.amount().compareTo(delta) != 0) {
+                throw new BadRequestException("Idempotency key was already used for a different wallet operation");
+            }
+            log.info("Wallet operation {} already applied as transaction {}", entry.getIdempotencyKey(), original.id());
+            return new WalletLedgerResult(original.id(), wallet.walletId(), wallet.userId(),
+                    wallet.balance(), wallet.currency(), true);
+        }
+
+        throw new BadRequestException("Insufficient wallet balance. Required: " + delta.negate() + " "
+                + wallet.currency() + ", Available: " + wallet.balance() + " " + wallet.currency());
+    }
+
+    private Optional<WalletLedgerResult> findWallet(MapSqlParameterSource params) {
+        return jdbcTemplate.query(SELECT_WALLET, params, RESULT_MAPPER).stream().findFirst();
+    }
+
+    private static BigDecimal validAmount(WalletLedgerEntry entry) {
+        if (entry.getAmount() == null || entry.getAmount().signum() <= 0) {
+            throw new BadRequestException("Amount must be positive");
+        }
+        return entry.getAmount();
+    }
+
+    private record ExistingTransaction(UUID id, UUID walletId, BigDecimal amount) {
+    }
+}
@@ -2,11 +2,17 @@ package com.playvora.playvora_api.wallet.services.impl;
 
 import com.playvora.playvora_api.common.exception.BadRequestException;
 import com.playvora.playvora_api.common.utils.CurrencyMapper;
+import com.playvora.playvora_api.payment.enums.TransactionType;
 import com.playvora.playvora_api.payment.services.ITransactionService;
 import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.wallet.dto.WalletLedgerEntry;
+import com.playvora.playvora_api.wallet.dto.WalletLedgerResult;
 import com.playvora.playvora_api.wallet.entities.Wallet;
 import com.playvora.playvora_api.wallet.repo.WalletRepository;
+import com.playvora.playvora_api.wallet.services.IWalletLedgerService;
 import com.playvora.playvora_api.wallet.services.IWalletService;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,6 +27,9 @@ public class WalletService implements IWalletService {
 
     private final WalletRepository walletRepository;
     private final ITransactionService transactionService;
+    private final IPrincipalCacheService principalCacheService;
+    private final IWalletLedgerService walletLedgerService;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -46,7 +55,9 @@ public class WalletService implements IWalletService {
                             .countrySnapshot(country)
                             .build();
 
-                    return walletRepository.save(wallet);
+                    Wallet created = walletRepository.save(wallet);
+                    principalCacheService.evictUser(user.getEmail());
+                    return created;
                 });
     }
 
@@ -60,7 +71,7 @@ public class WalletService implements IWalletService {
 
     @Override
     @Transactional
-    public Wallet topUpWallet(User user, BigDecimal amount) {
+    public Wallet topUpWallet(User user, BigDecimal amount, String idempotencyKey) {
         if (user == null || user.getId() == null) {
             throw new BadRequestException("Cannot top up wallet for unknown user");
         }
@@ -71,24 +82,36 @@ public class WalletService implements IWalletService {
         Wallet wallet = walletRepository.findByUserId(user.getId())
                 .orElseThrow(() -> new BadRequestException("Wallet not found for user"));
 
-        wallet.setBalance(wallet.getBalance().add(amount));
-        log.info("Topped up wallet {} for user {} by {}. New balance: {}",
-                wallet.getId(), user.getId(), amount, wallet.getBalance());
-
-        Wallet saved = walletRepository.save(wallet);
+        // Credit and record the transaction in the database, atomically and at most once per key
+        WalletLedgerResult result = walletLedgerService.credit(WalletLedgerEntry.builder()
+                .walletId(wallet.getId())
+                .amount(amount)
+                .type(TransactionType.WALLET_TOPUP)
+                .description("Wallet top-up")
+                .idempotencyKey(idempotencyKey)
+                .build());
+
+        // The balance was changed behind the persistence context; reload it
+        entityManager.refresh(wallet);
+
+        if (result.replayed()) {
+            log.info("Wallet top-up {} for user {} was already applied", idempotencyKey, user.getId());
+            return wallet;
+        }
 
-        // Record transaction for this top-up
-        transactionService.recordWalletTopup(
-                user,
-                saved,
+        log.info("Topped up wallet {} for user {} by {}. New balance: {}",
+                wallet.getId(), user.getId(), amount, result.balance());
+
+        // Cached principals carry the wallet (shown on /users/me)
+        principalCacheService.evictUser(user.getEmail());
+        transactionService.notifyTransactionRecorded(
+                user.getId(),
+                result.transactionId(),
+                TransactionType.WALLET_TOPUP,
                 amount,
-                saved.getCurrency(),
-                "Wallet top-up",
-                null
+                result.currency()
         );
 
-        return saved;
+        return wallet;
     }
 }
-
-
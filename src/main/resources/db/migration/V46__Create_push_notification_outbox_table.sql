@@ -0,0 +1,34 @@
+-- Outbox for Expo push notifications.
+-- Services enqueue one row per device token inside their own transaction; a background
+-- dispatcher claims due rows, sends them to Expo in chunks and records the returned tickets/receipts.
+CREATE TABLE push_notification_outbox (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    token VARCHAR(500) NOT NULL,
+    title VARCHAR(255),
+    body TEXT,
+    data TEXT,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ticket_id VARCHAR(255),
+    sent_at TIMESTAMPTZ NULL,
+    receipt_checked_at TIMESTAMPTZ NULL,
+    error_code VARCHAR(100),
+    error_message TEXT,
+    created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Dispatcher claim scan: due PENDING/SENDING rows ordered by next_attempt_at
+CREATE INDEX idx_push_outbox_status_next_attempt
+    ON push_notification_outbox(status, next_attempt_at);
+
+-- Receipt polling scan: SENT rows with a ticket that have not been checked yet
+CREATE INDEX idx_push_outbox_receipt_pending
+    ON push_notification_outbox(sent_at)
+    WHERE status = 'SENT' AND receipt_checked_at IS NULL;
+
+CREATE TRIGGER update_push_notification_outbox_updated_at
+    BEFORE UPDATE ON push_notification_outbox
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
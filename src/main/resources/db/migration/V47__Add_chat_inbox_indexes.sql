@@ -0,0 +1,17 @@
+-- Indexes backing the set-based chat inbox query (/api/v1/chat/active)
+
+-- Latest message per community / match and unread counts since last read
+CREATE INDEX IF NOT EXISTS idx_community_chat_community_created_at
+    ON community_chat_messages(community_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_chat_messages_match_created_at
+    ON chat_messages(match_id, created_at DESC, id DESC);
+
+-- Unread private messages from one sender to a recipient since last read
+CREATE INDEX IF NOT EXISTS idx_private_chat_recipient_sender_created_at
+    ON private_chat_messages(recipient_id, sender_id, created_at DESC);
+
+-- Active memberships of a user
+CREATE INDEX IF NOT EXISTS idx_community_members_user_active
+    ON community_members(user_id, community_id)
+    WHERE is_active = TRUE;
@@ -0,0 +1,28 @@
+-- Per-user chat inbox projection: one row per (user, conversation) holding the last message,
+-- last activity time and unread count. Maintained when messages are sent and chats are marked read,
+-- so /api/v1/chat/active is a single index range scan. Backfilled by ConversationSummaryRebuildJob.
+CREATE TABLE conversation_summary (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    chat_type VARCHAR(20) NOT NULL,
+    target_id UUID NOT NULL,
+    last_message TEXT,
+    last_message_at TIMESTAMPTZ NOT NULL,
+    last_sender_id UUID NULL,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_conversation_summary_user_chat UNIQUE (user_id, chat_type, target_id)
+);
+
+-- Inbox scan: a user's conversations by most recent activity, optionally filtered by chat type
+CREATE INDEX idx_conversation_summary_user_last_message
+    ON conversation_summary(user_id, last_message_at DESC, target_id);
+
+CREATE INDEX idx_conversation_summary_user_type_last_message
+    ON conversation_summary(user_id, chat_type, last_message_at DESC, target_id);
+
+CREATE TRIGGER update_conversation_summary_updated_at
+    BEFORE UPDATE ON conversation_summary
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,10 @@
+-- Keyset pagination of private conversations: "messages before (created_at, id)" in either direction.
+-- Community and match chat are covered by the (conversation, created_at, id) indexes added in V47.
+CREATE INDEX IF NOT EXISTS idx_private_chat_sender_recipient_created_at_id
+    ON private_chat_messages(sender_id, recipient_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_private_chat_recipient_sender_created_at_id
+    ON private_chat_messages(recipient_id, sender_id, created_at DESC, id DESC);
+
+-- Superseded by the index above (same leading columns, now including id)
+DROP INDEX IF EXISTS idx_private_chat_recipient_sender_created_at;
@@ -0,0 +1,3 @@
+-- Monotonic per-match counter stamped on every real-time update broadcast for the match.
+-- Clients apply deltas in sequence order and request a snapshot when they detect a gap.
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS update_sequence BIGINT NOT NULL DEFAULT 0;
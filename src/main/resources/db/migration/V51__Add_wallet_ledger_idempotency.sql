@@ -0,0 +1,11 @@
+-- Wallet ledger: each balance change is a single conditional UPDATE plus its transactions row.
+-- The idempotency key identifies the operation (e.g. one match fee per user and match,
+-- one top-up per payment intent) so a retried request is applied at most once.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(150);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_transactions_idempotency_key
+    ON transactions(idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
+
+-- Safety net for the conditional debit; NOT VALID so existing rows are not re-checked
+ALTER TABLE wallets ADD CONSTRAINT chk_wallets_balance_non_negative CHECK (balance >= 0) NOT VALID;
@@ -0,0 +1,9 @@
+-- Inputs for skill-balanced team generation: a per-player rating and the player's gender.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS skill_rating INTEGER NOT NULL DEFAULT 1000;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS gender VARCHAR(20);
+
+-- Team balancing strategy chosen for the match; NULL means the configured default.
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS team_balancing_strategy VARCHAR(50);
+
+-- Historical pairings are counted by joining team_players on team_id for a set of users.
+CREATE INDEX IF NOT EXISTS idx_team_players_user_team ON team_players(user_id, team_id);
@@ -0,0 +1,91 @@
+-- Full-text search for matches and communities.
+-- Each table gets a weighted tsvector kept up to date by triggers and indexed with GIN, so a
+-- ranked prefix search is an index lookup instead of a LIKE '%term%' scan. The 'simple'
+-- configuration is used because titles and names are mostly proper nouns, which stemming mangles.
+
+-- Communities: name (A), location (B), description (C)
+ALTER TABLE communities ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION community_search_vector(p_name TEXT, p_city TEXT, p_province TEXT,
+                                                   p_country TEXT, p_description TEXT)
+RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_name, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(p_city, '') || ' ' || coalesce(p_province, '') || ' ' || coalesce(p_country, '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(p_description, '')), 'C');
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Matches: title (A), community name (B), description (C)
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION match_search_vector(p_title TEXT, p_community_name TEXT, p_description TEXT)
+RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(p_community_name, '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(p_description, '')), 'C');
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION communities_search_vector_trigger()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector := community_search_vector(NEW.name, NEW.city, NEW.province, NEW.country, NEW.description);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS communities_search_vector_update ON communities;
+CREATE TRIGGER communities_search_vector_update
+    BEFORE INSERT OR UPDATE OF name, city, province, country, description ON communities
+    FOR EACH ROW
+    EXECUTE FUNCTION communities_search_vector_trigger();
+
+CREATE OR REPLACE FUNCTION matches_search_vector_trigger()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector := match_search_vector(
+        NEW.title,
+        (SELECT c.name FROM communities c WHERE c.id = NEW.community_id),
+        NEW.description);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS matches_search_vector_update ON matches;
+CREATE TRIGGER matches_search_vector_update
+    BEFORE INSERT OR UPDATE OF title, description, community_id ON matches
+    FOR EACH ROW
+    EXECUTE FUNCTION matches_search_vector_trigger();
+
+-- A renamed community changes the vectors of its matches
+CREATE OR REPLACE FUNCTION communities_rename_matches_trigger()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE matches m
+    SET search_vector = match_search_vector(m.title, NEW.name, m.description)
+    WHERE m.community_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS communities_rename_matches ON communities;
+CREATE TRIGGER communities_rename_matches
+    AFTER UPDATE OF name ON communities
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION communities_rename_matches_trigger();
+
+-- Backfill existing rows
+UPDATE communities
+SET search_vector = community_search_vector(name, city, province, country, description);
+
+UPDATE matches m
+SET search_vector = match_search_vector(m.title, c.name, m.description)
+FROM communities c
+WHERE c.id = m.community_id;
+
+CREATE INDEX IF NOT EXISTS idx_communities_search_vector ON communities USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_matches_search_vector ON matches USING GIN (search_vector);
+
+-- Trigram indexes for the remaining substring filters (community search by name and city)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_communities_name_trgm ON communities USING GIN (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_communities_city_trgm ON communities USING GIN (LOWER(city) gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- A paid booking that cannot be honoured is left REFUND_REQUIRED (with its payment reference) so the
+-- payment is refunded: a payment confirmed after its hold lapsed for a slot booked by someone else in
+-- the meantime, and CONFIRMED bookings that V55 finds overlapping an earlier one.
+-- Added in its own migration because a new enum value cannot be used in the transaction that adds it.
+ALTER TYPE venue_booking_status ADD VALUE IF NOT EXISTS 'REFUND_REQUIRED';
@@ -0,0 +1,15 @@
+-- "Near me" searches (GeoSearch) select the rows inside a latitude/longitude box before computing
+-- distances. A (latitude, longitude) B-tree answers that with a range scan on latitude, filtering
+-- longitude from the index itself, so only rows in the box are read from the table.
+
+CREATE INDEX IF NOT EXISTS idx_matches_latitude_longitude
+    ON matches (latitude, longitude)
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_venues_latitude_longitude
+    ON venues (latitude, longitude)
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_communities_latitude_longitude
+    ON communities (latitude, longitude)
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
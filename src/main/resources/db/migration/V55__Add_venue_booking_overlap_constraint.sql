@@ -0,0 +1,51 @@
+-- No two CONFIRMED bookings of a venue may overlap.
+-- The booking service serializes booking writes per venue by locking the venue row; this exclusion
+-- constraint enforces the same rule for every other writer. btree_gist provides the uuid equality
+-- operator class the constraint needs. Ranges are half-open, so back-to-back bookings are allowed.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- The constraint cannot be added while conflicting rows exist, so resolve them first. Bookings are
+-- kept first come, first served: walking each venue's CONFIRMED bookings in creation order, one that
+-- overlaps a booking already kept is moved to REFUND_REQUIRED (added by V54.1), as is one whose end is
+-- before its start. They keep their payment reference, so the payments are refunded as for a late
+-- confirmation, and they are listed in the migration log.
+DO $$
+DECLARE
+    booking RECORD;
+    refunded UUID[] := '{}';
+BEGIN
+    FOR booking IN
+        SELECT id, venue_id, start_time, end_time, COALESCE(created_at, '-infinity') AS created_at
+        FROM venue_bookings
+        WHERE status = 'CONFIRMED'
+        ORDER BY 5, id
+    LOOP
+        IF booking.end_time < booking.start_time OR EXISTS (
+            SELECT 1 FROM venue_bookings kept
+            WHERE kept.venue_id = booking.venue_id
+              AND kept.id <> booking.id
+              AND kept.status = 'CONFIRMED'
+              AND (COALESCE(kept.created_at, '-infinity'), kept.id) < (booking.created_at, booking.id)
+              AND kept.start_time < booking.end_time
+              AND kept.end_time > booking.start_time)
+        THEN
+            UPDATE venue_bookings SET status = 'REFUND_REQUIRED', updated_at = CURRENT_TIMESTAMP WHERE id = booking.id;
+            refunded := refunded || booking.id;
+        END IF;
+    END LOOP;
+
+    IF cardinality(refunded) > 0 THEN
+        RAISE WARNING 'Moved % overlapping or inverted CONFIRMED venue bookings to REFUND_REQUIRED: %',
+            cardinality(refunded), array_to_string(refunded, ', ');
+    END IF;
+END $$;
+
+ALTER TABLE venue_bookings
+    ADD CONSTRAINT venue_bookings_confirmed_no_overlap
+    EXCLUDE USING gist (venue_id WITH =, tstzrange(start_time, end_time) WITH &&)
+    WHERE (status = 'CONFIRMED');
+
+-- Availability calendars load a venue's confirmed bookings that have not ended yet
+CREATE INDEX IF NOT EXISTS idx_venue_bookings_confirmed_end_time
+    ON venue_bookings (venue_id, end_time)
+    WHERE status = 'CONFIRMED';
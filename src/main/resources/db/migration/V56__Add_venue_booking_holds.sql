@@ -0,0 +1,15 @@
+-- Pending venue bookings hold their slot until hold_expires_at; the hold reaper then marks them EXPIRED.
+ALTER TYPE venue_booking_status ADD VALUE IF NOT EXISTS 'EXPIRED';
+
+ALTER TABLE venue_bookings ADD COLUMN IF NOT EXISTS hold_expires_at TIMESTAMPTZ;
+
+-- Existing pending bookings get the default 15-minute hold from when they were created, so stale
+-- ones are expired on the first reaper run
+UPDATE venue_bookings
+SET hold_expires_at = coalesce(created_at, now()) + INTERVAL '15 minutes'
+WHERE status = 'PENDING_PAYMENT'
+  AND hold_expires_at IS NULL;
+
+-- The reaper scans (status = 'PENDING_PAYMENT', hold_expires_at <= now) in expiry order
+CREATE INDEX IF NOT EXISTS idx_venue_bookings_status_hold_expires_at
+    ON venue_bookings (status, hold_expires_at);
@@ -0,0 +1,6 @@
+-- What S3 reported for the stored object, recorded at upload time so metadata and conditional
+-- requests are answered without a HEAD. Rows from before this migration are filled in on first use.
+ALTER TABLE user_files ADD COLUMN IF NOT EXISTS etag VARCHAR(255);
+ALTER TABLE user_files ADD COLUMN IF NOT EXISTS content_encoding VARCHAR(50);
+ALTER TABLE user_files ADD COLUMN IF NOT EXISTS storage_size BIGINT;
+ALTER TABLE user_files ADD COLUMN IF NOT EXISTS storage_last_modified TIMESTAMPTZ;
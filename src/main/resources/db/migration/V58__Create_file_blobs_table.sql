@@ -0,0 +1,19 @@
+-- Uploaded objects by content, so identical uploads to the same top-level folder share one object.
+-- ref_count is the number of files or images referencing the object; it is deleted with the last one.
+CREATE TABLE IF NOT EXISTS file_blobs (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    namespace VARCHAR(255) NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    file_key TEXT NOT NULL UNIQUE,
+    content_type VARCHAR(255),
+    content_encoding VARCHAR(50),
+    storage_size BIGINT NOT NULL,
+    etag VARCHAR(255),
+    ref_count INTEGER NOT NULL CHECK (ref_count >= 0),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_file_blobs_namespace_content_hash UNIQUE (namespace, content_hash)
+);
+
+-- Files with identical content now share a key
+ALTER TABLE user_files DROP CONSTRAINT IF EXISTS user_files_file_key_key;
+CREATE INDEX IF NOT EXISTS idx_user_files_file_key ON user_files(file_key);
@@ -0,0 +1,5 @@
+-- Identical uploads are now only shared within the folder they are stored in (one user's files, one
+-- community's images), never across owners. Existing blobs move to the folder of their object.
+UPDATE file_blobs
+SET namespace = regexp_replace(file_key, '/[^/]*$', '')
+WHERE position('/' IN file_key) > 0;
@@ -0,0 +1,14 @@
+-- One row per manual draft pick, written in the same transaction as the pick itself and before it is
+-- broadcast. A player can be picked once per match and each update sequence is used by one pick, so
+-- two nodes racing on the same draft cannot both record a pick.
+CREATE TABLE match_draft_picks (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    match_id UUID NOT NULL REFERENCES matches(id) ON DELETE CASCADE,
+    team_id UUID NOT NULL REFERENCES teams(id) ON DELETE CASCADE,
+    player_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    captain_id UUID REFERENCES users(id) ON DELETE SET NULL,
+    pick_sequence BIGINT NOT NULL,
+    picked_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    CONSTRAINT uq_match_draft_pick_player UNIQUE (match_id, player_id),
+    CONSTRAINT uq_match_draft_pick_sequence UNIQUE (match_id, pick_sequence)
+);
@@ -0,0 +1,6 @@
+-- Skill ratings are set by a community's organisers, so they belong to the membership rather than
+-- the user: a rating given in one community no longer decides team balance in another. NULL means
+-- the default rating. Ratings stored on users cannot be attributed to a community and are dropped.
+ALTER TABLE community_members ADD COLUMN IF NOT EXISTS skill_rating INTEGER;
+
+ALTER TABLE users DROP COLUMN IF EXISTS skill_rating;
@@ -0,0 +1,5 @@
+-- Image variants are only served for originals that a community or match still refers to, looked
+-- up by the original's URL on every variant request.
+CREATE INDEX IF NOT EXISTS idx_communities_logo_url ON communities(logo_url);
+CREATE INDEX IF NOT EXISTS idx_communities_banner_url ON communities(banner_url);
+CREATE INDEX IF NOT EXISTS idx_matches_banner_url ON matches(banner_url);
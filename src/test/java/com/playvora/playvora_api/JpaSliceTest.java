@@ -0,0 +1,80 @@
+package com.playvora.playvora_api;
+
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.user.entities.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.UUID;
+
+/**
+ * Base class for repository and persistence tests on the H2 test database. Every entity and
+ * repository is available; the services under test are added with {@code @Import} on the subclass
+ * and extra properties with {@code @TestPropertySource}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaSliceTest.Config.class)
+public abstract class JpaSliceTest {
+
+    protected static final String ADDRESS = "1 Test Street";
+    protected static final String CITY = "London";
+    protected static final String COUNTRY = "UK";
+    protected static final String POST_CODE = "E1 6AN";
+
+    // UserRoleRepository.softDeleteByUserIdAndCommunityId does not pass query validation
+    @EnableAutoConfiguration
+    @EntityScan("com.playvora.playvora_api")
+    @EnableJpaRepositories(basePackages = "com.playvora.playvora_api",
+            excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = ".*\\.UserRoleRepository"))
+    public static class Config {
+    }
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    protected User createUser(String name) {
+        User user = User.builder()
+                .email(name + "-" + UUID.randomUUID() + "@example.com")
+                .password("password")
+                .firstName(name)
+                .lastName("Test")
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    protected Community createCommunity(String name, User createdBy) {
+        Community community = Community.builder()
+                .name(name)
+                .description(name + " community")
+                .address(ADDRESS)
+                .city(CITY)
+                .province(CITY)
+                .country(COUNTRY)
+                .postCode(POST_CODE)
+                .createdBy(createdBy)
+                .build();
+        entityManager.persist(community);
+        return community;
+    }
+
+    /**
+     * Hibernate's statistics, cleared; needs {@code hibernate.generate_statistics=true}.
+     */
+    protected Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
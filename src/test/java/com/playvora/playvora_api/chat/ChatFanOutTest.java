@@ -0,0 +1,209 @@
+package com.playvora.playvora_api.chat;
+
+import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.chat.config.ChatConfig;
+import com.playvora.playvora_api.chat.dtos.CommunityChatMessageRequest;
+import com.playvora.playvora_api.chat.dtos.CommunityChatMessageResponse;
+import com.playvora.playvora_api.chat.entities.CommunityChatMessage;
+import com.playvora.playvora_api.chat.enums.ChatType;
+import com.playvora.playvora_api.chat.events.ChatMessageSent;
+import com.playvora.playvora_api.chat.repo.CommunityChatMessageRepository;
+import com.playvora.playvora_api.chat.repo.CommunityChatReadStateRepository;
+import com.playvora.playvora_api.chat.repo.ConversationSummaryRepository;
+import com.playvora.playvora_api.chat.repo.PrivateChatMessageRepository;
+import com.playvora.playvora_api.chat.repo.PrivateChatReadStateRepository;
+import com.playvora.playvora_api.chat.services.impl.ChatWebSocketService;
+import com.playvora.playvora_api.chat.services.impl.ConversationSummaryService;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.community.repo.CommunityMemberRepository;
+import com.playvora.playvora_api.community.repo.CommunityRepository;
+import com.playvora.playvora_api.match.dtos.websocket.WebSocketMessage;
+import com.playvora.playvora_api.match.repo.MatchChatReadStateRepository;
+import com.playvora.playvora_api.notification.services.IPushNotificationService;
+import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.user.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A community message is broadcast without waiting for the per-member inbox updates: the sender's
+ * read marker and the conversation_summary fan-out run on the summary pool, and on the sender's
+ * thread only when that pool is full.
+ */
+class ChatFanOutTest {
+
+    private final ConversationSummaryRepository conversationSummaryRepository = mock(ConversationSummaryRepository.class);
+    private final PrivateChatReadStateRepository privateChatReadStateRepository = mock(PrivateChatReadStateRepository.class);
+    private final CommunityChatReadStateRepository communityChatReadStateRepository = mock(CommunityChatReadStateRepository.class);
+    private final MatchChatReadStateRepository matchChatReadStateRepository = mock(MatchChatReadStateRepository.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+
+    private final User sender = User.builder().id(UUID.randomUUID()).email("sender@example.com")
+            .firstName("Sam").lastName("Sender").build();
+    private final Community community = Community.builder().id(UUID.randomUUID()).name("Fan-out FC").build();
+
+    private ThreadPoolTaskExecutor executor;
+    private ChatWebSocketService chatService;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new AppUserDetail(sender), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void theSendDoesNotWaitForTheFanOut() throws Exception {
+        start(1, 10);
+        CountDownLatch busy = new CountDownLatch(1);
+        executor.execute(() -> {
+            busy.countDown();
+            awaitRelease();
+        });
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+        OffsetDateTime createdAt = sendCommunityMessage("Kick-off moved to 7pm");
+
+        // Broadcast done, inbox rows and read marker not touched yet
+        verify(messagingTemplate).convertAndSend(eq("/topic/communities/" + community.getId() + "/chat"), any(Object.class));
+        verifyNoInteractions(conversationSummaryRepository, communityChatReadStateRepository);
+
+        release.countDown();
+        verify(communityChatReadStateRepository, timeout(5000)).markReadUpTo(sender.getId(), community.getId(), createdAt);
+        verify(conversationSummaryRepository, timeout(5000))
+                .upsertCommunityMessage(community.getId(), sender.getId(), "Kick-off moved to 7pm", createdAt);
+    }
+
+    @Test
+    void aFullPoolFallsBackToTheSendersThread() throws Exception {
+        start(1, 0);
+        CountDownLatch busy = new CountDownLatch(1);
+        executor.execute(() -> {
+            busy.countDown();
+            awaitRelease();
+        });
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+        OffsetDateTime createdAt = sendCommunityMessage("Bring both kits");
+
+        // Not dropped: applied before the send returned
+        verify(conversationSummaryRepository)
+                .upsertCommunityMessage(community.getId(), sender.getId(), "Bring both kits", createdAt);
+    }
+
+    @Test
+    void eachChatTypeMovesItsOwnReadMarker() {
+        start(1, 10);
+        ConversationSummaryService summaryService = summaryService();
+        UUID targetId = UUID.randomUUID();
+        OffsetDateTime createdAt = OffsetDateTime.now();
+
+        summaryService.record(new ChatMessageSent(ChatType.PRIVATE, targetId, sender.getId(), "hi", createdAt));
+        summaryService.record(new ChatMessageSent(ChatType.MATCH_EVENT, targetId, sender.getId(), "gg", createdAt));
+
+        verify(privateChatReadStateRepository).markReadUpTo(sender.getId(), targetId, createdAt);
+        verify(conversationSummaryRepository).upsertPrivateMessage(sender.getId(), targetId, "hi", createdAt);
+        verify(matchChatReadStateRepository).markReadUpTo(sender.getId(), targetId, createdAt);
+        verify(conversationSummaryRepository).upsertMatchMessage(targetId, sender.getId(), "gg", createdAt);
+        verifyNoInteractions(communityChatReadStateRepository);
+    }
+
+    @Test
+    void markingReadUpsertsTheReadMarker() {
+        start(1, 10);
+        ConversationSummaryService summaryService = summaryService();
+
+        summaryService.markRead(sender.getId(), ChatType.COMMUNITY, community.getId());
+
+        // An upsert, so a read state row the worker inserts concurrently cannot make it fail
+        verify(communityChatReadStateRepository).markReadUpTo(eq(sender.getId()), eq(community.getId()), any());
+        verify(conversationSummaryRepository).markRead(sender.getId(), "COMMUNITY", community.getId());
+        verify(communityChatReadStateRepository, never()).save(any());
+    }
+
+    /**
+     * The chat service wired to the summary service the way Spring does it outside a transaction:
+     * the event listener runs as soon as the event is published.
+     */
+    private void start(int workers, int queueCapacity) {
+        executor = new ChatConfig().conversationSummaryExecutor(workers, queueCapacity);
+        ConversationSummaryService summaryService = summaryService();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
+        CommunityRepository communityRepository = mock(CommunityRepository.class);
+        when(communityRepository.findById(community.getId())).thenReturn(Optional.of(community));
+        CommunityMemberRepository communityMemberRepository = mock(CommunityMemberRepository.class);
+        when(communityMemberRepository.existsByCommunityIdAndUserIdAndIsActiveTrue(community.getId(), sender.getId()))
+                .thenReturn(true);
+        CommunityChatMessageRepository communityChatMessageRepository = mock(CommunityChatMessageRepository.class);
+        when(communityChatMessageRepository.save(any(CommunityChatMessage.class))).thenAnswer(invocation -> {
+            CommunityChatMessage message = invocation.getArgument(0);
+            message.setId(UUID.randomUUID());
+            return message;
+        });
+
+        chatService = new ChatWebSocketService(userRepository, communityRepository, communityMemberRepository,
+                mock(PrivateChatMessageRepository.class), communityChatMessageRepository,
+                mock(IPushNotificationService.class),
+                event -> summaryService.onChatMessageSent((ChatMessageSent) event),
+                messagingTemplate);
+    }
+
+    private ConversationSummaryService summaryService() {
+        return new ConversationSummaryService(conversationSummaryRepository, privateChatReadStateRepository,
+                communityChatReadStateRepository, matchChatReadStateRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), executor);
+    }
+
+    private OffsetDateTime sendCommunityMessage(String text) {
+        chatService.sendCommunityChatMessage(community.getId(),
+                new CommunityChatMessageRequest(community.getId(), text), SimpMessageHeaderAccessor.create());
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), eq("/queue/errors"), any());
+        ArgumentCaptor<WebSocketMessage> broadcast = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(messagingTemplate).convertAndSend(anyString(), broadcast.capture());
+        return ((CommunityChatMessageResponse) broadcast.getValue().getData()).getCreatedAt();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
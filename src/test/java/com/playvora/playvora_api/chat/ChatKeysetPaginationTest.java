@@ -0,0 +1,219 @@
+package com.playvora.playvora_api.chat;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.chat.entities.CommunityChatMessage;
+import com.playvora.playvora_api.chat.entities.PrivateChatMessage;
+import com.playvora.playvora_api.chat.repo.CommunityChatMessageRepository;
+import com.playvora.playvora_api.chat.repo.PrivateChatMessageRepository;
+import com.playvora.playvora_api.common.dto.CursorPaginatedResponse;
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.utils.PaginationUtils;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.match.entities.ChatMessage;
+import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.enums.MatchStatus;
+import com.playvora.playvora_api.match.repo.ChatMessageRepository;
+import com.playvora.playvora_api.user.entities.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The keyset chat history queries: walking the pages from {@code findLatest*} through
+ * {@code find*Before} returns every message of the conversation exactly once, newest first, in the
+ * same order as a single page, even when several messages share a createdAt and a page boundary
+ * falls between them.
+ */
+class ChatKeysetPaginationTest extends JpaSliceTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 3, 1, 18, 0, 0, 0, ZoneOffset.UTC);
+    // Three messages at each of these instants, so pages of two split every group
+    private static final List<OffsetDateTime> TIMESTAMPS = List.of(T0, T0, T0, T0.plusMinutes(1),
+            T0.plusMinutes(1), T0.plusMinutes(1), T0.plusMinutes(2), T0.plusMinutes(2), T0.plusMinutes(2));
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private CommunityChatMessageRepository communityChatMessageRepository;
+
+    @Autowired
+    private PrivateChatMessageRepository privateChatMessageRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+    private Community community;
+    private Match match;
+
+    @BeforeEach
+    void setUp() {
+        alice = createUser("alice");
+        bob = createUser("bob");
+        carol = createUser("carol");
+        community = createCommunity("Keyset FC", alice);
+        match = Match.builder()
+                .community(community)
+                .createdBy(alice)
+                .title("Keyset kickabout")
+                .matchDate(T0.plusDays(7))
+                .registrationDeadline(T0.plusDays(6))
+                .playersPerTeam(5)
+                .status(MatchStatus.UPCOMING)
+                .build();
+        entityManager.persist(match);
+    }
+
+    @Test
+    void communityPagesCoverEveryMessageOnce() {
+        Community other = createCommunity("Other FC", bob);
+        for (OffsetDateTime createdAt : TIMESTAMPS) {
+            entityManager.persist(CommunityChatMessage.builder()
+                    .community(community).sender(alice).message("hi").createdAt(createdAt).build());
+            entityManager.persist(CommunityChatMessage.builder()
+                    .community(other).sender(bob).message("elsewhere").createdAt(createdAt).build());
+        }
+        flushAndClear();
+
+        List<CommunityChatMessage> all = communityChatMessageRepository
+                .findLatestByCommunityId(community.getId(), Pageable.ofSize(100)).getContent();
+        List<CommunityChatMessage> walked = walk(
+                pageable -> communityChatMessageRepository.findLatestByCommunityId(community.getId(), pageable),
+                (cursor, pageable) -> communityChatMessageRepository.findByCommunityIdBefore(
+                        community.getId(), cursor.getNextBefore(), cursor.getNextBeforeId(), pageable),
+                CommunityChatMessage::getCreatedAt, CommunityChatMessage::getId);
+
+        assertWalk(all, walked, CommunityChatMessage::getCreatedAt, CommunityChatMessage::getId);
+        assertTrue(all.stream().allMatch(message -> message.getCommunity().getId().equals(community.getId())));
+    }
+
+    @Test
+    void privatePagesCoverBothDirectionsOfTheConversationOnly() {
+        for (int i = 0; i < TIMESTAMPS.size(); i++) {
+            User sender = i % 2 == 0 ? alice : bob;
+            User recipient = i % 2 == 0 ? bob : alice;
+            entityManager.persist(PrivateChatMessage.builder()
+                    .sender(sender).recipient(recipient).message("hi").createdAt(TIMESTAMPS.get(i)).build());
+            entityManager.persist(PrivateChatMessage.builder()
+                    .sender(carol).recipient(alice).message("not you").createdAt(TIMESTAMPS.get(i)).build());
+        }
+        flushAndClear();
+
+        List<PrivateChatMessage> all = privateChatMessageRepository
+                .findLatestInConversation(alice.getId(), bob.getId(), Pageable.ofSize(100)).getContent();
+        // The cursor works from either participant's side
+        List<PrivateChatMessage> walked = walk(
+                pageable -> privateChatMessageRepository.findLatestInConversation(bob.getId(), alice.getId(), pageable),
+                (cursor, pageable) -> privateChatMessageRepository.findConversationBefore(
+                        alice.getId(), bob.getId(), cursor.getNextBefore(), cursor.getNextBeforeId(), pageable),
+                PrivateChatMessage::getCreatedAt, PrivateChatMessage::getId);
+
+        assertWalk(all, walked, PrivateChatMessage::getCreatedAt, PrivateChatMessage::getId);
+        assertTrue(all.stream().noneMatch(message -> message.getSender().getId().equals(carol.getId())));
+    }
+
+    @Test
+    void matchPagesCoverEveryMessageOnce() {
+        for (OffsetDateTime createdAt : TIMESTAMPS) {
+            entityManager.persist(ChatMessage.builder()
+                    .match(match).sender(alice).message("hi").createdAt(createdAt).build());
+        }
+        flushAndClear();
+
+        List<ChatMessage> all = chatMessageRepository
+                .findLatestByMatchId(match.getId(), Pageable.ofSize(100)).getContent();
+        List<ChatMessage> walked = walk(
+                pageable -> chatMessageRepository.findLatestByMatchId(match.getId(), pageable),
+                (cursor, pageable) -> chatMessageRepository.findByMatchIdBefore(
+                        match.getId(), cursor.getNextBefore(), cursor.getNextBeforeId(), pageable),
+                ChatMessage::getCreatedAt, ChatMessage::getId);
+
+        assertWalk(all, walked, ChatMessage::getCreatedAt, ChatMessage::getId);
+    }
+
+    @Test
+    void aPageEndingOnTheLastMessageHasNoCursor() {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            entityManager.persist(ChatMessage.builder()
+                    .match(match).sender(alice).message("hi").createdAt(T0).build());
+        }
+        flushAndClear();
+
+        CursorPaginatedResponse<UUID> page = PaginationUtils.toCursorPaginatedResponse(
+                chatMessageRepository.findLatestByMatchId(match.getId(), PaginationUtils.cursorPageable(null, null, PAGE_SIZE)),
+                ChatMessage::getId, ChatMessage::getCreatedAt, ChatMessage::getId);
+
+        assertEquals(PAGE_SIZE, page.getRecords().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextBefore());
+        assertNull(page.getNextBeforeId());
+    }
+
+    @Test
+    void theCursorMustBeGivenWhole() {
+        UUID id = UUID.randomUUID();
+
+        assertEquals(PAGE_SIZE, PaginationUtils.cursorPageable(null, null, PAGE_SIZE).getPageSize());
+        assertEquals(0, PaginationUtils.cursorPageable(T0, id, PAGE_SIZE).getOffset());
+        assertTrue(PaginationUtils.cursorPageable(T0, id, PAGE_SIZE).getSort().isUnsorted());
+        assertThrows(BadRequestException.class, () -> PaginationUtils.cursorPageable(T0, null, PAGE_SIZE));
+        assertThrows(BadRequestException.class, () -> PaginationUtils.cursorPageable(null, id, PAGE_SIZE));
+        assertThrows(BadRequestException.class, () -> PaginationUtils.cursorPageable(null, null, 0));
+        assertThrows(BadRequestException.class, () -> PaginationUtils.cursorPageable(T0, id, -1));
+    }
+
+    private interface BeforePage<E> {
+        Slice<E> load(CursorPaginatedResponse<?> cursor, Pageable pageable);
+    }
+
+    /**
+     * Load every page the way a client does, following nextBefore/nextBeforeId until hasMore is false.
+     */
+    private <E> List<E> walk(Function<Pageable, Slice<E>> latest, BeforePage<E> before,
+                             Function<E, OffsetDateTime> createdAt, Function<E, UUID> id) {
+        List<E> walked = new ArrayList<>();
+        Pageable pageable = PaginationUtils.cursorPageable(null, null, PAGE_SIZE);
+        Slice<E> slice = latest.apply(pageable);
+        while (true) {
+            assertTrue(slice.getContent().size() <= PAGE_SIZE);
+            walked.addAll(slice.getContent());
+            CursorPaginatedResponse<UUID> cursor = PaginationUtils.toCursorPaginatedResponse(slice, id, createdAt, id);
+            if (!cursor.isHasMore()) {
+                return walked;
+            }
+            assertTrue(walked.size() < 100, "the cursor did not advance");
+            pageable = PaginationUtils.cursorPageable(cursor.getNextBefore(), cursor.getNextBeforeId(), PAGE_SIZE);
+            slice = before.load(cursor, pageable);
+        }
+    }
+
+    private <E> void assertWalk(List<E> all, List<E> walked, Function<E, OffsetDateTime> createdAt, Function<E, UUID> id) {
+        assertEquals(TIMESTAMPS.size(), all.size());
+        assertEquals(all.stream().map(id).toList(), walked.stream().map(id).toList());
+        Set<UUID> distinct = new HashSet<>(walked.stream().map(id).toList());
+        assertEquals(walked.size(), distinct.size());
+        for (int i = 1; i < walked.size(); i++) {
+            assertFalse(createdAt.apply(walked.get(i)).isAfter(createdAt.apply(walked.get(i - 1))),
+                    "messages are not newest first");
+        }
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,119 @@
+package com.playvora.playvora_api.common;
+
+import com.playvora.playvora_api.common.utils.BoundedTtlCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A value loaded before its key was invalidated must not be cached, whichever invalidation ran
+ * while the loader was outside the lock.
+ */
+class BoundedTtlCacheTest {
+
+    private final BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, 60_000);
+
+    @Test
+    void aLoadedValueIsCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get("key", key -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get("key", key -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void aLoadOverlappingInvalidateIsNotCached() throws Exception {
+        assertStaleLoadDropped(() -> cache.invalidate("key"));
+    }
+
+    @Test
+    void aLoadOverlappingInvalidateIfIsNotCached() throws Exception {
+        assertStaleLoadDropped(() -> cache.invalidateIf((key, value) -> false));
+    }
+
+    @Test
+    void aLoadOverlappingInvalidateAllIsNotCached() throws Exception {
+        assertStaleLoadDropped(cache::invalidateAll);
+    }
+
+    @Test
+    void invalidatingAnotherKeyDoesNotDropALoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get("key", key -> {
+            loading.countDown();
+            await(release);
+            return "v1";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        cache.invalidate("other");
+        release.countDown();
+
+        assertEquals("v1", load.get(5, TimeUnit.SECONDS));
+        assertEquals("v1", cache.getIfPresent("key"));
+    }
+
+    @Test
+    void aLoadStartedAfterTheInvalidationIsCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> stale = CompletableFuture.supplyAsync(() -> cache.get("key", key -> {
+            loading.countDown();
+            await(release);
+            return "stale";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        cache.invalidate("key");
+        assertEquals("fresh", cache.get("key", key -> "fresh"));
+        release.countDown();
+
+        assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", cache.getIfPresent("key"));
+    }
+
+    @Test
+    void aFailedLoadCachesNothing() {
+        assertThrows(IllegalStateException.class, () -> cache.get("key", key -> {
+            throw new IllegalStateException("loader failed");
+        }));
+
+        assertNull(cache.getIfPresent("key"));
+        assertEquals("v1", cache.get("key", key -> "v1"));
+        assertEquals("v1", cache.getIfPresent("key"));
+    }
+
+    private void assertStaleLoadDropped(Runnable invalidation) throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get("key", key -> {
+            loading.countDown();
+            await(release);
+            return "stale";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        invalidation.run();
+        release.countDown();
+
+        // The caller still gets what it loaded, but the next one loads again
+        assertEquals("stale", load.get(5, TimeUnit.SECONDS));
+        assertNull(cache.getIfPresent("key"));
+        assertEquals("fresh", cache.get("key", key -> "fresh"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.playvora.playvora_api.common.config;
+
+import com.playvora.playvora_api.component.WebSocketAuthInterceptor;
+import com.playvora.playvora_api.user.services.IJwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs two application nodes in relay mode against a local {@link StubStompBroker} and connects one
+ * STOMP client to each. A broadcast made on either node must reach the sessions on both, which is
+ * what lets match deltas and chat messages work behind a load balancer.
+ */
+class BrokerRelayStubBrokerTest {
+
+    private static final String DESTINATION = "/topic/match/relay-test";
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class})
+    @Import({WebSocketConfig.class, WebSocketAuthInterceptor.class})
+    static class Node {
+
+        @Bean
+        IJwtService jwtService() {
+            return mock(IJwtService.class);
+        }
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return mock(UserDetailsService.class);
+        }
+    }
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final List<StompSession> sessions = new ArrayList<>();
+    private StubStompBroker broker;
+    private WebSocketStompClient stompClient;
+    private ThreadPoolTaskScheduler receiptScheduler;
+
+    @BeforeEach
+    void startCluster() throws Exception {
+        broker = StubStompBroker.start();
+        nodes.add(startNode());
+        nodes.add(startNode());
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new StringMessageConverter());
+        // Needed to track receipts; heartbeats stay off
+        receiptScheduler = new ThreadPoolTaskScheduler();
+        receiptScheduler.initialize();
+        stompClient.setTaskScheduler(receiptScheduler);
+        stompClient.setDefaultHeartbeat(new long[]{0, 0});
+    }
+
+    @AfterEach
+    void stopCluster() throws Exception {
+        sessions.forEach(StompSession::disconnect);
+        if (stompClient != null) {
+            stompClient.stop();
+            receiptScheduler.shutdown();
+        }
+        nodes.forEach(ConfigurableApplicationContext::close);
+        broker.close();
+    }
+
+    @Test
+    void aBroadcastOnOneNodeReachesSessionsOnBothNodes() throws Exception {
+        BlockingQueue<String> first = subscribe(connect(nodes.get(0)));
+        BlockingQueue<String> second = subscribe(connect(nodes.get(1)));
+
+        nodes.get(0).getBean(SimpMessagingTemplate.class).convertAndSend(DESTINATION, "from node 1");
+        assertEquals("from node 1", first.poll(10, TimeUnit.SECONDS));
+        assertEquals("from node 1", second.poll(10, TimeUnit.SECONDS));
+
+        nodes.get(1).getBean(SimpMessagingTemplate.class).convertAndSend(DESTINATION, "from node 2");
+        assertEquals("from node 2", first.poll(10, TimeUnit.SECONDS));
+        assertEquals("from node 2", second.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aClientFrameOnOneNodeReachesASessionOnTheOther() throws Exception {
+        StompSession sender = connect(nodes.get(0));
+        BlockingQueue<String> received = subscribe(connect(nodes.get(1)));
+
+        sender.send(DESTINATION, "hello");
+
+        assertEquals("hello", received.poll(10, TimeUnit.SECONDS));
+        // Two system connections plus one relayed connection per client session
+        assertEquals(4, broker.connectionCount());
+    }
+
+    private ConfigurableApplicationContext startNode() {
+        // Command line arguments, so they win over application.properties
+        return new SpringApplicationBuilder(Node.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--app.websocket.broker.mode=relay",
+                        "--app.websocket.broker.relay.host=localhost",
+                        "--app.websocket.broker.relay.port=" + broker.port(),
+                        "--spring.main.banner-mode=off");
+    }
+
+    private StompSession connect(ConfigurableApplicationContext node) throws Exception {
+        int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+        StompSession session = stompClient.connectAsync("http://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {
+                })
+                .get(10, TimeUnit.SECONDS);
+        sessions.add(session);
+        return session;
+    }
+
+    /**
+     * Subscribe and wait for the broker's receipt, so the subscription is in place before anything
+     * is sent.
+     */
+    private BlockingQueue<String> subscribe(StompSession session) throws InterruptedException {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(DESTINATION);
+        headers.setReceipt("subscribed-" + session.getSessionId());
+        CountDownLatch subscribed = new CountDownLatch(1);
+        session.subscribe(headers, new StompFrameHandler() {
+            @Override
+            @NonNull
+            public Type getPayloadType(@NonNull StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        }).addReceiptTask(subscribed::countDown);
+        assertTrue(subscribed.await(10, TimeUnit.SECONDS), "no receipt for the subscription");
+        return received;
+    }
+}
@@ -0,0 +1,251 @@
+package com.playvora.playvora_api.common.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Messages/sec through the simple broker and the client outbound channel while match deltas are
+ * broadcast to many subscribers, with the channel set up as before and after the STOMP tuning:
+ *
+ * - before: Spring's default outbound executor (2 × cores, unbounded queue) and the auth
+ *   interceptor's per-message hooks on the outbound channel;
+ * - after: the {@code app.websocket.outbound.*} defaults, no outbound interceptor and publish order
+ *   preserved per session.
+ *
+ * Not part of the test suite; run with
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.playvora.playvora_api.common.config.OutboundChannelThroughputBenchmark \
+ *     -Dexec.args="500 2000 4 20"
+ * </pre>
+ *
+ * The arguments are the number of subscribed sessions, the number of broadcasts, the number of
+ * publishing threads and the simulated cost of one socket write in microseconds. Each session
+ * encodes its frames and writes them one at a time, as a WebSocket session does. Messages the
+ * channel rejected (bounded queue full) are reported separately.
+ */
+public class OutboundChannelThroughputBenchmark {
+
+    private static final String DESTINATION = "/topic/match/benchmark";
+    private static final byte[] DELTA = ("{\"sequence\":1,\"action\":\"PLAYER_SELECTED\",\"matchId\":\"9d1c7f0e-0000-4000-8000-000000000001\","
+            + "\"teamId\":\"9d1c7f0e-0000-4000-8000-000000000002\",\"userName\":\"Jane Doe\",\"draftInProgress\":true}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int broadcasts = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int publishers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        long sendNanos = TimeUnit.MICROSECONDS.toNanos(args.length > 3 ? Long.parseLong(args[3]) : 20);
+        // The application logs at INFO; without a Spring context logback would default to DEBUG
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        // Warm up both set-ups once, then measure
+        for (boolean measure : new boolean[]{false, true}) {
+            Result before = run(before(), false, sessions, broadcasts / (measure ? 1 : 10), publishers, sendNanos);
+            Result after = run(after(), true, sessions, broadcasts / (measure ? 1 : 10), publishers, sendNanos);
+            if (measure) {
+                before.print("before");
+                after.print("after");
+            }
+        }
+    }
+
+    /**
+     * The outbound channel before the tuning: Spring's default executor and the old interceptor.
+     */
+    private static ExecutorSubscribableChannel before() {
+        ThreadPoolTaskExecutor executor = executor(Runtime.getRuntime().availableProcessors() * 2,
+                Integer.MAX_VALUE, Integer.MAX_VALUE);
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(executor);
+        channel.addInterceptor(new OutboundLoggingInterceptor());
+        return channel;
+    }
+
+    /**
+     * The outbound channel as {@link WebSocketConfig} sets it up with the default properties.
+     */
+    private static ExecutorSubscribableChannel after() {
+        return new ExecutorSubscribableChannel(executor(8, 32, 10_000));
+    }
+
+    private static ThreadPoolTaskExecutor executor(int corePoolSize, int maxPoolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(60);
+        executor.setThreadNamePrefix("clientOutboundChannel-");
+        executor.initialize();
+        return executor;
+    }
+
+    private static Result run(ExecutorSubscribableChannel outbound, boolean preservePublishOrder,
+                              int sessions, int broadcasts, int publishers, long sendNanos) throws Exception {
+        AtomicLong delivered = new AtomicLong();
+        outbound.subscribe(new SessionWriter(delivered, sendNanos)::write);
+        OrderedMessageChannelDecorator.configureInterceptor(outbound, preservePublishOrder);
+
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(
+                new ExecutorSubscribableChannel(), outbound, new ExecutorSubscribableChannel(), List.of("/topic"));
+        broker.setPreservePublishOrder(preservePublishOrder);
+        broker.start();
+        for (int i = 0; i < sessions; i++) {
+            broker.handleMessage(frame(SimpMessageType.CONNECT, "session-" + i));
+            broker.handleMessage(frame(SimpMessageType.SUBSCRIBE, "session-" + i));
+        }
+        // Only count the broadcasts, not the CONNECT_ACKs
+        awaitQuiescence(delivered, sessions);
+        delivered.set(0);
+
+        long expected = (long) sessions * broadcasts;
+        long started = System.nanoTime();
+        ExecutorService publisherPool = Executors.newFixedThreadPool(publishers);
+        try {
+            List<Future<?>> published = new ArrayList<>();
+            for (int p = 0; p < publishers; p++) {
+                int share = broadcasts / publishers + (p < broadcasts % publishers ? 1 : 0);
+                published.add(publisherPool.submit(() -> {
+                    for (int i = 0; i < share; i++) {
+                        broker.handleMessage(delta());
+                    }
+                }));
+            }
+            for (Future<?> future : published) {
+                future.get();
+            }
+            awaitQuiescence(delivered, expected);
+        } finally {
+            publisherPool.shutdownNow();
+            broker.stop();
+            ((ThreadPoolTaskExecutor) outbound.getExecutor()).shutdown();
+        }
+        return new Result(sessions, broadcasts, delivered.get(), expected - delivered.get(), System.nanoTime() - started);
+    }
+
+    /**
+     * Wait until every message is delivered, or until deliveries stop (the rest were rejected).
+     */
+    private static void awaitQuiescence(AtomicLong delivered, long expected) throws InterruptedException {
+        long last = -1;
+        long idleSince = System.nanoTime();
+        while (delivered.get() < expected) {
+            long now = System.nanoTime();
+            if (delivered.get() != last) {
+                last = delivered.get();
+                idleSince = now;
+            } else if (now - idleSince > TimeUnit.SECONDS.toNanos(2)) {
+                return;
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(DESTINATION);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> delta() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(DESTINATION);
+        return MessageBuilder.createMessage(DELTA, accessor.getMessageHeaders());
+    }
+
+    /**
+     * Stands in for the WebSocket sessions: encodes each message as a STOMP frame and writes it to
+     * its session, one write at a time per session.
+     */
+    private static final class SessionWriter {
+        private final StompEncoder encoder = new StompEncoder();
+        private final ConcurrentHashMap<String, Object> sessionLocks = new ConcurrentHashMap<>();
+        private final AtomicLong delivered;
+        private final long sendNanos;
+
+        private SessionWriter(AtomicLong delivered, long sendNanos) {
+            this.delivered = delivered;
+            this.sendNanos = sendNanos;
+        }
+
+        private void write(Message<?> message) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+            StompHeaderAccessor frame = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            frame.setDestination(headers.getDestination());
+            frame.setSubscriptionId(headers.getSubscriptionId());
+            frame.setMessageId(Long.toString(delivered.get()));
+            byte[] bytes = encoder.encode(frame.getMessageHeaders(), (byte[]) message.getPayload());
+
+            synchronized (sessionLocks.computeIfAbsent(headers.getSessionId(), id -> new Object())) {
+                if (sendNanos > 0) {
+                    LockSupport.parkNanos(sendNanos);
+                }
+                if (bytes.length > 0) {
+                    delivered.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * The per-message work the auth interceptor used to do on the outbound channel: an accessor
+     * lookup before and after every send, plus a debug log line for MESSAGE frames.
+     */
+    private static final class OutboundLoggingInterceptor implements ChannelInterceptor {
+        private static final org.slf4j.Logger log = LoggerFactory.getLogger(OutboundLoggingInterceptor.class);
+
+        @Override
+        public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+            MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+            return message;
+        }
+
+        @Override
+        public void postSend(@NonNull Message<?> message, @NonNull MessageChannel channel, boolean sent) {
+            StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+            if (accessor != null && sent && StompCommand.MESSAGE.equals(accessor.getCommand())) {
+                log.debug("Message sent to subscriber - Destination: {}, Subscription ID: {}, Session ID: {}",
+                        accessor.getDestination(), accessor.getSubscriptionId(), accessor.getSessionId());
+            }
+        }
+    }
+
+    private record Result(int sessions, int broadcasts, long delivered, long lost, long elapsedNanos) {
+
+        void print(String name) {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf(Locale.ROOT, "%s: %d broadcasts x %d sessions in %d ms, %.0f messages/sec, %d rejected%n",
+                    name, broadcasts, sessions, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), delivered / seconds, lost);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.playvora.playvora_api.common.config;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for the external STOMP broker, implementing just enough of STOMP 1.2 over TCP for
+ * the broker relay: CONNECT, SUBSCRIBE, UNSUBSCRIBE, SEND, DISCONNECT and receipts. Every connection
+ * shares one set of topics, as the nodes of a cluster do. Logins are not checked and heartbeats are
+ * declined.
+ */
+final class StubStompBroker implements AutoCloseable {
+
+    private record Subscription(Connection connection, String id) {
+    }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    private StubStompBroker() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.submit(this::accept);
+    }
+
+    static StubStompBroker start() throws IOException {
+        return new StubStompBroker();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Number of open connections: one system connection per node plus one per client session.
+     */
+    int connectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Connection connection = new Connection(serverSocket.accept());
+                connections.add(connection);
+                executor.submit(() -> serve(connection));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Connection connection) {
+        try (connection) {
+            Frame frame;
+            while ((frame = connection.read()) != null) {
+                handle(connection, frame);
+                if ("DISCONNECT".equals(frame.command())) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Connection closed by the relay or by close()
+        } finally {
+            connections.remove(connection);
+            subscriptions.values().forEach(list -> list.removeIf(s -> s.connection() == connection));
+        }
+    }
+
+    private void handle(Connection connection, Frame frame) throws IOException {
+        Map<String, String> headers = frame.headers();
+        switch (frame.command()) {
+            case "CONNECT", "STOMP" -> connection.write("CONNECTED",
+                    Map.of("version", "1.2", "heart-beat", "0,0"), new byte[0]);
+            case "SUBSCRIBE" -> subscriptions.computeIfAbsent(headers.get("destination"), d -> new CopyOnWriteArrayList<>())
+                    .add(new Subscription(connection, headers.get("id")));
+            case "UNSUBSCRIBE" -> subscriptions.values()
+                    .forEach(list -> list.removeIf(s -> s.connection() == connection && s.id().equals(headers.get("id"))));
+            case "SEND" -> publish(headers, frame.body());
+            default -> {
+                // DISCONNECT only needs its receipt
+            }
+        }
+        if (headers.containsKey("receipt")) {
+            connection.write("RECEIPT", Map.of("receipt-id", headers.get("receipt")), new byte[0]);
+        }
+    }
+
+    private void publish(Map<String, String> headers, byte[] body) throws IOException {
+        String destination = headers.get("destination");
+        for (Subscription subscription : subscriptions.getOrDefault(destination, List.of())) {
+            Map<String, String> messageHeaders = new LinkedHashMap<>();
+            messageHeaders.put("destination", destination);
+            messageHeaders.put("subscription", subscription.id());
+            messageHeaders.put("message-id", Long.toString(messageIds.incrementAndGet()));
+            if (headers.containsKey("content-type")) {
+                messageHeaders.put("content-type", headers.get("content-type"));
+            }
+            messageHeaders.put("content-length", Integer.toString(body.length));
+            subscription.connection().write("MESSAGE", messageHeaders, body);
+        }
+    }
+
+    private record Frame(String command, Map<String, String> headers, byte[] body) {
+    }
+
+    private static final class Connection implements AutoCloseable {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        /**
+         * The next frame, skipping heartbeats, or null at end of stream.
+         */
+        private Frame read() throws IOException {
+            String command;
+            do {
+                command = readLine();
+                if (command == null) {
+                    return null;
+                }
+            } while (command.isEmpty());
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while ((line = readLine()) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                // The first occurrence of a repeated header wins
+                headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+            }
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            String contentLength = headers.get("content-length");
+            if (contentLength != null) {
+                body.write(in.readNBytes(Integer.parseInt(contentLength)));
+                in.read();
+            } else {
+                int b;
+                while ((b = in.read()) > 0) {
+                    body.write(b);
+                }
+            }
+            return new Frame(command, headers, body.toByteArray());
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b == -1) {
+                    return null;
+                }
+                if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            return line.toString(StandardCharsets.UTF_8);
+        }
+
+        private synchronized void write(String command, Map<String, String> headers, byte[] body) throws IOException {
+            StringBuilder frame = new StringBuilder(command).append('\n');
+            headers.forEach((name, value) -> frame.append(name).append(':').append(value).append('\n'));
+            frame.append('\n');
+            out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(body);
+            out.write(0);
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
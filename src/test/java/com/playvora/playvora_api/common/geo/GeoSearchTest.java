@@ -0,0 +1,118 @@
+package com.playvora.playvora_api.common.geo;
+
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
+import com.playvora.playvora_api.common.dto.NearbyRecord;
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoSearchTest {
+
+    private static final GeoPoint CENTRAL_LONDON = new GeoPoint(51.5074, -0.1278);
+
+    private final GeoSearch geoSearch = new GeoSearch(100, 50, 1.61);
+
+    @Test
+    void haversineDistanceMatchesKnownValues() {
+        GeoPoint manchester = new GeoPoint(53.4808, -2.2426);
+        assertEquals(262.6, CENTRAL_LONDON.distanceKm(manchester), 1.0);
+        assertEquals(0.0, CENTRAL_LONDON.distanceKm(CENTRAL_LONDON), 1e-9);
+    }
+
+    @Test
+    void boundsContainEveryPointWithinTheRadius() {
+        SplittableRandom rnd = new SplittableRandom(7);
+        for (GeoPoint center : List.of(CENTRAL_LONDON, new GeoPoint(70.0, 20.0), new GeoPoint(-33.9, 151.2))) {
+            GeoBounds bounds = GeoBounds.around(center, 25);
+            for (int i = 0; i < 10_000; i++) {
+                GeoPoint point = new GeoPoint(center.latitude() + (rnd.nextDouble() - 0.5),
+                        center.longitude() + (rnd.nextDouble() - 0.5) * 2);
+                if (center.distanceKm(point) <= 25) {
+                    assertTrue(contains(bounds, point), point + " is within 25 km of " + center);
+                }
+            }
+        }
+    }
+
+    @Test
+    void boundsWidenToEveryLongitudeAtTheAntimeridianAndPoles() {
+        GeoBounds fiji = GeoBounds.around(new GeoPoint(-17.7, 179.99), 10);
+        assertEquals(0, fiji.minLongitude().compareTo(BigDecimal.valueOf(-180)));
+        assertEquals(0, fiji.maxLongitude().compareTo(BigDecimal.valueOf(180)));
+
+        GeoBounds pole = GeoBounds.around(new GeoPoint(89.99, 0), 10);
+        assertEquals(0, pole.maxLatitude().compareTo(BigDecimal.valueOf(90)));
+        assertEquals(0, pole.minLongitude().compareTo(BigDecimal.valueOf(-180)));
+    }
+
+    @Test
+    void theQueryGetsTheBoundsAndAPageSizePlusOne() {
+        List<NearbySearch> searches = new ArrayList<>();
+        NearbyPaginatedResponse<UUID> page = geoSearch.findNearby(
+                new NearbyQuery(CENTRAL_LONDON.latitude(), CENTRAL_LONDON.longitude(), 10, 2, null, null),
+                search -> {
+                    searches.add(search);
+                    return List.of(new NearbyHit(new UUID(0, 1), 0.5), new NearbyHit(new UUID(0, 2), 0.7),
+                            new NearbyHit(new UUID(0, 3), 0.9));
+                },
+                ids -> ids,
+                Function.identity(),
+                Function.identity());
+
+        NearbySearch search = searches.get(0);
+        assertEquals(3, search.limit());
+        assertEquals(GeoBounds.around(CENTRAL_LONDON, 10), search.bounds());
+        // The first page starts before every row
+        assertTrue(search.afterDistanceKm() < 0);
+
+        assertEquals(List.of(new UUID(0, 1), new UUID(0, 2)),
+                page.getRecords().stream().map(NearbyRecord::getRecord).toList());
+        assertTrue(page.isHasMore());
+        assertEquals(0.7, page.getNextAfterDistanceKm());
+        assertEquals(new UUID(0, 2), page.getNextAfterId());
+    }
+
+    @Test
+    void rejectsInvalidQueries() {
+        assertThrows(BadRequestException.class, () -> find(new NearbyQuery(91, 0, 10, 20, null, null)));
+        assertThrows(BadRequestException.class, () -> find(new NearbyQuery(51, 0, 101, 20, null, null)));
+        assertThrows(BadRequestException.class, () -> find(new NearbyQuery(51, 0, 10, 51, null, null)));
+        assertThrows(BadRequestException.class, () -> find(new NearbyQuery(51, 0, 10, 20, 1.0, null)));
+    }
+
+    @Test
+    void joinRadiusIsCheckedWhenBothLocationsAreKnown() {
+        GeoPoint pitch = new GeoPoint(51.5074, -0.1278);
+        // About 1.1 km north of the pitch
+        assertTrue(geoSearch.isWithinJoinRadius(new BigDecimal("51.5174"), new BigDecimal("-0.1278"), pitch));
+        // About 5.6 km north
+        assertFalse(geoSearch.isWithinJoinRadius(new BigDecimal("51.5574"), new BigDecimal("-0.1278"), pitch));
+        assertTrue(geoSearch.isWithinJoinRadius(new BigDecimal("10"), new BigDecimal("10"), null));
+    }
+
+    @Test
+    void aMissingUserLocationIsNotWithinTheJoinRadius() {
+        GeoPoint pitch = new GeoPoint(51.5074, -0.1278);
+        assertFalse(geoSearch.isWithinJoinRadius(null, null, pitch));
+        assertFalse(geoSearch.isWithinJoinRadius(new BigDecimal("51.5074"), null, pitch));
+    }
+
+    private NearbyPaginatedResponse<UUID> find(NearbyQuery query) {
+        return geoSearch.findNearby(query, search -> List.of(), ids -> ids, Function.identity(), Function.identity());
+    }
+
+    private static boolean contains(GeoBounds bounds, GeoPoint point) {
+        BigDecimal latitude = BigDecimal.valueOf(point.latitude());
+        BigDecimal longitude = BigDecimal.valueOf(point.longitude());
+        return latitude.compareTo(bounds.minLatitude()) >= 0 && latitude.compareTo(bounds.maxLatitude()) <= 0
+                && longitude.compareTo(bounds.minLongitude()) >= 0 && longitude.compareTo(bounds.maxLongitude()) <= 0;
+    }
+}
@@ -0,0 +1,131 @@
+package com.playvora.playvora_api.common.geo;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.common.dto.NearbyPaginatedResponse;
+import com.playvora.playvora_api.common.dto.NearbyRecord;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.community.repo.CommunityRepository;
+import com.playvora.playvora_api.user.entities.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The repositories' {@code findNearest} queries rank, page and limit in the database; run here
+ * against communities, with GeoPoint's haversine distance as the reference.
+ */
+class NearestQueryTest extends JpaSliceTest {
+
+    private static final GeoPoint CENTRAL_LONDON = new GeoPoint(51.5074, -0.1278);
+
+    @Autowired
+    private CommunityRepository communityRepository;
+
+    private final GeoSearch geoSearch = new GeoSearch(100, 50, 1.61);
+    private final List<Community> communities = new ArrayList<>();
+
+    @BeforeEach
+    void createCommunities() {
+        User owner = createUser("owner");
+        SplittableRandom rnd = new SplittableRandom(42);
+        for (int i = 0; i < 300; i++) {
+            Community community = createCommunity("Community " + i, owner);
+            community.setLatitude(degrees(CENTRAL_LONDON.latitude() + (rnd.nextDouble() - 0.5) * 0.5));
+            community.setLongitude(degrees(CENTRAL_LONDON.longitude() + (rnd.nextDouble() - 0.5) * 0.8));
+            communities.add(community);
+        }
+        // Two at the same spot, so a page boundary can fall between equal distances
+        Community twin = createCommunity("Twin", owner);
+        twin.setLatitude(communities.get(0).getLatitude());
+        twin.setLongitude(communities.get(0).getLongitude());
+        communities.add(twin);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesVisitEveryCommunityInRangeOnceNearestFirst() {
+        Set<UUID> seen = new HashSet<>();
+        double previousDistance = -1;
+        Double afterDistanceKm = null;
+        UUID afterId = null;
+
+        NearbyPaginatedResponse<UUID> page;
+        do {
+            page = findNearby(new NearbyQuery(CENTRAL_LONDON.latitude(), CENTRAL_LONDON.longitude(), 10, 7,
+                    afterDistanceKm, afterId));
+            assertTrue(page.getRecords().size() <= 7);
+            for (NearbyRecord<UUID> record : page.getRecords()) {
+                assertTrue(seen.add(record.getRecord()), "returned twice: " + record.getRecord());
+                assertTrue(record.getDistanceKm() >= previousDistance);
+                assertTrue(record.getDistanceKm() <= 10);
+                previousDistance = record.getDistanceKm();
+            }
+            afterDistanceKm = page.getNextAfterDistanceKm();
+            afterId = page.getNextAfterId();
+        } while (page.isHasMore());
+
+        Set<UUID> inRange = new HashSet<>();
+        for (Community community : communities) {
+            if (CENTRAL_LONDON.distanceKm(GeoPoint.of(community.getLatitude(), community.getLongitude())) <= 10) {
+                inRange.add(community.getId());
+            }
+        }
+        assertEquals(inRange, seen);
+        assertTrue(inRange.size() > 21, "test data should span several pages");
+    }
+
+    @Test
+    void distancesMatchTheHaversineDistance() {
+        Community community = communities.get(0);
+        GeoPoint point = GeoPoint.of(community.getLatitude(), community.getLongitude());
+        NearbySearch search = new NearbySearch(point, 1, GeoBounds.around(point, 1), -1, new UUID(0, 0), 10);
+
+        List<NearbyHit> hits = findNearest(search);
+
+        assertEquals(2, hits.size());
+        assertEquals(0.0, hits.get(0).distanceKm(), 1e-6);
+        assertEquals(0.0, hits.get(1).distanceKm(), 1e-6);
+
+        GeoPoint elsewhere = new GeoPoint(point.latitude() + 0.005, point.longitude() - 0.005);
+        NearbyHit hit = findNearest(new NearbySearch(elsewhere, 2, GeoBounds.around(elsewhere, 2), -1,
+                new UUID(0, 0), 1)).get(0);
+        assertEquals(elsewhere.distanceKm(point), hit.distanceKm(), 1e-6);
+    }
+
+    @Test
+    void onlyTheRequestedNumberOfRowsIsRead() {
+        NearbySearch search = new NearbySearch(CENTRAL_LONDON, 100, GeoBounds.around(CENTRAL_LONDON, 100), -1,
+                new UUID(0, 0), 5);
+
+        assertEquals(5, findNearest(search).size());
+    }
+
+    private NearbyPaginatedResponse<UUID> findNearby(NearbyQuery query) {
+        return geoSearch.findNearby(query, this::findNearest, ids -> ids, Function.identity(), Function.identity());
+    }
+
+    private List<NearbyHit> findNearest(NearbySearch search) {
+        return communityRepository.findNearest(search.center().latitude(), search.center().longitude(),
+                search.radiusKm(), search.bounds().minLatitude(), search.bounds().maxLatitude(),
+                search.bounds().minLongitude(), search.bounds().maxLongitude(),
+                search.afterDistanceKm(), search.afterId(), Limit.of(search.limit()));
+    }
+
+    private static BigDecimal degrees(double value) {
+        return BigDecimal.valueOf(value).setScale(8, RoundingMode.HALF_UP);
+    }
+}
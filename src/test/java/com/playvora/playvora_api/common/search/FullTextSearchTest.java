@@ -0,0 +1,146 @@
+package com.playvora.playvora_api.common.search;
+
+import com.playvora.playvora_api.common.geo.GeoSearch;
+import com.playvora.playvora_api.community.repo.CommunityMemberRepository;
+import com.playvora.playvora_api.community.repo.CommunityRepository;
+import com.playvora.playvora_api.community.services.IFileUploadService;
+import com.playvora.playvora_api.community.services.impl.CommunityService;
+import com.playvora.playvora_api.match.repo.MatchRepository;
+import com.playvora.playvora_api.user.repo.RoleRepository;
+import com.playvora.playvora_api.user.repo.UserRepository;
+import com.playvora.playvora_api.user.repo.UserRoleRepository;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that {@link FullTextSearch#prefixQuery(String)} only ever produces valid tsquery syntax,
+ * and that searches take the ranked path on PostgreSQL and the LIKE path everywhere else.
+ */
+class FullTextSearchTest {
+
+    @Test
+    void termsBecomeLowerCasePrefixesJoinedByAnd() {
+        FullTextSearch search = onDatabase("PostgreSQL", true);
+
+        assertEquals("sunday:* & foot:*", search.prefixQuery("Sunday foot"));
+        assertEquals("café:* & müller:* & 5:*", search.prefixQuery("Café Müller 5"));
+    }
+
+    @Test
+    void punctuationSeparatesTerms() {
+        FullTextSearch search = onDatabase("PostgreSQL", true);
+
+        assertEquals("5:* & a:* & side:* & e1:* & 6an:*", search.prefixQuery("5-a-side, (E1 6AN)."));
+        assertEquals("o:* & brien:* & s:*", search.prefixQuery("O'Brien's"));
+    }
+
+    @Test
+    void tsqueryOperatorsAreStripped() {
+        FullTextSearch search = onDatabase("PostgreSQL", true);
+
+        assertEquals("foot:* & ball:* & park:*", search.prefixQuery("foot&ball | !park:*"));
+        assertEquals("a:* & b:*", search.prefixQuery("a:*&!b"));
+        assertNull(search.prefixQuery("&|!:*"));
+        assertNull(search.prefixQuery("  & | ! : *  "));
+    }
+
+    @Test
+    void emptyAndWhitespaceOnlyInputHasNoQuery() {
+        JdbcTemplate jdbcTemplate = database("PostgreSQL");
+        FullTextSearch search = new FullTextSearch(jdbcTemplate, true);
+
+        assertNull(search.prefixQuery(null));
+        assertNull(search.prefixQuery(""));
+        assertNull(search.prefixQuery("   "));
+        assertNull(search.prefixQuery("\t\n"));
+        // Decided before the database is asked anything
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void atMostEightTermsAreUsed() {
+        FullTextSearch search = onDatabase("PostgreSQL", true);
+
+        assertEquals("a:* & b:* & c:* & d:* & e:* & f:* & g:* & h:*", search.prefixQuery("a b c d e f g h i j"));
+    }
+
+    @Test
+    void otherDatabasesHaveNoFullTextQuery() {
+        JdbcTemplate jdbcTemplate = database("H2");
+        FullTextSearch search = new FullTextSearch(jdbcTemplate, true);
+
+        assertNull(search.prefixQuery("Sunday foot"));
+        assertNull(search.prefixQuery("Sunday foot"));
+        // The database product is looked up once
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    void disabledFullTextSearchHasNoQueryOnPostgres() {
+        assertNull(onDatabase("PostgreSQL", false).prefixQuery("Sunday foot"));
+    }
+
+    @Test
+    void postgresSearchesUseTheRankedQuery() {
+        CommunityRepository communityRepository = mock(CommunityRepository.class);
+        when(communityRepository.fullTextSearchCommunities(anyString(), any(Pageable.class))).thenReturn(Page.empty());
+
+        communityService(communityRepository, onDatabase("PostgreSQL", true))
+                .getAllCommunities(0, 10, "name", "asc", "Sunday foot");
+
+        verify(communityRepository).fullTextSearchCommunities(eq("sunday:* & foot:*"), eq(PageRequest.of(0, 10)));
+        verify(communityRepository, never()).searchAllCommunities(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void otherDatabasesUseTheLikeQuery() {
+        assertLikeSearch(onDatabase("H2", true), "Sunday foot");
+    }
+
+    @Test
+    void postgresSearchesWithoutTermsUseTheLikeQuery() {
+        assertLikeSearch(onDatabase("PostgreSQL", true), "&|!");
+    }
+
+    private static void assertLikeSearch(FullTextSearch fullTextSearch, String search) {
+        CommunityRepository communityRepository = mock(CommunityRepository.class);
+        when(communityRepository.searchAllCommunities(anyString(), any(Pageable.class))).thenReturn(Page.empty());
+
+        communityService(communityRepository, fullTextSearch).getAllCommunities(0, 10, "name", "asc", search);
+
+        verify(communityRepository).searchAllCommunities(anyString(), any(Pageable.class));
+        verify(communityRepository, never()).fullTextSearchCommunities(anyString(), any(Pageable.class));
+    }
+
+    private static FullTextSearch onDatabase(String product, boolean enabled) {
+        return new FullTextSearch(database(product), enabled);
+    }
+
+    private static JdbcTemplate database(String product) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(product);
+        return jdbcTemplate;
+    }
+
+    private static CommunityService communityService(CommunityRepository communityRepository, FullTextSearch fullTextSearch) {
+        return new CommunityService(communityRepository, mock(CommunityMemberRepository.class), mock(UserRepository.class),
+                mock(RoleRepository.class), mock(UserRoleRepository.class), mock(IPrincipalCacheService.class),
+                mock(IFileUploadService.class), mock(MatchRepository.class), fullTextSearch, mock(GeoSearch.class));
+    }
+}
@@ -0,0 +1,169 @@
+package com.playvora.playvora_api.files;
+
+import com.playvora.playvora_api.community.services.impl.S3Service;
+import com.playvora.playvora_api.files.StubS3Server.StoredObject;
+import com.playvora.playvora_api.files.dtos.StoredBlob;
+import com.playvora.playvora_api.files.services.IImageVariantService;
+import com.playvora.playvora_api.files.services.impl.FileBlobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs {@link FileBlobService} against a local stub of S3 and an in-memory blob table.
+ */
+class FileBlobStubS3Test {
+
+    private static final String BUCKET = "files";
+
+    private final IImageVariantService imageVariantService = mock(IImageVariantService.class);
+    private final InMemoryFileBlobs blobs = new InMemoryFileBlobs();
+
+    private StubS3Server s3;
+    private S3Client s3Client;
+    private S3Service s3Service;
+    private FileBlobService fileBlobService;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        s3 = StubS3Server.start(BUCKET);
+        s3Client = s3.client();
+        s3Service = spy(new S3Service(s3Client, mock(S3Presigner.class)));
+        ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(s3Service, "compressionEnabled", true);
+        ReflectionTestUtils.setField(s3Service, "compressionThreshold", 300 * 1024L);
+
+        fileBlobService = new FileBlobService(s3Service, imageVariantService, blobs.repository(),
+                blobs.transactionTemplate());
+    }
+
+    @AfterEach
+    void stopStub() {
+        s3Client.close();
+        s3.close();
+    }
+
+    @Test
+    void identicalUploadsShareOneObject() {
+        byte[] photo = randomBytes(50_000);
+
+        StoredBlob first = fileBlobService.store(image("a.png", photo), "users/one", "first.png");
+        StoredBlob second = fileBlobService.store(image("b.png", photo), "users/one", "second.png");
+
+        assertFalse(first.reused());
+        assertTrue(second.reused());
+        assertEquals("users/one/first.png", second.object().fileKey());
+        assertEquals(first.object().eTag(), second.object().eTag());
+        assertEquals(List.of("PUT users/one/first.png"), s3.requests());
+        assertEquals(2, blobs.blobs().get("users/one/first.png").getRefCount());
+    }
+
+    @Test
+    void contentIsNotSharedAcrossOwners() {
+        byte[] photo = randomBytes(10_000);
+
+        fileBlobService.store(image("a.png", photo), "users/one", "first.png");
+        StoredBlob other = fileBlobService.store(image("a.png", photo), "users/two", "second.png");
+        StoredBlob banner = fileBlobService.store(image("a.png", photo), "community-banners/three", "banner.png");
+
+        assertFalse(other.reused());
+        assertEquals("users/two/second.png", other.object().fileKey());
+        assertFalse(banner.reused());
+        assertEquals(3, s3.objects().size());
+    }
+
+    @Test
+    void theObjectIsDeletedWithItsLastReference() {
+        byte[] photo = randomBytes(50_000);
+        String fileKey = fileBlobService.store(image("a.png", photo), "users/one", "first.png").object().fileKey();
+        fileBlobService.store(image("a.png", photo), "users/one", "again.png");
+
+        assertFalse(fileBlobService.release(fileKey));
+        assertNotNull(s3.get(fileKey));
+        verify(imageVariantService, never()).deleteVariants(any());
+
+        assertTrue(fileBlobService.release(fileKey));
+        assertNull(s3.get(fileKey));
+        assertTrue(blobs.blobs().isEmpty());
+        verify(imageVariantService).deleteVariants(fileKey);
+
+        // Uploading the same content again stores a new object
+        assertFalse(fileBlobService.store(image("a.png", photo), "users/one", "later.png").reused());
+    }
+
+    @Test
+    void objectsStoredBeforeDeduplicationAreDeletedOnRelease() {
+        s3.put("community-logos/old.png", new StoredObject(randomBytes(100), "image/png"));
+
+        assertTrue(fileBlobService.release("community-logos/old.png"));
+
+        assertNull(s3.get("community-logos/old.png"));
+    }
+
+    @Test
+    void deletionWaitsForTheTransactionToCommit() {
+        String fileKey = fileBlobService.store(image("a.png", randomBytes(1000)), "users/one", "a.png").object().fileKey();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(fileBlobService.release(fileKey));
+            assertNotNull(s3.get(fileKey));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNull(s3.get(fileKey));
+    }
+
+    @Test
+    void theLoserOfAConcurrentFirstUploadDeletesItsCopy() throws Exception {
+        byte[] photo = randomBytes(20_000);
+        String contentHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(photo));
+        // Another upload of the same content records its object while this one is being written
+        doAnswer(invocation -> {
+            Object result = invocation.callRealMethod();
+            s3.put("users/one/winner.png", new StoredObject(photo, "image/png"));
+            blobs.repository().insertIfAbsent("users/one", contentHash, "users/one/winner.png", "image/png", null,
+                    photo.length, StubS3Server.etag(photo));
+            return result;
+        }).when(s3Service).uploadFile(any(), any(), any());
+
+        StoredBlob stored = fileBlobService.store(image("a.png", photo), "users/one", "loser.png");
+
+        assertTrue(stored.reused());
+        assertEquals("users/one/winner.png", stored.object().fileKey());
+        assertNull(s3.get("users/one/loser.png"));
+        assertEquals(2, blobs.blobs().get("users/one/winner.png").getRefCount());
+    }
+
+    private static MockMultipartFile image(String name, byte[] bytes) {
+        return new MockMultipartFile("file", name, "image/png", bytes);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new SplittableRandom(24).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,147 @@
+package com.playvora.playvora_api.files;
+
+import com.playvora.playvora_api.community.services.impl.S3Service;
+import com.playvora.playvora_api.files.dtos.S3ObjectStream;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Peak heap while many clients download a large file at once, buffering each object into a byte
+ * array (the old download path) against streaming it through a fixed buffer. Not part of the test
+ * suite; run with
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.playvora.playvora_api.files.FileDownloadHeapBenchmark -Dexec.args="32 20"
+ * </pre>
+ *
+ * The arguments are the number of concurrent downloads and the file size in MB. A local stub stands
+ * in for S3 and generates the object on the fly, so it adds nothing to the heap itself.
+ */
+public class FileDownloadHeapBenchmark {
+
+    private static final String BUCKET = "files";
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        long size = (args.length > 1 ? Long.parseLong(args[1]) : 20) * 1024 * 1024;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/" + BUCKET + "/", exchange -> serve(exchange, size));
+        server.start();
+
+        try (S3Client s3Client = S3Client.builder()
+                .endpointOverride(URI.create("http://localhost:" + server.getAddress().getPort()))
+                .forcePathStyle(true)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                // The stub's ETag is not an MD5 of the generated bytes
+                .serviceConfiguration(S3Configuration.builder().checksumValidationEnabled(false).build())
+                .httpClient(ApacheHttpClient.builder().maxConnections(clients).build())
+                .build()) {
+            S3Service s3Service = new S3Service(s3Client, null);
+            ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+
+            report("buffered", clients, size, () -> drain(s3Service.downloadFile("big.bin")));
+            report("streamed", clients, size, () -> {
+                try (S3ObjectStream object = s3Service.openFile("big.bin", null, null).orElseThrow()) {
+                    return copy(object.body(), OutputStream.nullOutputStream());
+                }
+            });
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private interface Download {
+        long run() throws Exception;
+    }
+
+    private static void report(String name, int clients, long size, Download download) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(executor.submit(download::run));
+            }
+            for (Future<Long> result : results) {
+                if (result.get() != size) {
+                    throw new IllegalStateException("Short download");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            sampler.interrupt();
+            sampler.join();
+        }
+        System.out.printf(Locale.ROOT, "%s: %d x %d MB in %d ms, peak heap %d MB above baseline%n", name, clients,
+                size >> 20, (System.nanoTime() - started) / 1_000_000, (peak.get() - baseline) >> 20);
+    }
+
+    private static long drain(byte[] bytes) {
+        return bytes.length;
+    }
+
+    private static long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[16 * 1024];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+
+    private static void serve(HttpExchange exchange, long size) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+        exchange.getResponseHeaders().add("ETag", "\"big\"");
+        exchange.sendResponseHeaders(200, size);
+        byte[] chunk = new byte[64 * 1024];
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (long sent = 0; sent < size; sent += chunk.length) {
+                out.write(chunk, 0, (int) Math.min(chunk.length, size - sent));
+            }
+        }
+    }
+}
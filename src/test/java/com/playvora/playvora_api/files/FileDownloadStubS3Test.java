@@ -0,0 +1,178 @@
+package com.playvora.playvora_api.files;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.services.FileService;
+import com.playvora.playvora_api.community.services.impl.S3Service;
+import com.playvora.playvora_api.controllers.FileController;
+import com.playvora.playvora_api.files.StubS3Server.StoredObject;
+import com.playvora.playvora_api.files.entities.UserFile;
+import com.playvora.playvora_api.files.repositories.UserFileRepository;
+import com.playvora.playvora_api.files.services.IFileBlobService;
+import com.playvora.playvora_api.files.services.IImageVariantService;
+import com.playvora.playvora_api.files.services.impl.PresignedUrlCache;
+import com.playvora.playvora_api.user.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static com.playvora.playvora_api.files.StubS3Server.etag;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs file downloads through {@link FileController}, {@link FileService} and {@link S3Service}
+ * against a local stub of the S3 GetObject API.
+ */
+class FileDownloadStubS3Test {
+
+    private static final String BUCKET = "files";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final UserFileRepository userFileRepository = mock(UserFileRepository.class);
+
+    private StubS3Server s3;
+    private S3Client s3Client;
+    private FileService fileService;
+    private MockMvc mockMvc;
+    private byte[] photo;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        s3 = StubS3Server.start(BUCKET);
+        s3Client = s3.client();
+        S3Service s3Service = new S3Service(s3Client, mock(S3Presigner.class));
+        ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+
+        fileService = new FileService(s3Service, mock(UserRepository.class), userFileRepository,
+                mock(IImageVariantService.class), new PresignedUrlCache(s3Service, 60, 10, 100),
+                mock(IFileBlobService.class));
+        FileController controller = new FileController(fileService, mock(IImageVariantService.class));
+        ReflectionTestUtils.setField(controller, "cacheMaxAgeSeconds", 3600L);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        photo = new byte[100_000];
+        new SplittableRandom(20).nextBytes(photo);
+        store("photo.png", "users/" + USER_ID + "/photo.png", "image/png", photo);
+    }
+
+    @AfterEach
+    void stopStub() {
+        s3Client.close();
+        s3.close();
+    }
+
+    @Test
+    void wholeFileIsStreamedWithCachingHeadersInOneRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/files/{userId}/{fileName}", USER_ID, "photo.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(photo))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().longValue("Content-Length", photo.length))
+                .andExpect(header().string("ETag", etag(photo)))
+                .andExpect(header().string("Cache-Control", "max-age=3600, private, immutable"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Disposition", "inline; filename=\"photo.png\""));
+
+        // No HEAD before the GET
+        assertEquals(List.of("GET users/" + USER_ID + "/photo.png"), s3.requests());
+    }
+
+    @Test
+    void aByteRangeIsServedAsPartialContent() throws Exception {
+        byte[] expected = new byte[100];
+        System.arraycopy(photo, 1000, expected, 0, 100);
+
+        mockMvc.perform(get("/api/v1/files/{userId}/{fileName}", USER_ID, "photo.png").header("Range", "bytes=1000-1099"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(expected))
+                .andExpect(header().string("Content-Range", "bytes 1000-1099/" + photo.length))
+                .andExpect(header().longValue("Content-Length", 100));
+    }
+
+    @Test
+    void multipleRangesFallBackToTheWholeFile() throws Exception {
+        mockMvc.perform(get("/api/v1/files/{userId}/{fileName}", USER_ID, "photo.png").header("Range", "bytes=0-9,20-29"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(photo));
+    }
+
+    @Test
+    void aMatchingETagIsNotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/files/{userId}/{fileName}", USER_ID, "photo.png").header("If-None-Match", etag(photo)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag(photo)))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/api/v1/files/{userId}/{fileName}", USER_ID, "photo.png").header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(photo));
+    }
+
+    @Test
+    void anETagRecordedAtUploadIsCheckedWithoutCallingS3() throws Exception {
+        when(userFileRepository.findByUserIdAndFileName(USER_ID, "recorded.png")).thenReturn(Optional.of(UserFile.builder()
+                .fileName("recorded.png").originalFileName("recorded.png").contentType("image/png")
+                .fileKey("users/" + USER_ID + "/recorded.png").etag(etag(photo)).build()));
+
+        mockMvc.perform(get("/api/v1/files/{userId}/{fileName}", USER_ID, "recorded.png")
+                        .header("If-None-Match", "\"other\", W/" + etag(photo)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag(photo)));
+
+        assertTrue(s3.requests().isEmpty());
+    }
+
+    @Test
+    void anUnsatisfiableRangeIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/files/{userId}/{fileName}", USER_ID, "photo.png").header("Range", "bytes=200000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void compressedUploadsKeepTheirContentEncoding() throws Exception {
+        byte[] gzipped = "not really gzip".getBytes(StandardCharsets.UTF_8);
+        store("notes.txt", "users/" + USER_ID + "/notes.txt.gz", "text/plain", gzipped);
+        s3.put("users/" + USER_ID + "/notes.txt.gz", new StoredObject(gzipped, "text/plain", "gzip", Map.of(), etag(gzipped)));
+
+        mockMvc.perform(get("/api/v1/files/{userId}/{fileName}", USER_ID, "notes.txt"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().bytes(gzipped));
+    }
+
+    @Test
+    void aMissingObjectIsDetectedFromTheGet() {
+        when(userFileRepository.findByUserIdAndFileName(USER_ID, "gone.png")).thenReturn(Optional.of(UserFile.builder()
+                .fileName("gone.png").originalFileName("gone.png").fileKey("users/" + USER_ID + "/gone.png").build()));
+
+        BadRequestException error = assertThrows(BadRequestException.class,
+                () -> fileService.openFileImage(USER_ID.toString(), "gone.png", null, null));
+        assertEquals("Stored file no longer exists in S3", error.getMessage());
+        assertEquals(List.of("GET users/" + USER_ID + "/gone.png"), s3.requests());
+    }
+
+    private void store(String fileName, String key, String contentType, byte[] bytes) {
+        s3.put(key, new StoredObject(bytes, contentType));
+        when(userFileRepository.findByUserIdAndFileName(USER_ID, fileName)).thenReturn(Optional.of(UserFile.builder()
+                .fileName(fileName).originalFileName(fileName).contentType(contentType).size(bytes.length).fileKey(key).build()));
+    }
+}
@@ -0,0 +1,206 @@
+package com.playvora.playvora_api.files;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.services.FileService;
+import com.playvora.playvora_api.community.services.impl.S3Service;
+import com.playvora.playvora_api.files.StubS3Server.StoredObject;
+import com.playvora.playvora_api.files.entities.UserFile;
+import com.playvora.playvora_api.files.repositories.UserFileRepository;
+import com.playvora.playvora_api.files.services.IImageVariantService;
+import com.playvora.playvora_api.files.services.impl.FileBlobService;
+import com.playvora.playvora_api.files.services.impl.PresignedUrlCache;
+import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.user.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static com.playvora.playvora_api.files.StubS3Server.etag;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that presigned URLs and file metadata are served by {@link FileService} without S3 calls once
+ * a file is recorded, against a local stub of S3.
+ */
+class FileMetadataStubS3Test {
+
+    private static final String BUCKET = "files";
+    private static final Instant NOW = Instant.parse("2030-01-07T09:00:00Z");
+
+    private final UserFileRepository userFileRepository = mock(UserFileRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final User user = User.builder().id(UUID.randomUUID()).email("player@example.com").build();
+    private final Principal principal = () -> "player@example.com";
+
+    private StubS3Server s3;
+    private S3Client s3Client;
+    private S3Presigner s3Presigner;
+    private PresignedUrlCache presignedUrlCache;
+    private FileService fileService;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        s3 = StubS3Server.start(BUCKET);
+        s3Client = s3.client();
+        s3Presigner = s3.presigner();
+        S3Service s3Service = new S3Service(s3Client, s3Presigner);
+        ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(s3Service, "compressionEnabled", true);
+        ReflectionTestUtils.setField(s3Service, "compressionThreshold", 300 * 1024L);
+
+        IImageVariantService imageVariantService = mock(IImageVariantService.class);
+        InMemoryFileBlobs blobs = new InMemoryFileBlobs();
+        presignedUrlCache = new PresignedUrlCache(s3Service, Duration.ofMinutes(60), Duration.ofMinutes(10), 100,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        fileService = new FileService(s3Service, userRepository, userFileRepository, imageVariantService,
+                presignedUrlCache,
+                new FileBlobService(s3Service, imageVariantService, blobs.repository(), blobs.transactionTemplate()));
+
+        when(userRepository.findByEmail("player@example.com")).thenReturn(Optional.of(user));
+        when(userFileRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void stopStub() {
+        s3Presigner.close();
+        s3Client.close();
+        s3.close();
+    }
+
+    @Test
+    void proxiedUploadsRecordWhatS3Stored() {
+        byte[] photo = randomBytes(1000);
+        byte[] text = "line of text\n".repeat(40_000).getBytes();
+
+        fileService.uploadFile(new MockMultipartFile("file", "photo.png", "image/png", photo), principal);
+        fileService.uploadFile(new MockMultipartFile("file", "notes.txt", "text/plain", text), principal);
+
+        ArgumentCaptor<UserFile> saved = ArgumentCaptor.forClass(UserFile.class);
+        verify(userFileRepository, times(2)).save(saved.capture());
+        UserFile savedPhoto = saved.getAllValues().get(0);
+        assertEquals(etag(photo), savedPhoto.getEtag());
+        assertEquals(photo.length, savedPhoto.getStorageSize());
+        assertNull(savedPhoto.getContentEncoding());
+        assertNotNull(savedPhoto.getStorageLastModified());
+
+        UserFile savedText = saved.getAllValues().get(1);
+        StoredObject storedText = s3.get(savedText.getFileKey());
+        assertEquals("gzip", savedText.getContentEncoding());
+        assertEquals(etag(storedText.bytes()), savedText.getEtag());
+        assertEquals(storedText.bytes().length, savedText.getStorageSize());
+        assertEquals(text.length, savedText.getSize());
+    }
+
+    @Test
+    void aPresignedUrlIsReusedUntilTheFileIsDeleted() {
+        UserFile file = record("photo.png", "etag");
+
+        Map<String, Object> first = fileService.getPresignedUrl("photo.png", principal);
+        Map<String, Object> second = fileService.getPresignedUrl("photo.png", principal);
+
+        assertEquals(first.get("url"), second.get("url"));
+        assertTrue(((String) first.get("url")).contains("X-Amz-Expires=3600"));
+        assertEquals(NOW.plus(Duration.ofMinutes(60)), first.get("expiresAt"));
+        assertTrue(s3.requests().isEmpty());
+
+        fileService.deleteFile("photo.png", principal);
+        when(userFileRepository.findByUserAndFileName(user, "photo.png")).thenReturn(Optional.empty());
+        assertThrows(BadRequestException.class, () -> fileService.getPresignedUrl("photo.png", principal));
+        assertEquals(List.of("DELETE " + file.getFileKey()), s3.requests());
+    }
+
+    @Test
+    void aDeletedFileHasNoUrlWhileAnotherFileSharesItsObject() {
+        byte[] photo = randomBytes(2000);
+        Map<String, Object> first = fileService.uploadFile(new MockMultipartFile("file", "a.png", "image/png", photo), principal);
+        Map<String, Object> second = fileService.uploadFile(new MockMultipartFile("file", "b.png", "image/png", photo), principal);
+        String firstName = (String) first.get("fileName");
+        String secondName = (String) second.get("fileName");
+        ArgumentCaptor<UserFile> saved = ArgumentCaptor.forClass(UserFile.class);
+        verify(userFileRepository, times(2)).save(saved.capture());
+        when(userFileRepository.findByUserAndFileName(user, firstName)).thenReturn(Optional.of(saved.getAllValues().get(0)));
+        when(userFileRepository.findByUserAndFileName(user, secondName)).thenReturn(Optional.of(saved.getAllValues().get(1)));
+        fileService.getPresignedUrl(firstName, principal);
+
+        fileService.deleteFile(firstName, principal);
+        when(userFileRepository.findByUserAndFileName(user, firstName)).thenReturn(Optional.empty());
+
+        assertThrows(BadRequestException.class, () -> fileService.getPresignedUrl(firstName, principal));
+        assertEquals(first.get("fileKey"), second.get("fileKey"));
+        assertNotNull(s3.get((String) first.get("fileKey")));
+        // The remaining file signs a new URL for the shared object
+        fileService.getPresignedUrl(secondName, principal);
+        assertEquals(2, presignedUrlCache.getStats().misses());
+    }
+
+    @Test
+    void metadataIsServedFromTheRecordedFile() {
+        record("photo.png", "\"abc\"");
+
+        Map<String, Object> metadata = fileService.getFileMetadata("photo.png", principal);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> storage = (Map<String, Object>) metadata.get("s3Metadata");
+        assertEquals("\"abc\"", storage.get("etag"));
+        assertEquals(2000L, storage.get("size"));
+        assertEquals("image/png", storage.get("type"));
+        assertTrue(s3.requests().isEmpty());
+    }
+
+    @Test
+    void filesRecordedBeforeStorageMetadataAreLookedUpOnce() {
+        byte[] photo = randomBytes(3000);
+        UserFile file = record("old.png", null);
+        s3.put(file.getFileKey(), new StoredObject(photo, "image/png"));
+
+        fileService.getFileMetadata("old.png", principal);
+        Map<String, Object> metadata = fileService.getFileMetadata("old.png", principal);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> storage = (Map<String, Object>) metadata.get("s3Metadata");
+        assertEquals(etag(photo), storage.get("etag"));
+        assertEquals((long) photo.length, storage.get("size"));
+        assertEquals(List.of("HEAD " + file.getFileKey()), s3.requests());
+        verify(userFileRepository).save(file);
+    }
+
+    private UserFile record(String fileName, String etag) {
+        String fileKey = "users/" + user.getId() + "/" + fileName;
+        UserFile file = UserFile.builder()
+                .user(user).fileName(fileName).originalFileName(fileName).contentType("image/png").size(2000)
+                .fileKey(fileKey).fileUrl("https://files.example.com/" + fileKey)
+                .etag(etag).storageSize(etag != null ? 2000L : null)
+                .storageLastModified(etag != null ? NOW.atOffset(ZoneOffset.UTC) : null)
+                .build();
+        when(userFileRepository.findByUserAndFileName(user, fileName)).thenReturn(Optional.of(file));
+        return file;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new SplittableRandom(23).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,260 @@
+package com.playvora.playvora_api.files;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.services.FileService;
+import com.playvora.playvora_api.community.services.impl.S3Service;
+import com.playvora.playvora_api.files.StubS3Server.StoredObject;
+import com.playvora.playvora_api.files.dtos.CompleteFileUploadRequest;
+import com.playvora.playvora_api.files.dtos.FileUploadRequest;
+import com.playvora.playvora_api.files.dtos.FileUploadTicket;
+import com.playvora.playvora_api.files.dtos.PartUploadUrl;
+import com.playvora.playvora_api.files.dtos.UploadedPart;
+import com.playvora.playvora_api.files.entities.UserFile;
+import com.playvora.playvora_api.files.repositories.UserFileRepository;
+import com.playvora.playvora_api.files.services.IImageVariantService;
+import com.playvora.playvora_api.files.services.impl.FileBlobService;
+import com.playvora.playvora_api.files.services.impl.PresignedUrlCache;
+import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.user.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs direct (presigned) and proxied uploads through {@link FileService} and {@link S3Service} against
+ * a local stub of S3.
+ */
+class FileUploadStubS3Test {
+
+    private static final String BUCKET = "files";
+    private static final int MB = 1024 * 1024;
+
+    private final UserFileRepository userFileRepository = mock(UserFileRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final IImageVariantService imageVariantService = mock(IImageVariantService.class);
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final User user = User.builder().id(UUID.randomUUID()).email("player@example.com").build();
+    private final Principal principal = () -> "player@example.com";
+
+    private StubS3Server s3;
+    private S3Client s3Client;
+    private S3Presigner s3Presigner;
+    private FileService fileService;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        s3 = StubS3Server.start(BUCKET);
+        s3Client = s3.client();
+        s3Presigner = s3.presigner();
+        S3Service s3Service = new S3Service(s3Client, s3Presigner);
+        ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(s3Service, "compressionEnabled", true);
+        ReflectionTestUtils.setField(s3Service, "compressionThreshold", 300 * 1024L);
+
+        InMemoryFileBlobs blobs = new InMemoryFileBlobs();
+        fileService = new FileService(s3Service, userRepository, userFileRepository, imageVariantService,
+                new PresignedUrlCache(s3Service, 60, 10, 100),
+                new FileBlobService(s3Service, imageVariantService, blobs.repository(), blobs.transactionTemplate()));
+        ReflectionTestUtils.setField(fileService, "uploadUrlExpiryMinutes", 15L);
+        ReflectionTestUtils.setField(fileService, "multipartThresholdBytes", 10L * MB);
+        ReflectionTestUtils.setField(fileService, "partSizeBytes", 5L * MB);
+
+        when(userRepository.findByEmail("player@example.com")).thenReturn(Optional.of(user));
+        when(userFileRepository.findFirstByUserAndFileKey(any(), any())).thenReturn(Optional.empty());
+        when(userFileRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void stopStub() {
+        s3Presigner.close();
+        s3Client.close();
+        s3.close();
+    }
+
+    @Test
+    void aSmallFileIsUploadedWithOnePresignedPut() throws Exception {
+        byte[] photo = randomBytes(200_000);
+        FileUploadTicket ticket = fileService.createUpload(new FileUploadRequest("My photo.png", "image/png", photo.length), principal);
+
+        assertTrue(ticket.getFileKey().startsWith("users/" + user.getId() + "/"));
+        assertNull(ticket.getUploadId());
+        assertEquals("image/png", ticket.getHeaders().get("content-type"));
+        assertEquals(Integer.toString(photo.length), ticket.getHeaders().get("content-length"));
+        assertEquals("My_photo.png", ticket.getHeaders().get("x-amz-meta-original-file-name"));
+        assertTrue(ticket.getUrl().contains("X-Amz-Signature="));
+        // Nothing has touched S3 yet
+        assertTrue(s3.requests().isEmpty());
+
+        assertEquals(200, put(ticket.getUrl(), ticket.getHeaders(), photo).statusCode());
+        Map<String, Object> completed = fileService.completeUpload(
+                CompleteFileUploadRequest.builder().fileKey(ticket.getFileKey()).build(), principal);
+
+        UserFile saved = savedFile();
+        assertEquals(ticket.getFileName(), saved.getFileName());
+        assertEquals("My_photo.png", saved.getOriginalFileName());
+        assertEquals("image/png", saved.getContentType());
+        assertEquals(photo.length, saved.getSize());
+        assertEquals(ticket.getFileKey(), completed.get("fileKey"));
+        assertArrayEquals(photo, s3.get(ticket.getFileKey()).bytes());
+        verify(imageVariantService).generateAsync(ticket.getFileKey());
+    }
+
+    @Test
+    void aLargeFileIsUploadedInPresignedParts() throws Exception {
+        byte[] video = randomBytes(12 * MB + 123);
+        FileUploadTicket ticket = fileService.createUpload(new FileUploadRequest("clip.mp4", "video/mp4", video.length), principal);
+
+        assertNotNull(ticket.getUploadId());
+        assertEquals(5L * MB, ticket.getPartSize());
+        assertEquals(3, ticket.getParts().size());
+
+        List<UploadedPart> parts = new ArrayList<>();
+        for (PartUploadUrl part : ticket.getParts()) {
+            int from = (int) ((part.getPartNumber() - 1) * ticket.getPartSize());
+            byte[] bytes = Arrays.copyOfRange(video, from, (int) Math.min(video.length, from + ticket.getPartSize()));
+            HttpResponse<String> response = put(part.getUrl(), Map.of(), bytes);
+            parts.add(new UploadedPart(part.getPartNumber(), response.headers().firstValue("ETag").orElseThrow()));
+        }
+        fileService.completeUpload(CompleteFileUploadRequest.builder()
+                .fileKey(ticket.getFileKey()).uploadId(ticket.getUploadId()).parts(parts).build(), principal);
+
+        StoredObject object = s3.get(ticket.getFileKey());
+        assertArrayEquals(video, object.bytes());
+        assertEquals("video/mp4", object.contentType());
+        assertEquals(video.length, savedFile().getSize());
+    }
+
+    @Test
+    void anUploadThatDoesNotMatchTheDeclaredSizeIsRejectedAndDeleted() {
+        FileUploadTicket ticket = fileService.createUpload(new FileUploadRequest("a.png", "image/png", 1000), principal);
+        // A client that did not honour the signed Content-Length
+        s3.put(ticket.getFileKey(), new StoredObject(new byte[2000], "image/png", null,
+                Map.of("original-file-name", "a.png", "declared-size", "1000"), "\"x\""));
+
+        BadRequestException error = assertThrows(BadRequestException.class, () -> fileService.completeUpload(
+                CompleteFileUploadRequest.builder().fileKey(ticket.getFileKey()).build(), principal));
+        assertEquals("Uploaded file size does not match the declared size", error.getMessage());
+        assertNull(s3.get(ticket.getFileKey()));
+        verify(userFileRepository, never()).save(any());
+    }
+
+    @Test
+    void completingRequiresTheUploadedObjectInTheUsersFolder() {
+        assertThrows(AccessDeniedException.class, () -> fileService.completeUpload(
+                CompleteFileUploadRequest.builder().fileKey("users/" + UUID.randomUUID() + "/a.png").build(), principal));
+        assertThrows(AccessDeniedException.class, () -> fileService.completeUpload(
+                CompleteFileUploadRequest.builder().fileKey("users/" + user.getId() + "/../x/a.png").build(), principal));
+        assertThrows(BadRequestException.class, () -> fileService.completeUpload(
+                CompleteFileUploadRequest.builder().fileKey("users/" + user.getId() + "/never-uploaded.png").build(), principal));
+    }
+
+    @Test
+    void invalidUploadsAreRejectedBeforePresigning() {
+        assertThrows(BadRequestException.class,
+                () -> fileService.createUpload(new FileUploadRequest("big.bin", "application/octet-stream", 21L * MB), principal));
+        assertThrows(BadRequestException.class,
+                () -> fileService.createUpload(new FileUploadRequest("a.png", "not a type", 10), principal));
+        assertThrows(BadRequestException.class,
+                () -> fileService.createUpload(new FileUploadRequest("a.png", "image/*", 10), principal));
+        assertTrue(s3.requests().isEmpty());
+    }
+
+    @Test
+    void completingTwiceReturnsTheRecordedFile() {
+        String fileKey = "users/" + user.getId() + "/done.png";
+        when(userFileRepository.findFirstByUserAndFileKey(user, fileKey)).thenReturn(Optional.of(UserFile.builder()
+                .user(user).fileName("done.png").originalFileName("done.png").fileKey(fileKey).size(10).build()));
+
+        Map<String, Object> completed = fileService.completeUpload(
+                CompleteFileUploadRequest.builder().fileKey(fileKey).build(), principal);
+
+        assertEquals("done.png", completed.get("fileName"));
+        assertTrue(s3.requests().isEmpty());
+    }
+
+    @Test
+    void proxiedUploadsAreStreamedToS3() throws Exception {
+        byte[] photo = randomBytes(400_000);
+        byte[] text = "line of text\n".repeat(40_000).getBytes(StandardCharsets.UTF_8);
+
+        fileService.uploadFile(new MockMultipartFile("file", "photo.png", "image/png", photo), principal);
+        fileService.uploadFile(new MockMultipartFile("file", "notes.txt", "text/plain", text), principal);
+
+        StoredObject storedPhoto = s3.objects().entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith(".png")).findFirst().orElseThrow().getValue();
+        assertArrayEquals(photo, storedPhoto.bytes());
+        StoredObject storedText = s3.objects().entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith(".txt.gz")).findFirst().orElseThrow().getValue();
+        assertEquals("gzip", storedText.contentEncoding());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(storedText.bytes()))) {
+            assertArrayEquals(text, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void identicalProxiedUploadsAreStoredOnce() {
+        byte[] photo = randomBytes(100_000);
+
+        Map<String, Object> first = fileService.uploadFile(new MockMultipartFile("file", "a.png", "image/png", photo), principal);
+        Map<String, Object> second = fileService.uploadFile(new MockMultipartFile("file", "b.png", "image/png", photo), principal);
+
+        assertEquals(first.get("fileKey"), second.get("fileKey"));
+        assertNotEquals(first.get("fileName"), second.get("fileName"));
+        assertEquals("b.png", second.get("originalFileName"));
+        assertEquals(List.of("PUT " + first.get("fileKey")), s3.requests());
+        verify(imageVariantService).generateAsync((String) first.get("fileKey"));
+    }
+
+    private UserFile savedFile() {
+        ArgumentCaptor<UserFile> saved = ArgumentCaptor.forClass(UserFile.class);
+        verify(userFileRepository).save(saved.capture());
+        return saved.getValue();
+    }
+
+    private HttpResponse<String> put(String url, Map<String, String> headers, byte[] body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).PUT(HttpRequest.BodyPublishers.ofByteArray(body));
+        // The HTTP client sets Content-Length itself, from the body
+        headers.forEach((name, value) -> {
+            if (!"content-length".equalsIgnoreCase(name)) {
+                request.header(name, value);
+            }
+        });
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new SplittableRandom(21).nextBytes(bytes);
+        return bytes;
+    }
+}
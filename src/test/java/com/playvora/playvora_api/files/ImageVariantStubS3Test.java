@@ -0,0 +1,188 @@
+package com.playvora.playvora_api.files;
+
+import com.playvora.playvora_api.common.services.FileService;
+import com.playvora.playvora_api.community.repo.CommunityRepository;
+import com.playvora.playvora_api.community.services.impl.S3Service;
+import com.playvora.playvora_api.controllers.FileController;
+import com.playvora.playvora_api.files.StubS3Server.StoredObject;
+import com.playvora.playvora_api.files.images.ImageVariant;
+import com.playvora.playvora_api.files.images.ImageVariants;
+import com.playvora.playvora_api.files.repositories.UserFileRepository;
+import com.playvora.playvora_api.files.services.impl.ImageVariantService;
+import com.playvora.playvora_api.match.repo.MatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs {@link ImageVariantService} against a local stub of S3.
+ */
+class ImageVariantStubS3Test {
+
+    private static final String BUCKET = "files";
+
+    private StubS3Server s3;
+    private S3Client s3Client;
+    private S3Service s3Service;
+    private ThreadPoolTaskExecutor executor;
+    private ImageVariantService imageVariantService;
+    private final UserFileRepository userFileRepository = mock(UserFileRepository.class);
+    private final CommunityRepository communityRepository = mock(CommunityRepository.class);
+    private final MatchRepository matchRepository = mock(MatchRepository.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        s3 = StubS3Server.start(BUCKET);
+        s3Client = s3.client();
+        s3Service = new S3Service(s3Client, mock(S3Presigner.class));
+        ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(4);
+        executor.initialize();
+        imageVariantService = new ImageVariantService(s3Service, userFileRepository, communityRepository,
+                matchRepository, executor, 100_000_000, 60);
+
+        FileController controller = new FileController(mock(FileService.class), imageVariantService);
+        ReflectionTestUtils.setField(controller, "cacheMaxAgeSeconds", 3600L);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void stopStub() {
+        executor.shutdown();
+        s3Client.close();
+        s3.close();
+    }
+
+    @Test
+    void variantsAreStoredNextToTheOriginal() throws IOException {
+        s3.put("community-logos/abc.png", new StoredObject(image(1000, 500, "png"), "image/png"));
+
+        assertTrue(imageVariantService.generate("community-logos/abc.png"));
+
+        StoredObject thumbnail = s3.get("community-logos/abc.thumbnail.png");
+        assertEquals("image/png", thumbnail.contentType());
+        assertEquals(128, ImageIO.read(new ByteArrayInputStream(thumbnail.bytes())).getWidth());
+        assertNotNull(s3.get("community-logos/abc.card.png"));
+        assertNotNull(s3.get("community-logos/abc.full.png"));
+
+        imageVariantService.deleteVariants("community-logos/abc.png");
+        assertEquals(1, s3.objects().size());
+    }
+
+    @Test
+    void legacyImagesGetTheirVariantsOnFirstRequest() throws Exception {
+        byte[] original = image(2000, 1500, "jpg");
+        s3.put("users/u1/photo.jpg", new StoredObject(original, "image/jpeg"));
+        when(userFileRepository.existsByFileKey("users/u1/photo.jpg")).thenReturn(true);
+
+        // No variant yet: the original is served, uncached, while the variant is generated
+        mockMvc.perform(get("/api/v1/files/variants/thumbnail").param("key", "users/u1/photo.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(content().bytes(original));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (s3.get("users/u1/photo.thumbnail.jpg") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        byte[] thumbnail = s3.get("users/u1/photo.thumbnail.jpg").bytes();
+        mockMvc.perform(get("/api/v1/files/variants/thumbnail").param("key", "users/u1/photo.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600, private, immutable"))
+                .andExpect(header().string("Content-Type", "image/jpeg"))
+                .andExpect(content().bytes(thumbnail));
+    }
+
+    @Test
+    void onlyOriginalsTheAppRefersToAreServed() throws Exception {
+        byte[] logo = image(300, 300, "png");
+        s3.put("community-logos/c1/logo.png", new StoredObject(logo, "image/png"));
+        s3.put("community-logos/c1/old-logo.png", new StoredObject(image(300, 300, "png"), "image/png"));
+        when(communityRepository.existsByImageUrl(s3Service.getFileUrl("community-logos/c1/logo.png"))).thenReturn(true);
+
+        mockMvc.perform(get("/api/v1/files/variants/thumbnail").param("key", "community-logos/c1/logo.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(logo));
+
+        // Still in the bucket, but no longer any community's logo
+        int requests = s3.requests().size();
+        mockMvc.perform(get("/api/v1/files/variants/thumbnail").param("key", "community-logos/c1/old-logo.png"))
+                .andExpect(status().isBadRequest());
+        assertEquals(requests, s3.requests().size());
+    }
+
+    @Test
+    void filesThatAreNotImagesAreNotRetried() {
+        s3.put("users/u1/fake.png", new StoredObject("not a png".getBytes(StandardCharsets.UTF_8), "image/png"));
+
+        assertFalse(imageVariantService.generate("users/u1/fake.png"));
+        int requests = s3.requests().size();
+        imageVariantService.generateAsync("users/u1/fake.png");
+
+        assertEquals(requests, s3.requests().size());
+    }
+
+    @Test
+    void unsupportedSourcesAreRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/files/variants/thumbnail").param("key", "users/u1/clip.mp4"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/files/variants/huge").param("key", "users/u1/a.png"))
+                .andExpect(status().isBadRequest());
+        imageVariantService.generateAsync("secrets/a.png");
+        assertTrue(s3.requests().isEmpty());
+    }
+
+    @Test
+    void variantUrlsAndKeysAreDerivedFromTheOriginal() {
+        String expected = ImageVariants.VARIANTS_PATH + "thumbnail?key=community-logos%2Fabc.png";
+        assertEquals(expected, ImageVariants.urlsForUrl("https://bucket.s3.eu-west-2.amazonaws.com/community-logos/abc.png").getThumbnail());
+        assertEquals(expected, ImageVariants.urlsForUrl("http://localhost:9000/bucket/community-logos/abc.png").getThumbnail());
+        assertEquals("community-logos/abc.card.jpg", ImageVariants.variantKey("community-logos/abc.JPEG", ImageVariant.CARD));
+
+        assertNull(ImageVariants.urlsForUrl("https://cdn.example.com/banners/abc.png"));
+        assertNull(ImageVariants.urlsForUrl("https://bucket.s3.amazonaws.com/community-logos/abc.webp"));
+        assertNull(ImageVariants.urlsForKey("users/u1/photo.thumbnail.jpg"));
+        assertNull(ImageVariants.urlsForKey("users/../secrets/a.png"));
+        assertNull(ImageVariants.urlsForUrl(null));
+    }
+
+    private static byte[] image(int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.GREEN);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, format, bytes);
+        return bytes.toByteArray();
+    }
+}
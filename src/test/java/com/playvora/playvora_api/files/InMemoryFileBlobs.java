@@ -0,0 +1,105 @@
+package com.playvora.playvora_api.files;
+
+import com.playvora.playvora_api.files.entities.FileBlob;
+import com.playvora.playvora_api.files.repositories.FileBlobRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A {@link FileBlobRepository} mock that keeps blobs in memory with the semantics of its queries.
+ */
+class InMemoryFileBlobs {
+
+    private final Map<String, FileBlob> blobs = new LinkedHashMap<>();
+    private final FileBlobRepository repository = mock(FileBlobRepository.class);
+
+    InMemoryFileBlobs() {
+        when(repository.findByNamespaceAndContentHash(anyString(), anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(find(invocation.getArgument(0), invocation.getArgument(1))));
+        when(repository.incrementRefCount(anyString(), anyString())).thenAnswer(invocation -> {
+            synchronized (blobs) {
+                FileBlob blob = find(invocation.getArgument(0), invocation.getArgument(1));
+                if (blob == null) {
+                    return 0;
+                }
+                blob.setRefCount(blob.getRefCount() + 1);
+                return 1;
+            }
+        });
+        when(repository.insertIfAbsent(anyString(), anyString(), anyString(), nullable(String.class),
+                nullable(String.class), anyLong(), nullable(String.class))).thenAnswer(invocation -> {
+            synchronized (blobs) {
+                if (find(invocation.getArgument(0), invocation.getArgument(1)) != null) {
+                    return 0;
+                }
+                blobs.put(invocation.getArgument(2), FileBlob.builder()
+                        .namespace(invocation.getArgument(0))
+                        .contentHash(invocation.getArgument(1))
+                        .fileKey(invocation.getArgument(2))
+                        .contentType(invocation.getArgument(3))
+                        .contentEncoding(invocation.getArgument(4))
+                        .storageSize(invocation.getArgument(5))
+                        .etag(invocation.getArgument(6))
+                        .refCount(1)
+                        .build());
+                return 1;
+            }
+        });
+        when(repository.decrementRefCount(anyString())).thenAnswer(invocation -> {
+            synchronized (blobs) {
+                FileBlob blob = blobs.get(invocation.<String>getArgument(0));
+                if (blob == null) {
+                    return 0;
+                }
+                blob.setRefCount(blob.getRefCount() - 1);
+                return 1;
+            }
+        });
+        when(repository.deleteIfUnreferenced(anyString())).thenAnswer(invocation -> {
+            synchronized (blobs) {
+                FileBlob blob = blobs.get(invocation.<String>getArgument(0));
+                if (blob == null || blob.getRefCount() > 0) {
+                    return 0;
+                }
+                blobs.remove(blob.getFileKey());
+                return 1;
+            }
+        });
+    }
+
+    FileBlobRepository repository() {
+        return repository;
+    }
+
+    /**
+     * A template whose transactions do nothing; each repository call above is atomic on its own.
+     */
+    TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(mock(PlatformTransactionManager.class));
+    }
+
+    Map<String, FileBlob> blobs() {
+        synchronized (blobs) {
+            return new LinkedHashMap<>(blobs);
+        }
+    }
+
+    private FileBlob find(String namespace, String contentHash) {
+        synchronized (blobs) {
+            return blobs.values().stream()
+                    .filter(blob -> blob.getNamespace().equals(namespace) && blob.getContentHash().equals(contentHash))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.playvora.playvora_api.files;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A local stand-in for one S3 bucket, implementing just enough of the object API for the file tests:
+ * GET (with Range and If-None-Match), HEAD, PUT, DELETE and multipart uploads. Signatures are not
+ * checked.
+ */
+final class StubS3Server implements AutoCloseable {
+
+    record StoredObject(byte[] bytes, String contentType, String contentEncoding, Map<String, String> metadata,
+                        String eTag) {
+
+        StoredObject(byte[] bytes, String contentType) {
+            this(bytes, contentType, null, Map.of(), etag(bytes));
+        }
+    }
+
+    private record MultipartUpload(String key, String contentType, Map<String, String> metadata,
+                                   Map<Integer, byte[]> parts) {
+    }
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+    private static final Pattern PART = Pattern.compile("<Part>(.*?)</Part>", Pattern.DOTALL);
+    private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+    private static final Pattern PART_ETAG = Pattern.compile("<ETag>(.*?)</ETag>");
+
+    private final String bucket;
+    private final HttpServer server;
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, MultipartUpload> uploads = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private StubS3Server(String bucket) throws IOException {
+        this.bucket = bucket;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/" + bucket + "/", this::handle);
+        server.start();
+    }
+
+    static StubS3Server start(String bucket) throws IOException {
+        return new StubS3Server(bucket);
+    }
+
+    URI endpoint() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    S3Client client() {
+        return S3Client.builder()
+                .endpointOverride(endpoint())
+                .forcePathStyle(true)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .httpClient(ApacheHttpClient.builder().build())
+                .build();
+    }
+
+    S3Presigner presigner() {
+        return S3Presigner.builder()
+                .endpointOverride(endpoint())
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+    }
+
+    void put(String key, StoredObject object) {
+        objects.put(key, object);
+    }
+
+    StoredObject get(String key) {
+        return objects.get(key);
+    }
+
+    Map<String, StoredObject> objects() {
+        return objects;
+    }
+
+    /**
+     * Every request received, as "METHOD key".
+     */
+    List<String> requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String key = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring(bucket.length() + 2),
+                StandardCharsets.UTF_8);
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        requests.add(method + " " + key);
+
+        switch (method) {
+            case "GET" -> getObject(exchange, key);
+            case "HEAD" -> headObject(exchange, key);
+            case "PUT" -> {
+                if (query.containsKey("uploadId")) {
+                    uploadPart(exchange, query);
+                } else {
+                    putObject(exchange, key);
+                }
+            }
+            case "POST" -> {
+                if (query.containsKey("uploads")) {
+                    createMultipartUpload(exchange, key);
+                } else {
+                    completeMultipartUpload(exchange, key, query.get("uploadId"));
+                }
+            }
+            case "DELETE" -> {
+                if (query.containsKey("uploadId")) {
+                    uploads.remove(query.get("uploadId"));
+                } else {
+                    objects.remove(key);
+                }
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+            default -> error(exchange, 405, "MethodNotAllowed");
+        }
+    }
+
+    private void getObject(HttpExchange exchange, String key) throws IOException {
+        StoredObject object = objects.get(key);
+        if (object == null) {
+            error(exchange, 404, "NoSuchKey");
+            return;
+        }
+        objectHeaders(exchange, object);
+        if (object.eTag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] bytes = object.bytes();
+        int from = 0;
+        int to = bytes.length - 1;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        Matcher matcher = range != null ? RANGE.matcher(range) : null;
+        boolean ranged = matcher != null && matcher.matches();
+        if (ranged) {
+            from = Integer.parseInt(matcher.group(1));
+            if (!matcher.group(2).isEmpty()) {
+                to = Math.min(to, Integer.parseInt(matcher.group(2)));
+            }
+            if (from > to) {
+                error(exchange, 416, "InvalidRange");
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + from + "-" + to + "/" + bytes.length);
+        }
+        exchange.sendResponseHeaders(ranged ? 206 : 200, to - from + 1L);
+        exchange.getResponseBody().write(bytes, from, to - from + 1);
+        exchange.close();
+    }
+
+    private void headObject(HttpExchange exchange, String key) throws IOException {
+        StoredObject object = objects.get(key);
+        if (object == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        objectHeaders(exchange, object);
+        exchange.getResponseHeaders().add("Content-Length", Integer.toString(object.bytes().length));
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+    }
+
+    private void putObject(HttpExchange exchange, String key) throws IOException {
+        byte[] bytes = body(exchange);
+        StoredObject object = new StoredObject(bytes, exchange.getRequestHeaders().getFirst("Content-Type"),
+                exchange.getRequestHeaders().getFirst("Content-Encoding"), metadata(exchange), etag(bytes));
+        objects.put(key, object);
+        exchange.getResponseHeaders().add("ETag", object.eTag());
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+    }
+
+    private void createMultipartUpload(HttpExchange exchange, String key) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new MultipartUpload(key, exchange.getRequestHeaders().getFirst("Content-Type"),
+                metadata(exchange), new ConcurrentHashMap<>()));
+        xml(exchange, "<InitiateMultipartUploadResult><Bucket>" + bucket + "</Bucket><Key>" + key + "</Key><UploadId>"
+                + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+    }
+
+    private void uploadPart(HttpExchange exchange, Map<String, String> query) throws IOException {
+        MultipartUpload upload = uploads.get(query.get("uploadId"));
+        if (upload == null) {
+            error(exchange, 404, "NoSuchUpload");
+            return;
+        }
+        byte[] bytes = body(exchange);
+        upload.parts().put(Integer.parseInt(query.get("partNumber")), bytes);
+        exchange.getResponseHeaders().add("ETag", etag(bytes));
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+    }
+
+    private void completeMultipartUpload(HttpExchange exchange, String key, String uploadId) throws IOException {
+        MultipartUpload upload = uploadId != null ? uploads.get(uploadId) : null;
+        if (upload == null || !upload.key().equals(key)) {
+            error(exchange, 404, "NoSuchUpload");
+            return;
+        }
+        String body = new String(body(exchange), StandardCharsets.UTF_8);
+        Map<Integer, String> listed = new TreeMap<>();
+        Matcher part = PART.matcher(body);
+        while (part.find()) {
+            Matcher number = PART_NUMBER.matcher(part.group(1));
+            Matcher eTag = PART_ETAG.matcher(part.group(1));
+            if (number.find() && eTag.find()) {
+                listed.put(Integer.parseInt(number.group(1)), eTag.group(1).replace("&quot;", "\""));
+            }
+        }
+        ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+        for (Map.Entry<Integer, String> entry : listed.entrySet()) {
+            byte[] bytes = upload.parts().get(entry.getKey());
+            if (bytes == null || !etag(bytes).equals(entry.getValue())) {
+                error(exchange, 400, "InvalidPart");
+                return;
+            }
+            assembled.write(bytes);
+        }
+        uploads.remove(uploadId);
+        byte[] bytes = assembled.toByteArray();
+        String eTag = "\"" + etag(bytes).replace("\"", "") + "-" + listed.size() + "\"";
+        objects.put(key, new StoredObject(bytes, upload.contentType(), null, upload.metadata(), eTag));
+        xml(exchange, "<CompleteMultipartUploadResult><Bucket>" + bucket + "</Bucket><Key>" + key + "</Key><ETag>"
+                + eTag + "</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private static void objectHeaders(HttpExchange exchange, StoredObject object) {
+        exchange.getResponseHeaders().add("ETag", object.eTag());
+        exchange.getResponseHeaders().add("Last-Modified", "Tue, 01 Jan 2030 00:00:00 GMT");
+        if (object.contentType() != null) {
+            exchange.getResponseHeaders().add("Content-Type", object.contentType());
+        }
+        if (object.contentEncoding() != null) {
+            exchange.getResponseHeaders().add("Content-Encoding", object.contentEncoding());
+        }
+        object.metadata().forEach((name, value) -> exchange.getResponseHeaders().add("x-amz-meta-" + name, value));
+    }
+
+    private static Map<String, String> metadata(HttpExchange exchange) {
+        Map<String, String> metadata = new HashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("x-amz-meta-")) {
+                metadata.put(lower.substring("x-amz-meta-".length()), values.get(0));
+            }
+        });
+        return metadata;
+    }
+
+    /**
+     * The request body, decoding the signed aws-chunked framing the SDK uses for streamed uploads over
+     * plain HTTP.
+     */
+    private static byte[] body(HttpExchange exchange) throws IOException {
+        InputStream in = exchange.getRequestBody();
+        String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (contentSha256 == null || !contentSha256.startsWith("STREAMING-")) {
+            return in.readAllBytes();
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        while (true) {
+            String header = readLine(in);
+            int size = Integer.parseInt(header.split(";", 2)[0].trim(), 16);
+            if (size == 0) {
+                in.readAllBytes();
+                return decoded.toByteArray();
+            }
+            decoded.write(in.readNBytes(size));
+            readLine(in);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                String[] parts = pair.split("=", 2);
+                query.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                        parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+            }
+        }
+        return query;
+    }
+
+    private static void xml(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static void error(HttpExchange exchange, int status, String code) throws IOException {
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code + "</Code><Message>" + code
+                + "</Message></Error>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    static String etag(byte[] bytes) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(bytes)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.playvora.playvora_api.files.images;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageResizerTest {
+
+    private final ImageResizer resizer = new ImageResizer(100_000_000);
+
+    @Test
+    void everyVariantFitsItsBoxAndKeepsTheAspectRatio() throws IOException {
+        Map<ImageVariant, byte[]> variants = resizer.resize(encode(photo(4000, 3000), "jpg"), "jpg");
+
+        assertSize(128, 96, variants.get(ImageVariant.THUMBNAIL));
+        assertSize(640, 480, variants.get(ImageVariant.CARD));
+        assertSize(1600, 1200, variants.get(ImageVariant.FULL));
+        assertTrue(variants.get(ImageVariant.THUMBNAIL).length < 10_000);
+    }
+
+    @Test
+    void portraitImagesAreBoundedByTheirHeight() throws IOException {
+        Map<ImageVariant, byte[]> variants = resizer.resize(encode(photo(900, 1800), "png"), "jpg");
+
+        assertSize(64, 128, variants.get(ImageVariant.THUMBNAIL));
+        assertSize(800, 1600, variants.get(ImageVariant.FULL));
+    }
+
+    @Test
+    void smallImagesAreNotEnlarged() throws IOException {
+        Map<ImageVariant, byte[]> variants = resizer.resize(encode(photo(300, 200), "png"), "png");
+
+        assertSize(128, 85, variants.get(ImageVariant.THUMBNAIL));
+        assertSize(300, 200, variants.get(ImageVariant.CARD));
+        assertSize(300, 200, variants.get(ImageVariant.FULL));
+    }
+
+    @Test
+    void pngVariantsKeepTransparency() throws IOException {
+        BufferedImage logo = new BufferedImage(512, 512, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = logo.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillOval(128, 128, 256, 256);
+        graphics.dispose();
+
+        BufferedImage thumbnail = decode(resizer.resize(encode(logo, "png"), "png").get(ImageVariant.THUMBNAIL));
+
+        assertTrue(thumbnail.getColorModel().hasAlpha());
+        assertEquals(0, thumbnail.getRGB(0, 0) >>> 24);
+        assertEquals(255, thumbnail.getRGB(64, 64) >>> 24);
+    }
+
+    @Test
+    void oversizedAndUnreadableImagesAreRejected() throws IOException {
+        ImageResizer strict = new ImageResizer(1_000_000);
+        ByteArrayInputStream big = encode(photo(2000, 1000), "png");
+
+        assertThrows(IOException.class, () -> strict.resize(big, "png"));
+        assertThrows(IOException.class, () -> resizer.resize(new ByteArrayInputStream("not an image".getBytes()), "png"));
+    }
+
+    private static BufferedImage photo(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.BLUE, width, height, Color.ORANGE));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private static ByteArrayInputStream encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, format, bytes);
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    private static BufferedImage decode(byte[] bytes) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertSize(int width, int height, byte[] encoded) throws IOException {
+        BufferedImage image = decode(encoded);
+        assertEquals(width, image.getWidth(), "width");
+        assertEquals(height, image.getHeight(), "height");
+    }
+}
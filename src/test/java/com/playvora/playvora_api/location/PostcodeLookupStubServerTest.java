@@ -0,0 +1,207 @@
+package com.playvora.playvora_api.location;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.location.dtos.LocationResponse;
+import com.playvora.playvora_api.location.dtos.PostcodeLookupResult;
+import com.playvora.playvora_api.location.services.impl.LocationService;
+import com.playvora.playvora_api.location.services.impl.PostcodesIoClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link LocationService} against a local stub of the postcodes.io API that knows two postcodes.
+ */
+class PostcodeLookupStubServerTest {
+
+    private static final Map<String, double[]> KNOWN = Map.of(
+            "SW1A2AA", new double[]{51.503541, -0.12767},
+            "M11AE", new double[]{53.4808, -2.2426});
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger bulkCalls = new AtomicInteger();
+    private final List<List<String>> bulkRequests = new ArrayList<>();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile boolean failing;
+
+    private HttpServer server;
+    private LocationService locationService;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/postcodes", this::handle);
+        server.start();
+
+        PostcodesIoClient client = new PostcodesIoClient(new OkHttpClient(), objectMapper,
+                "http://localhost:" + server.getAddress().getPort(), 1000, 2000, 3000);
+        locationService = new LocationService(client, 100, 1, 1);
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        LocationResponse first = locationService.getLocationByPostcode("sw1a 2aa");
+        LocationResponse second = locationService.getLocationByPostcode("SW1A2AA");
+
+        assertEquals("SW1A 2AA", first.getPostcode());
+        assertEquals(-0.12767, first.getLongitude(), 1e-9);
+        assertSame(first, second);
+        assertEquals(1, singleCalls.get());
+    }
+
+    @Test
+    void invalidPostcodesAreCachedToo() {
+        assertThrows(BadRequestException.class, () -> locationService.getLocationByPostcode("ZZ99 9ZZ"));
+        assertThrows(BadRequestException.class, () -> locationService.getLocationByPostcode("zz999zz"));
+        // Not a postcode at all: rejected without calling the API
+        assertThrows(BadRequestException.class, () -> locationService.getLocationByPostcode(""));
+        assertThrows(BadRequestException.class, () -> locationService.getLocationByPostcode("../admin"));
+
+        assertEquals(1, singleCalls.get());
+    }
+
+    @Test
+    void concurrentLookupsShareOneCall() throws Exception {
+        release = new CountDownLatch(1);
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<LocationResponse>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> locationService.getLocationByPostcode("M1 1AE")));
+            }
+            // Let every caller reach the lookup before the stub answers
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<LocationResponse> result : results) {
+                assertEquals("M1 1AE", result.get(5, TimeUnit.SECONDS).getPostcode());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, singleCalls.get());
+    }
+
+    @Test
+    void bulkLookupOnlyFetchesWhatIsNotCached() {
+        locationService.getLocationByPostcode("SW1A 2AA");
+
+        List<PostcodeLookupResult> results = locationService.getLocationsByPostcodes(
+                List.of("SW1A 2AA", "m1 1ae", "ZZ99 9ZZ", "M11AE", "not a postcode!"));
+
+        assertEquals(5, results.size());
+        assertEquals("SW1A 2AA", results.get(0).getLocation().getPostcode());
+        assertEquals("m1 1ae", results.get(1).getQuery());
+        assertEquals("M1 1AE", results.get(1).getLocation().getPostcode());
+        assertNull(results.get(2).getLocation());
+        assertSame(results.get(1).getLocation(), results.get(3).getLocation());
+        assertNull(results.get(4).getLocation());
+
+        assertEquals(1, bulkCalls.get());
+        assertEquals(List.of(List.of("M11AE", "ZZ999ZZ")), bulkRequests);
+
+        // Both results of the bulk call are now cached
+        locationService.getLocationByPostcode("M1 1AE");
+        assertThrows(BadRequestException.class, () -> locationService.getLocationByPostcode("ZZ99 9ZZ"));
+        assertEquals(1, singleCalls.get());
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        failing = true;
+        BadRequestException error = assertThrows(BadRequestException.class,
+                () -> locationService.getLocationByPostcode("SW1A 2AA"));
+        assertEquals("Error retrieving postcode information", error.getMessage());
+
+        failing = false;
+        assertEquals("SW1A 2AA", locationService.getLocationByPostcode("SW1A 2AA").getPostcode());
+        assertEquals(2, singleCalls.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        boolean bulk = "POST".equals(exchange.getRequestMethod());
+        (bulk ? bulkCalls : singleCalls).incrementAndGet();
+        if (failing) {
+            respond(exchange, 500, "{\"status\":500,\"error\":\"Internal server error\"}");
+            return;
+        }
+
+        if (bulk) {
+            JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+            List<String> postcodes = new ArrayList<>();
+            List<Object> result = new ArrayList<>();
+            for (JsonNode postcode : body.path("postcodes")) {
+                postcodes.add(postcode.asText());
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("query", postcode.asText());
+                entry.put("result", resultFor(postcode.asText()));
+                result.add(entry);
+            }
+            synchronized (bulkRequests) {
+                bulkRequests.add(postcodes);
+            }
+            respond(exchange, 200, objectMapper.writeValueAsString(Map.of("status", 200, "result", result)));
+            return;
+        }
+
+        String postcode = exchange.getRequestURI().getPath().substring("/postcodes/".length());
+        Map<String, Object> result = resultFor(postcode);
+        if (result == null) {
+            respond(exchange, 404, "{\"status\":404,\"error\":\"Postcode not found\"}");
+        } else {
+            respond(exchange, 200, objectMapper.writeValueAsString(Map.of("status", 200, "result", result)));
+        }
+    }
+
+    private static Map<String, Object> resultFor(String postcode) {
+        double[] coordinates = KNOWN.get(postcode);
+        if (coordinates == null) {
+            return null;
+        }
+        String formatted = postcode.substring(0, postcode.length() - 3) + " " + postcode.substring(postcode.length() - 3);
+        return Map.of("postcode", formatted, "latitude", coordinates[0], "longitude", coordinates[1],
+                "country", "England", "region", "London");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,90 @@
+package com.playvora.playvora_api.match;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.community.entities.CommunityMember;
+import com.playvora.playvora_api.match.balancing.RandomTeamBalancingStrategy;
+import com.playvora.playvora_api.match.balancing.SkillBalancedTeamBalancingStrategy;
+import com.playvora.playvora_api.match.entities.Availability;
+import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.entities.Team;
+import com.playvora.playvora_api.match.enums.AvailabilityStatus;
+import com.playvora.playvora_api.match.enums.MatchStatus;
+import com.playvora.playvora_api.match.services.impl.TeamGenerator;
+import com.playvora.playvora_api.user.entities.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Skill ratings are set per community membership: a match's teams are balanced on the ratings given
+ * in the match's community, whatever another community rated the same players.
+ */
+@Import({TeamGenerator.class, SkillBalancedTeamBalancingStrategy.class, RandomTeamBalancingStrategy.class})
+class CommunitySkillRatingTest extends JpaSliceTest {
+
+    @Autowired
+    private TeamGenerator teamGenerator;
+
+    @Test
+    void captainsAreTheStrongestPlayersInTheMatchesCommunity() {
+        User organiser = createUser("organiser");
+        Community home = createCommunity("Home FC", organiser);
+        Community elsewhere = createCommunity("Elsewhere FC", organiser);
+
+        List<User> players = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            players.add(createUser("player" + i));
+        }
+        for (int i = 0; i < players.size(); i++) {
+            join(home, players.get(i), i == 3 || i == 7 ? 4000 : null);
+        }
+        // Rated higher still, but by another community
+        join(elsewhere, players.get(0), 5000);
+        join(elsewhere, players.get(1), 5000);
+
+        Match match = Match.builder()
+                .community(home)
+                .createdBy(organiser)
+                .title("Derby")
+                .matchDate(OffsetDateTime.now().plusDays(7))
+                .registrationDeadline(OffsetDateTime.now().plusDays(6))
+                .playersPerTeam(5)
+                .status(MatchStatus.REGISTRATION_OPEN)
+                .isAutoSelection(false)
+                .build();
+        entityManager.persist(match);
+        List<Availability> pool = new ArrayList<>();
+        for (User player : players) {
+            Availability availability = Availability.builder()
+                    .match(match)
+                    .user(player)
+                    .status(AvailabilityStatus.AVAILABLE)
+                    .build();
+            entityManager.persist(availability);
+            pool.add(availability);
+        }
+        entityManager.flush();
+
+        List<Team> teams = teamGenerator.generateManualTeams(match, pool);
+
+        assertEquals(Set.of(players.get(3).getId(), players.get(7).getId()),
+                teams.stream().map(team -> team.getCaptain().getId()).collect(Collectors.toSet()));
+    }
+
+    private void join(Community community, User user, Integer skillRating) {
+        entityManager.persist(CommunityMember.builder()
+                .community(community)
+                .user(user)
+                .skillRating(skillRating)
+                .build());
+    }
+}
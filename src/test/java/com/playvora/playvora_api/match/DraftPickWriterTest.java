@@ -0,0 +1,217 @@
+package com.playvora.playvora_api.match;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.match.balancing.RandomTeamBalancingStrategy;
+import com.playvora.playvora_api.match.balancing.SkillBalancedTeamBalancingStrategy;
+import com.playvora.playvora_api.match.draft.DraftPick;
+import com.playvora.playvora_api.match.draft.DraftSession;
+import com.playvora.playvora_api.match.entities.Availability;
+import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.entities.Team;
+import com.playvora.playvora_api.match.enums.AvailabilityStatus;
+import com.playvora.playvora_api.match.enums.MatchStatus;
+import com.playvora.playvora_api.match.repo.MatchDraftPickRepository;
+import com.playvora.playvora_api.match.services.impl.DraftPickWriter;
+import com.playvora.playvora_api.match.services.impl.DraftService;
+import com.playvora.playvora_api.match.services.impl.TeamGenerator;
+import com.playvora.playvora_api.notification.services.IPushNotificationService;
+import com.playvora.playvora_api.user.entities.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a manual draft through {@link DraftSession} and {@link DraftPickWriter} and checks that a
+ * session rebuilt from the database at any point continues exactly where the previous one was, that
+ * a player can only be picked once, and that {@link DraftService} broadcasts a pick only once it is
+ * committed.
+ */
+@Import({DraftPickWriter.class, DraftService.class, DraftPickWriterTest.PickRecorder.class, TeamGenerator.class,
+        SkillBalancedTeamBalancingStrategy.class, RandomTeamBalancingStrategy.class})
+class DraftPickWriterTest extends JpaSliceTest {
+
+    private static final int PLAYERS_PER_TEAM = 3;
+
+    /**
+     * Stands in for the broadcast: records each pick and whether it was in the database by then.
+     */
+    static class PickRecorder {
+        private final MatchDraftPickRepository matchDraftPickRepository;
+        private final List<DraftPick> picks = new ArrayList<>();
+        private final List<Boolean> persisted = new ArrayList<>();
+
+        PickRecorder(MatchDraftPickRepository matchDraftPickRepository) {
+            this.matchDraftPickRepository = matchDraftPickRepository;
+        }
+
+        @TransactionalEventListener(fallbackExecution = true)
+        public void onDraftPick(DraftPick pick) {
+            picks.add(pick);
+            persisted.add(matchDraftPickRepository.existsByMatchIdAndPlayerId(pick.matchId(), pick.playerId()));
+        }
+    }
+
+    @MockitoBean
+    private IPushNotificationService pushNotificationService;
+
+    @Autowired
+    private TeamGenerator teamGenerator;
+
+    @Autowired
+    private DraftPickWriter draftPickWriter;
+
+    @Autowired
+    private DraftService draftService;
+
+    @Autowired
+    private PickRecorder pickRecorder;
+
+    @Test
+    void sessionRebuiltFromDatabaseMatchesTheLiveOne() {
+        Match match = createDraft(8);
+        DraftSession live = draftPickWriter.load(match.getId());
+        assertNotNull(live);
+
+        List<UUID> pool = availableUserIds(match);
+        for (int i = 0; i < 3; i++) {
+            DraftPick pick = live.pick(live.currentPickingTeamId(), captainOf(live.currentPickingTeamId()), pool.get(i));
+            draftPickWriter.write(pick);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        DraftSession recovered = draftPickWriter.load(match.getId());
+        assertEquals(live.sequence(), recovered.sequence());
+        assertEquals(live.currentPickingTeamId(), recovered.currentPickingTeamId());
+        assertEquals(live.availablePlayerCount(), recovered.availablePlayerCount());
+
+        // The recovered session finishes the draft
+        DraftPick pick = recovered.pick(recovered.currentPickingTeamId(), captainOf(recovered.currentPickingTeamId()), pool.get(3));
+        draftPickWriter.write(pick);
+        assertFalse(pick.draftInProgress());
+        entityManager.flush();
+        entityManager.clear();
+
+        Match finished = entityManager.find(Match.class, match.getId());
+        assertEquals(MatchStatus.TEAMS_SELECTED, finished.getStatus());
+        assertFalse(finished.getDraftInProgress());
+        assertNull(finished.getCurrentPickingTeamId());
+        assertEquals(pick.sequence(), finished.getUpdateSequence());
+        assertNull(draftPickWriter.load(match.getId()));
+        // The two players nobody picked went to the reserve team
+        assertEquals(2L, entityManager.createQuery(
+                        "SELECT COUNT(a) FROM Availability a WHERE a.match.id = :id AND a.status = :status", Long.class)
+                .setParameter("id", match.getId())
+                .setParameter("status", AvailabilityStatus.RESERVE)
+                .getSingleResult());
+    }
+
+    @Test
+    void pickMadeOnStaleStateIsRejected() {
+        Match match = createDraft(6);
+        DraftSession first = draftPickWriter.load(match.getId());
+        DraftSession second = draftPickWriter.load(match.getId());
+        List<UUID> pool = availableUserIds(match);
+
+        draftPickWriter.write(first.pick(first.currentPickingTeamId(), captainOf(first.currentPickingTeamId()), pool.get(0)));
+
+        DraftPick stale = second.pick(second.currentPickingTeamId(), captainOf(second.currentPickingTeamId()), pool.get(1));
+        assertThrows(IllegalStateException.class, () -> draftPickWriter.write(stale));
+    }
+
+    @Test
+    void aPlayerCanOnlyBePickedOnce() {
+        Match match = createDraft(6);
+        DraftSession session = draftPickWriter.load(match.getId());
+        UUID playerId = availableUserIds(match).get(0);
+        DraftPick first = session.pick(session.currentPickingTeamId(), captainOf(session.currentPickingTeamId()), playerId);
+        draftPickWriter.write(first);
+
+        // A pick of the same player at the next sequence passes the sequence check but not the unique key
+        DraftPick again = new DraftPick(match.getId(), first.title(), first.sequence() + 1, first.teamId(),
+                first.captainId(), playerId, first.playerName(), first.draftIndex(),
+                first.currentPickingTeamId(), true, first.status());
+        assertThrows(BadRequestException.class, () -> draftPickWriter.write(again));
+    }
+
+    @Test
+    void aPickIsBroadcastOnlyOnceCommitted() {
+        Match match = createDraft(6);
+        UUID teamId = draftPickWriter.load(match.getId()).currentPickingTeamId();
+        UUID playerId = availableUserIds(match).get(0);
+        pickRecorder.picks.clear();
+        pickRecorder.persisted.clear();
+
+        DraftPick pick = draftService.pick(match.getId(), teamId, captainOf(teamId), playerId);
+        assertTrue(pickRecorder.picks.isEmpty());
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertEquals(List.of(pick), pickRecorder.picks);
+        assertEquals(List.of(true), pickRecorder.persisted);
+        assertThrows(BadRequestException.class, () -> draftService.pick(match.getId(),
+                pick.currentPickingTeamId(), captainOf(pick.currentPickingTeamId()), playerId));
+    }
+
+    private UUID captainOf(UUID teamId) {
+        return entityManager.find(Team.class, teamId).getCaptain().getId();
+    }
+
+    private List<UUID> availableUserIds(Match match) {
+        return entityManager.createQuery(
+                        "SELECT a.user.id FROM Availability a WHERE a.match.id = :id AND a.status = :status ORDER BY a.user.email", UUID.class)
+                .setParameter("id", match.getId())
+                .setParameter("status", AvailabilityStatus.AVAILABLE)
+                .getResultList();
+    }
+
+    /**
+     * A manual match with two teams of three and {@code poolSize} players, drafted up to its first pick.
+     */
+    private Match createDraft(int poolSize) {
+        User organiser = createUser("organiser");
+        Community community = createCommunity("Draft FC", organiser);
+
+        Match match = Match.builder()
+                .community(community)
+                .createdBy(organiser)
+                .title("Draft match")
+                .matchDate(OffsetDateTime.now().plusDays(7))
+                .registrationDeadline(OffsetDateTime.now().plusDays(6))
+                .playersPerTeam(PLAYERS_PER_TEAM)
+                .status(MatchStatus.REGISTRATION_OPEN)
+                .isAutoSelection(false)
+                .build();
+        entityManager.persist(match);
+
+        List<Availability> pool = new ArrayList<>();
+        for (int i = 0; i < poolSize; i++) {
+            Availability availability = Availability.builder()
+                    .match(match)
+                    .user(createUser("player" + i))
+                    .status(AvailabilityStatus.AVAILABLE)
+                    .build();
+            entityManager.persist(availability);
+            pool.add(availability);
+        }
+
+        teamGenerator.generateManualTeams(match, pool);
+        match.setStatus(MatchStatus.TEAMS_MANUALLY_SELECTED);
+        entityManager.flush();
+        entityManager.clear();
+        return match;
+    }
+}
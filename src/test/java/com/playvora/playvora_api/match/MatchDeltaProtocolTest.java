@@ -0,0 +1,231 @@
+package com.playvora.playvora_api.match;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.common.geo.GeoSearch;
+import com.playvora.playvora_api.common.search.FullTextSearch;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.match.dtos.websocket.MatchDeltaMessage;
+import com.playvora.playvora_api.match.dtos.websocket.MatchSnapshotMessage;
+import com.playvora.playvora_api.match.dtos.websocket.PlayerSelectionRequest;
+import com.playvora.playvora_api.match.dtos.websocket.WebSocketMessage;
+import com.playvora.playvora_api.match.entities.Availability;
+import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.entities.Team;
+import com.playvora.playvora_api.match.enums.AvailabilityStatus;
+import com.playvora.playvora_api.match.enums.MatchStatus;
+import com.playvora.playvora_api.match.services.IDraftService;
+import com.playvora.playvora_api.match.services.impl.MatchService;
+import com.playvora.playvora_api.match.services.impl.MatchUpdateSequencer;
+import com.playvora.playvora_api.match.services.impl.MatchWebSocketService;
+import com.playvora.playvora_api.match.services.impl.TeamGenerator;
+import com.playvora.playvora_api.notification.services.IPushNotificationService;
+import com.playvora.playvora_api.payment.services.ITransactionService;
+import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.user.repo.UserRoleRepository;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
+import com.playvora.playvora_api.wallet.services.IWalletLedgerService;
+import com.playvora.playvora_api.wallet.services.IWalletService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The delta/snapshot protocol for changes made outside a manual draft: each change takes the next
+ * sequence in its own transaction and is broadcast only once that commits, so deltas are contiguous,
+ * a failed or rolled-back change leaves no gap, and a snapshot's sequence matches the last delta it
+ * includes. Changes commit on their own here, as they do in production.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MatchService.class, MatchWebSocketService.class, MatchUpdateSequencer.class, GeoSearch.class})
+class MatchDeltaProtocolTest extends JpaSliceTest {
+
+    @MockitoBean
+    private UserRoleRepository userRoleRepository;
+    @MockitoBean
+    private IPushNotificationService pushNotificationService;
+    @MockitoBean
+    private IWalletService walletService;
+    @MockitoBean
+    private IWalletLedgerService walletLedgerService;
+    @MockitoBean
+    private ITransactionService transactionService;
+    @MockitoBean
+    private TeamGenerator teamGenerator;
+    @MockitoBean
+    private IPrincipalCacheService principalCacheService;
+    @MockitoBean
+    private IDraftService draftService;
+    @MockitoBean
+    private FullTextSearch fullTextSearch;
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private MatchWebSocketService matchWebSocketService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private User organiser;
+    private User player;
+    private Match match;
+    private Team team;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            organiser = createUser("organiser");
+            player = createUser("player");
+            Community community = createCommunity("Delta FC", organiser);
+            match = Match.builder()
+                    .community(community)
+                    .createdBy(organiser)
+                    .title("Sequenced kickabout")
+                    .matchDate(OffsetDateTime.now().plusDays(7))
+                    .registrationDeadline(OffsetDateTime.now().plusDays(6))
+                    .playersPerTeam(5)
+                    .isAutoSelection(true)
+                    .status(MatchStatus.TEAMS_SELECTED)
+                    .build();
+            entityManager.persist(match);
+            team = Team.builder().match(match).name("Team A").captain(organiser).build();
+            entityManager.persist(team);
+            entityManager.persist(Availability.builder()
+                    .match(match)
+                    .user(player)
+                    .status(AvailabilityStatus.AVAILABLE)
+                    .build());
+        });
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new AppUserDetail(organiser), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void eachChangeIsBroadcastWithTheNextSequence() {
+        long start = snapshotSequence();
+
+        matchWebSocketService.selectPlayer(match.getId(),
+                new PlayerSelectionRequest(match.getId(), team.getId(), player.getId()), headers());
+        matchWebSocketService.startMatch(match.getId(), headers());
+        matchWebSocketService.completeMatch(match.getId(), headers());
+
+        List<MatchDeltaMessage> deltas = broadcastDeltas(3);
+        assertEquals(List.of("PLAYER_SELECTED", "MATCH_STARTED", "MATCH_COMPLETED"),
+                deltas.stream().map(MatchDeltaMessage::getAction).toList());
+        assertEquals(List.of(start + 1, start + 2, start + 3),
+                deltas.stream().map(MatchDeltaMessage::getSequence).toList());
+
+        MatchDeltaMessage selected = deltas.get(0);
+        assertEquals(team.getId(), selected.getTeamId());
+        assertEquals(player.getId(), selected.getUserId());
+        assertEquals("player Test", selected.getUserName());
+        assertEquals(MatchStatus.IN_PROGRESS, deltas.get(1).getStatus());
+        assertEquals(MatchStatus.COMPLETED, deltas.get(2).getStatus());
+        assertEquals(MatchDeltaMessage.PROTOCOL_VERSION, selected.getProtocolVersion());
+
+        // A client that loads the snapshot now continues from the last delta
+        MatchSnapshotMessage snapshot = matchWebSocketService.getSnapshot(match.getId());
+        assertEquals(start + 3, snapshot.getSequence());
+        assertEquals(MatchStatus.COMPLETED, snapshot.getMatch().getStatus());
+    }
+
+    @Test
+    void aRejectedChangeTakesNoSequenceAndIsNotBroadcast() {
+        long start = snapshotSequence();
+
+        // Only a match in progress can be completed
+        matchWebSocketService.completeMatch(match.getId(), headers());
+
+        verify(messagingTemplate).convertAndSendToUser(eq(organiser.getId().toString()), eq("/queue/errors"), any());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        assertEquals(start, snapshotSequence());
+
+        matchWebSocketService.startMatch(match.getId(), headers());
+        assertEquals(start + 1, broadcastDeltas(1).get(0).getSequence());
+    }
+
+    @Test
+    void aRolledBackChangeGivesBackItsSequence() {
+        long start = snapshotSequence();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            matchService.startMatch(match.getId());
+            status.setRollbackOnly();
+        });
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        assertEquals(start, snapshotSequence());
+        assertEquals(MatchStatus.TEAMS_SELECTED, matchWebSocketService.getSnapshot(match.getId()).getMatch().getStatus());
+    }
+
+    @Test
+    void savingAMatchLoadedEarlierDoesNotMoveTheSequenceBack() {
+        Match stale = transactionTemplate.execute(status -> entityManager.find(Match.class, match.getId()));
+        matchWebSocketService.startMatch(match.getId(), headers());
+        long sequence = broadcastDeltas(1).get(0).getSequence();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            stale.setTitle("Renamed kickabout");
+            entityManager.merge(stale);
+        });
+
+        assertEquals(sequence, snapshotSequence());
+    }
+
+    private long snapshotSequence() {
+        clearInvocations(messagingTemplate);
+        return matchWebSocketService.getSnapshot(match.getId()).getSequence();
+    }
+
+    private List<MatchDeltaMessage> broadcastDeltas(int count) {
+        ArgumentCaptor<WebSocketMessage> broadcasts = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(messagingTemplate, times(count))
+                .convertAndSend(eq("/topic/match/" + match.getId() + "/updates"), broadcasts.capture());
+        broadcasts.getAllValues().forEach(message -> assertEquals("match_delta", message.getType()));
+        return broadcasts.getAllValues().stream()
+                .map(message -> (MatchDeltaMessage) message.getData())
+                .toList();
+    }
+
+    private SimpMessageHeaderAccessor headers() {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setUser(SecurityContextHolder.getContext().getAuthentication());
+        return headers;
+    }
+}
@@ -0,0 +1,230 @@
+package com.playvora.playvora_api.match;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.common.geo.GeoSearch;
+import com.playvora.playvora_api.common.search.FullTextSearch;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.match.dtos.JoinMatchRequest;
+import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.enums.MatchStatus;
+import com.playvora.playvora_api.match.services.IDraftService;
+import com.playvora.playvora_api.match.services.impl.MatchService;
+import com.playvora.playvora_api.match.services.impl.MatchUpdateSequencer;
+import com.playvora.playvora_api.match.services.impl.TeamGenerator;
+import com.playvora.playvora_api.notification.services.IPushNotificationService;
+import com.playvora.playvora_api.payment.enums.TransactionType;
+import com.playvora.playvora_api.payment.services.ITransactionService;
+import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.user.repo.UserRoleRepository;
+import com.playvora.playvora_api.user.services.IPrincipalCacheService;
+import com.playvora.playvora_api.wallet.entities.Wallet;
+import com.playvora.playvora_api.wallet.services.IWalletService;
+import com.playvora.playvora_api.wallet.services.impl.WalletLedgerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Joining a paid match from the wallet, with the real ledger: the fee is debited once per player
+ * and match however many joins race, and only an applied debit is announced. Each join commits on
+ * its own, as it does in production, so the test itself runs outside a transaction.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MatchService.class, MatchUpdateSequencer.class, WalletLedgerService.class, GeoSearch.class})
+class MatchJoinWalletTest extends JpaSliceTest {
+
+    private static final BigDecimal FEE = new BigDecimal("10.00");
+    private static final int THREADS = 8;
+
+    @MockitoBean
+    private UserRoleRepository userRoleRepository;
+    @MockitoBean
+    private IPushNotificationService pushNotificationService;
+    @MockitoBean
+    private IWalletService walletService;
+    @MockitoBean
+    private ITransactionService transactionService;
+    @MockitoBean
+    private TeamGenerator teamGenerator;
+    @MockitoBean
+    private IPrincipalCacheService principalCacheService;
+    @MockitoBean
+    private IDraftService draftService;
+    @MockitoBean
+    private FullTextSearch fullTextSearch;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private User player;
+    private Wallet wallet;
+    private Match match;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // PostgreSQL generates the booking reference; the H2 schema has no default for it
+        jdbcTemplate.execute("ALTER TABLE event_bookings ALTER COLUMN reference SET DEFAULT CAST(RANDOM_UUID() AS VARCHAR)");
+        transactionTemplate.executeWithoutResult(status -> {
+            User organiser = createUser("organiser");
+            Community community = createCommunity("Wallet FC", organiser);
+            player = createUser("player");
+            wallet = Wallet.builder()
+                    .user(player)
+                    .currency("GBP")
+                    .balance(new BigDecimal("100.00"))
+                    .build();
+            entityManager.persist(wallet);
+            match = Match.builder()
+                    .community(community)
+                    .createdBy(organiser)
+                    .title("Paid kickabout")
+                    .matchDate(OffsetDateTime.now().plusDays(7))
+                    .registrationDeadline(OffsetDateTime.now().plusDays(6))
+                    .playersPerTeam(5)
+                    .status(MatchStatus.UPCOMING)
+                    .isPaidEvent(true)
+                    .pricePerPlayer(FEE)
+                    .currency("GBP")
+                    .build();
+            entityManager.persist(match);
+        });
+        when(walletService.getWalletForUser(any())).thenReturn(wallet);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void parallelJoinsChargeAndRegisterThePlayerOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Boolean>> joins = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            joins.add(() -> {
+                start.await(10, TimeUnit.SECONDS);
+                return join();
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (Callable<Boolean> join : joins) {
+                results.add(executor.submit(join));
+            }
+            start.countDown();
+            long joined = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    joined++;
+                }
+            }
+            assertEquals(1, joined);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, new BigDecimal("90.00").compareTo(balance()));
+        assertEquals(1, count("SELECT COUNT(*) FROM transactions WHERE wallet_id = ?", wallet.getId()));
+        assertEquals(1, count("SELECT COUNT(*) FROM match_registrations WHERE match_id = ?", match.getId()));
+        assertEquals(1, count("SELECT COUNT(*) FROM event_bookings WHERE match_id = ?", match.getId()));
+        verify(transactionService, times(1)).notifyTransactionRecorded(eq(player.getId()), any(),
+                eq(TransactionType.MATCH_PAYMENT), eq(FEE.negate()), eq("GBP"));
+        verify(principalCacheService, times(1)).evictUser(player.getEmail());
+    }
+
+    @Test
+    void aJoinWhoseFeeWasAlreadyDebitedIsNotChargedOrAnnouncedAgain() {
+        assertTrue(join());
+
+        // A retry that gets past the registration check, e.g. one racing the first join
+        jdbcTemplate.update("DELETE FROM availabilities WHERE match_id = ?", match.getId());
+        jdbcTemplate.update("DELETE FROM match_registrations WHERE match_id = ?", match.getId());
+        assertThrows(BadRequestException.class, this::joinOrThrow);
+
+        assertEquals(0, new BigDecimal("90.00").compareTo(balance()));
+        assertEquals(1, count("SELECT COUNT(*) FROM transactions WHERE wallet_id = ?", wallet.getId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM match_registrations WHERE match_id = ?", match.getId()));
+        verify(transactionService, times(1)).notifyTransactionRecorded(eq(player.getId()), any(),
+                eq(TransactionType.MATCH_PAYMENT), eq(FEE.negate()), eq("GBP"));
+    }
+
+    @Test
+    void aJoinTheWalletCannotCoverIsRejected() {
+        jdbcTemplate.update("UPDATE wallets SET balance = 5.00 WHERE id = ?", wallet.getId());
+
+        assertThrows(BadRequestException.class, this::joinOrThrow);
+
+        assertEquals(0, new BigDecimal("5.00").compareTo(balance()));
+        assertEquals(0, count("SELECT COUNT(*) FROM transactions WHERE wallet_id = ?", wallet.getId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM match_registrations WHERE match_id = ?", match.getId()));
+        verify(transactionService, times(0)).notifyTransactionRecorded(any(), any(), any(), any(), any());
+    }
+
+    private boolean join() {
+        try {
+            joinOrThrow();
+            return true;
+        } catch (BadRequestException rejected) {
+            return false;
+        }
+    }
+
+    private void joinOrThrow() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new AppUserDetail(player), null, List.of()));
+        try {
+            matchService.joinMatchEvent(match.getId(), new JoinMatchRequest());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM wallets WHERE id = ?", BigDecimal.class, wallet.getId());
+    }
+
+    private int count(String sql, UUID id) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+}
@@ -0,0 +1,131 @@
+package com.playvora.playvora_api.match;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.match.dtos.MatchEventResponse;
+import com.playvora.playvora_api.match.dtos.MatchSummary;
+import com.playvora.playvora_api.match.entities.Availability;
+import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.entities.Team;
+import com.playvora.playvora_api.match.entities.TeamPlayer;
+import com.playvora.playvora_api.match.enums.AvailabilityStatus;
+import com.playvora.playvora_api.match.mappers.MatchEventMapper;
+import com.playvora.playvora_api.match.repo.MatchRepository;
+import com.playvora.playvora_api.match.repo.TeamRepository;
+import com.playvora.playvora_api.user.entities.User;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements behind the match list and detail views: a page of {@link MatchSummary}
+ * rows is one query, and the detail fetch plan loads a whole match in a fixed number of queries.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MatchListQueryTest extends JpaSliceTest {
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    private Statistics statistics;
+    private Community community;
+
+    @BeforeEach
+    void setUp() {
+        statistics = statistics();
+        community = createCommunity("List FC", createUser("organiser"));
+    }
+
+    @Test
+    void aPageOfSummariesIsOneQuery() {
+        for (int i = 0; i < 4; i++) {
+            createMatch("Match " + i, 3 + i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Page<MatchSummary> page = matchRepository.findByCommunityId(community.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "matchDate")));
+        List<MatchEventResponse> responses = page.map(MatchEventMapper::convertToResponse).getContent();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(4, responses.size());
+        MatchEventResponse first = responses.get(0);
+        assertEquals("Match 0", first.getTitle());
+        assertEquals("List FC", first.getCommunity().getName());
+        assertEquals(3, first.getTotalPlayers());
+        assertEquals(2, first.getAvailablePlayers());
+        assertTrue(first.getTeams().isEmpty());
+        assertTrue(first.getPlayersAvailability().isEmpty());
+        assertEquals(6, responses.get(3).getTotalPlayers());
+    }
+
+    @Test
+    void theDetailFetchPlanLoadsTheWholeMatch() {
+        Match match = createMatch("Detail match", 6);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Match loaded = matchRepository.findByIdWithDetails(match.getId()).orElseThrow();
+        matchRepository.findByIdWithTeams(match.getId());
+        teamRepository.findByMatchIdWithPlayers(match.getId());
+        MatchEventResponse response = MatchEventMapper.convertToResponse(loaded);
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals("List FC", response.getCommunity().getName());
+        assertEquals(6, response.getTotalPlayers());
+        assertEquals(5, response.getAvailablePlayers());
+        assertEquals(6, response.getPlayersAvailability().size());
+        assertEquals(2, response.getTeams().size());
+        assertEquals(3, response.getTeams().get(0).getPlayers().size());
+        assertNotNull(response.getTeams().get(0).getCaptain());
+    }
+
+    /**
+     * A match with {@code players} availabilities, the last of them not available, split over two teams.
+     */
+    private Match createMatch(String title, int players) {
+        Match match = Match.builder()
+                .community(community)
+                .createdBy(community.getCreatedBy())
+                .title(title)
+                .matchDate(OffsetDateTime.now().plusDays(7 + players))
+                .registrationDeadline(OffsetDateTime.now().plusDays(6))
+                .playersPerTeam(3)
+                .build();
+        entityManager.persist(match);
+
+        Team[] teams = new Team[2];
+        for (int i = 0; i < players; i++) {
+            User user = createUser(title.replace(' ', '-') + "-player" + i);
+            entityManager.persist(Availability.builder()
+                    .match(match)
+                    .user(user)
+                    .status(i == players - 1 ? AvailabilityStatus.NOT_AVAILABLE : AvailabilityStatus.AVAILABLE)
+                    .build());
+            Team team = teams[i % 2];
+            if (team == null) {
+                team = Team.builder().match(match).name("Team " + (i + 1)).captain(user).build();
+                entityManager.persist(team);
+                teams[i % 2] = team;
+            }
+            entityManager.persist(TeamPlayer.builder().team(team).user(user).isCaptain(team.getCaptain() == user).build());
+        }
+        return match;
+    }
+}
@@ -0,0 +1,130 @@
+package com.playvora.playvora_api.match;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.match.balancing.RandomTeamBalancingStrategy;
+import com.playvora.playvora_api.match.balancing.SkillBalancedTeamBalancingStrategy;
+import com.playvora.playvora_api.match.entities.Availability;
+import com.playvora.playvora_api.match.entities.Match;
+import com.playvora.playvora_api.match.entities.Team;
+import com.playvora.playvora_api.match.enums.AvailabilityStatus;
+import com.playvora.playvora_api.match.enums.MatchStatus;
+import com.playvora.playvora_api.match.services.impl.TeamGenerator;
+import com.playvora.playvora_api.user.entities.User;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Generates auto and manual teams for pools of 20, 100 and 500 players and reports the time and
+ * the number of JDBC statements needed to persist them. With batching enabled the statement count
+ * grows with the number of batches, not with the number of players.
+ */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@Import({TeamGenerator.class, SkillBalancedTeamBalancingStrategy.class, RandomTeamBalancingStrategy.class})
+class TeamGenerationBenchmarkTest extends JpaSliceTest {
+
+    private static final int PLAYERS_PER_TEAM = 5;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private TeamGenerator teamGenerator;
+
+    @ParameterizedTest
+    @ValueSource(ints = {20, 100, 500})
+    void autoTeamGenerationIsBatched(int poolSize) {
+        Match match = createMatch(poolSize, true);
+        List<Availability> pool = availablePlayers(match);
+
+        Statistics statistics = statistics();
+        long start = System.nanoTime();
+        List<Team> teams = teamGenerator.generateAutoTeams(match, pool);
+        entityManager.flush();
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("auto   pool=%4d teams=%3d statements=%3d time=%6dus%n",
+                poolSize, teams.size(), statements, elapsedMicros);
+
+        assertEquals(poolSize / PLAYERS_PER_TEAM, teams.size());
+        assertEquals(poolSize, statistics.getEntityInsertCount() - teams.size());
+        // rating and pairing history queries, then teams, team players and availability updates in batches
+        assertTrue(statements <= 2 + 3 * batches(poolSize), "Expected batched statements, got " + statements);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {20, 100, 500})
+    void manualTeamGenerationIsBatched(int poolSize) {
+        Match match = createMatch(poolSize, false);
+        List<Availability> pool = availablePlayers(match);
+
+        Statistics statistics = statistics();
+        long start = System.nanoTime();
+        List<Team> teams = teamGenerator.generateManualTeams(match, pool);
+        entityManager.flush();
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("manual pool=%4d teams=%3d statements=%3d time=%6dus%n",
+                poolSize, teams.size(), statements, elapsedMicros);
+
+        int numTeams = poolSize / PLAYERS_PER_TEAM;
+        assertEquals(numTeams, teams.size());
+        // rating and pairing history queries, teams, captains, captain availabilities and the match update
+        assertTrue(statements <= 3 + 3 * batches(numTeams), "Expected batched statements, got " + statements);
+    }
+
+    private static int batches(int rows) {
+        return (rows + BATCH_SIZE - 1) / BATCH_SIZE;
+    }
+
+    private Match createMatch(int poolSize, boolean autoSelection) {
+        User organiser = createUser("organiser");
+        Community community = createCommunity("Benchmark FC", organiser);
+
+        Match match = Match.builder()
+                .community(community)
+                .createdBy(organiser)
+                .title("Benchmark match")
+                .matchDate(OffsetDateTime.now().plusDays(7))
+                .registrationDeadline(OffsetDateTime.now().plusDays(6))
+                .playersPerTeam(PLAYERS_PER_TEAM)
+                .status(MatchStatus.REGISTRATION_OPEN)
+                .isAutoSelection(autoSelection)
+                .build();
+        entityManager.persist(match);
+
+        for (int i = 0; i < poolSize; i++) {
+            entityManager.persist(Availability.builder()
+                    .match(match)
+                    .user(createUser("player" + i))
+                    .status(AvailabilityStatus.AVAILABLE)
+                    .build());
+        }
+        entityManager.flush();
+        return match;
+    }
+
+    private List<Availability> availablePlayers(Match match) {
+        return new ArrayList<>(entityManager.createQuery(
+                        "SELECT a FROM Availability a JOIN FETCH a.user WHERE a.match = :match", Availability.class)
+                .setParameter("match", match)
+                .getResultList());
+    }
+}
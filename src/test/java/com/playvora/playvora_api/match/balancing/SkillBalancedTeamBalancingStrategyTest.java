@@ -0,0 +1,171 @@
+package com.playvora.playvora_api.match.balancing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillBalancedTeamBalancingStrategyTest {
+
+    private final SkillBalancedTeamBalancingStrategy balanced = new SkillBalancedTeamBalancingStrategy(1.0, 1.0, 0.25, 40);
+    private final RandomTeamBalancingStrategy random = new RandomTeamBalancingStrategy();
+
+    @Test
+    void assignsEveryPlacedPlayerOnceAndLeavesTheRestAsReserves() {
+        TeamBalancingProblem problem = problem(503, 5, 1L, false);
+
+        int[][] teams = balanced.assign(problem);
+
+        assertEquals(100, teams.length);
+        boolean[] seen = new boolean[problem.playerCount()];
+        int placed = 0;
+        for (int[] team : teams) {
+            assertEquals(5, team.length);
+            for (int player : team) {
+                assertFalse(seen[player], "player " + player + " assigned twice");
+                seen[player] = true;
+                placed++;
+            }
+        }
+        assertEquals(500, placed);
+    }
+
+    @Test
+    void balancesRatingsFarBetterThanRandom() {
+        TeamBalancingProblem problem = problem(500, 5, 2L, false);
+
+        long balancedSpread = ratingSpread(problem, balanced.assign(problem));
+        long randomSpread = ratingSpread(problem, random.assign(problem));
+
+        assertTrue(balancedSpread * 10 < randomSpread,
+                "balanced spread " + balancedSpread + " vs random " + randomSpread);
+    }
+
+    @Test
+    void spreadsGendersEvenly() {
+        TeamBalancingProblem problem = problem(120, 6, 3L, false);
+
+        int[][] teams = balanced.assign(problem);
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int[] team : teams) {
+            int females = 0;
+            for (int player : team) {
+                if (problem.gender(player) == TeamBalancingProblem.GENDER_FEMALE) {
+                    females++;
+                }
+            }
+            min = Math.min(min, females);
+            max = Math.max(max, females);
+        }
+        assertTrue(max - min <= 1, "female count per team ranges from " + min + " to " + max);
+    }
+
+    @Test
+    void avoidsRepeatTeamMates() {
+        TeamBalancingProblem problem = problem(200, 5, 4L, true);
+
+        long balancedRepeats = repeatPairings(problem, balanced.assign(problem));
+        long randomRepeats = repeatPairings(problem, random.assign(problem));
+
+        assertTrue(balancedRepeats < randomRepeats / 2,
+                "balanced repeats " + balancedRepeats + " vs random " + randomRepeats);
+    }
+
+    @Test
+    void strongestPlayersCaptainAndWeakestCaptainPicksFirst() {
+        int[] ratings = {1200, 900, 1500, 1000, 1100, 800, 1300, 950};
+        TeamBalancingProblem problem = TeamBalancingProblem.of(3, 2, ratings, new byte[ratings.length],
+                new int[0], new int[0], new int[0], 5L);
+
+        assertArrayEquals(new int[]{0, 6, 2}, balanced.selectCaptains(problem));
+    }
+
+    @Test
+    void balancesFiveHundredPlayersInMilliseconds() {
+        TeamBalancingProblem problem = problem(500, 5, 6L, true);
+        for (int i = 0; i < 20; i++) {
+            balanced.assign(problem);
+        }
+
+        long start = System.nanoTime();
+        balanced.assign(problem);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 50, "took " + elapsedMillis + " ms");
+    }
+
+    /**
+     * Players with normally distributed ratings, roughly a third female, and (optionally) a
+     * history where each block of ten consecutive players has often played together.
+     */
+    private static TeamBalancingProblem problem(int players, int playersPerTeam, long seed, boolean history) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] ratings = new int[players];
+        byte[] genders = new byte[players];
+        for (int i = 0; i < players; i++) {
+            ratings[i] = (int) Math.max(0, 1000 + 250 * gaussian(random));
+            genders[i] = random.nextInt(3) == 0 ? TeamBalancingProblem.GENDER_FEMALE : TeamBalancingProblem.GENDER_MALE;
+        }
+
+        int pairs = 0;
+        int[] pairA = new int[history ? players * 5 : 0];
+        int[] pairB = new int[pairA.length];
+        int[] together = new int[pairA.length];
+        if (history) {
+            for (int block = 0; block + 10 <= players; block += 10) {
+                for (int a = block; a < block + 10; a++) {
+                    for (int b = a + 1; b < block + 10; b++) {
+                        pairA[pairs] = a;
+                        pairB[pairs] = b;
+                        together[pairs++] = 5;
+                    }
+                }
+            }
+        }
+
+        return TeamBalancingProblem.of(players / playersPerTeam, playersPerTeam, ratings, genders,
+                Arrays.copyOf(pairA, pairs), Arrays.copyOf(pairB, pairs), Arrays.copyOf(together, pairs), seed);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static long ratingSpread(TeamBalancingProblem problem, int[][] teams) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int[] team : teams) {
+            long sum = 0;
+            for (int player : team) {
+                sum += problem.rating(player);
+            }
+            min = Math.min(min, sum);
+            max = Math.max(max, sum);
+        }
+        return max - min;
+    }
+
+    private static long repeatPairings(TeamBalancingProblem problem, int[][] teams) {
+        int[] teamOf = new int[problem.playerCount()];
+        Arrays.fill(teamOf, -1);
+        for (int t = 0; t < teams.length; t++) {
+            for (int player : teams[t]) {
+                teamOf[player] = t;
+            }
+        }
+        long repeats = 0;
+        for (int player = 0; player < problem.playerCount(); player++) {
+            for (int slot = problem.pairStart(player); slot < problem.pairEnd(player); slot++) {
+                int mate = problem.pairPlayer(slot);
+                if (mate > player && teamOf[player] >= 0 && teamOf[player] == teamOf[mate]) {
+                    repeats += problem.pairCount(slot);
+                }
+            }
+        }
+        return repeats;
+    }
+}
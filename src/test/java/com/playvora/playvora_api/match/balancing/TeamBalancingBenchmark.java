@@ -0,0 +1,106 @@
+package com.playvora.playvora_api.match.balancing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation of the team balancing strategies. Not part of the test suite; run with
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.playvora.playvora_api.match.balancing.TeamBalancingBenchmark
+ * </pre>
+ *
+ * The GC profiler reports allocation per call ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamBalancingBenchmark {
+
+    @Param({"20", "100", "500"})
+    int players;
+
+    @Param({"5"})
+    int playersPerTeam;
+
+    private final SkillBalancedTeamBalancingStrategy balanced = new SkillBalancedTeamBalancingStrategy(1.0, 1.0, 0.25, 40);
+    private final RandomTeamBalancingStrategy random = new RandomTeamBalancingStrategy();
+
+    private TeamBalancingProblem problem;
+
+    @Setup(Level.Trial)
+    public void createProblem() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        int[] ratings = new int[players];
+        byte[] genders = new byte[players];
+        for (int i = 0; i < players; i++) {
+            ratings[i] = 600 + rnd.nextInt(800);
+            genders[i] = rnd.nextInt(3) == 0 ? TeamBalancingProblem.GENDER_FEMALE : TeamBalancingProblem.GENDER_MALE;
+        }
+
+        // Every player has history with about ten others
+        int pairs = players * 5;
+        int[] pairA = new int[pairs];
+        int[] pairB = new int[pairs];
+        int[] together = new int[pairs];
+        int count = 0;
+        for (int i = 0; i < pairs; i++) {
+            int a = rnd.nextInt(players);
+            int b = rnd.nextInt(players);
+            if (a != b) {
+                pairA[count] = Math.min(a, b);
+                pairB[count] = Math.max(a, b);
+                together[count++] = 1 + rnd.nextInt(5);
+            }
+        }
+
+        problem = TeamBalancingProblem.of(players / playersPerTeam, playersPerTeam, ratings, genders,
+                Arrays.copyOf(pairA, count), Arrays.copyOf(pairB, count), Arrays.copyOf(together, count), 7L);
+    }
+
+    @Benchmark
+    public int[][] balancedAssign() {
+        return balanced.assign(problem);
+    }
+
+    @Benchmark
+    public int[] balancedCaptains() {
+        return balanced.selectCaptains(problem);
+    }
+
+    @Benchmark
+    public int[][] randomAssign() {
+        return random.assign(problem);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TeamBalancingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.playvora.playvora_api.match.draft;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.match.enums.MatchStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DraftSessionTest {
+
+    private final UUID matchId = UUID.randomUUID();
+    private final UUID[] teams = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+    private final UUID[] captains = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+
+    @Test
+    void picksGoRoundRobinAndStampContiguousSequences() {
+        Map<UUID, String> players = players(6);
+        UUID[] ids = players.keySet().toArray(UUID[]::new);
+        DraftSession session = session(3, new int[]{1, 1, 1}, 0, players);
+
+        DraftPick first = session.pick(teams[0], captains[0], ids[0]);
+        DraftPick second = session.pick(teams[1], captains[1], ids[1]);
+
+        assertEquals(11, first.sequence());
+        assertEquals(12, second.sequence());
+        assertEquals(teams[1], first.currentPickingTeamId());
+        assertEquals(1, first.draftIndex());
+        assertEquals(teams[2], second.currentPickingTeamId());
+        assertTrue(second.draftInProgress());
+        assertEquals(MatchStatus.TEAMS_MANUALLY_SELECTED, second.status());
+    }
+
+    @Test
+    void rejectsInvalidPicksWithoutChangingState() {
+        Map<UUID, String> players = players(3);
+        UUID player = players.keySet().iterator().next();
+        DraftSession session = session(3, new int[]{1, 1, 1}, 0, players);
+
+        assertThrows(BadRequestException.class, () -> session.pick(teams[1], captains[1], player));
+        assertThrows(BadRequestException.class, () -> session.pick(teams[0], captains[1], player));
+        assertThrows(BadRequestException.class, () -> session.pick(teams[0], captains[0], UUID.randomUUID()));
+
+        assertEquals(10, session.sequence());
+        assertEquals(teams[0], session.currentPickingTeamId());
+        assertEquals(3, session.availablePlayerCount());
+
+        session.pick(teams[0], captains[0], player);
+        assertThrows(BadRequestException.class, () -> session.pick(teams[1], captains[1], player));
+    }
+
+    @Test
+    void skipsFullTeamsAndEndsWhenEveryTeamIsFull() {
+        Map<UUID, String> players = players(4);
+        UUID[] ids = players.keySet().toArray(UUID[]::new);
+        // Team 1 is already full
+        DraftSession session = session(2, new int[]{1, 2, 1}, 0, players);
+
+        DraftPick first = session.pick(teams[0], captains[0], ids[0]);
+        assertEquals(teams[2], first.currentPickingTeamId());
+
+        DraftPick last = session.pick(teams[2], captains[2], ids[1]);
+        assertFalse(last.draftInProgress());
+        assertNull(last.currentPickingTeamId());
+        assertEquals(0, last.draftIndex());
+        assertEquals(MatchStatus.TEAMS_SELECTED, last.status());
+        assertEquals(2, session.availablePlayerCount());
+
+        assertThrows(BadRequestException.class, () -> session.pick(teams[0], captains[0], ids[2]));
+    }
+
+    @Test
+    void picksTakeMicroseconds() {
+        int teamCount = 100;
+        int playersPerTeam = 6;
+        UUID[] teamIds = new UUID[teamCount];
+        UUID[] captainIds = new UUID[teamCount];
+        int[] counts = new int[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            teamIds[i] = UUID.randomUUID();
+            captainIds[i] = UUID.randomUUID();
+            counts[i] = 1;
+        }
+        Map<UUID, String> players = players(teamCount * (playersPerTeam - 1));
+        UUID[] ids = players.keySet().toArray(UUID[]::new);
+        DraftSession session = new DraftSession(matchId, "Draft", MatchStatus.TEAMS_MANUALLY_SELECTED,
+                playersPerTeam, teamIds, captainIds, counts, 0, 0, players);
+
+        long start = System.nanoTime();
+        int turn = 0;
+        for (UUID player : ids) {
+            session.pick(teamIds[turn], captainIds[turn], player);
+            turn = (turn + 1) % teamCount;
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertFalse(session.isInProgress());
+        assertTrue(elapsedMillis < 100, ids.length + " picks took " + elapsedMillis + " ms");
+    }
+
+    private DraftSession session(int playersPerTeam, int[] counts, int turn, Map<UUID, String> players) {
+        return new DraftSession(matchId, "Draft", MatchStatus.TEAMS_MANUALLY_SELECTED, playersPerTeam,
+                teams.clone(), captains.clone(), counts, turn, 10, players);
+    }
+
+    private static Map<UUID, String> players(int count) {
+        Map<UUID, String> players = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            players.put(UUID.randomUUID(), "Player " + i);
+        }
+        return players;
+    }
+}
@@ -0,0 +1,347 @@
+package com.playvora.playvora_api.notification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.notification.entities.DeviceToken;
+import com.playvora.playvora_api.notification.entities.PushNotificationOutbox;
+import com.playvora.playvora_api.notification.enums.PushNotificationStatus;
+import com.playvora.playvora_api.notification.repo.DeviceTokenRepository;
+import com.playvora.playvora_api.notification.repo.PushNotificationOutboxRepository;
+import com.playvora.playvora_api.notification.services.impl.PushNotificationDispatcher;
+import com.playvora.playvora_api.user.entities.User;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives {@link PushNotificationDispatcher} against the outbox table with Expo stubbed out at the
+ * HTTP client: backoff after retryable failures, leases that expire and are reclaimed, tokens
+ * deactivated on DeviceNotRegistered, and tickets applied to the row whose message they answer.
+ * Chunks run on the polling thread so each dispatch is finished when it returns.
+ */
+class PushNotificationDispatcherTest extends JpaSliceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_SECONDS = 5;
+    private static final long MAX_BACKOFF_SECONDS = 60;
+    private static final long LEASE_SECONDS = 120;
+    private static final long RECEIPT_DELAY_MINUTES = 15;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> requests = new ArrayList<>();
+    private Function<JsonNode, Response.Builder> expo;
+    private boolean rejectChunks;
+
+    @Autowired
+    private PushNotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private DeviceTokenRepository deviceTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PushNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    JsonNode body = readBody(chain.request());
+                    requests.add(body);
+                    return expo.apply(body).request(chain.request()).protocol(Protocol.HTTP_1_1).message("stub").build();
+                })
+                .build();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            public void execute(Runnable task) {
+                if (rejectChunks) {
+                    throw new TaskRejectedException("pool is full");
+                }
+                task.run();
+            }
+        };
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+
+        dispatcher = new PushNotificationDispatcher(outboxRepository, deviceTokenRepository, httpClient,
+                objectMapper, new TransactionTemplate(transactionManager), executor);
+        ReflectionTestUtils.setField(dispatcher, "pushEnabled", true);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(dispatcher, "baseBackoffSeconds", BASE_BACKOFF_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffSeconds", MAX_BACKOFF_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", LEASE_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "receiptDelayMinutes", RECEIPT_DELAY_MINUTES);
+    }
+
+    @Test
+    void eachTicketIsAppliedToTheRowItsMessageCameFrom() {
+        // Claimed oldest first, so the request order differs from the insertion order
+        PushNotificationOutbox third = queue("token-c", OffsetDateTime.now().minusSeconds(1));
+        PushNotificationOutbox first = queue("token-a", OffsetDateTime.now().minusSeconds(30));
+        PushNotificationOutbox second = queue("token-b", OffsetDateTime.now().minusSeconds(20));
+        expo = body -> ok(tickets(body, Map.of(
+                "token-a", "{\"status\":\"ok\",\"id\":\"ticket-token-a\"}",
+                "token-b", "{\"status\":\"ok\",\"id\":\"ticket-token-b\"}",
+                "token-c", "{\"status\":\"ok\",\"id\":\"ticket-token-c\"}")));
+
+        dispatcher.dispatchPending();
+
+        assertEquals(1, requests.size());
+        assertEquals(3, requests.get(0).size());
+        for (PushNotificationOutbox notification : reload(first, second, third)) {
+            assertEquals(PushNotificationStatus.SENT, notification.getStatus());
+            assertEquals("ticket-" + notification.getToken(), notification.getTicketId());
+            assertEquals(1, notification.getAttempts());
+            assertNotNull(notification.getSentAt());
+        }
+    }
+
+    @Test
+    void aTicketErrorOnlyAffectsItsOwnRow() {
+        PushNotificationOutbox sent = queue("token-ok", OffsetDateTime.now().minusSeconds(30));
+        PushNotificationOutbox unregistered = queue("token-gone", OffsetDateTime.now().minusSeconds(20));
+        PushNotificationOutbox throttled = queue("token-busy", OffsetDateTime.now().minusSeconds(10));
+        DeviceToken goneDevice = registerDevice("token-gone");
+        DeviceToken okDevice = registerDevice("token-ok");
+        expo = body -> ok(tickets(body, Map.of(
+                "token-ok", "{\"status\":\"ok\",\"id\":\"ticket-1\"}",
+                "token-gone", "{\"status\":\"error\",\"message\":\"not registered\",\"details\":{\"error\":\"DeviceNotRegistered\"}}",
+                "token-busy", "{\"status\":\"error\",\"message\":\"slow down\",\"details\":{\"error\":\"MessageRateExceeded\"}}")));
+
+        dispatcher.dispatchPending();
+
+        List<PushNotificationOutbox> rows = reload(sent, unregistered, throttled);
+        assertEquals(PushNotificationStatus.SENT, rows.get(0).getStatus());
+        assertEquals("ticket-1", rows.get(0).getTicketId());
+        // Not retried: the token will never work again
+        assertEquals(PushNotificationStatus.FAILED, rows.get(1).getStatus());
+        assertEquals("DeviceNotRegistered", rows.get(1).getErrorCode());
+        assertEquals(PushNotificationStatus.PENDING, rows.get(2).getStatus());
+        assertEquals("MessageRateExceeded", rows.get(2).getErrorCode());
+        assertFalse(reload(goneDevice).getIsActive());
+        assertTrue(reload(okDevice).getIsActive());
+    }
+
+    @Test
+    void retryableFailuresBackOffExponentiallyUntilTheLastAttempt() {
+        PushNotificationOutbox notification = queue("token-a", OffsetDateTime.now().minusSeconds(1));
+        expo = body -> response(503, "{\"errors\":[\"unavailable\"]}");
+
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            OffsetDateTime before = OffsetDateTime.now();
+            dispatcher.dispatchPending();
+            OffsetDateTime after = OffsetDateTime.now();
+
+            PushNotificationOutbox retried = reload(notification).get(0);
+            assertEquals(PushNotificationStatus.PENDING, retried.getStatus());
+            assertEquals(attempt, retried.getAttempts());
+            assertEquals("HTTP_503", retried.getErrorCode());
+            long backoff = BASE_BACKOFF_SECONDS << (attempt - 1);
+            assertFalse(retried.getNextAttemptAt().isBefore(before.plusSeconds(backoff)));
+            assertFalse(retried.getNextAttemptAt().isAfter(after.plusSeconds(backoff)));
+
+            // Not due again until the backoff has passed
+            dispatcher.dispatchPending();
+            assertEquals(attempt, requests.size());
+            makeDue(retried);
+        }
+
+        dispatcher.dispatchPending();
+        PushNotificationOutbox failed = reload(notification).get(0);
+        assertEquals(PushNotificationStatus.FAILED, failed.getStatus());
+        assertEquals(MAX_ATTEMPTS, failed.getAttempts());
+    }
+
+    @Test
+    void theBackoffIsCapped() {
+        PushNotificationOutbox notification = queue("token-a", OffsetDateTime.now().minusSeconds(1));
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 20);
+        notification.setAttempts(9);
+        expo = body -> response(429, "{}");
+
+        OffsetDateTime before = OffsetDateTime.now();
+        dispatcher.dispatchPending();
+
+        PushNotificationOutbox retried = reload(notification).get(0);
+        assertEquals(PushNotificationStatus.PENDING, retried.getStatus());
+        assertFalse(retried.getNextAttemptAt().isBefore(before.plusSeconds(MAX_BACKOFF_SECONDS)));
+        assertTrue(retried.getNextAttemptAt().isBefore(before.plusSeconds(MAX_BACKOFF_SECONDS + 30)));
+    }
+
+    @Test
+    void aRejectedRequestIsNotRetried() {
+        PushNotificationOutbox notification = queue("token-a", OffsetDateTime.now().minusSeconds(1));
+        expo = body -> response(400, "{\"errors\":[\"bad request\"]}");
+
+        dispatcher.dispatchPending();
+
+        PushNotificationOutbox failed = reload(notification).get(0);
+        assertEquals(PushNotificationStatus.FAILED, failed.getStatus());
+        assertEquals("HTTP_400", failed.getErrorCode());
+        assertEquals(1, failed.getAttempts());
+    }
+
+    @Test
+    void aClaimedRowIsLeasedUntilItsLeaseExpiresAndThenReclaimed() {
+        PushNotificationOutbox notification = queue("token-a", OffsetDateTime.now().minusSeconds(1));
+        expo = body -> ok("{\"data\":[{\"status\":\"ok\",\"id\":\"ticket-1\"}]}");
+
+        // Claimed, but the chunk never runs (as when the node dies mid-send)
+        rejectChunks = true;
+        OffsetDateTime before = OffsetDateTime.now();
+        dispatcher.dispatchPending();
+        OffsetDateTime after = OffsetDateTime.now();
+
+        PushNotificationOutbox leased = reload(notification).get(0);
+        assertEquals(PushNotificationStatus.SENDING, leased.getStatus());
+        assertFalse(leased.getNextAttemptAt().isBefore(before.plusSeconds(LEASE_SECONDS)));
+        assertFalse(leased.getNextAttemptAt().isAfter(after.plusSeconds(LEASE_SECONDS)));
+
+        // Nobody else takes it while the lease holds
+        rejectChunks = false;
+        dispatcher.dispatchPending();
+        assertTrue(requests.isEmpty());
+        assertEquals(PushNotificationStatus.SENDING, reload(notification).get(0).getStatus());
+
+        // Once it expires, the next poll reclaims and sends it
+        makeDue(leased);
+        dispatcher.dispatchPending();
+
+        assertEquals(1, requests.size());
+        PushNotificationOutbox sent = reload(notification).get(0);
+        assertEquals(PushNotificationStatus.SENT, sent.getStatus());
+        assertEquals("ticket-1", sent.getTicketId());
+        assertEquals(1, sent.getAttempts());
+    }
+
+    @Test
+    void aDeviceNotRegisteredReceiptDeactivatesTheToken() {
+        PushNotificationOutbox delivered = sentWithTicket("token-ok", "ticket-ok");
+        PushNotificationOutbox unregistered = sentWithTicket("token-gone", "ticket-gone");
+        PushNotificationOutbox pending = sentWithTicket("token-later", "ticket-later");
+        DeviceToken goneDevice = registerDevice("token-gone");
+        DeviceToken okDevice = registerDevice("token-ok");
+        expo = body -> ok("""
+                {"data":{
+                  "ticket-ok":{"status":"ok"},
+                  "ticket-gone":{"status":"error","message":"not registered","details":{"error":"DeviceNotRegistered"}}
+                }}""");
+
+        dispatcher.checkReceipts();
+
+        assertEquals(3, requests.get(0).path("ids").size());
+        List<PushNotificationOutbox> rows = reload(delivered, unregistered, pending);
+        assertEquals(PushNotificationStatus.DELIVERED, rows.get(0).getStatus());
+        assertEquals(PushNotificationStatus.FAILED, rows.get(1).getStatus());
+        assertEquals("DeviceNotRegistered", rows.get(1).getErrorCode());
+        // No receipt yet: asked again on the next run
+        assertEquals(PushNotificationStatus.SENT, rows.get(2).getStatus());
+        assertNull(rows.get(2).getReceiptCheckedAt());
+        assertFalse(reload(goneDevice).getIsActive());
+        assertTrue(reload(okDevice).getIsActive());
+    }
+
+    private PushNotificationOutbox queue(String token, OffsetDateTime nextAttemptAt) {
+        PushNotificationOutbox notification = PushNotificationOutbox.builder()
+                .token(token)
+                .title("Kick-off")
+                .body("Your match starts soon")
+                .data("{\"type\":\"MATCH_REMINDER\"}")
+                .nextAttemptAt(nextAttemptAt)
+                .build();
+        return outboxRepository.saveAndFlush(notification);
+    }
+
+    private PushNotificationOutbox sentWithTicket(String token, String ticketId) {
+        PushNotificationOutbox notification = queue(token, OffsetDateTime.now().minusHours(1));
+        notification.setStatus(PushNotificationStatus.SENT);
+        notification.setTicketId(ticketId);
+        notification.setSentAt(OffsetDateTime.now().minusMinutes(RECEIPT_DELAY_MINUTES + 5));
+        return outboxRepository.saveAndFlush(notification);
+    }
+
+    private DeviceToken registerDevice(String token) {
+        User user = createUser("device");
+        DeviceToken deviceToken = DeviceToken.builder().user(user).token(token).deviceType("ios").build();
+        entityManager.persist(deviceToken);
+        entityManager.flush();
+        return deviceToken;
+    }
+
+    private void makeDue(PushNotificationOutbox notification) {
+        PushNotificationOutbox row = reload(notification).get(0);
+        row.setNextAttemptAt(OffsetDateTime.now().minusSeconds(1));
+        outboxRepository.saveAndFlush(row);
+    }
+
+    private List<PushNotificationOutbox> reload(PushNotificationOutbox... notifications) {
+        entityManager.flush();
+        entityManager.clear();
+        List<PushNotificationOutbox> rows = new ArrayList<>();
+        for (PushNotificationOutbox notification : notifications) {
+            rows.add(outboxRepository.findById(notification.getId()).orElseThrow());
+        }
+        return rows;
+    }
+
+    private DeviceToken reload(DeviceToken deviceToken) {
+        entityManager.flush();
+        entityManager.clear();
+        return deviceTokenRepository.findById(deviceToken.getId()).orElseThrow();
+    }
+
+    /**
+     * A send response with one ticket per message, in the order the messages were sent.
+     */
+    private static String tickets(JsonNode messages, Map<String, String> ticketByToken) {
+        List<String> tickets = new ArrayList<>();
+        messages.forEach(message -> tickets.add(ticketByToken.get(message.path("to").asText())));
+        return "{\"data\":[" + String.join(",", tickets) + "]}";
+    }
+
+    private static Response.Builder ok(String body) {
+        return response(200, body);
+    }
+
+    private static Response.Builder response(int code, String body) {
+        return new Response.Builder()
+                .code(code)
+                .body(ResponseBody.create(body, MediaType.get("application/json")));
+    }
+
+    private JsonNode readBody(Request request) {
+        try (Buffer buffer = new Buffer()) {
+            request.body().writeTo(buffer);
+            return objectMapper.readTree(buffer.readUtf8());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
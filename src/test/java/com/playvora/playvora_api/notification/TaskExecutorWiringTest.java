@@ -0,0 +1,54 @@
+package com.playvora.playvora_api.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playvora.playvora_api.files.config.ImageVariantConfig;
+import com.playvora.playvora_api.notification.config.PushNotificationConfig;
+import com.playvora.playvora_api.notification.repo.DeviceTokenRepository;
+import com.playvora.playvora_api.notification.repo.PushNotificationOutboxRepository;
+import com.playvora.playvora_api.notification.services.impl.PushNotificationDispatcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The push and image variant pools must not take the place of Boot's {@code applicationTaskExecutor}:
+ * anything injecting a plain task executor gets Boot's, and only the push dispatcher gets the push pool.
+ */
+class TaskExecutorWiringTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(PushNotificationConfig.class, ImageVariantConfig.class, PushNotificationDispatcher.class)
+            .withBean(PushNotificationOutboxRepository.class, () -> mock(PushNotificationOutboxRepository.class))
+            .withBean(DeviceTokenRepository.class, () -> mock(DeviceTokenRepository.class))
+            .withBean(ObjectMapper.class, ObjectMapper::new)
+            .withBean(TransactionTemplate.class, () -> mock(TransactionTemplate.class));
+
+    @Test
+    void bootStillProvidesTheApplicationTaskExecutor() {
+        contextRunner.run(context -> {
+            assertTrue(context.containsBean("applicationTaskExecutor"));
+            AsyncTaskExecutor executor = context.getBean(AsyncTaskExecutor.class);
+            assertSame(context.getBean("applicationTaskExecutor"), executor);
+            assertEquals("task-", ((ThreadPoolTaskExecutor) executor).getThreadNamePrefix());
+        });
+    }
+
+    @Test
+    void theDispatcherUsesThePushPool() {
+        contextRunner.run(context -> {
+            ThreadPoolTaskExecutor pushPool = context.getBean("pushNotificationExecutor", ThreadPoolTaskExecutor.class);
+            assertEquals("push-dispatch-", pushPool.getThreadNamePrefix());
+            assertSame(pushPool, ReflectionTestUtils.getField(
+                    context.getBean(PushNotificationDispatcher.class), "pushNotificationExecutor"));
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.playvora.playvora_api.user;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.app.ActiveUserRole;
+import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.app.AppUserDetailService;
+import com.playvora.playvora_api.common.utils.AuthenticatedUserContext;
+import com.playvora.playvora_api.community.entities.Community;
+import com.playvora.playvora_api.user.entities.Role;
+import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.user.entities.UserRole;
+import com.playvora.playvora_api.user.repo.UserRepository;
+import com.playvora.playvora_api.wallet.entities.Wallet;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * With the principal cached, resolving the current user runs no query: the request gets a reference
+ * built from the principal's user id, loaded only if something reads more than the id. Loading the
+ * principal itself is a single query that does not load the user (and so not its wallet).
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AuthenticatedUserContextTest extends JpaSliceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        AuthenticatedUserContext.clear();
+    }
+
+    @Test
+    void aCachedPrincipalResolvesTheUserWithoutAQuery() {
+        AppUserDetail principal = principalOf(createUser("player"));
+        AuthenticatedUserContext.open();
+        Statistics statistics = statistics();
+
+        User first = AuthenticatedUserContext.getCurrentUser(principal, userRepository::getReferenceById);
+        User second = AuthenticatedUserContext.getCurrentUser(principal, userRepository::getReferenceById);
+
+        assertSame(first, second);
+        assertEquals(principal.getUserId(), first.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Loaded on first use, once for the request
+        assertEquals("player", second.getFirstName());
+        assertEquals("player", first.getFirstName());
+        assertEquals(1, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void eachPrincipalGetsItsOwnUser() {
+        AppUserDetail player = principalOf(createUser("player"));
+        AppUserDetail organiser = principalOf(createUser("organiser"));
+        AuthenticatedUserContext.open();
+
+        assertEquals(player.getUserId(),
+                AuthenticatedUserContext.getCurrentUser(player, userRepository::getReferenceById).getId());
+        assertEquals(organiser.getUserId(),
+                AuthenticatedUserContext.getCurrentUser(organiser, userRepository::getReferenceById).getId());
+    }
+
+    @Test
+    void loadingThePrincipalIsOneQueryAndLoadsNoEntity() {
+        User user = createUser("player");
+        Community community = createCommunity("Principal FC", user);
+        Role manager = Role.builder().name("ROLE_COMMUNITY_MANAGER").build();
+        Role admin = Role.builder().name("ROLE_ADMIN").build();
+        entityManager.persist(manager);
+        entityManager.persist(admin);
+        UserRole communityRole = UserRole.builder().user(user).role(manager).community(community).build();
+        entityManager.persist(communityRole);
+        entityManager.persist(UserRole.builder().user(user).role(admin).deletedAt(OffsetDateTime.now()).build());
+        entityManager.persist(Wallet.builder().user(user).currency("GBP").balance(BigDecimal.TEN).build());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        AppUserDetail principal = (AppUserDetail) new AppUserDetailService(userRepository)
+                .loadUserByUsername(user.getEmail());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(user.getId(), principal.getUserId());
+        assertEquals(user.getEmail(), principal.getUsername());
+        assertEquals("password", principal.getPassword());
+        // Only the active role, which is a community role
+        assertEquals(List.of(new ActiveUserRole(communityRole.getId(), user.getId(), "ROLE_COMMUNITY_MANAGER",
+                community.getId())), principal.getActiveRoles());
+        assertEquals(Set.of(), principal.getGlobalRoles());
+    }
+
+    @Test
+    void aUserWithoutRolesHasAPrincipalWithoutRoles() {
+        User user = createUser("player");
+        entityManager.flush();
+
+        AppUserDetail principal = (AppUserDetail) new AppUserDetailService(userRepository)
+                .loadUserByUsername(user.getEmail());
+
+        assertEquals(user.getId(), principal.getUserId());
+        assertEquals(List.of(), principal.getActiveRoles());
+        assertThrows(UsernameNotFoundException.class,
+                () -> new AppUserDetailService(userRepository).loadUserByUsername("nobody@example.com"));
+    }
+
+    private AppUserDetail principalOf(User user) {
+        entityManager.flush();
+        entityManager.clear();
+        return new AppUserDetail(user);
+    }
+}
@@ -0,0 +1,103 @@
+package com.playvora.playvora_api.user;
+
+import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.user.entities.Role;
+import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.user.entities.UserRole;
+import com.playvora.playvora_api.user.services.impl.PrincipalCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheServiceTest {
+
+    private static final String EMAIL = "player@playvora.com";
+
+    private PrincipalCacheService principalCacheService;
+    private User user;
+    private UserRole userRole;
+
+    @BeforeEach
+    void setUp() {
+        principalCacheService = new PrincipalCacheService(true, 100, 60);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email(EMAIL)
+                .password("encodedPassword")
+                .firstName("Test")
+                .userRoles(new HashSet<>())
+                .build();
+        userRole = UserRole.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .role(Role.builder().name("ROLE_USER").build())
+                .build();
+        user.getUserRoles().add(userRole);
+    }
+
+    @Test
+    void theCachedPrincipalIsASnapshotOfTheUser() {
+        Date issuedAt = new Date();
+        UserDetails first = principalCacheService.getPrincipal(EMAIL, issuedAt, () -> new AppUserDetail(user));
+
+        // Changes to the entity after loading (e.g. a half-applied profile update) do not leak into the cache
+        user.setEmail("changed@playvora.com");
+        user.setPassword("changedPassword");
+        user.getUserRoles().clear();
+
+        UserDetails second = principalCacheService.getPrincipal(EMAIL, issuedAt, () -> fail("expected a cache hit"));
+        assertSame(first, second);
+        assertEquals(EMAIL, second.getUsername());
+        assertEquals("encodedPassword", second.getPassword());
+        assertEquals(Set.of("ROLE_USER"), ((AppUserDetail) second).getGlobalRoles());
+        assertEquals(user.getId(), ((AppUserDetail) second).getUserId());
+    }
+
+    @Test
+    void evictingARoleDropsThePrincipalsThatHoldIt() {
+        Date issuedAt = new Date();
+        AtomicInteger loads = new AtomicInteger();
+        principalCacheService.getPrincipal(EMAIL, issuedAt, () -> {
+            loads.incrementAndGet();
+            return new AppUserDetail(user);
+        });
+
+        principalCacheService.evictUserRole(userRole.getId());
+        principalCacheService.getPrincipal(EMAIL, issuedAt, () -> {
+            loads.incrementAndGet();
+            return new AppUserDetail(user);
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void cachedRolesAreSnapshotsEvictedWithTheirUser() {
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            var cached = principalCacheService.getActiveUserRole(userRole.getId(), () -> {
+                loads.incrementAndGet();
+                return Optional.of(userRole);
+            }).orElseThrow();
+            assertEquals("ROLE_USER", cached.roleName());
+            assertEquals(user.getId(), cached.userId());
+        }
+        assertEquals(1, loads.get());
+
+        principalCacheService.evictUser(EMAIL);
+        principalCacheService.getActiveUserRole(userRole.getId(), () -> {
+            loads.incrementAndGet();
+            return Optional.of(userRole);
+        });
+        assertEquals(2, loads.get());
+    }
+}
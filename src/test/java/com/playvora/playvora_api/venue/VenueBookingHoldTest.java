@@ -0,0 +1,202 @@
+package com.playvora.playvora_api.venue;
+
+import com.playvora.playvora_api.JpaSliceTest;
+import com.playvora.playvora_api.app.AppUserDetail;
+import com.playvora.playvora_api.common.services.IMailService;
+import com.playvora.playvora_api.user.entities.User;
+import com.playvora.playvora_api.venue.dtos.ConfirmVenueBookingPaymentRequest;
+import com.playvora.playvora_api.venue.dtos.VenueBookingResponse;
+import com.playvora.playvora_api.venue.entities.Venue;
+import com.playvora.playvora_api.venue.entities.VenueBooking;
+import com.playvora.playvora_api.venue.enums.RentType;
+import com.playvora.playvora_api.venue.enums.VenueBookingStatus;
+import com.playvora.playvora_api.venue.enums.VenueType;
+import com.playvora.playvora_api.venue.repo.VenueBookingRepository;
+import com.playvora.playvora_api.venue.services.IVenueAvailabilityService;
+import com.playvora.playvora_api.venue.services.impl.VenueBookingHoldMetrics;
+import com.playvora.playvora_api.venue.services.impl.VenueBookingHoldReaper;
+import com.playvora.playvora_api.venue.services.impl.VenueBookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the end of a venue booking hold: converting a live hold, the reaper expiring lapsed holds in
+ * bounded batches, and a payment confirmed after the hold lapsed.
+ */
+@TestPropertySource(properties = {
+        "app.venue.booking.hold-reaper.batch-size=2",
+        "app.venue.booking.hold-reaper.max-batches-per-run=2"
+})
+@Import({VenueBookingService.class, VenueBookingHoldReaper.class, VenueBookingHoldMetrics.class})
+class VenueBookingHoldTest extends JpaSliceTest {
+
+    @MockitoBean
+    private IMailService mailService;
+
+    @MockitoBean
+    private IVenueAvailabilityService venueAvailabilityService;
+
+    @Autowired
+    private VenueBookingRepository venueBookingRepository;
+
+    @Autowired
+    private VenueBookingService venueBookingService;
+
+    @Autowired
+    private VenueBookingHoldReaper holdReaper;
+
+    @Autowired
+    private VenueBookingHoldMetrics holdMetrics;
+
+    private User user;
+    private Venue venue;
+    private OffsetDateTime slotStart;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("booker");
+        venue = Venue.builder()
+                .name("Hold Arena")
+                .description("Hold venue")
+                .venueType(VenueType.COURT)
+                .address(ADDRESS)
+                .city(CITY)
+                .province(CITY)
+                .country(COUNTRY)
+                .postCode(POST_CODE)
+                .openingTime(LocalTime.of(8, 0))
+                .closingTime(LocalTime.of(22, 0))
+                .rentType(RentType.HOURLY)
+                .pricePerHour(BigDecimal.TEN)
+                .owner(user)
+                .build();
+        entityManager.persist(venue);
+        slotStart = OffsetDateTime.now().plusDays(3).truncatedTo(ChronoUnit.HOURS);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new AppUserDetail(user), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void convertLiveHoldConfirmsOnlyALiveHold() {
+        OffsetDateTime now = OffsetDateTime.now();
+        VenueBooking live = createBooking(VenueBookingStatus.PENDING_PAYMENT, now.plusMinutes(10), 0);
+        VenueBooking lapsed = createBooking(VenueBookingStatus.PENDING_PAYMENT, now.minusMinutes(1), 2);
+        VenueBooking confirmed = createBooking(VenueBookingStatus.CONFIRMED, null, 4);
+        entityManager.flush();
+
+        assertEquals(1, convert(live, now));
+        assertEquals(0, convert(lapsed, now));
+        assertEquals(0, convert(confirmed, now));
+
+        assertEquals(VenueBookingStatus.CONFIRMED, reload(live).getStatus());
+        assertEquals("pay-" + live.getId(), reload(live).getPaymentReference());
+        assertEquals(VenueBookingStatus.PENDING_PAYMENT, reload(lapsed).getStatus());
+        assertNull(reload(lapsed).getPaymentReference());
+    }
+
+    @Test
+    void theReaperExpiresLapsedHoldsInBoundedBatches() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<VenueBooking> lapsed = List.of(
+                createBooking(VenueBookingStatus.PENDING_PAYMENT, now.minusMinutes(5), 0),
+                createBooking(VenueBookingStatus.PENDING_PAYMENT, now.minusMinutes(4), 1),
+                createBooking(VenueBookingStatus.PENDING_PAYMENT, now.minusMinutes(3), 2),
+                createBooking(VenueBookingStatus.PENDING_PAYMENT, now.minusMinutes(2), 3),
+                createBooking(VenueBookingStatus.PENDING_PAYMENT, now.minusMinutes(1), 4));
+        VenueBooking live = createBooking(VenueBookingStatus.PENDING_PAYMENT, now.plusMinutes(10), 5);
+        entityManager.flush();
+        long expiredBefore = holdMetrics.stats().expired();
+
+        // Two batches of two per run: the four oldest holds first, the last one on the next run
+        holdReaper.expireLapsedHolds();
+        entityManager.clear();
+        assertEquals(expiredBefore + 4, holdMetrics.stats().expired());
+        assertEquals(List.of(VenueBookingStatus.EXPIRED, VenueBookingStatus.EXPIRED, VenueBookingStatus.EXPIRED,
+                        VenueBookingStatus.EXPIRED, VenueBookingStatus.PENDING_PAYMENT),
+                lapsed.stream().map(booking -> reload(booking).getStatus()).toList());
+
+        holdReaper.expireLapsedHolds();
+        entityManager.clear();
+        assertEquals(expiredBefore + 5, holdMetrics.stats().expired());
+        assertEquals(VenueBookingStatus.EXPIRED, reload(lapsed.get(4)).getStatus());
+        assertEquals(VenueBookingStatus.PENDING_PAYMENT, reload(live).getStatus());
+    }
+
+    @Test
+    void aLateConfirmationForAFreeSlotIsConfirmed() {
+        VenueBooking expired = createBooking(VenueBookingStatus.EXPIRED, OffsetDateTime.now().minusMinutes(1), 0);
+        entityManager.flush();
+        VenueBookingHoldMetrics.Stats before = holdMetrics.stats();
+
+        VenueBookingResponse response = venueBookingService.confirmPayment(expired.getId(),
+                new ConfirmVenueBookingPaymentRequest("pay-late"));
+
+        assertEquals(VenueBookingStatus.CONFIRMED, response.getStatus());
+        assertEquals("pay-late", response.getPaymentReference());
+        assertEquals(before.lateConfirmations() + 1, holdMetrics.stats().lateConfirmations());
+        assertEquals(before.refundsRequired(), holdMetrics.stats().refundsRequired());
+    }
+
+    @Test
+    void aLateConfirmationForATakenSlotRequiresARefund() {
+        VenueBooking lapsed = createBooking(VenueBookingStatus.PENDING_PAYMENT, OffsetDateTime.now().minusMinutes(1), 0);
+        createBooking(VenueBookingStatus.CONFIRMED, null, 0);
+        entityManager.flush();
+        VenueBookingHoldMetrics.Stats before = holdMetrics.stats();
+
+        VenueBookingResponse response = venueBookingService.confirmPayment(lapsed.getId(),
+                new ConfirmVenueBookingPaymentRequest("pay-late"));
+
+        assertEquals(VenueBookingStatus.REFUND_REQUIRED, response.getStatus());
+        assertEquals("pay-late", response.getPaymentReference());
+        assertEquals(before.lateConfirmations(), holdMetrics.stats().lateConfirmations());
+        assertEquals(before.refundsRequired() + 1, holdMetrics.stats().refundsRequired());
+    }
+
+    private int convert(VenueBooking booking, OffsetDateTime now) {
+        return venueBookingRepository.convertLiveHold(booking.getId(), "pay-" + booking.getId(),
+                VenueBookingStatus.CONFIRMED, VenueBookingStatus.PENDING_PAYMENT, now);
+    }
+
+    private VenueBooking reload(VenueBooking booking) {
+        return venueBookingRepository.findById(booking.getId()).orElseThrow();
+    }
+
+    /**
+     * A one-hour booking starting {@code hourOffset} hours after the test slot.
+     */
+    private VenueBooking createBooking(VenueBookingStatus status, OffsetDateTime holdExpiresAt, int hourOffset) {
+        VenueBooking booking = VenueBooking.builder()
+                .venue(venue)
+                .user(user)
+                .startTime(slotStart.plusHours(hourOffset))
+                .endTime(slotStart.plusHours(hourOffset + 1))
+                .rentType(RentType.HOURLY)
+                .totalPrice(BigDecimal.TEN)
+                .status(status)
+                .holdExpiresAt(holdExpiresAt)
+                .build();
+        entityManager.persist(booking);
+        return booking;
+    }
+}
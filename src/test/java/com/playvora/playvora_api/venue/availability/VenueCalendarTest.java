@@ -0,0 +1,164 @@
+package com.playvora.playvora_api.venue.availability;
+
+import com.playvora.playvora_api.venue.dtos.AvailabilitySlot;
+import com.playvora.playvora_api.venue.enums.AvailabilitySlotStatus;
+import com.playvora.playvora_api.venue.enums.VenueBookingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static com.playvora.playvora_api.venue.enums.AvailabilitySlotStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VenueCalendarTest {
+
+    // A Monday
+    private static final OffsetDateTime MONDAY = OffsetDateTime.of(2030, 1, 7, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final Instant LONG_AGO = Instant.EPOCH;
+
+    private static final OpeningHours WEEKDAYS_9_TO_17 = new OpeningHours(LocalTime.of(9, 0), LocalTime.of(17, 0),
+            EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+
+    @Test
+    void overlapChecksUseHalfOpenRanges() {
+        VenueCalendar calendar = VenueCalendar.of(List.of(booking(10, 12), booking(14, 15)));
+
+        assertTrue(calendar.isBooked(at(11), at(13)));
+        assertTrue(calendar.isBooked(at(9), at(16)));
+        assertTrue(calendar.isBooked(at(14).plusSeconds(1), at(14).plusSeconds(2)));
+        assertFalse(calendar.isBooked(at(12), at(14)));
+        assertFalse(calendar.isBooked(at(8), at(10)));
+        assertFalse(calendar.isBooked(at(15), at(17)));
+    }
+
+    @Test
+    void overlappingAndAdjacentBookingsAreMerged() {
+        VenueCalendar calendar = VenueCalendar.of(List.of(booking(13, 14), booking(10, 12), booking(11, 13), booking(16, 17)));
+
+        assertEquals(2, calendar.size());
+        assertTrue(calendar.isBooked(at(12), at(13)));
+        assertFalse(calendar.isBooked(at(14), at(16)));
+    }
+
+    @Test
+    void matchesALinearScanOnRandomBookings() {
+        SplittableRandom rnd = new SplittableRandom(18);
+        List<BookedInterval> bookings = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int start = rnd.nextInt(10_000);
+            bookings.add(new BookedInterval(MONDAY.plusMinutes(start), MONDAY.plusMinutes(start + 1 + rnd.nextInt(30))));
+        }
+        VenueCalendar calendar = VenueCalendar.of(bookings);
+
+        for (int i = 0; i < 10_000; i++) {
+            int start = rnd.nextInt(10_100);
+            OffsetDateTime from = MONDAY.plusMinutes(start);
+            OffsetDateTime to = from.plusMinutes(1 + rnd.nextInt(60));
+            boolean expected = bookings.stream()
+                    .anyMatch(b -> b.startTime().isBefore(to) && b.endTime().isAfter(from));
+            assertEquals(expected, calendar.isBooked(from.toInstant(), to.toInstant()), () -> "range " + from + " - " + to);
+        }
+    }
+
+    @Test
+    void slotsCombineBookingsWithOpeningHours() {
+        VenueCalendar calendar = VenueCalendar.of(List.of(booking(10, 11), booking(12, 12.5)));
+
+        List<AvailabilitySlot> slots = calendar.slots(WEEKDAYS_9_TO_17, MONDAY.plusHours(8), MONDAY.plusHours(18),
+                Duration.ofHours(1), LONG_AGO);
+
+        assertEquals(List.of(CLOSED, FREE, BOOKED, FREE, BOOKED, FREE, FREE, FREE, FREE, CLOSED), statuses(slots));
+        assertEquals(MONDAY.plusHours(8), slots.get(0).getStartTime());
+        assertEquals(MONDAY.plusHours(18), slots.get(9).getEndTime());
+    }
+
+    @Test
+    void slotsBeforeNowAreReportedAsPast() {
+        List<AvailabilitySlot> slots = VenueCalendar.of(List.of()).slots(WEEKDAYS_9_TO_17, MONDAY.plusHours(9),
+                MONDAY.plusHours(12), Duration.ofHours(1), at(10).plusSeconds(1));
+
+        assertEquals(List.of(PAST, PAST, FREE), statuses(slots));
+    }
+
+    @Test
+    void closedDaysAndSlotsCrossingMidnightAreClosed() {
+        OpeningHours allDay = new OpeningHours(LocalTime.MIDNIGHT, LocalTime.MAX, EnumSet.of(DayOfWeek.MONDAY));
+
+        // Monday 22:00 to Tuesday 02:00 in two-hour slots
+        List<AvailabilitySlot> slots = VenueCalendar.of(List.of()).slots(allDay, MONDAY.plusHours(22),
+                MONDAY.plusHours(26), Duration.ofHours(2), LONG_AGO);
+
+        assertEquals(List.of(CLOSED, CLOSED), statuses(slots));
+    }
+
+    @Test
+    void aTrailingPartialSlotIsDropped() {
+        List<AvailabilitySlot> slots = VenueCalendar.of(List.of()).slots(WEEKDAYS_9_TO_17, MONDAY.plusHours(9),
+                MONDAY.plusHours(10).plusMinutes(50), Duration.ofMinutes(30), LONG_AGO);
+
+        assertEquals(3, slots.size());
+        assertEquals(MONDAY.plusHours(10).plusMinutes(30), slots.get(2).getEndTime());
+    }
+
+    @Test
+    void openingHoursAreAppliedInTheOffsetOfTheRange() {
+        OffsetDateTime nineInLagos = OffsetDateTime.of(2030, 1, 7, 9, 0, 0, 0, ZoneOffset.ofHours(1));
+
+        List<AvailabilitySlot> slots = VenueCalendar.of(List.of()).slots(WEEKDAYS_9_TO_17, nineInLagos.minusHours(1),
+                nineInLagos.plusHours(1), Duration.ofHours(1), LONG_AGO);
+
+        assertEquals(List.of(CLOSED, FREE), statuses(slots));
+    }
+
+    @Test
+    void liveHoldsAreHeldUntilTheyExpire() {
+        // Confirmed 10-11, held 11-12 until 09:15, held 13-14 until 09:45
+        VenueCalendar calendar = VenueCalendar.of(List.of(booking(10, 11),
+                hold(11, 12, MONDAY.plusHours(9).plusMinutes(15)), hold(13, 14, MONDAY.plusHours(9).plusMinutes(45))));
+        Instant nine = at(9);
+
+        assertFalse(calendar.isBooked(at(11), at(12)));
+        assertTrue(calendar.isHeld(at(11), at(12), nine));
+        assertFalse(calendar.isHeld(at(12), at(13), nine));
+
+        assertEquals(List.of(BOOKED, HELD, FREE, HELD), statuses(calendar.slots(WEEKDAYS_9_TO_17,
+                MONDAY.plusHours(10), MONDAY.plusHours(14), Duration.ofHours(1), nine)));
+        // At 09:30 the first hold has lapsed, without rebuilding the calendar
+        assertEquals(List.of(BOOKED, FREE, FREE, HELD), statuses(calendar.slots(WEEKDAYS_9_TO_17,
+                MONDAY.plusHours(10), MONDAY.plusHours(14), Duration.ofHours(1), nine.plusSeconds(30 * 60))));
+    }
+
+    @Test
+    void holdsAreNotMergedIntoConfirmedRuns() {
+        VenueCalendar calendar = VenueCalendar.of(List.of(booking(10, 11), hold(11, 12, MONDAY.plusHours(12))));
+
+        assertFalse(calendar.isBooked(at(11), at(12)));
+        assertEquals(2, calendar.size());
+    }
+
+    private static BookedInterval hold(double fromHour, double toHour, OffsetDateTime expiresAt) {
+        return new BookedInterval(MONDAY.plusMinutes((long) (fromHour * 60)), MONDAY.plusMinutes((long) (toHour * 60)),
+                VenueBookingStatus.PENDING_PAYMENT, expiresAt);
+    }
+
+    private static BookedInterval booking(double fromHour, double toHour) {
+        return new BookedInterval(MONDAY.plusMinutes((long) (fromHour * 60)), MONDAY.plusMinutes((long) (toHour * 60)));
+    }
+
+    private static Instant at(int hour) {
+        return MONDAY.plusHours(hour).toInstant();
+    }
+
+    private static List<AvailabilitySlotStatus> statuses(List<AvailabilitySlot> slots) {
+        return slots.stream().map(AvailabilitySlot::getStatus).toList();
+    }
+}
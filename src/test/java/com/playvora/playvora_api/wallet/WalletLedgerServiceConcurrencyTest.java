@@ -0,0 +1,187 @@
+package com.playvora.playvora_api.wallet;
+
+import com.playvora.playvora_api.common.exception.BadRequestException;
+import com.playvora.playvora_api.payment.enums.TransactionType;
+import com.playvora.playvora_api.wallet.dto.WalletLedgerEntry;
+import com.playvora.playvora_api.wallet.dto.WalletLedgerResult;
+import com.playvora.playvora_api.wallet.services.impl.WalletLedgerService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the wallet ledger against an in-memory H2 database (no Spring context) with many threads
+ * debiting the same wallet at once. The balance must come out exact and never negative, with one
+ * transactions row per applied debit.
+ */
+class WalletLedgerServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private WalletLedgerService ledgerService;
+    private UUID walletId;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:wallet-ledger-" + UUID.randomUUID() + ";MODE=PostgreSQL;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE wallets (
+                    id UUID PRIMARY KEY,
+                    user_id UUID NOT NULL,
+                    currency VARCHAR(3) NOT NULL,
+                    balance DECIMAL(10, 2) NOT NULL CHECK (balance >= 0),
+                    updated_at TIMESTAMP WITH TIME ZONE
+                )""");
+        jdbcTemplate.execute("""
+                CREATE TABLE transactions (
+                    id UUID PRIMARY KEY,
+                    user_id UUID NOT NULL,
+                    wallet_id UUID,
+                    payment_id UUID,
+                    match_id UUID,
+                    type VARCHAR(50) NOT NULL,
+                    amount DECIMAL(10, 2) NOT NULL,
+                    currency VARCHAR(3) NOT NULL,
+                    description VARCHAR(255),
+                    external_reference VARCHAR(255),
+                    idempotency_key VARCHAR(150) UNIQUE,
+                    created_at TIMESTAMP WITH TIME ZONE,
+                    updated_at TIMESTAMP WITH TIME ZONE
+                )""");
+
+        walletId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO wallets (id, user_id, currency, balance) VALUES (?, ?, 'GBP', 1000.00)",
+                walletId, UUID.randomUUID());
+
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        ledgerService = new WalletLedgerService(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    void parallelDebitsKeepAnExactBalanceAndNeverOverdraw() throws Exception {
+        // 4000 debits of 0.50 against 1000.00: exactly 2000 can succeed
+        int attempts = 4000;
+        List<Callable<Boolean>> debits = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            String key = "match-fee:" + UUID.randomUUID();
+            debits.add(() -> {
+                try {
+                    transactionTemplate.execute(status -> ledgerService.debit(entry(new BigDecimal("0.50"), key)));
+                    return true;
+                } catch (BadRequestException insufficient) {
+                    return false;
+                }
+            });
+        }
+
+        long succeeded = runInParallel(debits).stream().filter(Boolean::booleanValue).count();
+
+        assertEquals(2000, succeeded);
+        assertEquals(0, balance().compareTo(BigDecimal.ZERO));
+        assertEquals(2000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Integer.class));
+        assertEquals(0, new BigDecimal("-1000.00").compareTo(
+                jdbcTemplate.queryForObject("SELECT SUM(amount) FROM transactions", BigDecimal.class)));
+    }
+
+    @Test
+    void parallelCreditsAndDebitsBalanceOut() throws Exception {
+        List<Callable<Boolean>> operations = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            WalletLedgerEntry credit = entry(new BigDecimal("1.25"), "wallet-topup:" + UUID.randomUUID());
+            credit.setType(TransactionType.WALLET_TOPUP);
+            WalletLedgerEntry debit = entry(new BigDecimal("1.25"), "match-fee:" + UUID.randomUUID());
+            operations.add(() -> transactionTemplate.execute(status -> ledgerService.credit(credit)) != null);
+            operations.add(() -> transactionTemplate.execute(status -> ledgerService.debit(debit)) != null);
+        }
+
+        runInParallel(operations);
+
+        assertEquals(0, new BigDecimal("1000.00").compareTo(balance()));
+        assertEquals(2000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Integer.class));
+    }
+
+    @Test
+    void repeatedOperationWithSameKeyIsAppliedOnce() throws Exception {
+        WalletLedgerEntry entry = entry(new BigDecimal("10.00"), "match-fee:" + UUID.randomUUID());
+        List<Callable<Boolean>> retries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            retries.add(() -> {
+                try {
+                    WalletLedgerResult result = transactionTemplate.execute(status -> ledgerService.debit(entry));
+                    return result != null && !result.replayed();
+                } catch (BadRequestException concurrentDuplicate) {
+                    return false;
+                }
+            });
+        }
+
+        long applied = runInParallel(retries).stream().filter(Boolean::booleanValue).count();
+
+        assertEquals(1, applied);
+        assertEquals(0, new BigDecimal("990.00").compareTo(balance()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Integer.class));
+
+        WalletLedgerResult replay = transactionTemplate.execute(status -> ledgerService.debit(entry));
+        assertNotNull(replay);
+        assertTrue(replay.replayed());
+        assertEquals(0, new BigDecimal("990.00").compareTo(replay.balance()));
+    }
+
+    @Test
+    void reusingKeyForDifferentAmountIsRejected() {
+        String key = "match-fee:" + UUID.randomUUID();
+        transactionTemplate.execute(status -> ledgerService.debit(entry(new BigDecimal("5.00"), key)));
+
+        assertThrows(BadRequestException.class,
+                () -> transactionTemplate.execute(status -> ledgerService.debit(entry(new BigDecimal("6.00"), key))));
+        assertEquals(0, new BigDecimal("995.00").compareTo(balance()));
+    }
+
+    private WalletLedgerEntry entry(BigDecimal amount, String idempotencyKey) {
+        return WalletLedgerEntry.builder()
+                .walletId(walletId)
+                .amount(amount)
+                .type(TransactionType.MATCH_PAYMENT)
+                .description("test")
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM wallets WHERE id = ?", BigDecimal.class, walletId);
+    }
+
+    private static <T> List<T> runInParallel(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}